@@ -10,6 +10,8 @@ import com.musala.atmosphere.client.entity.GestureEntity;
 import com.musala.atmosphere.client.entity.ImageEntity;
 import com.musala.atmosphere.client.entity.ImeEntity;
 import com.musala.atmosphere.client.exceptions.InvalidCssQueryException;
+import com.musala.atmosphere.client.snapshot.UiHierarchyNode;
+import com.musala.atmosphere.client.snapshot.UiHierarchySnapshot;
 import com.musala.atmosphere.client.uiutils.CssToXPathConverter;
 import com.musala.atmosphere.commons.exceptions.UiElementFetchingException;
 import com.musala.atmosphere.commons.ui.selector.UiElementSelector;
@@ -25,6 +27,8 @@ import com.musala.atmosphere.commons.ui.tree.AccessibilityElement;
 public class AccessibilityUiElement extends UiElement {
     private static final Logger LOGGER = Logger.getLogger(AccessibilityUiElement.class);
 
+    private UiHierarchySnapshot snapshot;
+
     protected AccessibilityUiElement(AccessibilityElement properties,
             GestureEntity gestureEntity,
             ImeEntity imeEntity,
@@ -34,8 +38,39 @@ public class AccessibilityUiElement extends UiElement {
         super(properties, gestureEntity, imeEntity, settingsEntity, imageEntity, elementEntity);
     }
 
+    AccessibilityUiElement(AccessibilityElement properties,
+            GestureEntity gestureEntity,
+            ImeEntity imeEntity,
+            DeviceSettingsEntity settingsEntity,
+            ImageEntity imageEntity,
+            AccessibilityElementEntity elementEntity,
+            long screenEpoch,
+            UiHierarchySnapshot snapshot) {
+        super(properties, gestureEntity, imeEntity, settingsEntity, imageEntity, elementEntity, screenEpoch);
+        this.snapshot = snapshot;
+    }
+
     AccessibilityUiElement(UiElement uiElement) {
         super(uiElement);
+        if (uiElement instanceof AccessibilityUiElement) {
+            snapshot = ((AccessibilityUiElement) uiElement).snapshot;
+        }
+    }
+
+    /**
+     * Fetches this element again together with its subtree in a single request. Child queries on the returned element
+     * are answered locally while the screen does not change, so walking the subtree does not need a request per
+     * element. The request dumps the hierarchy of the whole screen, so it pays off only when several child queries
+     * follow; for a single query use the child lookups of the element directly.
+     *
+     * @param depth
+     *        - the number of descendant levels to fetch
+     * @return a {@link UiElement} for this element, backed by its subtree
+     * @throws UiElementFetchingException
+     *         if the element is not present on the screen anymore
+     */
+    public UiElement fetchWithSubtree(int depth) throws UiElementFetchingException {
+        return elementEntity.getElementFromFullDump(getIdentity(), depth);
     }
 
     @Override
@@ -43,6 +78,12 @@ public class AccessibilityUiElement extends UiElement {
         AccessibilityElement accessibilityElement = (AccessibilityElement) propertiesContainer;
         boolean directChildrenOnly = false;
         boolean visibleNodesOnly = true;
+
+        UiHierarchyNode snapshotNode = getSnapshotNode();
+        if (snapshotNode != null) {
+            return wrapSnapshotChildren(snapshot.getChildElements(snapshotNode, childrenSelector, directChildrenOnly));
+        }
+
         List<AccessibilityElement> children = elementEntity.getChildren(accessibilityElement,
                                                                         childrenSelector,
                                                                         directChildrenOnly,
@@ -61,6 +102,12 @@ public class AccessibilityUiElement extends UiElement {
         AccessibilityElement accessibilityElement = (AccessibilityElement) propertiesContainer;
         boolean directChildrenOnly = true;
         boolean visibleNodesOnly = true;
+
+        UiHierarchyNode snapshotNode = getSnapshotNode();
+        if (snapshotNode != null) {
+            return wrapSnapshotChildren(snapshot.getChildElements(snapshotNode, childrenSelector, directChildrenOnly));
+        }
+
         List<AccessibilityElement> children = elementEntity.getChildren(accessibilityElement,
                                                                         childrenSelector,
                                                                         directChildrenOnly,
@@ -71,11 +118,22 @@ public class AccessibilityUiElement extends UiElement {
 
     @Override
     public boolean revalidate() {
-        return elementEntity.revalidate(propertiesContainer);
+        AccessibilityElement resolvedElement = elementEntity.resolve(getIdentity());
+        if (resolvedElement == null) {
+            return false;
+        }
+
+        propertiesContainer = resolvedElement;
+        return true;
     }
 
     @Override
     public List<UiElement> getChildrenByXPath(String xpathQuery) throws UiElementFetchingException {
+        UiHierarchyNode snapshotNode = getSnapshotNode();
+        if (snapshotNode != null) {
+            return wrapSnapshotChildren(snapshot.getChildElementsByXPath(snapshotNode, xpathQuery));
+        }
+
         return elementEntity.getChildrenByXPath(xpathQuery, true, propertiesContainer);
     }
 
@@ -92,4 +150,27 @@ public class AccessibilityUiElement extends UiElement {
 
         return getChildrenByXPath(convertedXPathQuery);
     }
+
+    /**
+     * Gets the node of this element in the snapshot it was found in, if child queries can be answered from it.
+     *
+     * @return the {@link UiHierarchyNode} of this element, or <code>null</code> if the element was not found in a
+     *         snapshot or the screen changed since the snapshot was taken
+     */
+    private UiHierarchyNode getSnapshotNode() {
+        if (snapshot == null || elementEntity.getScreenEpoch() != snapshot.getScreenEpoch()) {
+            return null;
+        }
+
+        return snapshot.getNode((AccessibilityElement) propertiesContainer);
+    }
+
+    private List<UiElement> wrapSnapshotChildren(List<AccessibilityElement> children)
+        throws UiElementFetchingException {
+        if (children.isEmpty()) {
+            throw new UiElementFetchingException("No elements found matching the given selector.");
+        }
+
+        return elementEntity.wrapAccessibilityElements(children, snapshot.getScreenEpoch(), snapshot);
+    }
 }
@@ -5,6 +5,7 @@ import java.text.SimpleDateFormat;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 import org.apache.log4j.Logger;
@@ -119,7 +120,7 @@ public class DatePicker extends PickerView {
         super(screen);
         pickerHelper = new PickerHelper(screen);
 
-        evaluatePickerIndexes();
+        evaluatePickerIndexes(pickerHelper.getNumberPickerFieldValues());
     }
 
     @Override
@@ -127,10 +128,15 @@ public class DatePicker extends PickerView {
         String year = String.valueOf(calendar.get(Calendar.YEAR));
         String day = String.valueOf(calendar.get(Calendar.DAY_OF_MONTH));
         String month = Month.getStringRepresentation(calendar.get(Calendar.MONTH) + 1);
-        boolean setTextResult = setText(year, yearPickerIndex);
-        setTextResult &= setText(day, dayPickerIndex);
-        setTextResult &= setText(month, monthPickerIndex);
-        return setTextResult;
+
+        // The day is set last, so its picker already shows the days of the requested month.
+        pickerHelper.setNumberPickerRange(dayPickerIndex, 1, calendar.getActualMaximum(Calendar.DAY_OF_MONTH));
+
+        Map<Integer, String> values = new LinkedHashMap<>();
+        values.put(yearPickerIndex, year);
+        values.put(monthPickerIndex, month);
+        values.put(dayPickerIndex, day);
+        return pickerHelper.setNumberPickerFieldValues(values);
     }
 
     /**
@@ -143,7 +149,7 @@ public class DatePicker extends PickerView {
      *         if multiple NumberPicker or matching EditText elements are present
      */
     public int getYear() throws MultipleElementsFoundException, UiElementFetchingException {
-        String year = pickerHelper.getNumberPickerFieldValue(yearPickerIndex);
+        String year = pickerHelper.getNumberPickerFieldValues().get(yearPickerIndex);
         int yearNumber = Integer.parseInt(year);
         return yearNumber;
     }
@@ -158,7 +164,7 @@ public class DatePicker extends PickerView {
      *         if more than one NumberPicker or EditText element is present
      */
     public int getDay() throws MultipleElementsFoundException, UiElementFetchingException {
-        String day = pickerHelper.getNumberPickerFieldValue(dayPickerIndex);
+        String day = pickerHelper.getNumberPickerFieldValues().get(dayPickerIndex);
         int dayNumber = Integer.parseInt(day);
         return dayNumber;
     }
@@ -173,9 +179,10 @@ public class DatePicker extends PickerView {
      *         if more than one NumberPicker or EditText is found
      */
     public int getMonth() throws MultipleElementsFoundException, UiElementFetchingException {
-        evaluatePickerIndexes();
+        Map<Integer, String> values = pickerHelper.getNumberPickerFieldValues();
+        evaluatePickerIndexes(values);
 
-        String month = pickerHelper.getNumberPickerFieldValue(monthPickerIndex);
+        String month = values.get(monthPickerIndex);
         int monthNumber = Month.getIntValue(month);
         return monthNumber;
     }
@@ -184,9 +191,10 @@ public class DatePicker extends PickerView {
     public Calendar getValue() throws MultipleElementsFoundException, UiElementFetchingException {
 
         String date;
-        String month = pickerHelper.getNumberPickerFieldValue(monthPickerIndex);
-        String day = pickerHelper.getNumberPickerFieldValue(dayPickerIndex);
-        String year = pickerHelper.getNumberPickerFieldValue(yearPickerIndex);
+        Map<Integer, String> values = pickerHelper.getNumberPickerFieldValues();
+        String month = values.get(monthPickerIndex);
+        String day = values.get(dayPickerIndex);
+        String year = values.get(yearPickerIndex);
 
         String monthNumberValue = Month.getIntValue(month).toString();
         date = String.format(DATE_FORMATTER, day, monthNumberValue, year);
@@ -212,9 +220,10 @@ public class DatePicker extends PickerView {
     public String getStringValue() throws MultipleElementsFoundException, UiElementFetchingException {
 
         String date;
-        String month = pickerHelper.getNumberPickerFieldValue(monthPickerIndex);
-        String day = pickerHelper.getNumberPickerFieldValue(dayPickerIndex);
-        String year = pickerHelper.getNumberPickerFieldValue(yearPickerIndex);
+        Map<Integer, String> values = pickerHelper.getNumberPickerFieldValues();
+        String month = values.get(monthPickerIndex);
+        String day = values.get(dayPickerIndex);
+        String year = values.get(yearPickerIndex);
 
         date = String.format(DATE_FORMATTER, month, day, year);
         return date;
@@ -224,16 +233,19 @@ public class DatePicker extends PickerView {
     /**
      * Finds the index of all DatePicker fields.
      *
+     * @param values
+     *        - the values of the number pickers, keyed by picker index
      * @throws UiElementFetchingException
      *         if the NumberPicker or EditText elements are not present.
-     * @throws MultipleElementsFoundException
-     *         if more than one NumberPicker or EditText element is present
      */
-    private void evaluatePickerIndexes() throws MultipleElementsFoundException, UiElementFetchingException {
+    private void evaluatePickerIndexes(Map<Integer, String> values) throws UiElementFetchingException {
         String pickerValue;
 
         for (int index = FIRST_POSIBLE_INDEX; index <= LAST_POSIBLE_INDEX; index++) {
-            pickerValue = pickerHelper.getNumberPickerFieldValue(index);
+            pickerValue = values.get(index);
+            if (pickerValue == null) {
+                throw new UiElementFetchingException(String.format("No number picker with index %d was found.", index));
+            }
 
             try {
                 int pickerNumericValue = Integer.parseInt(pickerValue);
@@ -265,28 +277,4 @@ public class DatePicker extends PickerView {
         Date parsedDate = dateFormat.parse(date);
         return parsedDate;
     }
-
-    /**
-     * Sets the text of a NumberPicker EditText field
-     *
-     * @param value
-     *        - the text that should be set in the EditText field
-     * @param pickerInstance
-     *        - the Index of the NumberPicker that contains the EditText
-     * @return - true if setting of the text is successful and false otherwise.
-     * @throws UiElementFetchingException
-     *         if the NumberPicker or EditText elements are not present.
-     * @throws MultipleElementsFoundException
-     *         if more than one NumberPicker or EditText fields are found
-     */
-    private boolean setText(String value, int pickerIndex)
-        throws MultipleElementsFoundException,
-            UiElementFetchingException {
-
-        String currentValue = pickerHelper.getNumberPickerFieldValue(pickerIndex);
-        if (!value.equals(currentValue)) {
-            return pickerHelper.setTextInNumberPickerField(pickerIndex, value);
-        }
-        return true;
-    }
-}
\ No newline at end of file
+}
@@ -30,9 +30,16 @@ import com.musala.atmosphere.client.entity.ImageEntity;
 import com.musala.atmosphere.client.entity.ImeEntity;
 import com.musala.atmosphere.client.exceptions.ActivityStartingException;
 import com.musala.atmosphere.client.exceptions.GettingScreenshotFailedException;
+import com.musala.atmosphere.client.uiutils.GestureRecorder;
+import com.musala.atmosphere.client.uiutils.GestureRecording;
+import com.musala.atmosphere.client.uiutils.GestureSequence;
+import com.musala.atmosphere.client.uiutils.GestureSequenceResult;
 import com.musala.atmosphere.client.util.ClientConstants;
 import com.musala.atmosphere.client.util.ConfigurationPropertiesLoader;
+import com.musala.atmosphere.client.util.GestureBuilder;
 import com.musala.atmosphere.client.util.LogcatAnnotationProperties;
+import com.musala.atmosphere.client.util.QueryProfiler;
+import com.musala.atmosphere.client.util.UiSettleMetrics;
 import com.musala.atmosphere.client.util.settings.DeviceSettingsManager;
 import com.musala.atmosphere.commons.ConnectionType;
 import com.musala.atmosphere.commons.DeviceInformation;
@@ -274,7 +281,7 @@ public class Device {
      *        - the gesture to be executed.
      */
     public void executeGesture(Gesture gesture) {
-        communicator.sendAction(RoutingAction.PLAY_GESTURE, gesture);
+        gestureEntity.playGesture(gesture);
     }
 
     /**
@@ -287,6 +294,26 @@ public class Device {
         return new Screen(gestureEntity, imeEntity, settingsEntity, imageEntity, elementEntity, communicator);
     }
 
+    /**
+     * Gets the time spent waiting for the UI of this device to settle after element operations, per operation.
+     *
+     * @return the {@link UiSettleMetrics} of this device
+     */
+    public UiSettleMetrics getUiSettleMetrics() {
+        return elementEntity.getSettleMetrics();
+    }
+
+    /**
+     * Gets the profiler of the element lookups on this device. The profiler is disabled until
+     * {@link QueryProfiler#setEnabled(boolean) enabled}. Its {@link QueryProfiler#explain() explanation} shows whether
+     * a lookup was answered from a local snapshot, through an index or by a query on the device.
+     *
+     * @return the {@link QueryProfiler} of this device
+     */
+    public QueryProfiler getQueryProfiler() {
+        return elementEntity.getQueryProfiler();
+    }
+
     /**
      * Gets the airplane mode state of this device.<br>
      *
@@ -297,6 +324,19 @@ public class Device {
         return settingsEntity.getAirplaneMode();
     }
 
+    /**
+     * Allows the UI elements of this device to skip their revalidation for the given time after they were last seen
+     * on the screen, if no action that may change the screen was sent in between. Elements are always revalidated by
+     * default.
+     *
+     * @param revalidationWindow
+     *        - the time in milliseconds, or <code>0</code> to always revalidate the elements
+     * @see DeviceCommunicator#setRevalidationWindow(long)
+     */
+    public void setElementRevalidationWindow(long revalidationWindow) {
+        communicator.setRevalidationWindow(revalidationWindow);
+    }
+
     DeviceCommunicator getCommunicator() {
         return communicator;
     }
@@ -627,14 +667,17 @@ public class Device {
     }
 
     /**
-     * Simulates random finger actions on the screen of this device.
+     * Simulates random finger actions on the screen of this device. Use a {@link GestureFuzzer} to play a reproducible
+     * stream of random events.
      *
      * @return <code>true</code> if the random multi-touch event execution is successful, <code>false</code> if it
      *         fails.
      */
     public boolean randomMultiTouchevent() {
-        // TODO implement device.randomMultiTouchEvent()
-        return false;
+        GestureFuzzer fuzzer = new GestureFuzzer(this, System.nanoTime());
+        fuzzer.setEventTypes(GestureFuzzer.EventType.PINCH_IN, GestureFuzzer.EventType.PINCH_OUT);
+
+        return fuzzer.run(1).getFailedEventCount() == 0;
     }
 
     /**
@@ -1044,6 +1087,17 @@ public class Device {
         return gestureEntity.tapScreenLocation(tapPoint);
     }
 
+    /**
+     * Enables or disables showing the location of each tap on the screen of this device. Disabled by default, as it
+     * costs an additional request to the device per tap; enable it when debugging tests.
+     *
+     * @param isTapLocationShown
+     *        - <code>true</code> to show the tap locations, <code>false</code> otherwise
+     */
+    public void setTapLocationShown(boolean isTapLocationShown) {
+        gestureEntity.setTapLocationShown(isTapLocationShown);
+    }
+
     /**
      * Executes long press on point on the screen with given coordinates and (default) timeout for the gesture
      * {@value #LONG_PRESS_DEFAULT_TIMEOUT} ms.
@@ -1284,8 +1338,56 @@ public class Device {
      * @return <code>true</code> if the gesture is executed successfully, <code>false</code> otherwise.
      */
     public boolean playGesture(Gesture gesture) {
-        Object response = communicator.sendAction(RoutingAction.PLAY_GESTURE, gesture);
-        return response == DeviceCommunicator.VOID_SUCCESS;
+        return gestureEntity.playGesture(gesture);
+    }
+
+    /**
+     * Plays a sequence of gestures with gaps between them. The sequence is sent to the device in bounded parts, one
+     * request per part, and the playing stops at the first failed part.
+     *
+     * @param sequence
+     *        - the {@link GestureSequence} to be played
+     * @return the {@link GestureSequenceResult} with the completed steps
+     */
+    public GestureSequenceResult playGestureSequence(GestureSequence sequence) {
+        return gestureEntity.playGestureSequence(sequence);
+    }
+
+    /**
+     * Starts recording the gestures played on this device - taps, swipes and other gestures, including those played
+     * by {@link UiElement UI elements}. The recorded session can be replayed on this or other devices with
+     * {@link GestureRecording#toSequence(double, int)}.
+     *
+     * @return the {@link GestureRecorder} collecting the played gestures
+     */
+    public GestureRecorder startGestureRecording() {
+        GestureRecorder recorder = new GestureRecorder();
+        gestureEntity.setGestureRecorder(recorder);
+        return recorder;
+    }
+
+    /**
+     * Stops recording the gestures played on this device.
+     *
+     * @param recorder
+     *        - the recorder returned by {@link #startGestureRecording()}
+     * @return the {@link GestureRecording} with the gestures played while recording
+     */
+    public GestureRecording stopGestureRecording(GestureRecorder recorder) {
+        gestureEntity.setGestureRecorder(null);
+        return recorder.getRecording();
+    }
+
+    /**
+     * Simulates the gesture held by the given builder. The gesture is built right before it is sent, so the builder can
+     * be reset and reused for the next gesture.
+     *
+     * @param gestureBuilder
+     *        - the {@link GestureBuilder} holding the gesture to be executed
+     * @return <code>true</code> if the gesture is executed successfully, <code>false</code> otherwise.
+     */
+    public boolean playGesture(GestureBuilder gestureBuilder) {
+        return playGesture(gestureBuilder.build());
     }
 
     /**
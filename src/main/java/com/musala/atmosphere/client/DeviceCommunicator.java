@@ -1,6 +1,9 @@
 package com.musala.atmosphere.client;
 
 import java.rmi.RemoteException;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.log4j.Logger;
 
@@ -28,8 +31,29 @@ public class DeviceCommunicator {
 
     public static final Object VOID_SUCCESS = new Object();
 
+    /**
+     * Actions that only read the device state and can not change what is displayed on the screen. Every other action
+     * advances the {@link #getScreenEpoch() screen epoch}.
+     */
+    private static final Set<RoutingAction> SCREEN_PRESERVING_ACTIONS = EnumSet.of(RoutingAction.CHECK_ELEMENT_PRESENCE,
+                                                                                    RoutingAction.EXECUTE_XPATH_QUERY,
+                                                                                    RoutingAction.EXECUTE_XPATH_QUERY_ON_LOCAL_ROOT,
+                                                                                    RoutingAction.GET_CHILDREN,
+                                                                                    RoutingAction.GET_UI_ELEMENTS,
+                                                                                    RoutingAction.GET_UI_XML_DUMP,
+                                                                                    RoutingAction.GET_SCREENSHOT,
+                                                                                    RoutingAction.GET_DEVICE_INFORMATION,
+                                                                                    RoutingAction.GET_DEVICE_ORIENTATION,
+                                                                                    RoutingAction.GET_LAST_TOAST,
+                                                                                    RoutingAction.GET_RUNNING_TASK_IDS,
+                                                                                    RoutingAction.IS_LOCKED);
+
     private CommandFailedException lastSentActionException;
 
+    private final AtomicLong screenEpoch = new AtomicLong();
+
+    private volatile long revalidationWindow;
+
     /**
      * Creates an instance for specified client device.
      *
@@ -60,6 +84,41 @@ public class DeviceCommunicator {
         return lastSentActionException;
     }
 
+    /**
+     * Gets the current screen epoch. The epoch advances after every action that may change the screen, including the
+     * waiting actions that return when a window changes. Two equal epochs mean no such action was sent by this client in
+     * between. The application may still change its UI by itself, so equal epochs are trusted only within the
+     * {@link #getRevalidationWindow() revalidation window}.
+     *
+     * @return the current screen epoch
+     */
+    public long getScreenEpoch() {
+        return screenEpoch.get();
+    }
+
+    /**
+     * Gets the time after which an element seen on the screen is checked on the device again, even if the screen epoch
+     * did not change.
+     *
+     * @return the revalidation window in milliseconds, <code>0</code> if elements are always revalidated
+     */
+    public long getRevalidationWindow() {
+        return revalidationWindow;
+    }
+
+    /**
+     * Allows the elements to skip their revalidation for the given time after they were last seen on the screen, if no
+     * action that may change the screen was sent in between. Elements are always revalidated by default, as the
+     * application can change its UI without an action of the client, e.g. when an animation or a background load
+     * ends.
+     *
+     * @param revalidationWindow
+     *        - the time in milliseconds, or <code>0</code> to always revalidate the elements
+     */
+    public void setRevalidationWindow(long revalidationWindow) {
+        this.revalidationWindow = Math.max(0, revalidationWindow);
+    }
+
     /**
      * Requests an action invocation on the device wrapper.
      *
@@ -71,6 +130,16 @@ public class DeviceCommunicator {
      */
     public Object sendAction(RoutingAction action, Object... args) {
         lastSentActionException = null;
+        try {
+            return routeAction(action, args);
+        } finally {
+            if (!SCREEN_PRESERVING_ACTIONS.contains(action)) {
+                screenEpoch.incrementAndGet();
+            }
+        }
+    }
+
+    private Object routeAction(RoutingAction action, Object... args) {
         try {
             Object response = wrappedClientDevice.route(invocationPasskey, action, args);
             if (response == null) {
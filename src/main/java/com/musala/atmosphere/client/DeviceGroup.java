@@ -0,0 +1,250 @@
+package com.musala.atmosphere.client;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.log4j.Logger;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.musala.atmosphere.client.device.HardwareButton;
+import com.musala.atmosphere.client.uiutils.GestureRecording;
+import com.musala.atmosphere.client.uiutils.GestureSequence;
+import com.musala.atmosphere.client.uiutils.GestureSequenceResult;
+
+/**
+ * A group of devices on which the same queries and actions are executed in parallel, e.g. to repeat the same screen
+ * checks on many devices in a compatibility run. Every operation returns a {@link DeviceGroupResult} with the result of
+ * each device; a device that fails does not stop the operation on the others, and devices that do not finish before
+ * the straggler timeout are reported instead of blocking the whole group.
+ * <p>
+ * Each device has its own thread, as a blocked remote call can not be interrupted and keeps the thread of a hung
+ * device busy. Until that call returns, the device is skipped by the following operations and reported as
+ * {@link DeviceGroupResult#getBusyDevices() busy}, while the other devices of the group keep working.
+ * </p>
+ * <p>
+ * The group owns its threads and should be {@link #close() closed} when no longer used. Closing the group does not
+ * release its devices.
+ * </p>
+ */
+public class DeviceGroup implements AutoCloseable {
+    private static final Logger LOGGER = Logger.getLogger(DeviceGroup.class);
+
+    /**
+     * The default time in milliseconds to wait for all devices to complete an operation.
+     */
+    public static final long DEFAULT_STRAGGLER_TIMEOUT = 30_000;
+
+    private final List<Device> devices;
+
+    private final List<DeviceWorker> workers;
+
+    private volatile long stragglerTimeout = DEFAULT_STRAGGLER_TIMEOUT;
+
+    /**
+     * Creates a group of the given devices.
+     *
+     * @param devices
+     *        - the devices of the group
+     */
+    public DeviceGroup(List<Device> devices) {
+        if (devices.isEmpty()) {
+            throw new IllegalArgumentException("A device group needs at least one device.");
+        }
+
+        this.devices = Collections.unmodifiableList(new ArrayList<>(devices));
+        this.workers = new ArrayList<>(devices.size());
+        for (int i = 0; i < devices.size(); i++) {
+            workers.add(new DeviceWorker("device-group-" + i + "-%d"));
+        }
+    }
+
+    /**
+     * Gets the devices of this group.
+     *
+     * @return unmodifiable list with the devices, in group order
+     */
+    public List<Device> getDevices() {
+        return devices;
+    }
+
+    /**
+     * Sets the time to wait for all devices to complete an operation. Devices that do not finish in time are reported
+     * as {@link DeviceGroupResult#getStragglers() stragglers} and their operation is interrupted. A device whose
+     * operation does not respond to the interruption is skipped by the following operations until it finishes.
+     *
+     * @param stragglerTimeout
+     *        - the timeout in milliseconds
+     */
+    public void setStragglerTimeout(long stragglerTimeout) {
+        this.stragglerTimeout = stragglerTimeout;
+    }
+
+    /**
+     * Gets the time to wait for all devices to complete an operation.
+     *
+     * @return the straggler timeout in milliseconds
+     */
+    public long getStragglerTimeout() {
+        return stragglerTimeout;
+    }
+
+    /**
+     * Executes the given operation on all devices of the group in parallel. Devices still busy with an earlier
+     * operation are skipped and reported as {@link DeviceGroupResult#getBusyDevices() busy}.
+     *
+     * @param operation
+     *        - the operation to execute
+     * @return the {@link DeviceGroupResult} with the outcome on each device
+     */
+    public <T> DeviceGroupResult<T> execute(final DeviceOperation<T> operation) {
+        DeviceGroupResult<T> groupResult = new DeviceGroupResult<>(devices);
+        List<Future<T>> futures = new ArrayList<>(devices.size());
+        for (int i = 0; i < devices.size(); i++) {
+            final Device device = devices.get(i);
+            DeviceWorker worker = workers.get(i);
+            if (worker.isBusy()) {
+                groupResult.addBusyDevice(device);
+                futures.add(null);
+                continue;
+            }
+
+            futures.add(worker.submit(new Callable<T>() {
+                @Override
+                public T call() throws Exception {
+                    return operation.execute(device);
+                }
+            }));
+        }
+
+        long deadline = System.currentTimeMillis() + stragglerTimeout;
+
+        for (int i = 0; i < devices.size(); i++) {
+            Device device = devices.get(i);
+            Future<T> future = futures.get(i);
+            if (future == null) {
+                continue;
+            }
+
+            try {
+                long remainingTime = Math.max(0, deadline - System.currentTimeMillis());
+                groupResult.addResult(device, future.get(remainingTime, TimeUnit.MILLISECONDS));
+            } catch (ExecutionException e) {
+                groupResult.addFailure(device, e.getCause());
+            } catch (TimeoutException e) {
+                future.cancel(true);
+                groupResult.addStraggler(device);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                future.cancel(true);
+                groupResult.addStraggler(device);
+            }
+        }
+
+        if (!groupResult.isSuccessful()) {
+            LOGGER.warn(groupResult.getErrorReport());
+        }
+
+        return groupResult;
+    }
+
+    /**
+     * Gets the active screen of each device of the group. Queries and actions on the returned screen are executed on
+     * all devices in parallel.
+     *
+     * @return a {@link DeviceGroupScreen} with the active screen of each device
+     */
+    public DeviceGroupScreen getActiveScreen() {
+        return new DeviceGroupScreen(this);
+    }
+
+    /**
+     * Presses a hardware button on all devices of the group.
+     *
+     * @param button
+     *        - the button to press
+     * @return the {@link DeviceGroupResult} with the result of the press on each device
+     */
+    public DeviceGroupResult<Boolean> pressButton(final HardwareButton button) {
+        return execute(new DeviceOperation<Boolean>() {
+            @Override
+            public Boolean execute(Device device) {
+                return device.pressButton(button);
+            }
+        });
+    }
+
+    /**
+     * Plays a sequence of gestures on all devices of the group in parallel, e.g. to replay a
+     * {@link GestureRecording recorded} session on many devices at once.
+     *
+     * @param sequence
+     *        - the {@link GestureSequence} to be played
+     * @return the {@link DeviceGroupResult} with the outcome of the sequence on each device
+     */
+    public DeviceGroupResult<GestureSequenceResult> playGestureSequence(final GestureSequence sequence) {
+        return execute(new DeviceOperation<GestureSequenceResult>() {
+            @Override
+            public GestureSequenceResult execute(Device device) {
+                return device.playGestureSequence(sequence);
+            }
+        });
+    }
+
+    /**
+     * Stops the threads of the group. Operations still in progress are interrupted.
+     */
+    @Override
+    public void close() {
+        for (DeviceWorker worker : workers) {
+            worker.executor.shutdownNow();
+        }
+    }
+
+    /**
+     * The thread of a single device. It runs at most one operation at a time and knows if an operation, possibly
+     * cancelled but still blocked in a remote call, has not returned yet.
+     */
+    private static class DeviceWorker {
+        private final ExecutorService executor;
+
+        private final AtomicBoolean isRunning = new AtomicBoolean();
+
+        private volatile Future<?> lastTask;
+
+        DeviceWorker(String threadNameFormat) {
+            executor = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder().setDaemon(true)
+                                                                                   .setNameFormat(threadNameFormat)
+                                                                                   .build());
+        }
+
+        boolean isBusy() {
+            return isRunning.get() || (lastTask != null && !lastTask.isDone());
+        }
+
+        <T> Future<T> submit(final Callable<T> task) {
+            Future<T> future = executor.submit(new Callable<T>() {
+                @Override
+                public T call() throws Exception {
+                    isRunning.set(true);
+                    try {
+                        return task.call();
+                    } finally {
+                        isRunning.set(false);
+                    }
+                }
+            });
+
+            lastTask = future;
+            return future;
+        }
+    }
+}
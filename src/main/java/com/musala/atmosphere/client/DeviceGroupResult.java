@@ -0,0 +1,186 @@
+package com.musala.atmosphere.client;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.musala.atmosphere.client.exceptions.DeviceGroupException;
+
+/**
+ * The per-device outcome of an operation executed on a {@link DeviceGroup}. Each device of the group either
+ * {@link #getResults() completed} the operation, {@link #getFailures() failed} it, did not finish before the
+ * straggler timeout and is {@link #getStragglers() reported as a straggler}, or was {@link #getBusyDevices() skipped}
+ * as it had not finished an earlier operation yet.
+ *
+ * @param <T>
+ *        - the type of the result of the operation
+ */
+public class DeviceGroupResult<T> {
+    private final List<Device> devices;
+
+    private final Map<Device, T> results = new LinkedHashMap<>();
+
+    private final Map<Device, Throwable> failures = new LinkedHashMap<>();
+
+    private final List<Device> stragglers = new ArrayList<>();
+
+    private final List<Device> busyDevices = new ArrayList<>();
+
+    DeviceGroupResult(List<Device> devices) {
+        this.devices = devices;
+    }
+
+    void addResult(Device device, T result) {
+        results.put(device, result);
+    }
+
+    void addFailure(Device device, Throwable failure) {
+        failures.put(device, failure);
+    }
+
+    void addStraggler(Device device) {
+        stragglers.add(device);
+    }
+
+    void addBusyDevice(Device device) {
+        busyDevices.add(device);
+    }
+
+    /**
+     * Gets the results of the devices that completed the operation.
+     *
+     * @return unmodifiable map with the results, keyed by device in group order
+     */
+    public Map<Device, T> getResults() {
+        return Collections.unmodifiableMap(results);
+    }
+
+    /**
+     * Gets the result of the operation on the given device.
+     *
+     * @param device
+     *        - a device of the group
+     * @return the result of the device, or <code>null</code> if the device did not complete the operation
+     */
+    public T getResult(Device device) {
+        return results.get(device);
+    }
+
+    /**
+     * Gets the failures of the devices on which the operation threw an exception.
+     *
+     * @return unmodifiable map with the thrown exceptions, keyed by device in group order
+     */
+    public Map<Device, Throwable> getFailures() {
+        return Collections.unmodifiableMap(failures);
+    }
+
+    /**
+     * Gets the devices that did not complete the operation before the straggler timeout.
+     *
+     * @return unmodifiable list with the straggling devices, in group order
+     */
+    public List<Device> getStragglers() {
+        return Collections.unmodifiableList(stragglers);
+    }
+
+    /**
+     * Gets the devices on which the operation was not started, because an earlier operation on them, e.g. a remote
+     * call of a straggler, had not returned yet.
+     *
+     * @return unmodifiable list with the busy devices, in group order
+     */
+    public List<Device> getBusyDevices() {
+        return Collections.unmodifiableList(busyDevices);
+    }
+
+    /**
+     * Checks if the operation completed on all devices of the group.
+     *
+     * @return <code>true</code> if no device failed, straggled or was busy, <code>false</code> otherwise
+     */
+    public boolean isSuccessful() {
+        return failures.isEmpty() && stragglers.isEmpty() && busyDevices.isEmpty();
+    }
+
+    /**
+     * Checks if the operation completed on all devices and returned <code>true</code> on each of them. Useful for
+     * actions like {@link UiElement#tap() tap}, which report failure through their result.
+     *
+     * @return <code>true</code> if all devices returned <code>true</code>, <code>false</code> otherwise
+     */
+    public boolean isTrueOnAll() {
+        if (!isSuccessful()) {
+            return false;
+        }
+
+        for (T result : results.values()) {
+            if (!Boolean.TRUE.equals(result)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Throws an exception reporting all failed, straggling and busy devices, if there are any.
+     *
+     * @return this result, if the operation completed on all devices
+     * @throws DeviceGroupException
+     *         if the operation failed, timed out or was skipped on some devices; the failures of the devices are
+     *         attached as suppressed exceptions
+     */
+    public DeviceGroupResult<T> throwOnFailure() {
+        if (isSuccessful()) {
+            return this;
+        }
+
+        DeviceGroupException exception = new DeviceGroupException(getErrorReport());
+        for (Throwable failure : failures.values()) {
+            exception.addSuppressed(failure);
+        }
+
+        throw exception;
+    }
+
+    /**
+     * Describes the failed, straggling and busy devices.
+     *
+     * @return a report with one line per failed, straggling or busy device, empty if the operation completed on all
+     *         devices
+     */
+    public String getErrorReport() {
+        StringBuilder report = new StringBuilder();
+        if (!isSuccessful()) {
+            report.append(String.format("The operation did not complete on %d of %d devices.",
+                                        failures.size() + stragglers.size() + busyDevices.size(),
+                                        devices.size()));
+        }
+
+        for (Map.Entry<Device, Throwable> failure : failures.entrySet()) {
+            report.append(String.format("%n%s failed: %s", getDeviceName(failure.getKey()), failure.getValue()));
+        }
+
+        for (Device straggler : stragglers) {
+            report.append(String.format("%n%s did not finish before the straggler timeout", getDeviceName(straggler)));
+        }
+
+        for (Device busyDevice : busyDevices) {
+            report.append(String.format("%n%s is still busy with an earlier operation", getDeviceName(busyDevice)));
+        }
+
+        return report.toString();
+    }
+
+    private String getDeviceName(Device device) {
+        return String.format("device %d", devices.indexOf(device));
+    }
+
+    @Override
+    public String toString() {
+        return isSuccessful() ? String.format("completed on all %d devices", devices.size()) : getErrorReport();
+    }
+}
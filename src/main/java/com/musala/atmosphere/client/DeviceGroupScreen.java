@@ -0,0 +1,103 @@
+package com.musala.atmosphere.client;
+
+import java.util.List;
+
+import com.musala.atmosphere.commons.ui.selector.UiElementSelector;
+
+/**
+ * The active screens of the devices of a {@link DeviceGroup}. Each query or action is executed on the active screen of
+ * every device in parallel, and its outcome is reported per device.
+ */
+public class DeviceGroupScreen {
+    private final DeviceGroup deviceGroup;
+
+    DeviceGroupScreen(DeviceGroup deviceGroup) {
+        this.deviceGroup = deviceGroup;
+    }
+
+    /**
+     * Gets the UI elements matching the given selector on each device.
+     *
+     * @param selector
+     *        - contains the matching criteria
+     * @return the {@link DeviceGroupResult} with the matching elements of each device; devices on which no element
+     *         matches are reported as failed
+     */
+    public DeviceGroupResult<List<UiElement>> getElements(final UiElementSelector selector) {
+        return deviceGroup.execute(new DeviceOperation<List<UiElement>>() {
+            @Override
+            public List<UiElement> execute(Device device) throws Exception {
+                return device.getActiveScreen().getElements(selector);
+            }
+        });
+    }
+
+    /**
+     * Gets the UI element matching the given selector on each device.
+     *
+     * @param selector
+     *        - contains the matching criteria
+     * @return the {@link DeviceGroupResult} with the matching element of each device; devices on which none or more
+     *         than one element matches are reported as failed
+     */
+    public DeviceGroupResult<UiElement> getElement(final UiElementSelector selector) {
+        return deviceGroup.execute(new DeviceOperation<UiElement>() {
+            @Override
+            public UiElement execute(Device device) throws Exception {
+                return device.getActiveScreen().getElement(selector);
+            }
+        });
+    }
+
+    /**
+     * Checks on each device if an element matching the given selector appears within the given timeout.
+     *
+     * @param selector
+     *        - contains the matching criteria
+     * @param timeout
+     *        - the timeout in milliseconds
+     * @return the {@link DeviceGroupResult} with <code>true</code> for each device on which the element appeared
+     */
+    public DeviceGroupResult<Boolean> waitForElementExists(final UiElementSelector selector, final int timeout) {
+        return deviceGroup.execute(new DeviceOperation<Boolean>() {
+            @Override
+            public Boolean execute(Device device) {
+                return device.getActiveScreen().waitForElementExists(selector, timeout);
+            }
+        });
+    }
+
+    /**
+     * Taps the UI element matching the given selector on each device.
+     *
+     * @param selector
+     *        - contains the matching criteria
+     * @return the {@link DeviceGroupResult} with the result of the tap on each device
+     */
+    public DeviceGroupResult<Boolean> tap(final UiElementSelector selector) {
+        return deviceGroup.execute(new DeviceOperation<Boolean>() {
+            @Override
+            public Boolean execute(Device device) throws Exception {
+                return device.getActiveScreen().getElement(selector).tap();
+            }
+        });
+    }
+
+    /**
+     * Inputs the given text in the UI element matching the given selector on each device.
+     *
+     * @param selector
+     *        - contains the matching criteria
+     * @param text
+     *        - the text to input
+     * @return the {@link DeviceGroupResult} with the result of the input on each device
+     */
+    public DeviceGroupResult<Boolean> inputText(final UiElementSelector selector, final String text) {
+        return deviceGroup.execute(new DeviceOperation<Boolean>() {
+            @Override
+            public Boolean execute(Device device) throws Exception {
+                return device.getActiveScreen().getElement(selector).inputText(text);
+            }
+        });
+    }
+}
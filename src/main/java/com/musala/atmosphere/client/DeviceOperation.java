@@ -0,0 +1,20 @@
+package com.musala.atmosphere.client;
+
+/**
+ * An operation executed on each device of a {@link DeviceGroup}.
+ *
+ * @param <T>
+ *        - the type of the result of the operation
+ */
+public interface DeviceOperation<T> {
+    /**
+     * Executes the operation on a single device.
+     *
+     * @param device
+     *        - the device to execute the operation on
+     * @return the result of the operation on this device
+     * @throws Exception
+     *         if the operation fails on this device; the failure is reported for this device only
+     */
+    T execute(Device device) throws Exception;
+}
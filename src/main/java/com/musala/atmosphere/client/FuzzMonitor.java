@@ -0,0 +1,16 @@
+package com.musala.atmosphere.client;
+
+/**
+ * Checks the state of a device while a {@link GestureFuzzer} plays random gestures on it, e.g. to detect a crash or an
+ * ANR of the application under test. A fuzzing run stops at the first problem found by one of its monitors.
+ */
+public interface FuzzMonitor {
+    /**
+     * Checks the device for a problem.
+     *
+     * @param device
+     *        - the fuzzed device
+     * @return a description of the detected problem, or <code>null</code> if the device is fine
+     */
+    String check(Device device);
+}
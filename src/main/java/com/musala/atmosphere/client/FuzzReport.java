@@ -0,0 +1,169 @@
+package com.musala.atmosphere.client;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.musala.atmosphere.client.GestureFuzzer.EventType;
+import com.musala.atmosphere.client.uiutils.GestureRecording;
+import com.musala.atmosphere.commons.gesture.Anchor;
+import com.musala.atmosphere.commons.gesture.Gesture;
+import com.musala.atmosphere.commons.gesture.Timeline;
+
+/**
+ * The outcome of a {@link GestureFuzzer} run - the played events, the problem that stopped the run, if any, and the
+ * throughput. The run can be reproduced either by running a fuzzer with the same {@link #getSeed() seed} on a device
+ * with the same resolution, or by replaying the {@link #getRecording() recorded events}.
+ */
+public class FuzzReport {
+    private final long seed;
+
+    private final List<EventType> eventTypes;
+
+    private final GestureRecording recording;
+
+    private final int failedEventCount;
+
+    private final String problem;
+
+    private final long elapsedTime;
+
+    FuzzReport(long seed,
+               List<EventType> eventTypes,
+               GestureRecording recording,
+               int failedEventCount,
+               String problem,
+               long elapsedTime) {
+        this.seed = seed;
+        this.eventTypes = new ArrayList<>(eventTypes);
+        this.recording = recording;
+        this.failedEventCount = failedEventCount;
+        this.problem = problem;
+        this.elapsedTime = elapsedTime;
+    }
+
+    /**
+     * Gets the seed the events were generated from.
+     *
+     * @return the seed of the run
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Gets the number of played events.
+     *
+     * @return the number of events
+     */
+    public int getEventCount() {
+        return eventTypes.size();
+    }
+
+    /**
+     * Gets the types of the played events.
+     *
+     * @return unmodifiable list with the {@link EventType types}, in playing order
+     */
+    public List<EventType> getEventTypes() {
+        return Collections.unmodifiableList(eventTypes);
+    }
+
+    /**
+     * Gets the played events with the moments they were played. The recording can be replayed with
+     * {@link GestureRecording#toSequence(double, int)}, also on other devices.
+     *
+     * @return the {@link GestureRecording} of the played events
+     */
+    public GestureRecording getRecording() {
+        return recording;
+    }
+
+    /**
+     * Gets the number of events the device failed to play.
+     *
+     * @return the number of failed events
+     */
+    public int getFailedEventCount() {
+        return failedEventCount;
+    }
+
+    /**
+     * Checks if a monitor detected a problem on the device.
+     *
+     * @return <code>true</code> if the run was stopped by a detected problem, <code>false</code> otherwise
+     */
+    public boolean hasProblem() {
+        return problem != null;
+    }
+
+    /**
+     * Gets the problem that stopped the run.
+     *
+     * @return the description of the problem, or <code>null</code> if no problem was detected
+     */
+    public String getProblem() {
+        return problem;
+    }
+
+    /**
+     * Gets the duration of the run.
+     *
+     * @return the duration in milliseconds
+     */
+    public long getElapsedTime() {
+        return elapsedTime;
+    }
+
+    /**
+     * Gets the number of events played per second.
+     *
+     * @return the throughput of the run
+     */
+    public double getThroughput() {
+        return elapsedTime == 0 ? 0 : eventTypes.size() * 1000.0 / elapsedTime;
+    }
+
+    /**
+     * Describes each played event on a separate line - its type, the moment it was played relative to the start of
+     * the run, and the path of its first pointer.
+     *
+     * @return the log of the played events
+     */
+    public List<String> getEventLog() {
+        List<String> eventLog = new ArrayList<>(eventTypes.size());
+        long startTime = recording.getGestureCount() == 0 ? 0 : recording.getTimestamp(0);
+
+        for (int event = 0; event < eventTypes.size(); event++) {
+            Gesture gesture = recording.getGesture(event);
+            Timeline timeline = gesture.get(0);
+            Anchor first = timeline.get(0);
+            Anchor last = timeline.get(timeline.size() - 1);
+
+            eventLog.add(String.format("#%d %s at %d ms: (%.0f, %.0f) -> (%.0f, %.0f) in %d ms, %d pointers",
+                                       event,
+                                       eventTypes.get(event),
+                                       recording.getTimestamp(event) - startTime,
+                                       first.getX(),
+                                       first.getY(),
+                                       last.getX(),
+                                       last.getY(),
+                                       last.getTimeAfterStart(),
+                                       gesture.size()));
+        }
+
+        return eventLog;
+    }
+
+    @Override
+    public String toString() {
+        String outcome = problem == null ? "no problem detected" : "stopped by: " + problem;
+        return String.format("%d events (%d failed) from seed %d in %d ms (%.1f events/s), %s",
+                             eventTypes.size(),
+                             failedEventCount,
+                             seed,
+                             elapsedTime,
+                             getThroughput(),
+                             outcome);
+    }
+}
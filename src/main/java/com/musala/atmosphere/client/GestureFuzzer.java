@@ -0,0 +1,368 @@
+package com.musala.atmosphere.client;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.apache.log4j.Logger;
+
+import com.musala.atmosphere.client.uiutils.GestureRecorder;
+import com.musala.atmosphere.client.uiutils.GestureSequence;
+import com.musala.atmosphere.client.uiutils.GestureSequenceResult;
+import com.musala.atmosphere.client.util.GestureBuilder;
+import com.musala.atmosphere.commons.gesture.Gesture;
+import com.musala.atmosphere.commons.ui.selector.CssAttribute;
+import com.musala.atmosphere.commons.ui.selector.UiElementSelectionOption;
+import com.musala.atmosphere.commons.ui.selector.UiElementSelector;
+import com.musala.atmosphere.commons.util.Pair;
+
+/**
+ * Plays a stream of random gestures on a device ("monkey mode"), e.g. for stability soak tests. The events are
+ * generated from a seed, so a run with the same seed on a device with the same resolution plays the same events. The
+ * rate of the events can be limited, the device can be checked for crashes and ANRs by {@link FuzzMonitor monitors},
+ * and the played events are returned in a replayable {@link FuzzReport}.
+ * <p>
+ * For a higher throughput the events can be played in {@link #setBatchSize(int) batches}, each sent to the device
+ * with a single request.
+ * </p>
+ */
+public class GestureFuzzer {
+    private static final Logger LOGGER = Logger.getLogger(GestureFuzzer.class);
+
+    /**
+     * The default number of events played between two checks of the monitors.
+     */
+    public static final int DEFAULT_MONITOR_INTERVAL = 10;
+
+    private static final int MIN_EVENT_GAP = 10;
+
+    private static final int MIN_MOVE_DURATION = 100;
+
+    private static final int MAX_MOVE_DURATION = 500;
+
+    private static final float MIN_CURVE_ANGLE = 10;
+
+    private static final float MAX_CURVE_ANGLE = 300;
+
+    /**
+     * The types of the generated events.
+     */
+    public enum EventType {
+        /**
+         * A tap on a random point.
+         */
+        TAP,
+        /**
+         * A straight movement between two random points.
+         */
+        SWIPE,
+        /**
+         * Two fingers moving from random points towards their middle.
+         */
+        PINCH_IN,
+        /**
+         * Two fingers moving from the middle of two random points towards them.
+         */
+        PINCH_OUT,
+        /**
+         * An arc between two random points.
+         */
+        CURVE;
+    }
+
+    private final Device device;
+
+    private final long seed;
+
+    private final Random random;
+
+    private final GestureBuilder builder = new GestureBuilder();
+
+    private final List<FuzzMonitor> monitors = new ArrayList<>();
+
+    private List<EventType> eventTypes = Arrays.asList(EventType.values());
+
+    private double eventRate;
+
+    private int batchSize = 1;
+
+    private int monitorInterval = DEFAULT_MONITOR_INTERVAL;
+
+    private volatile boolean isStopped;
+
+    /**
+     * Creates a fuzzer for the given device.
+     *
+     * @param device
+     *        - the device to play the events on
+     * @param seed
+     *        - the seed the events are generated from
+     */
+    public GestureFuzzer(Device device, long seed) {
+        this.device = device;
+        this.seed = seed;
+        this.random = new Random(seed);
+    }
+
+    /**
+     * Sets the types of the generated events, chosen with equal probability. All types are generated by default.
+     *
+     * @param eventTypes
+     *        - the types of the generated events
+     * @return this fuzzer
+     */
+    public GestureFuzzer setEventTypes(EventType... eventTypes) {
+        if (eventTypes.length == 0) {
+            throw new IllegalArgumentException("At least one event type is required.");
+        }
+
+        this.eventTypes = Arrays.asList(eventTypes);
+        return this;
+    }
+
+    /**
+     * Limits the number of events played per second. The events are not limited by default.
+     *
+     * @param eventsPerSecond
+     *        - the maximum number of events per second, or <code>0</code> to play the events as fast as possible
+     * @return this fuzzer
+     */
+    public GestureFuzzer setEventRate(double eventsPerSecond) {
+        this.eventRate = Math.max(0, eventsPerSecond);
+        return this;
+    }
+
+    /**
+     * Sets the number of events sent to the device with a single request. Events are sent one by one by default.
+     *
+     * @param batchSize
+     *        - the number of events per request
+     * @return this fuzzer
+     */
+    public GestureFuzzer setBatchSize(int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("The batch size must be positive.");
+        }
+
+        this.batchSize = batchSize;
+        return this;
+    }
+
+    /**
+     * Adds a monitor that checks the device during the run.
+     *
+     * @param monitor
+     *        - the {@link FuzzMonitor} to be added
+     * @return this fuzzer
+     */
+    public GestureFuzzer addMonitor(FuzzMonitor monitor) {
+        monitors.add(monitor);
+        return this;
+    }
+
+    /**
+     * Sets how often the monitors check the device. The monitors are also checked at the end of the run.
+     *
+     * @param monitorInterval
+     *        - the number of events played between two checks
+     * @return this fuzzer
+     */
+    public GestureFuzzer setMonitorInterval(int monitorInterval) {
+        this.monitorInterval = Math.max(1, monitorInterval);
+        return this;
+    }
+
+    /**
+     * Stops a run in progress after the currently played events. Can be called from another thread.
+     */
+    public void stop() {
+        isStopped = true;
+    }
+
+    /**
+     * Plays the given number of random events, unless a monitor detects a problem or the run is {@link #stop()
+     * stopped} earlier.
+     *
+     * @param eventCount
+     *        - the number of events to be played
+     * @return the {@link FuzzReport} of the run
+     */
+    public FuzzReport run(int eventCount) {
+        isStopped = false;
+
+        Pair<Integer, Integer> resolution = device.getInformation().getResolution();
+        int width = resolution.getKey();
+        int height = resolution.getValue();
+        long eventInterval = eventRate == 0 ? 0 : Math.round(1000 / eventRate);
+
+        GestureRecorder recorder = new GestureRecorder();
+        List<EventType> playedTypes = new ArrayList<>();
+        int attemptedEventCount = 0;
+        int failedEventCount = 0;
+        int eventsSinceCheck = 0;
+        String problem = null;
+
+        long startTime = System.currentTimeMillis();
+        long nextEventTime = startTime;
+
+        while (attemptedEventCount < eventCount && !isStopped) {
+            waitUntil(nextEventTime);
+            if (isStopped) {
+                break;
+            }
+
+            int eventsInBatch = Math.min(batchSize, eventCount - attemptedEventCount);
+            List<EventType> batchTypes = new ArrayList<>();
+            GestureSequence batch = new GestureSequence();
+            int previousDuration = 0;
+            for (int i = 0; i < eventsInBatch; i++) {
+                EventType type = eventTypes.get(random.nextInt(eventTypes.size()));
+                Gesture event = generateEvent(type, width, height);
+                int gap = (int) Math.max(MIN_EVENT_GAP, eventInterval - previousDuration);
+
+                batch.add(event, i == 0 ? 0 : gap);
+                batchTypes.add(type);
+                previousDuration = batch.getStepEndTime(i) - batch.getStepStartTime(i);
+            }
+
+            long batchStartTime = System.currentTimeMillis();
+            int completedEventCount;
+            if (eventsInBatch == 1) {
+                completedEventCount = device.playGesture(batch.getStep(0)) ? 1 : 0;
+            } else {
+                GestureSequenceResult result = device.playGestureSequence(batch);
+                completedEventCount = result.getCompletedStepCount();
+            }
+
+            // only the played events are logged, so the recording replays exactly what the device received
+            for (int i = 0; i < completedEventCount; i++) {
+                playedTypes.add(batchTypes.get(i));
+                recorder.record(batch.getStep(i), batchStartTime + batch.getStepStartTime(i));
+            }
+
+            attemptedEventCount += eventsInBatch;
+            failedEventCount += eventsInBatch - completedEventCount;
+            nextEventTime += eventInterval * eventsInBatch;
+            eventsSinceCheck += eventsInBatch;
+            if (eventsSinceCheck >= monitorInterval || attemptedEventCount == eventCount) {
+                eventsSinceCheck = 0;
+                problem = checkMonitors();
+                if (problem != null) {
+                    LOGGER.warn(String.format("Fuzzing stopped after %d events: %s", playedTypes.size(), problem));
+                    break;
+                }
+            }
+        }
+
+        long elapsedTime = System.currentTimeMillis() - startTime;
+        return new FuzzReport(seed, playedTypes, recorder.getRecording(), failedEventCount, problem, elapsedTime);
+    }
+
+    /**
+     * Creates a monitor that reports a crash when the process of the given application is no longer running.
+     *
+     * @param packageName
+     *        - the package of the application under test
+     * @return the crash detecting {@link FuzzMonitor}
+     */
+    public static FuzzMonitor createProcessMonitor(final String packageName) {
+        return new FuzzMonitor() {
+            @Override
+            public String check(Device device) {
+                return device.isProcessRunning(packageName) ? null : "process " + packageName + " is not running";
+            }
+        };
+    }
+
+    /**
+     * Creates a monitor that reports the system dialogs shown when an application crashes or does not respond (ANR).
+     *
+     * @return the error dialog detecting {@link FuzzMonitor}
+     */
+    public static FuzzMonitor createErrorDialogMonitor() {
+        return new FuzzMonitor() {
+            @Override
+            public String check(Device device) {
+                UiElementSelector errorDialogSelector = new UiElementSelector();
+                errorDialogSelector.addSelectionAttribute(CssAttribute.RESOURCE_ID,
+                                                          UiElementSelectionOption.CONTAINS,
+                                                          "android:id/aerr_");
+
+                Screen screen = device.getActiveScreen();
+                if (!screen.waitForElementExists(errorDialogSelector, 0)) {
+                    return null;
+                }
+
+                UiElementSelector waitButtonSelector = new UiElementSelector();
+                waitButtonSelector.addSelectionAttribute(CssAttribute.RESOURCE_ID, "android:id/aerr_wait");
+                boolean isAnr = screen.waitForElementExists(waitButtonSelector, 0);
+
+                return isAnr ? "application not responding dialog is shown" : "application crash dialog is shown";
+            }
+        };
+    }
+
+    private String checkMonitors() {
+        for (FuzzMonitor monitor : monitors) {
+            String problem = monitor.check(device);
+            if (problem != null) {
+                return problem;
+            }
+        }
+
+        return null;
+    }
+
+    private Gesture generateEvent(EventType type, int width, int height) {
+        builder.reset();
+
+        float startX = random.nextFloat() * width;
+        float startY = random.nextFloat() * height;
+        float endX = random.nextFloat() * width;
+        float endY = random.nextFloat() * height;
+        int duration = MIN_MOVE_DURATION + random.nextInt(MAX_MOVE_DURATION - MIN_MOVE_DURATION + 1);
+
+        switch (type) {
+            case TAP:
+                builder.addAnchor(startX, startY, 0);
+                break;
+            case SWIPE:
+                builder.addAnchor(startX, startY, 0).addAnchor(endX, endY, duration);
+                break;
+            case PINCH_IN:
+            case PINCH_OUT:
+                float middleX = (startX + endX) / 2;
+                float middleY = (startY + endY) / 2;
+                boolean isPinchIn = type == EventType.PINCH_IN;
+                builder.startTimeline()
+                       .addAnchor(isPinchIn ? startX : middleX, isPinchIn ? startY : middleY, 0)
+                       .addAnchor(isPinchIn ? middleX : startX, isPinchIn ? middleY : startY, duration);
+                builder.startTimeline()
+                       .addAnchor(isPinchIn ? endX : middleX, isPinchIn ? endY : middleY, 0)
+                       .addAnchor(isPinchIn ? middleX : endX, isPinchIn ? middleY : endY, duration);
+                break;
+            case CURVE:
+                float angle = MIN_CURVE_ANGLE + random.nextFloat() * (MAX_CURVE_ANGLE - MIN_CURVE_ANGLE);
+                builder.addCurve(startX, startY, 0, endX, endY, duration, angle, random.nextBoolean());
+                builder.clamp(0, 0, width - 1, height - 1);
+                break;
+        }
+
+        return builder.build();
+    }
+
+    private void waitUntil(long time) {
+        long waitTime = time - System.currentTimeMillis();
+        if (waitTime <= 0) {
+            return;
+        }
+
+        try {
+            Thread.sleep(waitTime);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            isStopped = true;
+        }
+    }
+}
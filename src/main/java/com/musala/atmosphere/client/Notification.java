@@ -0,0 +1,75 @@
+package com.musala.atmosphere.client;
+
+/**
+ * A notification shown in the {@link NotificationBar notification bar}, with the texts of its standard fields. Returned
+ * by {@link NotificationBar#getNotifications()}.
+ */
+public class Notification {
+    private final UiElement element;
+
+    private final String appName;
+
+    private final String title;
+
+    private final String text;
+
+    private final String subText;
+
+    Notification(UiElement element, String appName, String title, String text, String subText) {
+        this.element = element;
+        this.appName = appName;
+        this.title = title;
+        this.text = text;
+        this.subText = subText;
+    }
+
+    /**
+     * Gets the UI element of the whole notification, which can be used to act on it.
+     *
+     * @return the {@link UiElement} of the notification
+     */
+    public UiElement getElement() {
+        return element;
+    }
+
+    /**
+     * Gets the name of the application that posted the notification. Shown only on API 24 or higher.
+     *
+     * @return the application name, or <code>null</code> if the notification does not show it
+     */
+    public String getAppName() {
+        return appName;
+    }
+
+    /**
+     * Gets the title of the notification.
+     *
+     * @return the title, or <code>null</code> if the notification has no title
+     */
+    public String getTitle() {
+        return title;
+    }
+
+    /**
+     * Gets the main text of the notification.
+     *
+     * @return the text, or <code>null</code> if the notification has no text
+     */
+    public String getText() {
+        return text;
+    }
+
+    /**
+     * Gets the secondary text of the notification.
+     *
+     * @return the secondary text, or <code>null</code> if the notification has no secondary text
+     */
+    public String getSubText() {
+        return subText;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Notification [appName=%s, title=%s, text=%s, subText=%s]", appName, title, text, subText);
+    }
+}
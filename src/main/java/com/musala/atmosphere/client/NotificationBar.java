@@ -1,5 +1,6 @@
 package com.musala.atmosphere.client;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import org.apache.log4j.Logger;
@@ -35,6 +36,14 @@ public class NotificationBar {
 
     private static final int OPEN_NOTIFICATION_BAR_TIMEOUT = 5_000;
 
+    private static final String APP_NAME_RESOURCE_ID = "android:id/app_name_text";
+
+    private static final String TITLE_RESOURCE_ID = "android:id/title";
+
+    private static final String TEXT_RESOURCE_ID = "android:id/text";
+
+    private static final String SUB_TEXT_RESOURCE_ID = "android:id/text2";
+
     private Device onDevice = null;
 
     public NotificationBar(Device onDevice) throws UiElementFetchingException {
@@ -74,11 +83,10 @@ public class NotificationBar {
      *         if element could not be found
      */
     public boolean clearAllNotifications() throws UiElementFetchingException {
-        open();
-        Screen deviceActiveScreen = onDevice.getActiveScreen();
+        Screen panelScreen = getPanelSnapshot();
 
         try {
-            UiElement clearAllNotificationsButton = deviceActiveScreen.getElementByXPath(CLEAR_ALL_NOTIFICATIONS_BUTTON_XPATH_QUERY);
+            UiElement clearAllNotificationsButton = panelScreen.getElementByXPath(CLEAR_ALL_NOTIFICATIONS_BUTTON_XPATH_QUERY);
             return clearAllNotificationsButton.tap();
         } catch (MultipleElementsFoundException e) {
             LOGGER.error(String.format("Clearing all notifications failed, because multiple elements were found for the XPath query %s",
@@ -103,17 +111,15 @@ public class NotificationBar {
     public UiElement getNotificationByXPath(String xPathQuery)
         throws MultipleElementsFoundException,
             UiElementFetchingException {
-        open();
-
         // The method first check if there is more than one notification that contains an UI element corresponding to
         // the XPath query, then it finds the the specific full size notification that contains that UI element and
         // returns it. The full size notification contains all UI elements inside it and the UI element we searched for
-        // is guaranteed to be in the its children.
+        // is guaranteed to be in the its children. All queries are answered from a single snapshot of the panel.
         String missingNotificationError = String.format(NO_NOTIFICATION_MESSAGE, xPathQuery);
 
         try {
-            Screen deviceActiveScreen = onDevice.getActiveScreen();
-            UiElement notificationBarElement = deviceActiveScreen.getElementByXPath(NOTIFICATION_BAR_XPATH_QUERY);
+            Screen panelScreen = getPanelSnapshot();
+            UiElement notificationBarElement = panelScreen.getElementByXPath(NOTIFICATION_BAR_XPATH_QUERY);
             List<UiElement> childrenNotifications = notificationBarElement.getChildrenByXPath(xPathQuery);
 
             if (childrenNotifications.size() > 1) {
@@ -123,11 +129,11 @@ public class NotificationBar {
                 throw new MultipleElementsFoundException(message);
             }
 
-            List<UiElement> allNotifications = deviceActiveScreen.getAllElementsByXPath(NOTIFICATIONS_RESOURCE_ID_XPATH_QUERY);
+            List<UiElement> allNotifications = panelScreen.getAllElementsByXPath(NOTIFICATIONS_RESOURCE_ID_XPATH_QUERY);
             for (UiElement currentNotification : allNotifications) {
-                currentNotification.getChildrenByXPath(xPathQuery);
-
-                return currentNotification;
+                if (hasChildren(currentNotification, xPathQuery)) {
+                    return currentNotification;
+                }
             }
             LOGGER.error(missingNotificationError);
             throw new UiElementFetchingException(missingNotificationError);
@@ -137,6 +143,37 @@ public class NotificationBar {
         }
     }
 
+    /**
+     * Gets all notifications in the notification bar, with the texts of their standard fields. The notifications are
+     * read from a single snapshot of the notification bar. This function can only be used on a device with API 18 or
+     * higher.
+     *
+     * @return list with the {@link Notification notifications} in the order they are shown, empty if there are none
+     * @throws UiElementFetchingException
+     *         if the notification bar could not be opened or fetched
+     */
+    public List<Notification> getNotifications() throws UiElementFetchingException {
+        Screen panelScreen = getPanelSnapshot();
+        List<Notification> notifications = new ArrayList<>();
+
+        List<UiElement> notificationElements;
+        try {
+            notificationElements = panelScreen.getAllElementsByXPath(NOTIFICATIONS_RESOURCE_ID_XPATH_QUERY);
+        } catch (UiElementFetchingException e) {
+            return notifications;
+        }
+
+        for (UiElement notificationElement : notificationElements) {
+            notifications.add(new Notification(notificationElement,
+                                               getChildText(notificationElement, APP_NAME_RESOURCE_ID),
+                                               getChildText(notificationElement, TITLE_RESOURCE_ID),
+                                               getChildText(notificationElement, TEXT_RESOURCE_ID),
+                                               getChildText(notificationElement, SUB_TEXT_RESOURCE_ID)));
+        }
+
+        return notifications;
+    }
+
     /**
      * Finds a notification in the notification bar that matches the given CSS query. This function can only be used on
      * a device with API 18 or higher.
@@ -216,4 +253,49 @@ public class NotificationBar {
 
         return getNotificationBySelector(textSelector);
     }
+
+    /**
+     * Takes a snapshot of the screen with the notification bar open. The bar is opened only if it is not open already.
+     *
+     * @return a {@link Screen#snapshot() snapshot} of the screen showing the notification bar
+     * @throws UiElementFetchingException
+     *         if the screen could not be fetched
+     */
+    private Screen getPanelSnapshot() throws UiElementFetchingException {
+        Screen panelScreen = onDevice.getActiveScreen().snapshot();
+        if (!isPanelShown(panelScreen)) {
+            open();
+            panelScreen = onDevice.getActiveScreen().snapshot();
+        }
+
+        return panelScreen;
+    }
+
+    private boolean isPanelShown(Screen screen) {
+        try {
+            screen.getFirstElement(notificationBarSelector);
+            return true;
+        } catch (UiElementFetchingException e) {
+            return false;
+        }
+    }
+
+    private static boolean hasChildren(UiElement element, String xPathQuery) {
+        try {
+            return !element.getChildrenByXPath(xPathQuery).isEmpty();
+        } catch (UiElementFetchingException e) {
+            return false;
+        }
+    }
+
+    private static String getChildText(UiElement element, String resourceId) {
+        UiElementSelector childSelector = new UiElementSelector();
+        childSelector.addSelectionAttribute(CssAttribute.RESOURCE_ID, resourceId);
+
+        try {
+            return element.getChildren(childSelector).get(0).getText();
+        } catch (UiElementFetchingException e) {
+            return null;
+        }
+    }
 }
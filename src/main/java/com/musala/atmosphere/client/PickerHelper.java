@@ -1,12 +1,22 @@
 package com.musala.atmosphere.client;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.apache.log4j.Logger;
 
 import com.musala.atmosphere.client.exceptions.MultipleElementsFoundException;
 import com.musala.atmosphere.commons.exceptions.UiElementFetchingException;
+import com.musala.atmosphere.commons.geometry.Bounds;
+import com.musala.atmosphere.commons.geometry.Point;
 import com.musala.atmosphere.commons.ui.UiElementPropertiesContainer;
 import com.musala.atmosphere.commons.ui.selector.CssAttribute;
 import com.musala.atmosphere.commons.ui.selector.UiElementSelector;
+import com.musala.atmosphere.commons.util.Pair;
 
 /**
  * Class for getting number pickers and setting text in their editText field.
@@ -16,16 +26,43 @@ import com.musala.atmosphere.commons.ui.selector.UiElementSelector;
  */
 
 public class PickerHelper {
+    private static final Logger LOGGER = Logger.getLogger(PickerHelper.class);
+
     private static final String NUMBER_PICKER_WIDGET = "android.widget.NumberPicker";
 
     private static final String TEXT_WIDGET = "android.widget.EditText";
 
+    private static final List<String> MERIDIEMS = Arrays.asList("AM", "PM");
+
+    /**
+     * The values of the non-numeric pickers that are known to wrap around, in the order they are shown.
+     */
+    private static final List<List<String>> VALUE_CYCLES = Arrays.asList(getMonths(), MERIDIEMS);
+
     private Screen screen;
 
+    private final Map<Integer, Pair<Integer, Integer>> numericRanges = new HashMap<>();
+
     public PickerHelper(Screen screen) {
         this.screen = screen;
     }
 
+    /**
+     * Sets the range of the values of a numeric picker. The values of a picker with a known range wrap around, so it is
+     * stepped the shorter way around, e.g. from 59 to 0 with a single step; a picker without a range is stepped
+     * directly.
+     *
+     * @param pickerIndex
+     *        - the index of the picker
+     * @param minValue
+     *        - the smallest value of the picker
+     * @param maxValue
+     *        - the largest value of the picker
+     */
+    public void setNumberPickerRange(int pickerIndex, int minValue, int maxValue) {
+        numericRanges.put(pickerIndex, new Pair<>(minValue, maxValue));
+    }
+
     /**
      * Gets the text from the edit text field in a number picker widget selected by the requested instance.
      * 
@@ -129,4 +166,251 @@ public class PickerHelper {
 
         return numberPickerClicked;
     }
+
+    /**
+     * Gets the values of all number pickers on the screen with a single fetch of the UI hierarchy.
+     *
+     * @return the texts of the edit text fields of the number pickers, keyed by picker index in ascending order
+     * @throws UiElementFetchingException
+     *         if there are no number pickers on the screen
+     */
+    public Map<Integer, String> getNumberPickerFieldValues() throws UiElementFetchingException {
+        Map<Integer, String> values = new TreeMap<>();
+        for (Map.Entry<Integer, NumberPickerField> pickerField : getNumberPickerFields().entrySet()) {
+            values.put(pickerField.getKey(), pickerField.getValue().field.getText());
+        }
+
+        return values;
+    }
+
+    /**
+     * Sets the values of several number pickers. All pickers are read with a single fetch of the UI hierarchy and only
+     * the ones showing a different value are changed, in the iteration order of the given map. A value is typed in the
+     * edit text field of its picker; if that fails, the picker is read again and stepped from the value it shows to
+     * the requested one with the fewest taps. The result is verified once, after all values are set.
+     *
+     * @param values
+     *        - the values to set, keyed by picker index
+     * @return <code>true</code> if all pickers show the requested values, <code>false</code> otherwise
+     * @throws UiElementFetchingException
+     *         if there are no number pickers on the screen or a picker with one of the given indexes is missing
+     */
+    public boolean setNumberPickerFieldValues(Map<Integer, String> values) throws UiElementFetchingException {
+        Map<Integer, NumberPickerField> pickerFields = getNumberPickerFields();
+        boolean isChanged = false;
+
+        for (Map.Entry<Integer, String> value : values.entrySet()) {
+            NumberPickerField pickerField = pickerFields.get(value.getKey());
+            if (pickerField == null) {
+                throw new UiElementFetchingException(String.format("No number picker with index %d was found.",
+                                                                   value.getKey()));
+            }
+
+            String currentValue = pickerField.field.getText();
+            if (isSameValue(currentValue, value.getValue())) {
+                continue;
+            }
+
+            isChanged = true;
+            boolean isSet = inputValue(pickerField, value.getValue()) || stepToValue(value.getKey(), value.getValue());
+            if (!isSet) {
+                LOGGER.error(String.format("Setting the value %s in number picker %d failed.",
+                                           value.getValue(),
+                                           value.getKey()));
+                return false;
+            }
+        }
+
+        if (!isChanged) {
+            return true;
+        }
+
+        Map<Integer, String> currentValues = getNumberPickerFieldValues();
+        for (Map.Entry<Integer, String> value : values.entrySet()) {
+            if (!isSameValue(currentValues.get(value.getKey()), value.getValue())) {
+                LOGGER.error(String.format("Number picker %d shows %s instead of %s.",
+                                           value.getKey(),
+                                           currentValues.get(value.getKey()),
+                                           value.getValue()));
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Finds all number pickers and their edit text fields in a single snapshot of the screen. The pickers that do not
+     * show their edit text field are tapped to make it visible, and read again from a second snapshot.
+     *
+     * @return the number pickers with their fields, keyed by picker index in ascending order
+     * @throws UiElementFetchingException
+     *         if there are no number pickers on the screen or the field of a picker can not be retrieved
+     */
+    private Map<Integer, NumberPickerField> getNumberPickerFields() throws UiElementFetchingException {
+        Map<Integer, NumberPickerField> pickerFields = new TreeMap<>();
+        List<UiElement> pickersWithoutField = readNumberPickerFields(pickerFields);
+        if (pickersWithoutField.isEmpty()) {
+            return pickerFields;
+        }
+
+        // We click on the pickers to make their fields visible.
+        for (UiElement numberPicker : pickersWithoutField) {
+            numberPicker.tap();
+        }
+
+        if (!readNumberPickerFields(pickerFields).isEmpty()) {
+            throw new UiElementFetchingException("Cannot retrieve number picker field.");
+        }
+
+        return pickerFields;
+    }
+
+    /**
+     * Reads the number pickers of a new snapshot of the screen and puts the ones showing their edit text field in the
+     * given map.
+     *
+     * @return the number pickers that do not show their edit text field
+     */
+    private List<UiElement> readNumberPickerFields(Map<Integer, NumberPickerField> pickerFields)
+        throws UiElementFetchingException {
+        UiElementSelector numberPickerSelector = new UiElementSelector();
+        numberPickerSelector.addSelectionAttribute(CssAttribute.CLASS_NAME, NUMBER_PICKER_WIDGET);
+
+        UiElementSelector textFieldSelector = new UiElementSelector();
+        textFieldSelector.addSelectionAttribute(CssAttribute.CLASS_NAME, TEXT_WIDGET);
+
+        List<UiElement> pickersWithoutField = new ArrayList<>();
+        for (UiElement numberPicker : screen.snapshot().getElements(numberPickerSelector)) {
+            List<UiElement> children;
+            try {
+                children = numberPicker.getChildren(textFieldSelector);
+            } catch (UiElementFetchingException e) {
+                children = new ArrayList<>();
+            }
+
+            if (children.isEmpty()) {
+                pickersWithoutField.add(numberPicker);
+            } else {
+                pickerFields.put(numberPicker.getProperties().getIndex(),
+                                 new NumberPickerField(numberPicker, children.get(0)));
+            }
+        }
+
+        return pickersWithoutField;
+    }
+
+    private boolean inputValue(NumberPickerField pickerField, String value) {
+        // Tapping the picker selects the text of its field, so the typed value replaces it.
+        return pickerField.picker.tap() && pickerField.field.inputText(value);
+    }
+
+    /**
+     * Steps the picker with the given index to the given value, by tapping the neighbouring values shown above and
+     * below its field. The picker is read again first, as a failed input may have left a partially typed value in it.
+     *
+     * @return <code>true</code> if the picker was stepped, <code>false</code> if the number of steps can not be
+     *         determined or a tap failed
+     */
+    private boolean stepToValue(int pickerIndex, String value) throws UiElementFetchingException {
+        NumberPickerField pickerField = getNumberPickerFields().get(pickerIndex);
+        if (pickerField == null) {
+            return false;
+        }
+
+        Integer steps = getStepCount(pickerField.field.getText(), value, numericRanges.get(pickerIndex));
+        if (steps == null) {
+            return false;
+        }
+
+        Bounds pickerBounds = pickerField.picker.getProperties().getBounds();
+        Bounds fieldBounds = pickerField.field.getProperties().getBounds();
+        int tapX = pickerBounds.getWidth() / 2;
+        int fieldTop = fieldBounds.getUpperLeftCorner().getY() - pickerBounds.getUpperLeftCorner().getY();
+        int fieldBottom = fieldBounds.getLowerRightCorner().getY() - pickerBounds.getUpperLeftCorner().getY();
+        Point tapPoint = steps > 0 ? new Point(tapX, (fieldBottom + pickerBounds.getHeight()) / 2)
+                : new Point(tapX, fieldTop / 2);
+
+        for (int step = 0; step < Math.abs(steps); step++) {
+            if (!pickerField.picker.tap(tapPoint)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Gets the number of steps from one picker value to another. Numeric values are stepped directly, unless the range
+     * of the picker is given; the values of pickers with a known range and of the known wrapping pickers take the
+     * shorter way around.
+     *
+     * @return the number of steps, negative to step backwards, or <code>null</code> if it can not be determined
+     */
+    static Integer getStepCount(String currentValue, String value, Pair<Integer, Integer> numericRange) {
+        try {
+            int steps = Integer.parseInt(value) - Integer.parseInt(currentValue);
+            if (numericRange == null) {
+                return steps;
+            }
+
+            return getShorterWay(steps, numericRange.getValue() - numericRange.getKey() + 1);
+        } catch (NumberFormatException e) {
+            // Not a numeric picker.
+        }
+
+        for (List<String> valueCycle : VALUE_CYCLES) {
+            int currentPosition = valueCycle.indexOf(currentValue.toUpperCase());
+            int position = valueCycle.indexOf(value.toUpperCase());
+            if (currentPosition < 0 || position < 0) {
+                continue;
+            }
+
+            return getShorterWay(position - currentPosition, valueCycle.size());
+        }
+
+        return null;
+    }
+
+    private static int getShorterWay(int steps, int cycleLength) {
+        if (steps > cycleLength / 2) {
+            return steps - cycleLength;
+        } else if (steps < -cycleLength / 2) {
+            return steps + cycleLength;
+        }
+
+        return steps;
+    }
+
+    private static List<String> getMonths() {
+        List<String> months = new ArrayList<>();
+        for (DatePicker.Month month : DatePicker.Month.values()) {
+            months.add(month.toString());
+        }
+
+        return months;
+    }
+
+    private static boolean isSameValue(String currentValue, String value) {
+        if (currentValue == null) {
+            return false;
+        }
+
+        Integer steps = getStepCount(currentValue, value, null);
+        return steps != null ? steps == 0 : currentValue.equalsIgnoreCase(value);
+    }
+
+    /**
+     * A number picker and its edit text field.
+     */
+    private static class NumberPickerField {
+        private final UiElement picker;
+
+        private final UiElement field;
+
+        NumberPickerField(UiElement picker, UiElement field) {
+            this.picker = picker;
+            this.field = field;
+        }
+    }
 }
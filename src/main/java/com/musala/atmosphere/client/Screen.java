@@ -1,21 +1,14 @@
 package com.musala.atmosphere.client;
 
 import java.io.FileNotFoundException;
-import java.io.IOException;
 import java.io.PrintStream;
-import java.io.StringReader;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
-
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
+import java.util.Map;
 
 import org.apache.log4j.Logger;
-import org.jsoup.Jsoup;
-import org.w3c.dom.Document;
-import org.xml.sax.InputSource;
-import org.xml.sax.SAXException;
 
 import com.musala.atmosphere.client.entity.AccessibilityElementEntity;
 import com.musala.atmosphere.client.entity.DeviceSettingsEntity;
@@ -24,7 +17,14 @@ import com.musala.atmosphere.client.entity.ImageEntity;
 import com.musala.atmosphere.client.entity.ImeEntity;
 import com.musala.atmosphere.client.exceptions.InvalidCssQueryException;
 import com.musala.atmosphere.client.exceptions.MultipleElementsFoundException;
+import com.musala.atmosphere.client.snapshot.UiCondition;
+import com.musala.atmosphere.client.snapshot.UiHierarchyNode;
+import com.musala.atmosphere.client.snapshot.UiHierarchySnapshot;
+import com.musala.atmosphere.client.uiutils.CompiledQuery;
 import com.musala.atmosphere.client.uiutils.CssToXPathConverter;
+import com.musala.atmosphere.client.util.QueryProfile.Plan;
+import com.musala.atmosphere.client.util.QueryProfiler;
+import com.musala.atmosphere.client.util.QueryProfiler.Trace;
 import com.musala.atmosphere.commons.RoutingAction;
 import com.musala.atmosphere.commons.exceptions.UiElementFetchingException;
 import com.musala.atmosphere.commons.ui.selector.CssAttribute;
@@ -42,8 +42,19 @@ import com.musala.atmosphere.commons.ui.tree.AccessibilityElement;
 public class Screen {
     public static final int WAIT_AND_GET_DEFAULT_TIMEOUT = 10000;
 
+    /**
+     * Returned by {@link #waitForAny(List, int)} when no condition was satisfied before the timeout.
+     */
+    public static final int NO_CONDITION_SATISFIED = -1;
+
+    private static final int WAIT_FOR_ANY_MIN_POLL_INTERVAL = 100;
+
+    private static final int WAIT_FOR_ANY_MAX_POLL_INTERVAL = 1000;
+
     private static final Logger LOGGER = Logger.getLogger(Screen.class.getCanonicalName());
 
+    private static final QueryProfiler DISABLED_QUERY_PROFILER = new QueryProfiler();
+
     private static final String TIME_PICKER_WIDGET = "android.widget.TimePicker";
 
     private static final String DATE_PICKER_WIDGET = "android.widget.DatePicker";
@@ -64,12 +75,10 @@ public class Screen {
 
     private AccessibilityElementEntity elementEntity;
 
-    private Document xPathDomDocument;
-
-    private org.jsoup.nodes.Document jSoupDocument;
-
     private final DeviceCommunicator communicator;
 
+    private UiHierarchySnapshot hierarchySnapshot;
+
     @Deprecated
 
     Screen(GestureEntity gestureEntity,
@@ -84,20 +93,6 @@ public class Screen {
         this.imageEntity = imageEntity;
         this.communicator = communicator;
         screenXml = uiHierarchyXml;
-
-        // XPath DOM Document building
-        DocumentBuilderFactory documentBuilderFactory = DocumentBuilderFactory.newInstance();
-        documentBuilderFactory.setNamespaceAware(true);
-        try {
-            DocumentBuilder documentBuilder = documentBuilderFactory.newDocumentBuilder();
-            xPathDomDocument = documentBuilder.parse(new InputSource(new StringReader(screenXml)));
-        } catch (ParserConfigurationException | SAXException | IOException e) {
-            String message = "XPath XML to DOM Document parsing failed.";
-            LOGGER.warn(message, e);
-        }
-
-        // JSoup Document building
-        jSoupDocument = Jsoup.parse(screenXml);
     }
 
     Screen(GestureEntity gestureEntity,
@@ -114,6 +109,43 @@ public class Screen {
         this.communicator = communicator;
     }
 
+    private Screen(Screen screen, UiHierarchySnapshot hierarchySnapshot) {
+        this(screen.gestureEntity,
+             screen.imeEntity,
+             screen.settingsEntity,
+             screen.imageEntity,
+             screen.elementEntity,
+             screen.communicator);
+        this.hierarchySnapshot = hierarchySnapshot;
+    }
+
+    /**
+     * Fetches the UI hierarchy of the active screen once and returns a {@link Screen} that answers element lookups
+     * locally from that copy. Lookups by {@link UiElementSelector selector}, CSS and XPath for visible elements on the
+     * returned screen do not communicate with the device, while the found elements still act on the device as usual.
+     * <p>
+     * <b>Note:</b> The returned screen does not reflect changes on the device made after it was taken. Call this method
+     * again to get a fresh snapshot. Waiting methods and lookups of invisible elements are always executed on the
+     * device.
+     * </p>
+     *
+     * @return a {@link Screen} backed by a snapshot of the current UI hierarchy
+     * @throws UiElementFetchingException
+     *         if fetching the UI hierarchy fails
+     */
+    public Screen snapshot() throws UiElementFetchingException {
+        return new Screen(this, elementEntity.getHierarchySnapshot());
+    }
+
+    /**
+     * Checks if this screen answers element lookups from a snapshot of the UI hierarchy.
+     *
+     * @return <code>true</code> if this screen was obtained through {@link #snapshot()}, <code>false</code> otherwise
+     */
+    public boolean isSnapshot() {
+        return hierarchySnapshot != null;
+    }
+
     /**
      * Updates the current {@link Screen} instance to contain the newest possible device screen information. Equivalent
      * to reinvoking the {@link Device#getActiveScreen()} method.
@@ -135,6 +167,10 @@ public class Screen {
      */
     private List<UiElement> getElements(UiElementSelector selector, Boolean visibleOnly)
         throws UiElementFetchingException {
+        if (isSnapshotLookup(visibleOnly)) {
+            return wrapSnapshotElements(getSnapshotElements(hierarchySnapshot, selector));
+        }
+
         return elementEntity.getElements(selector, visibleOnly);
     }
 
@@ -151,6 +187,45 @@ public class Screen {
         return getElements(selector, true);
     }
 
+    /**
+     * Looks up several selectors at once. The UI hierarchy is fetched from the device a single time (or not at all if
+     * this screen is a {@link #snapshot() snapshot}) and all selectors are resolved against it, instead of sending one
+     * request per selector. Searches only visible elements.
+     * <p>
+     * A selector that matches nothing does not cause an exception - its key is mapped to an empty list.
+     * </p>
+     *
+     * @param selectors
+     *        - the selectors to look up, keyed by a name chosen by the caller
+     * @return map with the UI elements matching each selector, with the same keys and in the same iteration order as
+     *         the given map
+     * @throws UiElementFetchingException
+     *         if fetching the UI hierarchy fails
+     */
+    public Map<String, List<UiElement>> getElementsBatch(Map<String, UiElementSelector> selectors)
+        throws UiElementFetchingException {
+        UiHierarchySnapshot batchSnapshot = hierarchySnapshot != null ? hierarchySnapshot
+                : elementEntity.getHierarchySnapshot();
+        Map<String, List<UiElement>> foundElements = new LinkedHashMap<>();
+        List<String> missingKeys = new ArrayList<>();
+
+        for (Map.Entry<String, UiElementSelector> selectorEntry : selectors.entrySet()) {
+            List<AccessibilityElement> matchingElements = getSnapshotElements(batchSnapshot, selectorEntry.getValue());
+            if (matchingElements.isEmpty()) {
+                missingKeys.add(selectorEntry.getKey());
+                foundElements.put(selectorEntry.getKey(), new ArrayList<UiElement>());
+            } else {
+                foundElements.put(selectorEntry.getKey(), wrapElements(matchingElements, batchSnapshot));
+            }
+        }
+
+        if (!missingKeys.isEmpty()) {
+            LOGGER.debug("No elements found for the selectors with keys " + missingKeys);
+        }
+
+        return foundElements;
+    }
+
     /**
      * Saves the underlying device UI XML into a file.
      *
@@ -273,6 +348,15 @@ public class Screen {
     public UiElement getElement(UiElementSelector selector, Boolean visibleOnly)
         throws MultipleElementsFoundException,
             UiElementFetchingException {
+        if (isSnapshotLookup(visibleOnly)) {
+            List<UiElement> uiElements = getElements(selector, visibleOnly);
+            if (uiElements.size() > 1) {
+                throw new MultipleElementsFoundException("More than one elements are found matching the given selector.");
+            }
+
+            return uiElements.get(0);
+        }
+
         return elementEntity.getElement(selector, visibleOnly);
     }
 
@@ -290,27 +374,153 @@ public class Screen {
      * @throws UiElementFetchingException
      *         if no elements are found
      */
-    @SuppressWarnings("unchecked")
     private List<UiElement> getAllElementsByXPath(String xpathQuery, boolean visibleOnly)
         throws UiElementFetchingException {
-        List<AccessibilityElement> foundElements = (List<AccessibilityElement>) communicator.sendAction(RoutingAction.EXECUTE_XPATH_QUERY,
-                                                                                                        xpathQuery,
-                                                                                                        visibleOnly);
+        return getAllElementsByXPath(xpathQuery, xpathQuery, visibleOnly);
+    }
+
+    /**
+     * Gets a list with all UI elements present on the {@link Screen active screen} and matching the given xpath query,
+     * converted from the given query.
+     *
+     * @param query
+     *        - the query given by the caller, recorded by the {@link QueryProfiler query profiler}
+     * @param xpathQuery
+     *        - the XPath query converted from the given query
+     * @param visibleOnly
+     *        - <code>true</code> to search for visible elements only and <code>false</code> to search all elements
+     * @return list with all UI elements present on the screen and matching the given selector
+     * @throws UiElementFetchingException
+     *         if no elements are found
+     */
+    @SuppressWarnings("unchecked")
+    private List<UiElement> getAllElementsByXPath(String query, String xpathQuery, boolean visibleOnly)
+        throws UiElementFetchingException {
+        if (isSnapshotLookup(visibleOnly)) {
+            Trace trace = beginQuery(query, xpathQuery, Plan.SNAPSHOT_XPATH);
+            try {
+                trace.setScannedNodes(hierarchySnapshot.size(), hierarchySnapshot.size());
+                List<AccessibilityElement> foundElements = hierarchySnapshot.getElementsByXPath(xpathQuery);
+                trace.setMatchCount(foundElements.size());
+
+                return wrapSnapshotElements(foundElements);
+            } finally {
+                trace.finish();
+            }
+        }
+
+        Trace trace = beginQuery(query, xpathQuery, Plan.REMOTE_XPATH);
+        try {
+            List<AccessibilityElement> foundElements = (List<AccessibilityElement>) communicator.sendAction(RoutingAction.EXECUTE_XPATH_QUERY,
+                                                                                                            xpathQuery,
+                                                                                                            visibleOnly);
+            trace.setMatchCount(foundElements.size());
+            if (foundElements.isEmpty()) {
+                throw new UiElementFetchingException("No elements found matching the given selector.");
+            }
+
+            return elementEntity.wrapAccessibilityElements(foundElements);
+        } finally {
+            trace.finish();
+        }
+    }
+
+    /**
+     * Looks up the given selector in the given snapshot, recording the lookup in the
+     * {@link QueryProfiler query profiler} of the device.
+     *
+     * @param snapshot
+     *        - the snapshot to search
+     * @param selector
+     *        - contains the matching criteria
+     * @return list with all matching elements, empty if none match
+     */
+    private List<AccessibilityElement> getSnapshotElements(UiHierarchySnapshot snapshot, UiElementSelector selector) {
+        Trace trace = beginQuery(selector, Plan.SNAPSHOT_SCAN);
+        try {
+            if (trace.isRecorded()) {
+                setSelectorPlan(trace, snapshot, selector);
+            }
+
+            List<AccessibilityElement> foundElements = snapshot.getElements(selector);
+            trace.setMatchCount(foundElements.size());
+
+            return foundElements;
+        } finally {
+            trace.finish();
+        }
+    }
+
+    /**
+     * Records whether a selector lookup in the given snapshot goes through an attribute index, and how many nodes it
+     * checks.
+     */
+    private static void setSelectorPlan(Trace trace, UiHierarchySnapshot snapshot, UiElementSelector selector) {
+        int candidateCount = snapshot.getIndexedCandidateCount(selector);
+        if (candidateCount < 0) {
+            trace.setScannedNodes(snapshot.size(), snapshot.size());
+        } else {
+            trace.setPlan(Plan.SNAPSHOT_INDEX);
+            trace.setScannedNodes(candidateCount, snapshot.size());
+        }
+    }
+
+    private Trace beginQuery(String query, String xpathQuery, Plan plan) {
+        return getQueryProfiler().begin(query, xpathQuery, plan);
+    }
+
+    private Trace beginQuery(UiElementSelector selector, Plan plan) {
+        return getQueryProfiler().begin(selector, plan);
+    }
+
+    private QueryProfiler getQueryProfiler() {
+        QueryProfiler queryProfiler = elementEntity == null ? null : elementEntity.getQueryProfiler();
+        return queryProfiler == null ? DISABLED_QUERY_PROFILER : queryProfiler;
+    }
+
+    /**
+     * Checks if a lookup can be answered from the snapshot of this screen. Snapshots contain only visible elements.
+     *
+     * @param visibleOnly
+     *        - <code>true</code> if the lookup is for visible elements only
+     * @return <code>true</code> if the lookup should be answered locally, <code>false</code> otherwise
+     */
+    private boolean isSnapshotLookup(boolean visibleOnly) {
+        return hierarchySnapshot != null && visibleOnly;
+    }
+
+    /**
+     * Wraps elements found in the snapshot of this screen in {@link UiElement UI elements}.
+     *
+     * @param foundElements
+     *        - the elements found in the snapshot
+     * @return list of {@link UiElement}
+     * @throws UiElementFetchingException
+     *         if no elements were found
+     */
+    private List<UiElement> wrapSnapshotElements(List<AccessibilityElement> foundElements)
+        throws UiElementFetchingException {
         if (foundElements.isEmpty()) {
             throw new UiElementFetchingException("No elements found matching the given selector.");
         }
 
-        List<UiElement> uiElements = new ArrayList<>();
-        for (AccessibilityElement element : foundElements) {
-            uiElements.add(new AccessibilityUiElement(element,
-                                                      gestureEntity,
-                                                      imeEntity,
-                                                      settingsEntity,
-                                                      imageEntity,
-                                                      elementEntity));
-        }
+        return wrapElements(foundElements, hierarchySnapshot);
+    }
 
-        return uiElements;
+    /**
+     * Wraps elements found in the given snapshot in {@link UiElement UI elements}. The elements are not revalidated on the device
+     * before an action while the screen epoch of the snapshot is still current, and their child queries are answered
+     * from the snapshot.
+     *
+     * @param accessibilityElements
+     *        - the elements to wrap
+     * @param snapshot
+     *        - the snapshot in which the elements were found
+     * @return list of {@link UiElement}
+     */
+    private List<UiElement> wrapElements(List<AccessibilityElement> accessibilityElements,
+                                         UiHierarchySnapshot snapshot) {
+        return elementEntity.wrapAccessibilityElements(accessibilityElements, snapshot.getScreenEpoch(), snapshot);
     }
 
     /**
@@ -328,7 +538,7 @@ public class Screen {
     public UiElement getElement(UiElementSelector selector)
         throws MultipleElementsFoundException,
             UiElementFetchingException {
-        return elementEntity.getElement(selector, true);
+        return getElement(selector, true);
     }
 
     /**
@@ -370,7 +580,8 @@ public class Screen {
 
         if (isElementPresent) {
             updateScreen();
-            UiElement selectedElement = getElement(selector);
+            // the element appeared after the wait started, so it is looked up on the device even for snapshots
+            UiElement selectedElement = elementEntity.getElement(selector, true);
             return selectedElement;
         } else {
             String message = "Waiting for an element matching the selector timed out, but still no such element was present.";
@@ -417,7 +628,7 @@ public class Screen {
             UiElementFetchingException {
         String xPathQuery = CssToXPathConverter.convertCssToXPath(cssQuery);
 
-        return getAllElementsByXPath(xPathQuery);
+        return getAllElementsByXPath(cssQuery, xPathQuery, true);
     }
 
     /**
@@ -438,6 +649,133 @@ public class Screen {
         return getAllElementsByXPath(xPathQuery, true);
     }
 
+    /**
+     * Gets the first visible UI element on the {@link Screen active screen} that matches the given selector. Unlike
+     * {@link #getElement(UiElementSelector)}, this method does not fail when more than one element matches and wraps
+     * only the returned element. The search on the device stops at the first match.
+     *
+     * @param selector
+     *        - contains the matching criteria
+     * @return the first matching {@link UiElement} in document order
+     * @throws UiElementFetchingException
+     *         if no element was found matching the given selector
+     */
+    public UiElement getFirstElement(UiElementSelector selector) throws UiElementFetchingException {
+        if (isSnapshotLookup(true)) {
+            Trace trace = beginQuery(selector, Plan.SNAPSHOT_SCAN);
+            try {
+                if (trace.isRecorded()) {
+                    setSelectorPlan(trace, hierarchySnapshot, selector);
+                }
+
+                AccessibilityElement foundElement = hierarchySnapshot.getFirstElement(selector);
+                trace.setMatchCount(foundElement == null ? 0 : 1);
+
+                return wrapFirstSnapshotElement(foundElement);
+            } finally {
+                trace.finish();
+            }
+        }
+
+        String cssQuery = selector.buildCssQuery();
+        return getFirstElementOnDevice(cssQuery, CssToXPathConverter.convertCssToXPath(cssQuery));
+    }
+
+    /**
+     * Gets the first visible UI element on the {@link Screen active screen} that matches the given CSS query. The
+     * search on the device stops at the first match.
+     *
+     * @param cssQuery
+     *        - CSS selector query
+     * @return the first matching {@link UiElement} in document order
+     * @throws InvalidCssQueryException
+     *         if the passed argument is invalid CSS query
+     * @throws UiElementFetchingException
+     *         if no elements are found for the passed query
+     */
+    public UiElement getFirstElementByCSS(String cssQuery)
+        throws InvalidCssQueryException,
+            UiElementFetchingException {
+        CompiledQuery compiledQuery = CssToXPathConverter.compile(cssQuery);
+        if (isSnapshotLookup(true)) {
+            Trace trace = beginQuery(cssQuery, compiledQuery.getXPathQuery(), Plan.SNAPSHOT_CSS);
+            try {
+                UiHierarchyNode foundNode = hierarchySnapshot.getFirstNodeByCss(compiledQuery.getSelectorList());
+                trace.setMatchCount(foundNode == null ? 0 : 1);
+
+                return wrapFirstSnapshotElement(foundNode == null ? null : foundNode.getElement());
+            } finally {
+                trace.finish();
+            }
+        }
+
+        return getFirstElementOnDevice(cssQuery, compiledQuery.getXPathQuery());
+    }
+
+    /**
+     * Gets the first visible UI element on the {@link Screen active screen} that matches the given XPath query. The
+     * search on the device stops at the first match.
+     * <p>
+     * <b>Note:</b> Two-word attributes should be written in camelCase. For example content-desc should be contentDesc.
+     * </p>
+     *
+     * @param xPathQuery
+     *        - an XPath query that should match the element
+     * @return the first matching {@link UiElement} in document order
+     * @throws UiElementFetchingException
+     *         if no elements are found for the passed query
+     */
+    public UiElement getFirstElementByXPath(String xPathQuery) throws UiElementFetchingException {
+        if (isSnapshotLookup(true)) {
+            Trace trace = beginQuery(xPathQuery, xPathQuery, Plan.SNAPSHOT_XPATH);
+            try {
+                trace.setScannedNodes(hierarchySnapshot.size(), hierarchySnapshot.size());
+                UiHierarchyNode foundNode = hierarchySnapshot.getFirstNodeByXPath(xPathQuery);
+                trace.setMatchCount(foundNode == null ? 0 : 1);
+
+                return wrapFirstSnapshotElement(foundNode == null ? null : foundNode.getElement());
+            } finally {
+                trace.finish();
+            }
+        }
+
+        return getFirstElementOnDevice(xPathQuery, xPathQuery);
+    }
+
+    /**
+     * Executes the given XPath query on the device, limited to its first result.
+     *
+     * @param query
+     *        - the query given by the caller, recorded by the {@link QueryProfiler query profiler}
+     * @param xPathQuery
+     *        - the XPath query
+     * @return the first matching {@link UiElement}
+     * @throws UiElementFetchingException
+     *         if no elements are found for the passed query
+     */
+    private UiElement getFirstElementOnDevice(String query, String xPathQuery) throws UiElementFetchingException {
+        // the agent has no result limit, so the query itself is restricted to the first node in document order
+        String firstMatchQuery = String.format("(%s)[1]", xPathQuery);
+        return getAllElementsByXPath(query, firstMatchQuery, true).get(0);
+    }
+
+    /**
+     * Wraps the first element found in the snapshot of this screen in an {@link UiElement UI element}.
+     *
+     * @param foundElement
+     *        - the element found in the snapshot, or <code>null</code>
+     * @return the wrapped {@link UiElement}
+     * @throws UiElementFetchingException
+     *         if no element was found
+     */
+    private UiElement wrapFirstSnapshotElement(AccessibilityElement foundElement) throws UiElementFetchingException {
+        if (foundElement == null) {
+            throw new UiElementFetchingException("No elements found matching the given selector.");
+        }
+
+        return wrapElements(Collections.singletonList(foundElement), hierarchySnapshot).get(0);
+    }
+
     /**
      * Tap on first found {@link UiElement UiElement}, displaying exactly the supplied search text.
      *
@@ -547,6 +885,48 @@ public class Screen {
         return new DatePicker(this);
     }
 
+    /**
+     * Waits until any of the given conditions is satisfied. The screen is fetched as a single snapshot on each check and
+     * all conditions are evaluated against it locally. Between the checks the device is asked to wait for a window
+     * update, so a change on the screen is noticed as soon as it happens. The checks are repeated at least every
+     * {@value #WAIT_FOR_ANY_MAX_POLL_INTERVAL} ms, starting from {@value #WAIT_FOR_ANY_MIN_POLL_INTERVAL} ms and
+     * backing off while the screen does not change.
+     *
+     * @param conditions
+     *        - the conditions to wait for
+     * @param timeout
+     *        - the maximum time to wait in milliseconds
+     * @return the index of the first satisfied condition in the given list, or {@link #NO_CONDITION_SATISFIED} if none
+     *         was satisfied before the timeout
+     * @throws UiElementFetchingException
+     *         if fetching the screen fails
+     */
+    public int waitForAny(List<UiCondition> conditions, int timeout) throws UiElementFetchingException {
+        long deadline = System.currentTimeMillis() + timeout;
+        int pollInterval = WAIT_FOR_ANY_MIN_POLL_INTERVAL;
+
+        while (true) {
+            UiHierarchySnapshot currentSnapshot = elementEntity.getHierarchySnapshot();
+            for (int i = 0; i < conditions.size(); i++) {
+                if (conditions.get(i).isSatisfied(currentSnapshot)) {
+                    return i;
+                }
+            }
+
+            long remainingTime = deadline - System.currentTimeMillis();
+            if (remainingTime <= 0) {
+                return NO_CONDITION_SATISFIED;
+            }
+
+            int waitTime = (int) Math.min(pollInterval, remainingTime);
+            if (elementEntity.waitForWindowUpdate(null, waitTime)) {
+                pollInterval = WAIT_FOR_ANY_MIN_POLL_INTERVAL;
+            } else {
+                pollInterval = Math.min(pollInterval * 2, WAIT_FOR_ANY_MAX_POLL_INTERVAL);
+            }
+        }
+    }
+
     /**
      * Waits for the existence of a given UiElement with a given timeout.
      *
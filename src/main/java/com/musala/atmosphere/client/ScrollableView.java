@@ -1,6 +1,12 @@
 package com.musala.atmosphere.client;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.apache.log4j.Logger;
 
@@ -10,10 +16,12 @@ import com.musala.atmosphere.client.entity.GestureEntity;
 import com.musala.atmosphere.client.entity.ImageEntity;
 import com.musala.atmosphere.client.entity.ImeEntity;
 import com.musala.atmosphere.client.exceptions.MultipleElementsFoundException;
-import com.musala.atmosphere.client.uiutils.UiElementAttributeExtractor;
+import com.musala.atmosphere.client.snapshot.UiElementSelectorMatcher;
 import com.musala.atmosphere.commons.RoutingAction;
 import com.musala.atmosphere.commons.ScrollDirection;
 import com.musala.atmosphere.commons.exceptions.UiElementFetchingException;
+import com.musala.atmosphere.commons.geometry.Bounds;
+import com.musala.atmosphere.commons.geometry.Point;
 import com.musala.atmosphere.commons.ui.selector.UiElementSelector;
 import com.musala.atmosphere.commons.ui.tree.AccessibilityElement;
 
@@ -26,6 +34,14 @@ import com.musala.atmosphere.commons.ui.tree.AccessibilityElement;
 public class ScrollableView extends AccessibilityUiElement {
     private static final Logger LOGGER = Logger.getLogger(ScrollableView.class);
 
+    private static final int DEFAULT_SCROLL_STEPS = 55;
+
+    private static final int MIN_SCROLL_STEPS = 5;
+
+    private static final int MAX_SCROLL_STEPS = 200;
+
+    private static final double TARGET_SCROLL_RATIO = 0.8;
+
     private DeviceCommunicator communicator;
 
     /**
@@ -200,28 +216,171 @@ public class ScrollableView extends AccessibilityUiElement {
     public boolean scrollToElementBySelector(Integer maxSwipes, UiElementSelector innerViewSelector)
         throws MultipleElementsFoundException,
             UiElementFetchingException {
+        return findElementWithScrolling(maxSwipes, innerViewSelector) != null;
+    }
 
-        UiElementSelector scrollViewSelector = UiElementAttributeExtractor.extract(getProperties());
+    /**
+     * Scrolls the view until an element matching the given selector becomes visible and returns it. If the element is
+     * not visible initially, the view is scrolled to its beginning and then forward. Each step fetches the visible
+     * content of the view once and checks it locally. The speed of the next swipe is adapted to how far the content
+     * moved, so that long lists are covered in a few swipes without skipping content.
+     *
+     * @param maxSwipes
+     *        - the maximum number of forward swipes
+     * @param innerViewSelector
+     *        - a {@link UiElementSelector} that needs to match a certain element in the scrollable view
+     * @return the first visible {@link UiElement} matching the selector, or <code>null</code> if it was not found
+     * @throws UiElementFetchingException
+     *         if the scrollable view is not present on the screen anymore
+     */
+    public UiElement findElementWithScrolling(Integer maxSwipes, UiElementSelector innerViewSelector)
+        throws UiElementFetchingException {
+        UiElementSelectorMatcher matcher = new UiElementSelectorMatcher(innerViewSelector);
+
+        List<AccessibilityElement> visibleContent = getVisibleContent();
+        AccessibilityElement foundElement = findMatching(visibleContent, matcher);
+        if (foundElement != null) {
+            return wrapFoundElement(foundElement);
+        }
 
         if (!scrollToBeginning(maxSwipes)) {
-            return false;
+            return null;
         }
 
+        visibleContent = getVisibleContent();
+        int viewExtent = getExtent(getProperties().getBounds());
+        int steps = DEFAULT_SCROLL_STEPS;
+
         for (int i = 0; i < maxSwipes; i++) {
-            try {
-                ScrollableView updatedScrollableView = new ScrollableView(elementEntity.getElement(scrollViewSelector,
-                                                                                                   true),
-                                                                          communicator);
-                updatedScrollableView.getChildren(innerViewSelector);
-                return true;
-            } catch (UiElementFetchingException e) {
-                if (!scrollForward()) {
-                    return false;
-                }
+            foundElement = findMatching(visibleContent, matcher);
+            if (foundElement != null) {
+                return wrapFoundElement(foundElement);
             }
+
+            boolean canScrollFurther = scrollForward(steps);
+
+            // the last swipe may have revealed new content even when the end of the view is reported
+            List<AccessibilityElement> scrolledContent = getVisibleContent();
+            int distance = getScrollDistance(visibleContent, scrolledContent);
+            visibleContent = scrolledContent;
+            if (!canScrollFurther || distance == 0) {
+                LOGGER.debug("The end of the scrollable view is reached.");
+                break;
+            }
+
+            steps = adaptScrollSteps(steps, distance, viewExtent);
         }
 
-        return false;
+        foundElement = findMatching(visibleContent, matcher);
+        return foundElement == null ? null : wrapFoundElement(foundElement);
+    }
+
+    /**
+     * Gets all visible descendants of this view. If the view can not be located by its properties, e.g. because its
+     * focused state changed while scrolling, it is found again by its {@link #getIdentity() identity}.
+     */
+    private List<AccessibilityElement> getVisibleContent() throws UiElementFetchingException {
+        try {
+            return getVisibleDescendants();
+        } catch (UiElementFetchingException e) {
+            if (!revalidate()) {
+                throw new UiElementFetchingException("The scrollable view is not present on the screen anymore.");
+            }
+        }
+
+        try {
+            return getVisibleDescendants();
+        } catch (UiElementFetchingException e) {
+            return new ArrayList<>();
+        }
+    }
+
+    private List<AccessibilityElement> getVisibleDescendants() throws UiElementFetchingException {
+        boolean directChildrenOnly = false;
+        boolean visibleNodesOnly = true;
+        return elementEntity.getChildren((AccessibilityElement) propertiesContainer,
+                                         new UiElementSelector(),
+                                         directChildrenOnly,
+                                         visibleNodesOnly);
+    }
+
+    private UiElement wrapFoundElement(AccessibilityElement foundElement) {
+        return elementEntity.wrapAccessibilityElements(Collections.singletonList(foundElement)).get(0);
+    }
+
+    private static AccessibilityElement findMatching(List<AccessibilityElement> elements,
+                                                     UiElementSelectorMatcher matcher) {
+        for (AccessibilityElement element : elements) {
+            if (matcher.matches(element)) {
+                return element;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Estimates how far the content moved between two fetches, as the median offset of the elements that can be told
+     * apart by their class, resource id and text and are present in both.
+     *
+     * @return the distance in pixels, 0 if the content did not move, or the extent of the view if no common elements
+     *         were found
+     */
+    private int getScrollDistance(List<AccessibilityElement> previousContent,
+                                  List<AccessibilityElement> currentContent) {
+        Map<String, Integer> previousPositions = getUniquePositions(previousContent);
+        Map<String, Integer> currentPositions = getUniquePositions(currentContent);
+
+        List<Integer> offsets = new ArrayList<>();
+        for (Map.Entry<String, Integer> currentPosition : currentPositions.entrySet()) {
+            Integer previousPosition = previousPositions.get(currentPosition.getKey());
+            if (previousPosition != null) {
+                offsets.add(previousPosition - currentPosition.getValue());
+            }
+        }
+
+        if (offsets.isEmpty()) {
+            // nothing in common, so the content moved by at least the whole view
+            return getExtent(getProperties().getBounds());
+        }
+
+        Collections.sort(offsets);
+        return Math.abs(offsets.get(offsets.size() / 2));
+    }
+
+    private Map<String, Integer> getUniquePositions(List<AccessibilityElement> elements) {
+        Map<String, Integer> positions = new HashMap<>();
+        Set<String> duplicateKeys = new HashSet<>();
+
+        for (AccessibilityElement element : elements) {
+            Bounds bounds = element.getBounds();
+            if (bounds == null) {
+                continue;
+            }
+
+            String key = element.getClassName() + '|' + element.getResourceId() + '|' + element.getText();
+            Point upperLeft = bounds.getUpperLeftCorner();
+            if (positions.put(key, isVertical ? upperLeft.getY() : upperLeft.getX()) != null) {
+                duplicateKeys.add(key);
+            }
+        }
+
+        positions.keySet().removeAll(duplicateKeys);
+        return positions;
+    }
+
+    private int getExtent(Bounds bounds) {
+        return isVertical ? bounds.getHeight() : bounds.getWidth();
+    }
+
+    /**
+     * Adapts the number of swipe steps so that the next swipe moves the content by about
+     * {@value #TARGET_SCROLL_RATIO} of the view. Faster swipes (fewer steps) move the content further.
+     */
+    private static int adaptScrollSteps(int steps, int distance, int viewExtent) {
+        double targetDistance = viewExtent * TARGET_SCROLL_RATIO;
+        int adaptedSteps = (int) Math.round(steps * distance / targetDistance);
+        return Math.max(MIN_SCROLL_STEPS, Math.min(MAX_SCROLL_STEPS, adaptedSteps));
     }
 
     /**
@@ -240,7 +399,7 @@ public class ScrollableView extends AccessibilityUiElement {
         throws MultipleElementsFoundException,
             UiElementFetchingException {
 
-        UiElementSelector scrollViewSelector = UiElementAttributeExtractor.extract(getProperties());
+        UiElementSelector scrollViewSelector = getIdentity().toSelector();
         ScrollableView updatedScrollableView = new ScrollableView(elementEntity.getElement(scrollViewSelector, true),
                                                                   communicator);
 
@@ -265,16 +424,12 @@ public class ScrollableView extends AccessibilityUiElement {
     public boolean tapElementBySelectorWithScrolling(Integer maxSwipes, UiElementSelector innerViewSelector)
         throws MultipleElementsFoundException,
             UiElementFetchingException {
-        if (!scrollToElementBySelector(maxSwipes, innerViewSelector)) {
+        UiElement foundElement = findElementWithScrolling(maxSwipes, innerViewSelector);
+        if (foundElement == null) {
             LOGGER.debug(String.format("Could not find element after %d swipes.", maxSwipes));
             return false;
         }
 
-        UiElementSelector scrollViewSelector = UiElementAttributeExtractor.extract(getProperties());
-        ScrollableView updatedScrollableView = new ScrollableView(elementEntity.getElement(scrollViewSelector, true),
-                                                                  communicator);
-        List<UiElement> innerViewChildren = updatedScrollableView.getChildren(innerViewSelector);
-
-        return innerViewChildren.get(0).tap();
+        return foundElement.tap();
     }
 }
@@ -3,7 +3,10 @@ package com.musala.atmosphere.client;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.Calendar;
+import java.util.Collections;
 import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import com.musala.atmosphere.client.exceptions.MultipleElementsFoundException;
 import com.musala.atmosphere.commons.exceptions.UiElementFetchingException;
@@ -35,6 +38,12 @@ public class TimePicker extends PickerView {
 
     private static final String PM = "PM";
 
+    private static final int LAST_MINUTE = 59;
+
+    private static final int LAST_HOUR_OF_DAY = 23;
+
+    private static final int LAST_MERIDIEM_HOUR = 12;
+
     private PickerHelper pickerHelper;
 
     public TimePicker(Screen screen) {
@@ -44,29 +53,30 @@ public class TimePicker extends PickerView {
 
     @Override
     public boolean setValue(Calendar value) throws MultipleElementsFoundException, UiElementFetchingException {
-        boolean is24HourFormat = false;
-
-        try {
-            pickerHelper.getNumberPickerFieldValue(MERIDIEM_INDEX);
-        } catch (UiElementFetchingException e) {
-            is24HourFormat = true;
-        }
+        // Time picker is in 24 hours format view when there is no number picker widget for meridiem.
+        boolean is24HourFormat = !pickerHelper.getNumberPickerFieldValues().containsKey(MERIDIEM_INDEX);
 
         String minute = String.valueOf(value.get(Calendar.MINUTE));
-        String hour = String.valueOf(value.get(Calendar.HOUR));
 
-        setText(minute, MINUTE_INDEX);
+        Map<Integer, String> values = new LinkedHashMap<>();
+        values.put(MINUTE_INDEX, minute);
+        pickerHelper.setNumberPickerRange(MINUTE_INDEX, 0, LAST_MINUTE);
 
         if (is24HourFormat) {
-            hour = String.valueOf(value.get(Calendar.HOUR_OF_DAY));
-            setText(hour, HOUR_INDEX);
+            String hour = String.valueOf(value.get(Calendar.HOUR_OF_DAY));
+            values.put(HOUR_INDEX, hour);
+            pickerHelper.setNumberPickerRange(HOUR_INDEX, 0, LAST_HOUR_OF_DAY);
         } else {
-            setText(hour, HOUR_INDEX);
+            // Calendar.HOUR counts from 0, while the picker shows 12 for noon and midnight.
+            int meridiemHour = value.get(Calendar.HOUR);
+            String hour = String.valueOf(meridiemHour == 0 ? LAST_MERIDIEM_HOUR : meridiemHour);
+            values.put(HOUR_INDEX, hour);
+            pickerHelper.setNumberPickerRange(HOUR_INDEX, 1, LAST_MERIDIEM_HOUR);
             String meridiem = value.get(Calendar.AM_PM) == Calendar.AM ? AM : PM;
-            setText(meridiem, MERIDIEM_INDEX);
+            values.put(MERIDIEM_INDEX, meridiem);
         }
 
-        return true;
+        return pickerHelper.setNumberPickerFieldValues(values);
     }
 
     @Override
@@ -101,15 +111,7 @@ public class TimePicker extends PickerView {
     public boolean setText(String value, int pickerIndex)
         throws MultipleElementsFoundException,
             UiElementFetchingException {
-        String currentValue = pickerHelper.getNumberPickerFieldValue(pickerIndex);
-
-        if (!value.equals(currentValue)) {
-            if (!pickerHelper.setTextInNumberPickerField(pickerIndex, value)) {
-                return false;
-            }
-        }
-
-        return true;
+        return pickerHelper.setNumberPickerFieldValues(Collections.singletonMap(pickerIndex, value));
     }
 
     /**
@@ -135,16 +137,15 @@ public class TimePicker extends PickerView {
 
     @Override
     public String getStringValue() throws MultipleElementsFoundException, UiElementFetchingException {
-        String meridiem = null;
-        String hour = pickerHelper.getNumberPickerFieldValue(HOUR_INDEX);
-        String minute = pickerHelper.getNumberPickerFieldValue(MINUTE_INDEX);
+        Map<Integer, String> values = pickerHelper.getNumberPickerFieldValues();
+        String hour = values.get(HOUR_INDEX);
+        String minute = values.get(MINUTE_INDEX);
         String time = String.format(GENERAL_TIME_FORMATTER, hour, minute);
 
-        try {
-            meridiem = pickerHelper.getNumberPickerFieldValue(MERIDIEM_INDEX);
+        // There is no number picker widget for meridiem when the time picker is in 24 hours format view.
+        String meridiem = values.get(MERIDIEM_INDEX);
+        if (meridiem != null) {
             time = String.format(TIME_FORMATTER_WITH_MERIDIEM, hour, minute, meridiem);
-        } catch (UiElementFetchingException e) {
-            // Time picker is in 24 hours format view and there is no number picker widget for meridiem.
         }
 
         return time;
@@ -17,6 +17,8 @@ import com.musala.atmosphere.client.entity.ImeEntity;
 import com.musala.atmosphere.client.exceptions.InvalidCssQueryException;
 import com.musala.atmosphere.client.exceptions.MultipleElementsFoundException;
 import com.musala.atmosphere.client.exceptions.StaleElementReferenceException;
+import com.musala.atmosphere.client.snapshot.UiHierarchySnapshot;
+import com.musala.atmosphere.client.uiutils.ElementIdentity;
 import com.musala.atmosphere.commons.beans.SwipeDirection;
 import com.musala.atmosphere.commons.exceptions.UiElementFetchingException;
 import com.musala.atmosphere.commons.geometry.Bounds;
@@ -36,8 +38,16 @@ public abstract class UiElement {
 
     private static final long UI_ELEMENT_OPERATION_WAIT_TIME = 500;
 
+    private static final int UI_ELEMENT_OPERATION_QUIET_PERIOD = 100;
+
+    private static final int UI_ELEMENT_OPERATION_MIN_SETTLE_TIME = 300;
+
     private static final long TIMEOUT_BEFORE_SELECT_ALL = 4000;
 
+    private static final int SELECT_ALL_QUIET_PERIOD = 300;
+
+    private static final int SELECT_ALL_MIN_SETTLE_TIME = 1000;
+
     private static final Logger LOGGER = Logger.getLogger(UiElement.class);
 
     protected UiElementPropertiesContainer propertiesContainer;
@@ -54,12 +64,40 @@ public abstract class UiElement {
 
     protected boolean isStale;
 
+    private ElementIdentity identity;
+
+    /**
+     * The screen epoch in which the element was last seen on the device.
+     */
+    private long screenEpoch;
+
+    /**
+     * The time in milliseconds at which the element was last seen on the device.
+     */
+    private long seenTime;
+
     UiElement(UiElementPropertiesContainer properties,
             GestureEntity gestureEntity,
             ImeEntity imeEntity,
             DeviceSettingsEntity settingsEntity,
             ImageEntity imageEntity,
             AccessibilityElementEntity elementEntity) {
+        this(properties,
+             gestureEntity,
+             imeEntity,
+             settingsEntity,
+             imageEntity,
+             elementEntity,
+             elementEntity != null ? elementEntity.getScreenEpoch() : UiHierarchySnapshot.NO_SCREEN_EPOCH);
+    }
+
+    UiElement(UiElementPropertiesContainer properties,
+            GestureEntity gestureEntity,
+            ImeEntity imeEntity,
+            DeviceSettingsEntity settingsEntity,
+            ImageEntity imageEntity,
+            AccessibilityElementEntity elementEntity,
+            long screenEpoch) {
         this.propertiesContainer = properties;
         this.gestureEntity = gestureEntity;
         this.imeEntity = imeEntity;
@@ -68,6 +106,8 @@ public abstract class UiElement {
         this.elementEntity = elementEntity;
 
         isStale = false;
+        this.screenEpoch = screenEpoch;
+        this.seenTime = System.currentTimeMillis();
     }
 
     UiElement(UiElement uiElement) {
@@ -76,7 +116,8 @@ public abstract class UiElement {
              uiElement.imeEntity,
              uiElement.settingsEntity,
              uiElement.imageEntity,
-             uiElement.elementEntity);
+             uiElement.elementEntity,
+             uiElement.screenEpoch);
     }
 
     /**
@@ -134,6 +175,19 @@ public abstract class UiElement {
      */
     public abstract boolean revalidate();
 
+    /**
+     * Gets the key used to find this element on the screen again.
+     *
+     * @return the {@link ElementIdentity} of this element
+     */
+    public ElementIdentity getIdentity() {
+        if (identity == null) {
+            identity = ElementIdentity.of(propertiesContainer);
+        }
+
+        return identity;
+    }
+
     /**
      * Returns the current UI element's attributes properties container.
      *
@@ -160,7 +214,7 @@ public abstract class UiElement {
 
         if (elementBounds.contains(tapPoint)) {
             boolean isElementTapped = gestureEntity.tapScreenLocation(tapPoint);
-            finalizeUiElementOperation();
+            finalizeUiElementOperation("tap");
             return isElementTapped;
         } else {
             String message = String.format("Point %s not in element bounds.", point.toString());
@@ -269,7 +323,7 @@ public abstract class UiElement {
 
         if (elementBounds.contains(tapPoint)) {
             boolean isElementTapped = gestureEntity.doubleTap(tapPoint);
-            finalizeUiElementOperation();
+            finalizeUiElementOperation("doubleTap");
             return isElementTapped;
         } else {
             String message = String.format("Point %s not in element bounds.", point.toString());
@@ -506,13 +560,13 @@ public abstract class UiElement {
         boolean isFocused = propertiesContainer.isFocused();
         focus();
 
-        // If the text element is focused just before selecting the text in it, the selecting will fail.
+        // If the text element is focused just before selecting the text in it, the selecting will fail, so wait for
+        // the focus change (and the keyboard it brings up) to settle.
         if (!isFocused) {
-            try {
-                Thread.sleep(TIMEOUT_BEFORE_SELECT_ALL);
-            } catch (InterruptedException e) {
-                e.printStackTrace();
-            }
+            waitForUiIdle("selectAllText",
+                          SELECT_ALL_QUIET_PERIOD,
+                          SELECT_ALL_MIN_SETTLE_TIME,
+                          TIMEOUT_BEFORE_SELECT_ALL);
         }
 
         return imeEntity.selectAllText();
@@ -634,7 +688,7 @@ public abstract class UiElement {
 
         if (elementBounds.contains(longPressPoint)) {
             boolean isElementTapped = gestureEntity.longPress(longPressPoint, timeout);
-            finalizeUiElementOperation();
+            finalizeUiElementOperation("longPress");
             return isElementTapped;
         } else {
             String message = String.format("Point %s not in element bounds.", innerPoint.toString());
@@ -644,12 +698,32 @@ public abstract class UiElement {
     }
 
     /**
-     * Attempts revalidation and if it fails throws exception.
+     * Attempts revalidation and if it fails throws exception. The revalidation is skipped only within the
+     * {@link DeviceCommunicator#setRevalidationWindow(long) revalidation window} of the device, if no action that may
+     * change the screen was sent to it since the element was fetched or last revalidated.
      *
      * @throws StaleElementReferenceException
      *         if the revalidation fails
      */
     protected void revalidateThrowing() {
+        if (elementEntity == null) {
+            revalidateOnDevice();
+            return;
+        }
+
+        long currentScreenEpoch = elementEntity.getScreenEpoch();
+        long currentTime = System.currentTimeMillis();
+        boolean isRecentlySeen = currentTime - seenTime < elementEntity.getRevalidationWindow();
+        if (!isStale && screenEpoch == currentScreenEpoch && isRecentlySeen) {
+            return;
+        }
+
+        revalidateOnDevice();
+        screenEpoch = currentScreenEpoch;
+        seenTime = currentTime;
+    }
+
+    private void revalidateOnDevice() {
         if (!revalidate()) {
             String message = "Element revalidation failed. This element is most likely not present on the screen anymore.";
             LOGGER.error(message);
@@ -664,11 +738,29 @@ public abstract class UiElement {
         isStale = true;
     }
 
-    private void finalizeUiElementOperation() {
+    private void finalizeUiElementOperation(String action) {
         // Should be invoked exactly once in the end of all element-operating
         // methods, whether its directly or indirectly invoked.
+        waitForUiIdle(action,
+                      UI_ELEMENT_OPERATION_QUIET_PERIOD,
+                      UI_ELEMENT_OPERATION_MIN_SETTLE_TIME,
+                      UI_ELEMENT_OPERATION_WAIT_TIME);
+    }
+
+    /**
+     * Waits until the UI stops changing, but no shorter than the minimum settle time unless an update was seen, and no
+     * longer than the given bound. Falls back to waiting the whole bound if the element can not watch the device for
+     * window updates.
+     */
+    private void waitForUiIdle(String action, int quietPeriod, int minSettleTime, long maxSettleTime) {
+        if (elementEntity != null) {
+            // any window is watched, as the operation may open a dialog or switch to another application
+            elementEntity.waitForUiIdle(action, null, quietPeriod, minSettleTime, (int) maxSettleTime);
+            return;
+        }
+
         try {
-            Thread.sleep(UI_ELEMENT_OPERATION_WAIT_TIME);
+            Thread.sleep(maxSettleTime);
         } catch (InterruptedException e) {
             LOGGER.info(e);
         }
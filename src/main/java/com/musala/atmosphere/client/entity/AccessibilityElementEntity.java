@@ -2,6 +2,7 @@ package com.musala.atmosphere.client.entity;
 
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -11,6 +12,14 @@ import com.musala.atmosphere.client.AccessibilityUiElement;
 import com.musala.atmosphere.client.DeviceCommunicator;
 import com.musala.atmosphere.client.UiElement;
 import com.musala.atmosphere.client.exceptions.MultipleElementsFoundException;
+import com.musala.atmosphere.client.snapshot.UiHierarchyNode;
+import com.musala.atmosphere.client.snapshot.UiHierarchySnapshot;
+import com.musala.atmosphere.client.uiutils.ElementIdentity;
+import com.musala.atmosphere.client.util.ElementAttributeInterner;
+import com.musala.atmosphere.client.util.QueryProfile.Plan;
+import com.musala.atmosphere.client.util.QueryProfiler;
+import com.musala.atmosphere.client.util.QueryProfiler.Trace;
+import com.musala.atmosphere.client.util.UiSettleMetrics;
 import com.musala.atmosphere.commons.RoutingAction;
 import com.musala.atmosphere.commons.exceptions.UiElementFetchingException;
 import com.musala.atmosphere.commons.ui.UiElementPropertiesContainer;
@@ -26,8 +35,16 @@ import com.musala.atmosphere.commons.ui.tree.AccessibilityElement;
 public class AccessibilityElementEntity {
     private static final Logger LOGGER = Logger.getLogger(AccessibilityElementEntity.class);
 
+    private static volatile Constructor<?> accessibilityUiElementConstructor;
+
     private DeviceCommunicator communicator;
 
+    private final UiSettleMetrics settleMetrics = new UiSettleMetrics();
+
+    private final QueryProfiler queryProfiler = new QueryProfiler();
+
+    private final ElementAttributeInterner attributeInterner = new ElementAttributeInterner();
+
     private GestureEntity gestureEntity;
 
     private ImeEntity imeEntity;
@@ -62,14 +79,20 @@ public class AccessibilityElementEntity {
     @SuppressWarnings("unchecked")
     public List<UiElement> getElements(UiElementSelector selector, Boolean visibleOnly)
         throws UiElementFetchingException {
-        List<AccessibilityElement> foundElements = (List<AccessibilityElement>) communicator.sendAction(RoutingAction.GET_UI_ELEMENTS,
-                                                                                                        selector,
-                                                                                                        visibleOnly);
-        if (foundElements.isEmpty()) {
-            throw new UiElementFetchingException("No elements found matching the given selector.");
-        }
+        Trace trace = queryProfiler.begin(selector, Plan.REMOTE_SELECTOR);
+        try {
+            List<AccessibilityElement> foundElements = (List<AccessibilityElement>) communicator.sendAction(RoutingAction.GET_UI_ELEMENTS,
+                                                                                                            selector,
+                                                                                                            visibleOnly);
+            trace.setMatchCount(foundElements.size());
+            if (foundElements.isEmpty()) {
+                throw new UiElementFetchingException("No elements found matching the given selector.");
+            }
 
-        return wrapAccessibilityElements(foundElements);
+            return wrapAccessibilityElements(foundElements);
+        } finally {
+            trace.finish();
+        }
     }
 
     /**
@@ -97,6 +120,81 @@ public class AccessibilityElementEntity {
         return uiElements.get(0);
     }
 
+    /**
+     * Fetches the whole UI hierarchy of the active screen with a single request and returns it as a
+     * {@link UiHierarchySnapshot snapshot} that can be queried locally.
+     *
+     * @return a {@link UiHierarchySnapshot} of the active screen
+     * @throws UiElementFetchingException
+     *         if fetching or parsing the UI hierarchy fails
+     */
+    public UiHierarchySnapshot getHierarchySnapshot() throws UiElementFetchingException {
+        Trace trace = queryProfiler.begin(RoutingAction.GET_UI_XML_DUMP.name(), null, Plan.REMOTE_DUMP);
+        try {
+            long screenEpoch = communicator.getScreenEpoch();
+            Object response = communicator.sendAction(RoutingAction.GET_UI_XML_DUMP);
+            if (!(response instanceof String)) {
+                throw new UiElementFetchingException("Fetching the UI hierarchy of the active screen failed.");
+            }
+
+            if (trace.isRecorded()) {
+                trace.setBytes(((String) response).getBytes(StandardCharsets.UTF_8).length);
+            }
+
+            UiHierarchySnapshot snapshot = UiHierarchySnapshot.parse((String) response, screenEpoch, attributeInterner);
+            trace.setMatchCount(snapshot.size());
+            return snapshot;
+        } finally {
+            trace.finish();
+        }
+    }
+
+    /**
+     * Finds the element with the given identity in a full dump of the screen hierarchy and keeps its subtree. The
+     * device can not dump the hierarchy of a single element, so the whole screen is fetched in one request and trimmed
+     * on the client; the cost of the request does not depend on the size of the subtree. Child queries on the returned
+     * element are answered from the kept subtree while the screen does not change.
+     *
+     * @param identity
+     *        - the identity of the element
+     * @param depth
+     *        - the number of descendant levels to keep with the element
+     * @return the identified {@link UiElement}, backed by its subtree
+     * @throws UiElementFetchingException
+     *         if the hierarchy can not be fetched or the element is not present on the screen
+     */
+    public UiElement getElementFromFullDump(ElementIdentity identity, int depth) throws UiElementFetchingException {
+        UiHierarchySnapshot snapshot = getHierarchySnapshot();
+        UiHierarchyNode node = snapshot.resolve(identity);
+        if (node == null) {
+            throw new UiElementFetchingException("The element is not present on the screen anymore.");
+        }
+
+        UiHierarchySnapshot subtree = snapshot.getSubtree(node, depth);
+        AccessibilityElement element = subtree.getRoots().get(0).getElement();
+        return wrapAccessibilityElement(element, subtree.getScreenEpoch(), subtree);
+    }
+
+    /**
+     * Gets the current screen epoch of the device.
+     *
+     * @return the current screen epoch
+     * @see DeviceCommunicator#getScreenEpoch()
+     */
+    public long getScreenEpoch() {
+        return communicator.getScreenEpoch();
+    }
+
+    /**
+     * Gets the time in which an element seen in the current screen epoch is used without revalidation.
+     *
+     * @return the revalidation window in milliseconds, <code>0</code> if elements are always revalidated
+     * @see DeviceCommunicator#getRevalidationWindow()
+     */
+    public long getRevalidationWindow() {
+        return communicator.getRevalidationWindow();
+    }
+
     /**
      * Checks if the current element is still valid (on the screen) and updates it's attributes container. This is
      * executed before each operation that requires the element to be still present on the screen.
@@ -109,6 +207,33 @@ public class AccessibilityElementEntity {
         return (boolean) communicator.sendAction(RoutingAction.CHECK_ELEMENT_PRESENCE, propertiesContainer, true);
     }
 
+    /**
+     * Finds the element with the given identity among the visible elements on the screen. If several elements match
+     * the identity, they can not be told apart and the first of them is returned, as the presence check does.
+     *
+     * @param identity
+     *        - the identity of the element
+     * @return the current properties of the identified element, or <code>null</code> if it is not present on the
+     *         screen
+     */
+    @SuppressWarnings("unchecked")
+    public AccessibilityElement resolve(ElementIdentity identity) {
+        List<AccessibilityElement> foundElements = (List<AccessibilityElement>) communicator.sendAction(RoutingAction.GET_UI_ELEMENTS,
+                                                                                                        identity.toSelector(),
+                                                                                                        true);
+        if (foundElements == null) {
+            return null;
+        }
+
+        for (AccessibilityElement foundElement : foundElements) {
+            if (identity.matches(foundElement)) {
+                return foundElement;
+            }
+        }
+
+        return null;
+    }
+
     /**
      * Gets all child UiElements that match the given {@link UiElementSelector}.
      *
@@ -130,17 +255,22 @@ public class AccessibilityElementEntity {
                                                   boolean directChildrenOnly,
                                                   boolean visibleNodesOnly)
         throws UiElementFetchingException {
-        List<AccessibilityElement> children = (List<AccessibilityElement>) communicator.sendAction(RoutingAction.GET_CHILDREN,
-                                                                                                   accessibilityElement,
-                                                                                                   selector,
-                                                                                                   directChildrenOnly,
-                                                                                                   visibleNodesOnly);
-
-        if (children.isEmpty()) {
-            throw new UiElementFetchingException("No elements found matching the given selector.");
-        }
+        Trace trace = queryProfiler.begin(selector, Plan.REMOTE_CHILDREN);
+        try {
+            List<AccessibilityElement> children = (List<AccessibilityElement>) communicator.sendAction(RoutingAction.GET_CHILDREN,
+                                                                                                       accessibilityElement,
+                                                                                                       selector,
+                                                                                                       directChildrenOnly,
+                                                                                                       visibleNodesOnly);
+            trace.setMatchCount(children.size());
+            if (children.isEmpty()) {
+                throw new UiElementFetchingException("No elements found matching the given selector.");
+            }
 
-        return children;
+            return children;
+        } finally {
+            trace.finish();
+        }
     }
 
     /**
@@ -163,49 +293,123 @@ public class AccessibilityElementEntity {
         throws UiElementFetchingException {
         AccessibilityElement accessibilityElement = (AccessibilityElement) propertiesContainer;
 
-        List<AccessibilityElement> children = (List<AccessibilityElement>) communicator.sendAction(RoutingAction.EXECUTE_XPATH_QUERY_ON_LOCAL_ROOT,
-                                                                                                   xpathQuery,
-                                                                                                   visibleOnly,
-                                                                                                   accessibilityElement);
-        if (children.isEmpty()) {
-            throw new UiElementFetchingException("No elements found matching the given xpath query.");
-        }
+        Trace trace = queryProfiler.begin(xpathQuery, xpathQuery, Plan.REMOTE_XPATH);
+        try {
+            List<AccessibilityElement> children = (List<AccessibilityElement>) communicator.sendAction(RoutingAction.EXECUTE_XPATH_QUERY_ON_LOCAL_ROOT,
+                                                                                                       xpathQuery,
+                                                                                                       visibleOnly,
+                                                                                                       accessibilityElement);
+            trace.setMatchCount(children.size());
+            if (children.isEmpty()) {
+                throw new UiElementFetchingException("No elements found matching the given xpath query.");
+            }
 
-        return wrapAccessibilityElements(children);
+            return wrapAccessibilityElements(children);
+        } finally {
+            trace.finish();
+        }
     }
 
     /**
      * Wraps all {@link AccessibilityElement accessibility elements} of the given list in {@link UiElement UI elements}.
+     * The elements are wrapped lazily, when they are first accessed through the returned list, so large results do not
+     * create objects that are never used.
      *
      * @param accessibilityElements
      *        - the list of elements to be wrapped
-     * @return list of {@link UiElement}
+     * @return modifiable list of {@link UiElement}, empty if the elements can not be wrapped
      */
     public List<UiElement> wrapAccessibilityElements(List<AccessibilityElement> accessibilityElements) {
-        List<UiElement> wrappedElements = new ArrayList<>();
-
-        for (AccessibilityElement element : accessibilityElements) {
-            // TODO : After removing the screen move the entities in one package with the AccessibilityUiElement and use
-            // directly the constructor.
-            try {
-                Constructor<?> accessibilityUiElementConstructor = AccessibilityUiElement.class.getDeclaredConstructor(AccessibilityElement.class,
-                                                                                                                       GestureEntity.class,
-                                                                                                                       ImeEntity.class,
-                                                                                                                       DeviceSettingsEntity.class,
-                                                                                                                       ImageEntity.class,
-                                                                                                                       AccessibilityElementEntity.class);
-                accessibilityUiElementConstructor.setAccessible(true);
-
-                wrappedElements.add((AccessibilityUiElement) accessibilityUiElementConstructor.newInstance(new Object[] {
-                        element, gestureEntity, imeEntity, settingsEntity, imageEntity, this}));
-            } catch (NoSuchMethodException | SecurityException | InstantiationException | IllegalAccessException
-                    | IllegalArgumentException | InvocationTargetException e) {
-                LOGGER.error("Failed to access the AccessibilityUiElement constructor, or the parameters passed to the constructor are illegal"
-                        + e);
-            }
+        return wrapAccessibilityElements(accessibilityElements, communicator.getScreenEpoch());
+    }
+
+    /**
+     * Wraps all {@link AccessibilityElement accessibility elements} of the given list, fetched from the device in the
+     * given screen epoch, in {@link UiElement UI elements}. The elements are wrapped lazily, when they are first
+     * accessed through the returned list.
+     *
+     * @param accessibilityElements
+     *        - the list of elements to be wrapped
+     * @param screenEpoch
+     *        - the {@link DeviceCommunicator#getScreenEpoch() screen epoch} in which the elements were fetched
+     * @return modifiable list of {@link UiElement}, empty if the elements can not be wrapped
+     */
+    public List<UiElement> wrapAccessibilityElements(List<AccessibilityElement> accessibilityElements,
+                                                     long screenEpoch) {
+        return wrapAccessibilityElements(accessibilityElements, screenEpoch, null);
+    }
+
+    /**
+     * Wraps all {@link AccessibilityElement accessibility elements} of the given list, found in the given snapshot, in
+     * {@link UiElement UI elements}. While the screen epoch of the snapshot is still current, child queries on the
+     * wrapped elements are answered from the snapshot instead of the device. The elements are wrapped lazily, when
+     * they are first accessed through the returned list.
+     *
+     * @param accessibilityElements
+     *        - the list of elements to be wrapped
+     * @param screenEpoch
+     *        - the {@link DeviceCommunicator#getScreenEpoch() screen epoch} in which the elements were fetched
+     * @param snapshot
+     *        - the snapshot containing the elements, or <code>null</code> if they were fetched directly
+     * @return modifiable list of {@link UiElement}, empty if the elements can not be wrapped
+     */
+    public List<UiElement> wrapAccessibilityElements(List<AccessibilityElement> accessibilityElements,
+                                                     long screenEpoch,
+                                                     UiHierarchySnapshot snapshot) {
+        try {
+            // fail for the whole list up front, instead of on each access to it
+            getAccessibilityUiElementConstructor();
+        } catch (NoSuchMethodException | SecurityException e) {
+            LOGGER.error("Failed to access the AccessibilityUiElement constructor.", e);
+            return new ArrayList<>();
         }
 
-        return wrappedElements;
+        return new LazyUiElementList(this, accessibilityElements, screenEpoch, snapshot);
+    }
+
+    /**
+     * Wraps a single {@link AccessibilityElement accessibility element} in a {@link UiElement UI element}.
+     *
+     * @param element
+     *        - the element to be wrapped
+     * @param screenEpoch
+     *        - the screen epoch in which the element was fetched
+     * @param snapshot
+     *        - the snapshot containing the element, or <code>null</code> if it was fetched directly
+     * @return the wrapped {@link UiElement}, or <code>null</code> if the wrapping failed
+     */
+    UiElement wrapAccessibilityElement(AccessibilityElement element, long screenEpoch, UiHierarchySnapshot snapshot) {
+        // TODO : After removing the screen move the entities in one package with the AccessibilityUiElement and use
+        // directly the constructor.
+        try {
+            attributeInterner.intern(element);
+            return (AccessibilityUiElement) getAccessibilityUiElementConstructor().newInstance(new Object[] {element,
+                    gestureEntity, imeEntity, settingsEntity, imageEntity, this, screenEpoch, snapshot});
+        } catch (NoSuchMethodException | SecurityException | InstantiationException | IllegalAccessException
+                | IllegalArgumentException | InvocationTargetException e) {
+            LOGGER.error("Failed to access the AccessibilityUiElement constructor, or the parameters passed to the constructor are illegal"
+                    + e);
+        }
+
+        return null;
+    }
+
+    private static Constructor<?> getAccessibilityUiElementConstructor() throws NoSuchMethodException {
+        Constructor<?> constructor = accessibilityUiElementConstructor;
+        if (constructor == null) {
+            constructor = AccessibilityUiElement.class.getDeclaredConstructor(AccessibilityElement.class,
+                                                                              GestureEntity.class,
+                                                                              ImeEntity.class,
+                                                                              DeviceSettingsEntity.class,
+                                                                              ImageEntity.class,
+                                                                              AccessibilityElementEntity.class,
+                                                                              long.class,
+                                                                              UiHierarchySnapshot.class);
+            constructor.setAccessible(true);
+            accessibilityUiElementConstructor = constructor;
+        }
+
+        return constructor;
     }
 
     /**
@@ -238,6 +442,77 @@ public class AccessibilityElementEntity {
         return response;
     }
 
+    /**
+     * Waits until the UI stops changing after an operation. Window content updates are awaited for up to the quiet
+     * period at a time, and the wait ends as soon as a quiet period passes without an update, or when the maximum
+     * settle time is reached. A quiet period is trusted only after the first update was seen or the minimum settle time
+     * has passed, so that a transition which starts late is not mistaken for an idle UI. The time spent is recorded in
+     * the {@link #getSettleMetrics() settle metrics} under the given operation name.
+     *
+     * @param action
+     *        - the name of the operation that is followed by the wait
+     * @param packageName
+     *        - the package name of the window to watch (can be null). If null, an update of any window, e.g. of a
+     *        dialog or another application, counts as a change of the UI. If the current window belongs to another
+     *        package, the UI is considered idle
+     * @param quietPeriod
+     *        - the time in milliseconds without window updates after which the UI is considered idle
+     * @param minSettleTime
+     *        - the time in milliseconds to wait for the first update before the UI can be considered idle
+     * @param maxSettleTime
+     *        - the maximum time in milliseconds to wait
+     * @return the time in milliseconds spent waiting
+     */
+    public long waitForUiIdle(String action,
+                              String packageName,
+                              int quietPeriod,
+                              int minSettleTime,
+                              int maxSettleTime) {
+        long startTime = System.currentTimeMillis();
+        long settleTime = 0;
+        boolean isUpdated = false;
+        boolean isIdle = false;
+
+        while (settleTime < maxSettleTime) {
+            int timeout = (int) Math.min(quietPeriod, maxSettleTime - settleTime);
+            Object response = communicator.sendAction(RoutingAction.WAIT_FOR_WINDOW_UPDATE, packageName, timeout);
+            settleTime = System.currentTimeMillis() - startTime;
+
+            if (Boolean.TRUE.equals(response)) {
+                isUpdated = true;
+                continue;
+            }
+
+            // a failed wait can not tell anything more, a quiet period before the first update might precede a late
+            // transition
+            if (response == null || isUpdated || settleTime >= minSettleTime) {
+                isIdle = true;
+                break;
+            }
+        }
+
+        settleMetrics.record(action, settleTime, isIdle);
+        return settleTime;
+    }
+
+    /**
+     * Gets the settle times recorded by {@link #waitForUiIdle(String, String, int, int, int)}.
+     *
+     * @return the {@link UiSettleMetrics} of the device
+     */
+    public UiSettleMetrics getSettleMetrics() {
+        return settleMetrics;
+    }
+
+    /**
+     * Gets the profiler of the element lookups on the device.
+     *
+     * @return the {@link QueryProfiler} of the device
+     */
+    public QueryProfiler getQueryProfiler() {
+        return queryProfiler;
+    }
+
     /**
      * Waits for a window content update event to occur. If a package name for the window is specified, but the current
      * window does not have the same package name, the function returns immediately. The behavior of this method depends
@@ -252,10 +527,8 @@ public class AccessibilityElementEntity {
      *         current window does not have the specified package name
      */
     public boolean waitForWindowUpdate(String packageName, int timeout) {
-        boolean response = (boolean) communicator.sendAction(RoutingAction.WAIT_FOR_WINDOW_UPDATE,
-                                                             packageName,
-                                                             timeout);
+        Object response = communicator.sendAction(RoutingAction.WAIT_FOR_WINDOW_UPDATE, packageName, timeout);
 
-        return response;
+        return Boolean.TRUE.equals(response);
     }
 }
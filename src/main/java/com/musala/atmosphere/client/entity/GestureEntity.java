@@ -5,6 +5,9 @@ import org.apache.log4j.Logger;
 import com.musala.atmosphere.client.DeviceCommunicator;
 import com.musala.atmosphere.client.UiElement;
 import com.musala.atmosphere.client.uiutils.GestureCreator;
+import com.musala.atmosphere.client.uiutils.GestureRecorder;
+import com.musala.atmosphere.client.uiutils.GestureSequence;
+import com.musala.atmosphere.client.uiutils.GestureSequenceResult;
 import com.musala.atmosphere.commons.DeviceInformation;
 import com.musala.atmosphere.commons.RoutingAction;
 import com.musala.atmosphere.commons.beans.SwipeDirection;
@@ -25,13 +28,18 @@ public class GestureEntity {
 
     private DeviceInformation deviceInformation;
 
+    private volatile boolean isTapLocationShown;
+
+    private volatile GestureRecorder gestureRecorder;
+
     GestureEntity(DeviceCommunicator deviceCommunicator, DeviceInformation deviceInformation) {
         this.deviceCommunicator = deviceCommunicator;
         this.deviceInformation = deviceInformation;
     }
 
     /**
-     * Executes a simple tap on the screen of this device at a specified location point.
+     * Executes a simple tap on the screen of this device at a specified location point. The tap is injected as a
+     * gesture; the tap location is shown on the screen only if {@link #setTapLocationShown(boolean) enabled}.
      *
      * @param tapPoint
      *        - {@link Point Point} on the screen to tap on
@@ -39,14 +47,33 @@ public class GestureEntity {
      * @return <code>true</code> if tapping screen is successful, <code>false</code> if it fails
      */
     public boolean tapScreenLocation(Point tapPoint) {
-        int tapPointX = tapPoint.getX();
-        int tapPointY = tapPoint.getY();
-        String query = "input tap " + tapPointX + " " + tapPointY;
+        if (isTapLocationShown) {
+            showTapLocation(tapPoint);
+        }
 
-        showTapLocation(tapPoint);
+        Gesture tap = GestureCreator.createTap(tapPoint.getX(), tapPoint.getY());
+        return playGesture(tap);
+    }
+
+    /**
+     * Enables or disables showing the location of each tap on the screen of the device. Showing the location is
+     * useful when debugging tests, but costs an additional request to the device per tap, so it is disabled by
+     * default.
+     *
+     * @param isTapLocationShown
+     *        - <code>true</code> to show the tap locations, <code>false</code> otherwise
+     */
+    public void setTapLocationShown(boolean isTapLocationShown) {
+        this.isTapLocationShown = isTapLocationShown;
+    }
 
-        deviceCommunicator.sendAction(RoutingAction.EXECUTE_SHELL_COMMAND, query);
-        return deviceCommunicator.getLastException() == null;
+    /**
+     * Checks if the location of each tap is shown on the screen of the device.
+     *
+     * @return <code>true</code> if the tap locations are shown, <code>false</code> otherwise
+     */
+    public boolean isTapLocationShown() {
+        return isTapLocationShown;
     }
 
     /**
@@ -60,9 +87,7 @@ public class GestureEntity {
      */
     public boolean longPress(Point pressPoint, int timeout) {
         Gesture longPress = GestureCreator.createLongPress(pressPoint.getX(), pressPoint.getY(), timeout);
-        Object response = deviceCommunicator.sendAction(RoutingAction.PLAY_GESTURE, longPress);
-
-        return response == DeviceCommunicator.VOID_SUCCESS;
+        return playGesture(longPress);
     }
 
     /**
@@ -74,9 +99,7 @@ public class GestureEntity {
      */
     public boolean doubleTap(Point point) {
         Gesture doubleTap = GestureCreator.createDoubleTap(point.getX(), point.getY());
-        Object response = deviceCommunicator.sendAction(RoutingAction.PLAY_GESTURE, doubleTap);
-
-        return response == DeviceCommunicator.VOID_SUCCESS;
+        return playGesture(doubleTap);
     }
 
     /**
@@ -93,9 +116,7 @@ public class GestureEntity {
         validatePointOnScreen(secondFingerInitial);
 
         Gesture pinchIn = GestureCreator.createPinchIn(firstFingerInitial, secondFingerInitial);
-        Object response = deviceCommunicator.sendAction(RoutingAction.PLAY_GESTURE, pinchIn);
-
-        return response == DeviceCommunicator.VOID_SUCCESS;
+        return playGesture(pinchIn);
     }
 
     /**
@@ -112,9 +133,7 @@ public class GestureEntity {
         validatePointOnScreen(secondFingerEnd);
 
         Gesture pinchOut = GestureCreator.createPinchOut(firstFingerEnd, secondFingerEnd);
-        Object response = deviceCommunicator.sendAction(RoutingAction.PLAY_GESTURE, pinchOut);
-
-        return response == DeviceCommunicator.VOID_SUCCESS;
+        return playGesture(pinchOut);
     }
 
     /**
@@ -131,9 +150,7 @@ public class GestureEntity {
 
         Pair<Integer, Integer> resolution = deviceInformation.getResolution();
         Gesture swipe = GestureCreator.createSwipe(point, swipeDirection, resolution);
-        Object response = deviceCommunicator.sendAction(RoutingAction.PLAY_GESTURE, swipe);
-
-        return response == DeviceCommunicator.VOID_SUCCESS;
+        return playGesture(swipe);
     }
 
     /**
@@ -148,8 +165,119 @@ public class GestureEntity {
     public boolean drag(Point startPoint, Point endPoint) {
         validatePointOnScreen(endPoint);
         Gesture drag = GestureCreator.createDrag(startPoint, endPoint);
-        Object response = deviceCommunicator.sendAction(RoutingAction.PLAY_GESTURE, drag);
-        return response == DeviceCommunicator.VOID_SUCCESS;
+        return playGesture(drag);
+    }
+
+    /**
+     * Plays the given gesture on the device.
+     *
+     * @param gesture
+     *        - the {@link Gesture} to be played
+     * @return <code>true</code> if the gesture is played successfully, <code>false</code> if it fails
+     */
+    public boolean playGesture(Gesture gesture) {
+        long startTime = System.currentTimeMillis();
+        Object response = deviceCommunicator.sendAction(RoutingAction.PLAY_GESTURE, gesture);
+        if (response != DeviceCommunicator.VOID_SUCCESS) {
+            return false;
+        }
+
+        // only played gestures are recorded, so a replay does not play gestures that never ran
+        GestureRecorder recorder = gestureRecorder;
+        if (recorder != null) {
+            recorder.record(gesture, startTime);
+        }
+
+        return true;
+    }
+
+    /**
+     * Sets the recorder of the gestures played through this entity.
+     *
+     * @param gestureRecorder
+     *        - the {@link GestureRecorder} to record the gestures the device played successfully, or <code>null</code>
+     *        to stop recording
+     */
+    public void setGestureRecorder(GestureRecorder gestureRecorder) {
+        this.gestureRecorder = gestureRecorder;
+    }
+
+    /**
+     * Plays the steps of the given sequence, with a single request per {@link GestureSequence#split(int, int) part} of
+     * at most {@value GestureSequence#DEFAULT_MAX_PART_STEP_COUNT} steps and
+     * {@value GestureSequence#DEFAULT_MAX_PART_DURATION} milliseconds. The parts are played one after another, keeping
+     * the gaps between them, and the playing stops at the first failed part.
+     *
+     * @param sequence
+     *        - the {@link GestureSequence} to be played
+     * @return the {@link GestureSequenceResult} with the completed steps
+     */
+    public GestureSequenceResult playGestureSequence(GestureSequence sequence) {
+        return playGestureSequence(sequence,
+                                   GestureSequence.DEFAULT_MAX_PART_STEP_COUNT,
+                                   GestureSequence.DEFAULT_MAX_PART_DURATION);
+    }
+
+    /**
+     * Plays the steps of the given sequence, with a single request per {@link GestureSequence#split(int, int) part} of
+     * the given size. The parts are played one after another, keeping the gaps between them, and the playing stops at
+     * the first failed part.
+     *
+     * @param sequence
+     *        - the {@link GestureSequence} to be played
+     * @param maxPartStepCount
+     *        - the maximum number of steps played with one request
+     * @param maxPartDuration
+     *        - the maximum duration in milliseconds of the steps played with one request
+     * @return the {@link GestureSequenceResult} with the completed steps
+     */
+    public GestureSequenceResult playGestureSequence(GestureSequence sequence,
+                                                     int maxPartStepCount,
+                                                     int maxPartDuration) {
+        long startTime = System.currentTimeMillis();
+        int completedStepCount = 0;
+
+        for (GestureSequence part : sequence.split(maxPartStepCount, maxPartDuration)) {
+            if (completedStepCount > 0 && !waitBeforePart(sequence.getGapBefore(completedStepCount))) {
+                break;
+            }
+
+            long partStartTime = System.currentTimeMillis();
+            Object response = deviceCommunicator.sendAction(RoutingAction.PLAY_GESTURE, part.toGesture());
+
+            if (response != DeviceCommunicator.VOID_SUCCESS) {
+                break;
+            }
+
+            GestureRecorder recorder = gestureRecorder;
+            if (recorder != null) {
+                for (int step = 0; step < part.getStepCount(); step++) {
+                    recorder.record(part.getStep(step), partStartTime + part.getStepStartTime(step));
+                }
+            }
+
+            completedStepCount += part.getStepCount();
+        }
+
+        long playTime = System.currentTimeMillis() - startTime;
+        GestureSequenceResult result = new GestureSequenceResult(sequence, completedStepCount, playTime);
+        if (!result.isCompleted()) {
+            LOGGER.warn(String.format("Playing a sequence of %d gestures failed after %d gestures.",
+                                      sequence.getStepCount(),
+                                      completedStepCount));
+        }
+
+        return result;
+    }
+
+    private boolean waitBeforePart(int gap) {
+        try {
+            Thread.sleep(gap);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
     }
 
     /**
@@ -0,0 +1,89 @@
+package com.musala.atmosphere.client.entity;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+
+import com.musala.atmosphere.client.UiElement;
+import com.musala.atmosphere.client.snapshot.UiHierarchySnapshot;
+import com.musala.atmosphere.commons.ui.tree.AccessibilityElement;
+
+/**
+ * A list of {@link UiElement UI elements} backed by the fetched {@link AccessibilityElement accessibility elements}.
+ * Each element is wrapped the first time it is accessed and the wrapper is reused afterwards. The list can be modified
+ * like any other list; elements added to it are kept as they are.
+ */
+class LazyUiElementList extends AbstractList<UiElement> implements RandomAccess {
+    private final AccessibilityElementEntity elementEntity;
+
+    private final long screenEpoch;
+
+    private final UiHierarchySnapshot snapshot;
+
+    /**
+     * Holds the {@link AccessibilityElement accessibility elements} that are not wrapped yet and the wrapped
+     * {@link UiElement UI elements}.
+     */
+    private final List<Object> elements;
+
+    LazyUiElementList(AccessibilityElementEntity elementEntity,
+            List<AccessibilityElement> accessibilityElements,
+            long screenEpoch,
+            UiHierarchySnapshot snapshot) {
+        this.elementEntity = elementEntity;
+        this.elements = new ArrayList<Object>(accessibilityElements);
+        this.screenEpoch = screenEpoch;
+        this.snapshot = snapshot;
+    }
+
+    /**
+     * Gets the element at the given position, wrapping it if it is accessed for the first time.
+     *
+     * @throws IllegalStateException
+     *         if the element can not be wrapped
+     */
+    @Override
+    public UiElement get(int index) {
+        Object element = elements.get(index);
+        if (element instanceof UiElement || element == null) {
+            return (UiElement) element;
+        }
+
+        UiElement wrappedElement = elementEntity.wrapAccessibilityElement((AccessibilityElement) element,
+                                                                          screenEpoch,
+                                                                          snapshot);
+        if (wrappedElement == null) {
+            throw new IllegalStateException(String.format("The element at index %d could not be wrapped.", index));
+        }
+
+        elements.set(index, wrappedElement);
+        return wrappedElement;
+    }
+
+    @Override
+    public UiElement set(int index, UiElement element) {
+        UiElement previousElement = get(index);
+        elements.set(index, element);
+        return previousElement;
+    }
+
+    @Override
+    public void add(int index, UiElement element) {
+        elements.add(index, element);
+        modCount++;
+    }
+
+    @Override
+    public UiElement remove(int index) {
+        UiElement removedElement = get(index);
+        elements.remove(index);
+        modCount++;
+        return removedElement;
+    }
+
+    @Override
+    public int size() {
+        return elements.size();
+    }
+}
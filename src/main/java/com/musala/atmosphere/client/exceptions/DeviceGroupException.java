@@ -0,0 +1,19 @@
+package com.musala.atmosphere.client.exceptions;
+
+import com.musala.atmosphere.commons.exceptions.AtmosphereRuntimeException;
+
+/**
+ * Thrown when an operation executed on a group of devices fails or times out on some of them. The failures of the
+ * individual devices are attached as suppressed exceptions.
+ */
+public class DeviceGroupException extends AtmosphereRuntimeException {
+
+    /**
+     * auto generated serialization id
+     */
+    private static final long serialVersionUID = -3215584371952683187L;
+
+    public DeviceGroupException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,483 @@
+package com.musala.atmosphere.client.snapshot;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+import com.musala.atmosphere.client.exceptions.InvalidCssQueryException;
+import com.musala.atmosphere.client.snapshot.UiElementSelectorMatcher.SelectionCriterion;
+import com.musala.atmosphere.commons.exceptions.UiElementFetchingException;
+import com.musala.atmosphere.commons.geometry.Bounds;
+import com.musala.atmosphere.commons.geometry.Point;
+import com.musala.atmosphere.commons.ui.selector.UiElementSelectionOption;
+import com.musala.atmosphere.commons.ui.selector.UiElementSelector;
+import com.musala.atmosphere.commons.ui.tree.AccessibilityElement;
+
+/**
+ * An immutable, memory efficient encoding of a {@link UiHierarchySnapshot}, meant for keeping snapshots of many devices
+ * or a long history of a single device. Nodes are numbered in document order and all of their properties are kept in
+ * parallel primitive arrays: bounds, flags, child offsets and references into a sorted table of the distinct strings of
+ * the snapshot. {@link AccessibilityElement Elements} are created only for the nodes returned by a query.
+ * <p>
+ * Selector lookups are answered directly from the arrays. CSS and XPath queries need the node graph and temporarily
+ * {@link #toSnapshot() inflate} the snapshot.
+ * </p>
+ */
+public final class CompactUiHierarchySnapshot {
+    /**
+     * The parent of top level nodes.
+     */
+    public static final int NO_PARENT = -1;
+
+    private static final int NO_STRING = -1;
+
+    private static final int TEXT = 0;
+
+    private static final int CLASS_NAME = 1;
+
+    private static final int RESOURCE_ID = 2;
+
+    private static final int CONTENT_DESC = 3;
+
+    private static final int PACKAGE = 4;
+
+    private static final int STRING_COLUMNS = 5;
+
+    private static final int CHECKABLE = 1;
+
+    private static final int CHECKED = 1 << 1;
+
+    private static final int CLICKABLE = 1 << 2;
+
+    private static final int ENABLED = 1 << 3;
+
+    private static final int FOCUSABLE = 1 << 4;
+
+    private static final int FOCUSED = 1 << 5;
+
+    private static final int LONG_CLICKABLE = 1 << 6;
+
+    private static final int PASSWORD = 1 << 7;
+
+    private static final int SCROLLABLE = 1 << 8;
+
+    private static final int SELECTED = 1 << 9;
+
+    private static final int HAS_BOUNDS = 1 << 10;
+
+    private final int size;
+
+    private final int[] rootNodes;
+
+    private final int[] parents;
+
+    private final int[] childOffsets;
+
+    private final int[] children;
+
+    private final int[] indexes;
+
+    private final int[] bounds;
+
+    private final short[] flags;
+
+    private final int[] stringReferences;
+
+    private final String[] strings;
+
+    private final long creationTime;
+
+    private final long screenEpoch;
+
+    private CompactUiHierarchySnapshot(UiHierarchySnapshot snapshot) {
+        List<UiHierarchyNode> nodes = snapshot.getNodes();
+        size = nodes.size();
+        parents = new int[size];
+        childOffsets = new int[size + 1];
+        indexes = new int[size];
+        bounds = new int[size * 4];
+        flags = new short[size];
+        stringReferences = new int[size * STRING_COLUMNS];
+        creationTime = snapshot.getCreationTime();
+        screenEpoch = snapshot.getScreenEpoch();
+
+        Map<UiHierarchyNode, Integer> nodeNumbers = new IdentityHashMap<>();
+        TreeSet<String> distinctStrings = new TreeSet<>();
+        for (int node = 0; node < size; node++) {
+            UiHierarchyNode hierarchyNode = nodes.get(node);
+            nodeNumbers.put(hierarchyNode, node);
+            addIfNotNull(distinctStrings, getStrings(hierarchyNode.getElement()));
+        }
+        strings = distinctStrings.toArray(new String[distinctStrings.size()]);
+
+        List<UiHierarchyNode> roots = snapshot.getRoots();
+        rootNodes = new int[roots.size()];
+        for (int i = 0; i < rootNodes.length; i++) {
+            rootNodes[i] = nodeNumbers.get(roots.get(i));
+        }
+
+        children = new int[size - rootNodes.length];
+        int childOffset = 0;
+        for (int node = 0; node < size; node++) {
+            UiHierarchyNode hierarchyNode = nodes.get(node);
+            UiHierarchyNode parent = hierarchyNode.getParent();
+            parents[node] = parent == null ? NO_PARENT : nodeNumbers.get(parent);
+
+            childOffsets[node] = childOffset;
+            for (UiHierarchyNode child : hierarchyNode.getChildren()) {
+                children[childOffset++] = nodeNumbers.get(child);
+            }
+
+            encodeElement(node, hierarchyNode.getElement());
+        }
+        childOffsets[size] = childOffset;
+    }
+
+    /**
+     * Encodes the given snapshot.
+     *
+     * @param snapshot
+     *        - the snapshot to encode
+     * @return the {@link CompactUiHierarchySnapshot} holding the same hierarchy
+     */
+    public static CompactUiHierarchySnapshot compact(UiHierarchySnapshot snapshot) {
+        return new CompactUiHierarchySnapshot(snapshot);
+    }
+
+    /**
+     * Builds a compact snapshot from a UI hierarchy XML dump fetched from a device in the given screen epoch.
+     *
+     * @param uiHierarchyXml
+     *        - the XML dump of the UI hierarchy
+     * @param screenEpoch
+     *        - the screen epoch of the device before the dump was requested
+     * @return the {@link CompactUiHierarchySnapshot} describing the dump
+     * @throws UiElementFetchingException
+     *         if the dump can not be parsed
+     */
+    public static CompactUiHierarchySnapshot parse(String uiHierarchyXml, long screenEpoch)
+        throws UiElementFetchingException {
+        return compact(UiHierarchySnapshot.parse(uiHierarchyXml, screenEpoch));
+    }
+
+    /**
+     * Gets the number of nodes in the snapshot.
+     *
+     * @return the number of nodes
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets the time when the original snapshot was created.
+     *
+     * @return the creation time in milliseconds
+     */
+    public long getCreationTime() {
+        return creationTime;
+    }
+
+    /**
+     * Gets the screen epoch of the device in which the hierarchy was fetched.
+     *
+     * @return the screen epoch, or {@link UiHierarchySnapshot#NO_SCREEN_EPOCH} if it is not known
+     */
+    public long getScreenEpoch() {
+        return screenEpoch;
+    }
+
+    /**
+     * Gets the numbers of the top level nodes.
+     *
+     * @return the numbers of the top level nodes
+     */
+    public int[] getRoots() {
+        return rootNodes.clone();
+    }
+
+    /**
+     * Gets the parent of the given node.
+     *
+     * @param node
+     *        - the number of the node in document order
+     * @return the number of the parent node, or {@link #NO_PARENT} for top level nodes
+     */
+    public int getParent(int node) {
+        return parents[node];
+    }
+
+    /**
+     * Gets the direct children of the given node.
+     *
+     * @param node
+     *        - the number of the node in document order
+     * @return the numbers of the children in the order they appear on the screen
+     */
+    public int[] getChildren(int node) {
+        return Arrays.copyOfRange(children, childOffsets[node], childOffsets[node + 1]);
+    }
+
+    /**
+     * Gets the depth of the given node. Top level nodes have depth 0.
+     *
+     * @param node
+     *        - the number of the node in document order
+     * @return the depth of the node
+     */
+    public int getDepth(int node) {
+        int depth = 0;
+        for (int parent = parents[node]; parent != NO_PARENT; parent = parents[parent]) {
+            depth++;
+        }
+
+        return depth;
+    }
+
+    /**
+     * Creates the element describing the given node.
+     *
+     * @param node
+     *        - the number of the node in document order
+     * @return a new {@link AccessibilityElement} with the properties of the node
+     */
+    public AccessibilityElement getElement(int node) {
+        AccessibilityElement element = new AccessibilityElement();
+        int nodeFlags = flags[node];
+        int boundsOffset = node * 4;
+
+        if ((nodeFlags & HAS_BOUNDS) != 0) {
+            element.setBounds(new Bounds(new Point(bounds[boundsOffset], bounds[boundsOffset + 1]),
+                                         new Point(bounds[boundsOffset + 2], bounds[boundsOffset + 3])));
+        }
+        element.setIndex(indexes[node]);
+        element.setText(getString(node, TEXT));
+        element.setClassName(getString(node, CLASS_NAME));
+        element.setResourceId(getString(node, RESOURCE_ID));
+        element.setContentDescriptor(getString(node, CONTENT_DESC));
+        element.setPackageName(getString(node, PACKAGE));
+        element.setCheckable((nodeFlags & CHECKABLE) != 0);
+        element.setChecked((nodeFlags & CHECKED) != 0);
+        element.setClickable((nodeFlags & CLICKABLE) != 0);
+        element.setEnabled((nodeFlags & ENABLED) != 0);
+        element.setFocusable((nodeFlags & FOCUSABLE) != 0);
+        element.setFocused((nodeFlags & FOCUSED) != 0);
+        element.setLongClickable((nodeFlags & LONG_CLICKABLE) != 0);
+        element.setPassword((nodeFlags & PASSWORD) != 0);
+        element.setScrollable((nodeFlags & SCROLLABLE) != 0);
+        element.setSelected((nodeFlags & SELECTED) != 0);
+
+        return element;
+    }
+
+    /**
+     * Gets all elements in the snapshot that match the given selector. Equality conditions on the resource id, text,
+     * class name, content description and package name are checked against the string references of the nodes, so
+     * elements are created only for nodes that pass them.
+     *
+     * @param selector
+     *        - contains the matching criteria
+     * @return list with all matching elements in document order, empty if none match
+     */
+    public List<AccessibilityElement> getElements(UiElementSelector selector) {
+        return findElements(selector, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Gets the first element in the snapshot that matches the given selector.
+     *
+     * @param selector
+     *        - contains the matching criteria
+     * @return the first matching element in document order, or <code>null</code> if none match
+     */
+    public AccessibilityElement getFirstElement(UiElementSelector selector) {
+        List<AccessibilityElement> foundElements = findElements(selector, 1);
+        return foundElements.isEmpty() ? null : foundElements.get(0);
+    }
+
+    /**
+     * Gets all elements in the snapshot that match the given CSS query.
+     *
+     * @param cssQuery
+     *        - the CSS query
+     * @return list with all matching elements in document order, empty if none match
+     * @throws InvalidCssQueryException
+     *         if the query is not a valid CSS query
+     * @see UiHierarchySnapshot#getElementsByCss(String)
+     */
+    public List<AccessibilityElement> getElementsByCss(String cssQuery) throws InvalidCssQueryException {
+        return toSnapshot().getElementsByCss(cssQuery);
+    }
+
+    /**
+     * Gets all elements in the snapshot that match the given XPath query.
+     *
+     * @param xpathQuery
+     *        - the XPath query
+     * @return list with all matching elements in document order, empty if none match
+     * @throws IllegalArgumentException
+     *         if the query is not a valid XPath expression
+     * @see UiHierarchySnapshot#getElementsByXPath(String)
+     */
+    public List<AccessibilityElement> getElementsByXPath(String xpathQuery) {
+        return toSnapshot().getElementsByXPath(xpathQuery);
+    }
+
+    /**
+     * Decodes this snapshot to a {@link UiHierarchySnapshot} with the same hierarchy.
+     *
+     * @return the decoded {@link UiHierarchySnapshot}
+     */
+    public UiHierarchySnapshot toSnapshot() {
+        UiHierarchyNode[] hierarchyNodes = new UiHierarchyNode[size];
+        List<UiHierarchyNode> roots = new ArrayList<>(rootNodes.length);
+
+        // parents always precede their children in document order
+        for (int node = 0; node < size; node++) {
+            int parent = parents[node];
+            UiHierarchyNode parentNode = parent == NO_PARENT ? null : hierarchyNodes[parent];
+            hierarchyNodes[node] = new UiHierarchyNode(getElement(node), parentNode);
+            if (parentNode == null) {
+                roots.add(hierarchyNodes[node]);
+            } else {
+                parentNode.addChild(hierarchyNodes[node]);
+            }
+        }
+
+        return new UiHierarchySnapshot(roots, Arrays.asList(hierarchyNodes), screenEpoch);
+    }
+
+    private List<AccessibilityElement> findElements(UiElementSelector selector, int limit) {
+        UiElementSelectorMatcher matcher = new UiElementSelectorMatcher(selector);
+        List<AccessibilityElement> foundElements = new ArrayList<>();
+
+        List<int[]> requiredStrings = new ArrayList<>();
+        for (SelectionCriterion criterion : matcher.getCriteria()) {
+            int column = getStringColumn(criterion);
+            if (column == NO_STRING) {
+                continue;
+            }
+
+            int stringReference = Arrays.binarySearch(strings, criterion.getValue());
+            if (stringReference < 0) {
+                return foundElements;
+            }
+            requiredStrings.add(new int[] {column, stringReference});
+        }
+
+        for (int node = 0; node < size && foundElements.size() < limit; node++) {
+            if (hasStrings(node, requiredStrings)) {
+                AccessibilityElement element = getElement(node);
+                if (matcher.matches(element)) {
+                    foundElements.add(element);
+                }
+            }
+        }
+
+        return foundElements;
+    }
+
+    private boolean hasStrings(int node, List<int[]> requiredStrings) {
+        for (int[] requiredString : requiredStrings) {
+            if (stringReferences[node * STRING_COLUMNS + requiredString[0]] != requiredString[1]) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Gets the string column that can answer the given criterion.
+     *
+     * @return the column index, or {@link #NO_STRING} if the criterion has to be checked on the element
+     */
+    private static int getStringColumn(SelectionCriterion criterion) {
+        // missing attributes match the empty string, so it can not be checked by reference
+        if (criterion.getOption() != UiElementSelectionOption.EQUALS || criterion.getValue().isEmpty()) {
+            return NO_STRING;
+        }
+
+        String indexName = UiHierarchyIndex.getIndexName(criterion.getAttributeName());
+        if (indexName == null) {
+            return NO_STRING;
+        }
+
+        switch (indexName) {
+            case "text":
+                return TEXT;
+            case "className":
+                return CLASS_NAME;
+            case "resourceId":
+                return RESOURCE_ID;
+            case "contentDesc":
+                return CONTENT_DESC;
+            case "package":
+                return PACKAGE;
+            default:
+                return NO_STRING;
+        }
+    }
+
+    private String getString(int node, int column) {
+        int stringReference = stringReferences[node * STRING_COLUMNS + column];
+        return stringReference == NO_STRING ? null : strings[stringReference];
+    }
+
+    private void encodeElement(int node, AccessibilityElement element) {
+        int nodeFlags = 0;
+        nodeFlags |= element.isCheckable() ? CHECKABLE : 0;
+        nodeFlags |= element.isChecked() ? CHECKED : 0;
+        nodeFlags |= element.isClickable() ? CLICKABLE : 0;
+        nodeFlags |= element.isEnabled() ? ENABLED : 0;
+        nodeFlags |= element.isFocusable() ? FOCUSABLE : 0;
+        nodeFlags |= element.isFocused() ? FOCUSED : 0;
+        nodeFlags |= element.isLongClickable() ? LONG_CLICKABLE : 0;
+        nodeFlags |= element.isPassword() ? PASSWORD : 0;
+        nodeFlags |= element.isScrollable() ? SCROLLABLE : 0;
+        nodeFlags |= element.isSelected() ? SELECTED : 0;
+
+        Bounds elementBounds = element.getBounds();
+        if (elementBounds != null) {
+            nodeFlags |= HAS_BOUNDS;
+            Point upperLeft = elementBounds.getUpperLeftCorner();
+            Point lowerRight = elementBounds.getLowerRightCorner();
+            int boundsOffset = node * 4;
+            bounds[boundsOffset] = upperLeft.getX();
+            bounds[boundsOffset + 1] = upperLeft.getY();
+            bounds[boundsOffset + 2] = lowerRight.getX();
+            bounds[boundsOffset + 3] = lowerRight.getY();
+        }
+
+        flags[node] = (short) nodeFlags;
+        indexes[node] = element.getIndex();
+
+        String[] elementStrings = getStrings(element);
+        for (int column = 0; column < STRING_COLUMNS; column++) {
+            String value = elementStrings[column];
+            stringReferences[node * STRING_COLUMNS + column] = value == null ? NO_STRING
+                    : Arrays.binarySearch(strings, value);
+        }
+    }
+
+    private static String[] getStrings(AccessibilityElement element) {
+        String[] elementStrings = new String[STRING_COLUMNS];
+        elementStrings[TEXT] = element.getText();
+        elementStrings[CLASS_NAME] = element.getClassName();
+        elementStrings[RESOURCE_ID] = element.getResourceId();
+        elementStrings[CONTENT_DESC] = element.getContentDescriptor();
+        elementStrings[PACKAGE] = element.getPackageName();
+        return elementStrings;
+    }
+
+    private static void addIfNotNull(TreeSet<String> distinctStrings, String[] values) {
+        for (String value : values) {
+            if (value != null) {
+                distinctStrings.add(value);
+            }
+        }
+    }
+}
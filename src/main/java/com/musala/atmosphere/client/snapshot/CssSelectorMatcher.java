@@ -0,0 +1,154 @@
+package com.musala.atmosphere.client.snapshot;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.musala.atmosphere.client.snapshot.UiElementSelectorMatcher.SelectionCriterion;
+import com.musala.atmosphere.client.uiutils.css.AttributeCondition;
+import com.musala.atmosphere.client.uiutils.css.AttributeOperator;
+import com.musala.atmosphere.client.uiutils.css.Combinator;
+import com.musala.atmosphere.client.uiutils.css.ComplexSelector;
+import com.musala.atmosphere.client.uiutils.css.CompoundSelector;
+import com.musala.atmosphere.client.uiutils.css.NthChildCondition;
+import com.musala.atmosphere.client.uiutils.css.SelectorList;
+import com.musala.atmosphere.commons.ui.selector.UiElementSelectionOption;
+import com.musala.atmosphere.commons.ui.tree.AccessibilityElement;
+
+/**
+ * Evaluates a parsed CSS query directly against the nodes of a {@link UiHierarchySnapshot}, without converting it to
+ * XPath. Selectors are matched from right to left, walking up the tree or back along the siblings for each combinator.
+ */
+class CssSelectorMatcher {
+    private final SelectorList selectorList;
+
+    private final List<UiHierarchyNode> roots;
+
+    CssSelectorMatcher(SelectorList selectorList, List<UiHierarchyNode> roots) {
+        this.selectorList = selectorList;
+        this.roots = roots;
+    }
+
+    /**
+     * Checks if the given node is selected by the query.
+     *
+     * @param node
+     *        - the node to check
+     * @return <code>true</code> if any of the selectors of the query matches the node, <code>false</code> otherwise
+     */
+    boolean matches(UiHierarchyNode node) {
+        for (ComplexSelector selector : selectorList.getSelectors()) {
+            if (matches(node, selector, selector.getCompoundSelectors().size() - 1)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Gets the equality criteria of the selected elements which can be used to narrow down the candidates through the
+     * snapshot indexes.
+     *
+     * @return the equality criteria of the last compound selector, empty if the query has more than one selector
+     */
+    List<SelectionCriterion> getSubjectEqualityCriteria() {
+        List<SelectionCriterion> criteria = new ArrayList<>();
+        List<ComplexSelector> selectors = selectorList.getSelectors();
+        if (selectors.size() != 1) {
+            return criteria;
+        }
+
+        CompoundSelector subject = selectors.get(0).getSubject();
+        if (subject.getType() != null) {
+            criteria.add(new SelectionCriterion("className", UiElementSelectionOption.EQUALS, subject.getType()));
+        }
+
+        for (AttributeCondition condition : subject.getAttributeConditions()) {
+            if (condition.getOperator() == AttributeOperator.EQUALS && condition.isKnownAttribute()
+                    && UiElementSelectorMatcher.isSupportedAttribute(condition.getAttributeName())) {
+                criteria.add(new SelectionCriterion(condition.getAttributeName(),
+                                                    UiElementSelectionOption.EQUALS,
+                                                    condition.getValue()));
+            }
+        }
+
+        return criteria;
+    }
+
+    private boolean matches(UiHierarchyNode node, ComplexSelector selector, int compoundIndex) {
+        if (!matches(node, selector.getCompoundSelectors().get(compoundIndex))) {
+            return false;
+        }
+
+        if (compoundIndex == 0) {
+            return true;
+        }
+
+        Combinator combinator = selector.getCombinators().get(compoundIndex - 1);
+        switch (combinator) {
+            case CHILD:
+                return node.getParent() != null && matches(node.getParent(), selector, compoundIndex - 1);
+            case DESCENDANT:
+                for (UiHierarchyNode ancestor = node.getParent(); ancestor != null; ancestor = ancestor.getParent()) {
+                    if (matches(ancestor, selector, compoundIndex - 1)) {
+                        return true;
+                    }
+                }
+                return false;
+            case ADJACENT_SIBLING:
+                List<UiHierarchyNode> siblings = getSiblings(node);
+                int position = siblings.indexOf(node);
+                return position > 0 && matches(siblings.get(position - 1), selector, compoundIndex - 1);
+            case GENERAL_SIBLING:
+                List<UiHierarchyNode> precedingSiblings = getSiblings(node);
+                for (int i = precedingSiblings.indexOf(node) - 1; i >= 0; i--) {
+                    if (matches(precedingSiblings.get(i), selector, compoundIndex - 1)) {
+                        return true;
+                    }
+                }
+                return false;
+            default:
+                return false;
+        }
+    }
+
+    private boolean matches(UiHierarchyNode node, CompoundSelector compoundSelector) {
+        AccessibilityElement element = node.getElement();
+
+        if (compoundSelector.getType() != null && !compoundSelector.getType().equals(element.getClassName())) {
+            return false;
+        }
+
+        for (AttributeCondition condition : compoundSelector.getAttributeConditions()) {
+            if (!condition.isKnownAttribute()) {
+                continue;
+            }
+
+            String attributeName = condition.getAttributeName();
+            String actualValue = UiElementSelectorMatcher.isSupportedAttribute(attributeName)
+                    ? UiElementSelectorMatcher.getAttributeValue(element, attributeName)
+                    : null;
+            if (!condition.getOperator().matches(actualValue, condition.getValue())) {
+                return false;
+            }
+        }
+
+        if (!compoundSelector.getNthChildConditions().isEmpty()) {
+            List<UiHierarchyNode> siblings = getSiblings(node);
+            int position = siblings.indexOf(node) + 1;
+
+            for (NthChildCondition condition : compoundSelector.getNthChildConditions()) {
+                int conditionPosition = condition.isFromEnd() ? siblings.size() - position + 1 : position;
+                if (!condition.matches(conditionPosition)) {
+                    return false;
+                }
+            }
+        }
+
+        return true;
+    }
+
+    private List<UiHierarchyNode> getSiblings(UiHierarchyNode node) {
+        return node.getParent() == null ? roots : node.getParent().getChildren();
+    }
+}
@@ -0,0 +1,121 @@
+package com.musala.atmosphere.client.snapshot;
+
+import com.musala.atmosphere.client.exceptions.InvalidCssQueryException;
+import com.musala.atmosphere.client.uiutils.CssToXPathConverter;
+import com.musala.atmosphere.client.uiutils.css.SelectorList;
+import com.musala.atmosphere.commons.ui.selector.UiElementSelector;
+
+/**
+ * A condition on the state of the screen, evaluated against a {@link UiHierarchySnapshot}. Used to wait for the first
+ * of several possible outcomes of an action, e.g. a success dialog or an error message. Custom conditions can be
+ * created by extending this class.
+ */
+public abstract class UiCondition {
+    /**
+     * Checks if the condition is satisfied by the given snapshot of the screen.
+     *
+     * @param snapshot
+     *        - a snapshot of the screen
+     * @return <code>true</code> if the condition is satisfied, <code>false</code> otherwise
+     */
+    public abstract boolean isSatisfied(UiHierarchySnapshot snapshot);
+
+    /**
+     * Creates a condition satisfied when an element matching the given selector is present on the screen.
+     *
+     * @param selector
+     *        - the selector of the element
+     * @return the created {@link UiCondition}
+     */
+    public static UiCondition elementExists(final UiElementSelector selector) {
+        return new UiCondition() {
+            @Override
+            public boolean isSatisfied(UiHierarchySnapshot snapshot) {
+                return !snapshot.getElements(selector).isEmpty();
+            }
+
+            @Override
+            public String toString() {
+                return "element exists " + selector.buildCssQuery();
+            }
+        };
+    }
+
+    /**
+     * Creates a condition satisfied when no element matching the given selector is present on the screen.
+     *
+     * @param selector
+     *        - the selector of the element
+     * @return the created {@link UiCondition}
+     */
+    public static UiCondition elementGone(final UiElementSelector selector) {
+        return not(elementExists(selector));
+    }
+
+    /**
+     * Creates a condition satisfied when an element matching the given CSS query is present on the screen.
+     *
+     * @param cssQuery
+     *        - the CSS query of the element
+     * @return the created {@link UiCondition}
+     * @throws InvalidCssQueryException
+     *         if the query is not a valid CSS query
+     */
+    public static UiCondition elementExistsByCss(final String cssQuery) throws InvalidCssQueryException {
+        final SelectorList selectorList = CssToXPathConverter.compile(cssQuery).getSelectorList();
+
+        return new UiCondition() {
+            @Override
+            public boolean isSatisfied(UiHierarchySnapshot snapshot) {
+                return !snapshot.getNodesByCss(selectorList).isEmpty();
+            }
+
+            @Override
+            public String toString() {
+                return "element exists " + cssQuery;
+            }
+        };
+    }
+
+    /**
+     * Creates a condition satisfied when an element matching the given XPath query is present on the screen.
+     *
+     * @param xpathQuery
+     *        - the XPath query of the element
+     * @return the created {@link UiCondition}
+     */
+    public static UiCondition elementExistsByXPath(final String xpathQuery) {
+        return new UiCondition() {
+            @Override
+            public boolean isSatisfied(UiHierarchySnapshot snapshot) {
+                return !snapshot.getNodesByXPath(xpathQuery).isEmpty();
+            }
+
+            @Override
+            public String toString() {
+                return "element exists " + xpathQuery;
+            }
+        };
+    }
+
+    /**
+     * Creates a condition satisfied when the given condition is not.
+     *
+     * @param condition
+     *        - the condition to negate
+     * @return the created {@link UiCondition}
+     */
+    public static UiCondition not(final UiCondition condition) {
+        return new UiCondition() {
+            @Override
+            public boolean isSatisfied(UiHierarchySnapshot snapshot) {
+                return !condition.isSatisfied(snapshot);
+            }
+
+            @Override
+            public String toString() {
+                return "not " + condition;
+            }
+        };
+    }
+}
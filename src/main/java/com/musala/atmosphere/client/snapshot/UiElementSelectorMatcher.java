@@ -0,0 +1,284 @@
+package com.musala.atmosphere.client.snapshot;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import com.musala.atmosphere.commons.geometry.Bounds;
+import com.musala.atmosphere.commons.geometry.Point;
+import com.musala.atmosphere.commons.ui.UiElementPropertiesContainer;
+import com.musala.atmosphere.commons.ui.selector.CssAttribute;
+import com.musala.atmosphere.commons.ui.selector.UiElementSelectionOption;
+import com.musala.atmosphere.commons.ui.selector.UiElementSelector;
+
+/**
+ * Evaluates a {@link UiElementSelector} against element properties on the client side, without sending the selector
+ * to the device. The selection criteria are taken from the attribute values of the selector, so values containing
+ * square brackets are kept intact, and the matching follows the same {@link UiElementSelectionOption selection
+ * options} the agent uses.
+ */
+public class UiElementSelectorMatcher {
+    private static final String BOUNDS_FORMAT = "[%d,%d][%d,%d]";
+
+    private static final Set<String> SUPPORTED_ATTRIBUTES = new HashSet<>(Arrays.asList("bounds",
+                                                                                         "checkable",
+                                                                                         "checked",
+                                                                                         "class",
+                                                                                         "classname",
+                                                                                         "clickable",
+                                                                                         "contentdesc",
+                                                                                         "contentdescription",
+                                                                                         "enabled",
+                                                                                         "focusable",
+                                                                                         "focused",
+                                                                                         "index",
+                                                                                         "longclickable",
+                                                                                         "package",
+                                                                                         "packagename",
+                                                                                         "password",
+                                                                                         "resourceid",
+                                                                                         "scrollable",
+                                                                                         "selected",
+                                                                                         "text"));
+
+    private final List<SelectionCriterion> criteria;
+
+    /**
+     * Creates a matcher for the given selector.
+     *
+     * @param selector
+     *        - the {@link UiElementSelector} that will be evaluated
+     */
+    public UiElementSelectorMatcher(UiElementSelector selector) {
+        criteria = collectCriteria(selector);
+    }
+
+    /**
+     * Checks if the given element properties satisfy all selection criteria of the selector.
+     *
+     * @param properties
+     *        - the properties of the element to check
+     * @return <code>true</code> if the element matches the selector, <code>false</code> otherwise
+     */
+    public boolean matches(UiElementPropertiesContainer properties) {
+        for (SelectionCriterion criterion : criteria) {
+            if (!criterion.matches(properties)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Gets the selection criteria of the selector in the declaration order of their {@link CssAttribute attributes}.
+     *
+     * @return an unmodifiable list of the selection criteria
+     */
+    public List<SelectionCriterion> getCriteria() {
+        return Collections.unmodifiableList(criteria);
+    }
+
+    /**
+     * Gets the value of the attribute with the given name as it is used in selectors and XML dumps. Both the dashed
+     * (<code>content-desc</code>) and the camelCase (<code>contentDesc</code>) attribute names are accepted.
+     *
+     * @param properties
+     *        - the element properties
+     * @param attributeName
+     *        - the name of the attribute
+     * @return the value of the attribute as a string, never <code>null</code>
+     * @throws IllegalArgumentException
+     *         if the attribute is not supported
+     */
+    public static String getAttributeValue(UiElementPropertiesContainer properties, String attributeName) {
+        switch (normalizeAttributeName(attributeName)) {
+            case "bounds":
+                return formatBounds(properties.getBounds());
+            case "checkable":
+                return String.valueOf(properties.isCheckable());
+            case "checked":
+                return String.valueOf(properties.isChecked());
+            case "class":
+            case "classname":
+                return nullToEmpty(properties.getClassName());
+            case "clickable":
+                return String.valueOf(properties.isClickable());
+            case "contentdesc":
+            case "contentdescription":
+                return nullToEmpty(properties.getContentDescriptor());
+            case "enabled":
+                return String.valueOf(properties.isEnabled());
+            case "focusable":
+                return String.valueOf(properties.isFocusable());
+            case "focused":
+                return String.valueOf(properties.isFocused());
+            case "index":
+                return String.valueOf(properties.getIndex());
+            case "longclickable":
+                return String.valueOf(properties.isLongClickable());
+            case "package":
+            case "packagename":
+                return nullToEmpty(properties.getPackageName());
+            case "password":
+                return String.valueOf(properties.isPassword());
+            case "resourceid":
+                return nullToEmpty(properties.getResourceId());
+            case "scrollable":
+                return String.valueOf(properties.isScrollable());
+            case "selected":
+                return String.valueOf(properties.isSelected());
+            case "text":
+                return nullToEmpty(properties.getText());
+            default:
+                String message = String.format("Attribute '%s' is not supported.", attributeName);
+                throw new IllegalArgumentException(message);
+        }
+    }
+
+    /**
+     * Formats bounds the way they appear in selectors and XML dumps, e.g. <code>[0,0][720,1280]</code>.
+     *
+     * @param bounds
+     *        - the bounds to format
+     * @return the formatted bounds, or an empty string if the bounds are <code>null</code>
+     */
+    public static String formatBounds(Bounds bounds) {
+        if (bounds == null) {
+            return "";
+        }
+
+        Point upperLeft = bounds.getUpperLeftCorner();
+        Point lowerRight = bounds.getLowerRightCorner();
+        return String.format(BOUNDS_FORMAT, upperLeft.getX(), upperLeft.getY(), lowerRight.getX(), lowerRight.getY());
+    }
+
+    static boolean isSupportedAttribute(String attributeName) {
+        return SUPPORTED_ATTRIBUTES.contains(normalizeAttributeName(attributeName));
+    }
+
+    static String normalizeAttributeName(String attributeName) {
+        return attributeName.replace("-", "").toLowerCase();
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+
+    private static List<SelectionCriterion> collectCriteria(UiElementSelector selector) {
+        List<SelectionCriterion> collectedCriteria = new ArrayList<>();
+
+        for (CssAttribute attribute : CssAttribute.values()) {
+            String value = getSelectorValue(selector, attribute);
+            if (value == null || value.isEmpty()) {
+                continue;
+            }
+
+            UiElementSelectionOption option = selector.getSelectionOption(attribute);
+            if (option == null) {
+                option = UiElementSelectionOption.EQUALS;
+            }
+
+            collectedCriteria.add(new SelectionCriterion(attribute.getHtmlAttributeName(), option, value));
+        }
+
+        return collectedCriteria;
+    }
+
+    private static String getSelectorValue(UiElementSelector selector, CssAttribute attribute) {
+        switch (attribute) {
+            case BOUNDS:
+                Bounds bounds = selector.getBoundsValue(attribute);
+                return bounds == null ? null : formatBounds(bounds);
+            case INDEX:
+                Integer index = selector.getIntegerValue(attribute);
+                return index == null ? null : String.valueOf(index);
+            case CHECKABLE:
+            case CHECKED:
+            case CLICKABLE:
+            case ENABLED:
+            case FOCUSABLE:
+            case FOCUSED:
+            case LONG_CLICKABLE:
+            case PASSWORD:
+            case SCROLLABLE:
+            case SELECTED:
+                Boolean flag = selector.getBooleanValue(attribute);
+                return flag == null ? null : String.valueOf(flag);
+            default:
+                return selector.getStringValue(attribute);
+        }
+    }
+
+    /**
+     * A single attribute condition of a selector.
+     */
+    public static class SelectionCriterion {
+        private final String attributeName;
+
+        private final UiElementSelectionOption option;
+
+        private final String value;
+
+        SelectionCriterion(String attributeName, UiElementSelectionOption option, String value) {
+            this.attributeName = attributeName;
+            this.option = option;
+            this.value = value;
+        }
+
+        /**
+         * Gets the name of the attribute as it appears in the selector.
+         *
+         * @return the attribute name
+         */
+        public String getAttributeName() {
+            return attributeName;
+        }
+
+        /**
+         * Gets the way the attribute value is compared.
+         *
+         * @return the {@link UiElementSelectionOption} of this criterion
+         */
+        public UiElementSelectionOption getOption() {
+            return option;
+        }
+
+        /**
+         * Gets the expected attribute value.
+         *
+         * @return the expected value
+         */
+        public String getValue() {
+            return value;
+        }
+
+        /**
+         * Checks if the given element properties satisfy this criterion.
+         *
+         * @param properties
+         *        - the properties of the element to check
+         * @return <code>true</code> if the criterion is satisfied, <code>false</code> otherwise
+         */
+        public boolean matches(UiElementPropertiesContainer properties) {
+            String actualValue = getAttributeValue(properties, attributeName);
+
+            switch (option) {
+                case CONTAINS:
+                    return actualValue.contains(value);
+                case WORD_MATCH:
+                    for (String word : actualValue.split("\\s+")) {
+                        if (word.equals(value)) {
+                            return true;
+                        }
+                    }
+                    return false;
+                default:
+                    return actualValue.equals(value);
+            }
+        }
+    }
+}
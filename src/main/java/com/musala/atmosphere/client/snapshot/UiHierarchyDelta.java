@@ -0,0 +1,198 @@
+package com.musala.atmosphere.client.snapshot;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The changes of a UI hierarchy between two versions. Each {@link Change change} targets a node by its path of child
+ * indexes from the top of the hierarchy and carries the XML of the new node. A delta with a single change with an empty
+ * path replaces the whole hierarchy and is used for full fetches.
+ */
+public final class UiHierarchyDelta {
+    /**
+     * The base version of a delta that is not based on a previous version.
+     */
+    public static final long NO_VERSION = -1;
+
+    private final long baseVersion;
+
+    private final long version;
+
+    private final List<Change> changes;
+
+    private final int fullSize;
+
+    /**
+     * Creates a delta.
+     *
+     * @param baseVersion
+     *        - the version the changes are based on, or {@link #NO_VERSION} for a full hierarchy
+     * @param version
+     *        - the version of the hierarchy after applying the changes
+     * @param changes
+     *        - the changes in the order they should be applied
+     * @param fullSize
+     *        - the size in bytes of the full hierarchy dump of the new version
+     */
+    public UiHierarchyDelta(long baseVersion, long version, List<Change> changes, int fullSize) {
+        this.baseVersion = baseVersion;
+        this.version = version;
+        this.changes = Collections.unmodifiableList(new ArrayList<>(changes));
+        this.fullSize = fullSize;
+    }
+
+    /**
+     * Creates a delta that replaces the whole hierarchy.
+     *
+     * @param version
+     *        - the version of the hierarchy
+     * @param uiHierarchyXml
+     *        - the XML dump of the hierarchy
+     * @return the created {@link UiHierarchyDelta}
+     */
+    public static UiHierarchyDelta full(long version, String uiHierarchyXml) {
+        Change change = new Change(ChangeType.SUBTREE, new int[0], uiHierarchyXml);
+        return new UiHierarchyDelta(NO_VERSION, version, Collections.singletonList(change), change.getSize());
+    }
+
+    /**
+     * Gets the version the changes are based on.
+     *
+     * @return the base version, or {@link #NO_VERSION} if this delta contains the full hierarchy
+     */
+    public long getBaseVersion() {
+        return baseVersion;
+    }
+
+    /**
+     * Gets the version of the hierarchy after applying the changes.
+     *
+     * @return the new version
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Gets the changes of this delta.
+     *
+     * @return an unmodifiable list of the changes
+     */
+    public List<Change> getChanges() {
+        return changes;
+    }
+
+    /**
+     * Checks if this delta contains the full hierarchy instead of changes to a previous version.
+     *
+     * @return <code>true</code> if this is a full hierarchy, <code>false</code> otherwise
+     */
+    public boolean isFull() {
+        return baseVersion == NO_VERSION;
+    }
+
+    /**
+     * Gets the size of the transferred changes.
+     *
+     * @return the size of the changes in bytes
+     */
+    public int getSize() {
+        int size = 0;
+        for (Change change : changes) {
+            size += change.getSize();
+        }
+
+        return size;
+    }
+
+    /**
+     * Gets the size of the full hierarchy dump of the new version, i.e. the size that would have been transferred
+     * without this delta.
+     *
+     * @return the size of the full dump in bytes
+     */
+    public int getFullSize() {
+        return fullSize;
+    }
+
+    /**
+     * The kinds of changes of a node.
+     */
+    public enum ChangeType {
+        /**
+         * Only the attributes of the node changed. The XML of the change contains the node without its children.
+         */
+        ATTRIBUTES,
+        /**
+         * The node and all of its descendants are replaced by the XML of the change.
+         */
+        SUBTREE
+    }
+
+    /**
+     * A change of a single node of the hierarchy.
+     */
+    public static final class Change {
+        private final ChangeType type;
+
+        private final int[] path;
+
+        private final String xml;
+
+        /**
+         * Creates a change.
+         *
+         * @param type
+         *        - the kind of the change
+         * @param path
+         *        - the child indexes leading to the changed node, starting with the index of the top level node
+         * @param xml
+         *        - the XML of the new node
+         */
+        public Change(ChangeType type, int[] path, String xml) {
+            this.type = type;
+            this.path = path.clone();
+            this.xml = xml;
+        }
+
+        /**
+         * Gets the kind of this change.
+         *
+         * @return the {@link ChangeType} of this change
+         */
+        public ChangeType getType() {
+            return type;
+        }
+
+        /**
+         * Gets the path of the changed node.
+         *
+         * @return the child indexes leading to the changed node, empty if the whole hierarchy is replaced
+         */
+        public int[] getPath() {
+            return path.clone();
+        }
+
+        /**
+         * Gets the XML of the new node.
+         *
+         * @return the XML of the new node
+         */
+        public String getXml() {
+            return xml;
+        }
+
+        int getSize() {
+            // every path index is counted as a 32 bit integer
+            return xml.getBytes(StandardCharsets.UTF_8).length + path.length * 4;
+        }
+
+        @Override
+        public String toString() {
+            return type + " " + Arrays.toString(path);
+        }
+    }
+}
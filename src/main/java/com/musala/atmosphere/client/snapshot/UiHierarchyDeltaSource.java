@@ -0,0 +1,28 @@
+package com.musala.atmosphere.client.snapshot;
+
+import com.musala.atmosphere.commons.exceptions.UiElementFetchingException;
+
+/**
+ * A provider of versioned UI hierarchies, able to send only the changes since a previously fetched version.
+ */
+public interface UiHierarchyDeltaSource {
+    /**
+     * Gets the full current UI hierarchy.
+     *
+     * @return a {@link UiHierarchyDelta#isFull() full} delta with the current hierarchy
+     * @throws UiElementFetchingException
+     *         if the hierarchy can not be fetched
+     */
+    UiHierarchyDelta getFullHierarchy() throws UiElementFetchingException;
+
+    /**
+     * Gets the changes of the UI hierarchy since the given version.
+     *
+     * @param version
+     *        - a version previously received from this source
+     * @return the changes since the given version, or <code>null</code> if the version is too old to be diffed
+     * @throws UiElementFetchingException
+     *         if the changes can not be fetched
+     */
+    UiHierarchyDelta getChangesSince(long version) throws UiElementFetchingException;
+}
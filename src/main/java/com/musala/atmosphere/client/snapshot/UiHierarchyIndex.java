@@ -0,0 +1,130 @@
+package com.musala.atmosphere.client.snapshot;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.musala.atmosphere.client.snapshot.UiElementSelectorMatcher.SelectionCriterion;
+import com.musala.atmosphere.commons.ui.selector.UiElementSelectionOption;
+
+/**
+ * Hash indexes over the nodes of a {@link UiHierarchySnapshot}, keyed by the values of the attributes most often used
+ * in selectors. Each index is built the first time a selector needs it, so snapshots that are queried once or by other
+ * attributes do not pay for it.
+ */
+class UiHierarchyIndex {
+    private static final Map<String, String> INDEXED_ATTRIBUTES = new HashMap<>();
+
+    static {
+        INDEXED_ATTRIBUTES.put("resourceid", "resourceId");
+        INDEXED_ATTRIBUTES.put("text", "text");
+        INDEXED_ATTRIBUTES.put("class", "className");
+        INDEXED_ATTRIBUTES.put("classname", "className");
+        INDEXED_ATTRIBUTES.put("contentdesc", "contentDesc");
+        INDEXED_ATTRIBUTES.put("contentdescription", "contentDesc");
+        INDEXED_ATTRIBUTES.put("package", "package");
+        INDEXED_ATTRIBUTES.put("packagename", "package");
+    }
+
+    private final List<UiHierarchyNode> nodes;
+
+    private final Map<String, Map<String, List<UiHierarchyNode>>> indexes = new HashMap<>();
+
+    UiHierarchyIndex(List<UiHierarchyNode> nodes) {
+        this.nodes = nodes;
+    }
+
+    /**
+     * Checks if lookups by the given attribute can be answered by an index.
+     *
+     * @param attributeName
+     *        - the name of the attribute
+     * @return <code>true</code> if the attribute is indexed, <code>false</code> otherwise
+     */
+    static boolean isIndexed(String attributeName) {
+        return INDEXED_ATTRIBUTES.containsKey(UiElementSelectorMatcher.normalizeAttributeName(attributeName));
+    }
+
+    /**
+     * Gets the name of the index used for lookups by the given attribute.
+     *
+     * @param attributeName
+     *        - the name of the attribute
+     * @return the name of the index, or <code>null</code> if the attribute is not indexed
+     */
+    static String getIndexName(String attributeName) {
+        return INDEXED_ATTRIBUTES.get(UiElementSelectorMatcher.normalizeAttributeName(attributeName));
+    }
+
+    /**
+     * Gets the nodes that may match all of the given criteria. The candidates come from the index of the most
+     * selective equality criterion on an indexed attribute and still have to be checked against the rest of the
+     * criteria.
+     *
+     * @param criteria
+     *        - the selection criteria
+     * @return the candidate nodes in document order, or <code>null</code> if none of the criteria can be answered by
+     *         an index and all nodes have to be scanned
+     */
+    List<UiHierarchyNode> getCandidates(List<SelectionCriterion> criteria) {
+        List<UiHierarchyNode> candidates = null;
+
+        for (SelectionCriterion criterion : criteria) {
+            if (criterion.getOption() != UiElementSelectionOption.EQUALS || !isIndexed(criterion.getAttributeName())) {
+                continue;
+            }
+
+            List<UiHierarchyNode> indexedNodes = getNodes(criterion.getAttributeName(), criterion.getValue());
+            if (candidates == null || indexedNodes.size() < candidates.size()) {
+                candidates = indexedNodes;
+            }
+
+            if (candidates.isEmpty()) {
+                break;
+            }
+        }
+
+        return candidates;
+    }
+
+    /**
+     * Gets the nodes which have the given value for the given indexed attribute.
+     *
+     * @param attributeName
+     *        - the name of an indexed attribute
+     * @param value
+     *        - the attribute value
+     * @return an unmodifiable list of the nodes having this value, in document order
+     */
+    synchronized List<UiHierarchyNode> getNodes(String attributeName, String value) {
+        String indexName = getIndexName(attributeName);
+        Map<String, List<UiHierarchyNode>> index = indexes.get(indexName);
+
+        if (index == null) {
+            index = buildIndex(indexName);
+            indexes.put(indexName, index);
+        }
+
+        List<UiHierarchyNode> indexedNodes = index.get(value);
+        return indexedNodes == null ? Collections.<UiHierarchyNode> emptyList()
+                : Collections.unmodifiableList(indexedNodes);
+    }
+
+    private Map<String, List<UiHierarchyNode>> buildIndex(String indexName) {
+        Map<String, List<UiHierarchyNode>> index = new HashMap<>();
+
+        for (UiHierarchyNode node : nodes) {
+            String value = UiElementSelectorMatcher.getAttributeValue(node.getElement(), indexName);
+            List<UiHierarchyNode> valueNodes = index.get(value);
+            if (valueNodes == null) {
+                valueNodes = new ArrayList<>(1);
+                index.put(value, valueNodes);
+            }
+            valueNodes.add(node);
+        }
+
+        return index;
+    }
+}
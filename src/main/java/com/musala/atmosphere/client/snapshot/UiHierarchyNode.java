@@ -0,0 +1,67 @@
+package com.musala.atmosphere.client.snapshot;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.musala.atmosphere.commons.ui.tree.AccessibilityElement;
+
+/**
+ * A single node of a {@link UiHierarchySnapshot}. Holds the {@link AccessibilityElement} describing the node and its
+ * position in the captured UI tree.
+ */
+public class UiHierarchyNode {
+    private final AccessibilityElement element;
+
+    private final UiHierarchyNode parent;
+
+    private final List<UiHierarchyNode> children = new ArrayList<>();
+
+    private final int depth;
+
+    UiHierarchyNode(AccessibilityElement element, UiHierarchyNode parent) {
+        this.element = element;
+        this.parent = parent;
+        this.depth = parent == null ? 0 : parent.depth + 1;
+    }
+
+    void addChild(UiHierarchyNode child) {
+        children.add(child);
+    }
+
+    /**
+     * Gets the element described by this node.
+     *
+     * @return the {@link AccessibilityElement} of this node
+     */
+    public AccessibilityElement getElement() {
+        return element;
+    }
+
+    /**
+     * Gets the parent of this node.
+     *
+     * @return the parent {@link UiHierarchyNode}, or <code>null</code> if this is a top level node
+     */
+    public UiHierarchyNode getParent() {
+        return parent;
+    }
+
+    /**
+     * Gets the direct children of this node in the order they appear on the screen.
+     *
+     * @return an unmodifiable list of the direct children of this node
+     */
+    public List<UiHierarchyNode> getChildren() {
+        return Collections.unmodifiableList(children);
+    }
+
+    /**
+     * Gets the depth of this node in the captured tree. Top level nodes have depth 0.
+     *
+     * @return the depth of this node
+     */
+    public int getDepth() {
+        return depth;
+    }
+}
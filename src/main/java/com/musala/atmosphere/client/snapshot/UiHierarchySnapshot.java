@@ -0,0 +1,757 @@
+package com.musala.atmosphere.client.snapshot;
+
+import java.io.StringReader;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.xpath.XPathConstants;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+import com.musala.atmosphere.client.exceptions.InvalidCssQueryException;
+import com.musala.atmosphere.client.uiutils.CssToXPathConverter;
+import com.musala.atmosphere.client.uiutils.ElementIdentity;
+import com.musala.atmosphere.client.uiutils.css.SelectorList;
+import com.musala.atmosphere.client.util.ElementAttributeInterner;
+import com.musala.atmosphere.commons.exceptions.UiElementFetchingException;
+import com.musala.atmosphere.commons.geometry.Bounds;
+import com.musala.atmosphere.commons.geometry.Point;
+import com.musala.atmosphere.commons.ui.selector.UiElementSelector;
+import com.musala.atmosphere.commons.ui.tree.AccessibilityElement;
+
+/**
+ * An immutable copy of the UI hierarchy of a device screen, captured with a single request to the device. Answers
+ * {@link UiElementSelector selector}, CSS and XPath queries locally, so a sequence of lookups against a screen that does
+ * not change costs one round trip instead of one per lookup.
+ * <p>
+ * The snapshot contains the elements that were visible when it was taken. The elements it returns are regular
+ * {@link AccessibilityElement accessibility elements} and can be used to act on the device as usual.
+ * </p>
+ */
+public class UiHierarchySnapshot {
+    /**
+     * The screen epoch of snapshots that were not fetched from a device. It never matches the epoch of a device.
+     */
+    public static final long NO_SCREEN_EPOCH = -1;
+
+    private static final String HIERARCHY_TAG = "hierarchy";
+
+    private static final String DEFAULT_NODE_TAG = "node";
+
+    private static final Pattern BOUNDS_PATTERN = Pattern.compile("\\[(-?\\d+),(-?\\d+)\\]\\[(-?\\d+),(-?\\d+)\\]");
+
+    private static final Pattern XML_NAME_PATTERN = Pattern.compile("[A-Za-z_][A-Za-z0-9_.\\-]*");
+
+    private final List<UiHierarchyNode> roots;
+
+    private final List<UiHierarchyNode> nodes;
+
+    private final long creationTime;
+
+    private final long screenEpoch;
+
+    private final UiHierarchyIndex index;
+
+    private Document xPathDomDocument;
+
+    private Map<Node, UiHierarchyNode> domNodeToHierarchyNode;
+
+    private Map<AccessibilityElement, UiHierarchyNode> elementToNode;
+
+    UiHierarchySnapshot(List<UiHierarchyNode> roots, List<UiHierarchyNode> nodes, long screenEpoch) {
+        this.roots = roots;
+        this.nodes = nodes;
+        this.creationTime = System.currentTimeMillis();
+        this.screenEpoch = screenEpoch;
+        this.index = new UiHierarchyIndex(nodes);
+    }
+
+    /**
+     * Builds a snapshot from a UI hierarchy XML dump, as returned by the device.
+     *
+     * @param uiHierarchyXml
+     *        - the XML dump of the UI hierarchy
+     * @return the {@link UiHierarchySnapshot} describing the dump
+     * @throws UiElementFetchingException
+     *         if the dump can not be parsed
+     */
+    public static UiHierarchySnapshot parse(String uiHierarchyXml) throws UiElementFetchingException {
+        return parse(uiHierarchyXml, NO_SCREEN_EPOCH);
+    }
+
+    /**
+     * Builds a snapshot from a UI hierarchy XML dump fetched from a device in the given screen epoch.
+     *
+     * @param uiHierarchyXml
+     *        - the XML dump of the UI hierarchy
+     * @param screenEpoch
+     *        - the {@link com.musala.atmosphere.client.DeviceCommunicator#getScreenEpoch() screen epoch} of the device
+     *        before the dump was requested
+     * @return the {@link UiHierarchySnapshot} describing the dump
+     * @throws UiElementFetchingException
+     *         if the dump can not be parsed
+     */
+    public static UiHierarchySnapshot parse(String uiHierarchyXml, long screenEpoch)
+        throws UiElementFetchingException {
+        return parse(uiHierarchyXml, screenEpoch, null);
+    }
+
+    /**
+     * Builds a snapshot from a UI hierarchy XML dump fetched from a device in the given screen epoch. The repeating
+     * attribute values of the elements are taken from the given pool, so successive snapshots of the same device share
+     * them.
+     *
+     * @param uiHierarchyXml
+     *        - the XML dump of the UI hierarchy
+     * @param screenEpoch
+     *        - the {@link com.musala.atmosphere.client.DeviceCommunicator#getScreenEpoch() screen epoch} of the device
+     *        before the dump was requested
+     * @param attributeInterner
+     *        - the attribute pool of the device, or <code>null</code> to keep the parsed values
+     * @return the {@link UiHierarchySnapshot} describing the dump
+     * @throws UiElementFetchingException
+     *         if the dump can not be parsed
+     */
+    public static UiHierarchySnapshot parse(String uiHierarchyXml,
+                                            long screenEpoch,
+                                            ElementAttributeInterner attributeInterner)
+        throws UiElementFetchingException {
+        List<UiHierarchyNode> roots = new ArrayList<>();
+        List<UiHierarchyNode> nodes = new ArrayList<>();
+        Deque<UiHierarchyNode> openNodes = new ArrayDeque<>();
+
+        try {
+            XMLStreamReader reader = XMLInputFactory.newInstance()
+                                                   .createXMLStreamReader(new StringReader(uiHierarchyXml));
+            try {
+                while (reader.hasNext()) {
+                    int event = reader.next();
+                    if (event == XMLStreamConstants.START_ELEMENT) {
+                        if (HIERARCHY_TAG.equals(reader.getLocalName())) {
+                            continue;
+                        }
+
+                        UiHierarchyNode parent = openNodes.peek();
+                        AccessibilityElement element = readElement(reader);
+                        if (attributeInterner != null) {
+                            attributeInterner.intern(element);
+                        }
+
+                        UiHierarchyNode node = new UiHierarchyNode(element, parent);
+                        if (parent == null) {
+                            roots.add(node);
+                        } else {
+                            parent.addChild(node);
+                        }
+                        nodes.add(node);
+                        openNodes.push(node);
+                    } else if (event == XMLStreamConstants.END_ELEMENT && !HIERARCHY_TAG.equals(reader.getLocalName())) {
+                        openNodes.pop();
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException e) {
+            throw new UiElementFetchingException("Parsing the UI hierarchy dump failed.", e);
+        }
+
+        return new UiHierarchySnapshot(roots, nodes, screenEpoch);
+    }
+
+    /**
+     * Gets the top level nodes of the snapshot.
+     *
+     * @return an unmodifiable list of the top level nodes
+     */
+    public List<UiHierarchyNode> getRoots() {
+        return Collections.unmodifiableList(roots);
+    }
+
+    /**
+     * Gets all nodes of the snapshot in document order.
+     *
+     * @return an unmodifiable list of all nodes
+     */
+    public List<UiHierarchyNode> getNodes() {
+        return Collections.unmodifiableList(nodes);
+    }
+
+    /**
+     * Gets the number of nodes in the snapshot.
+     *
+     * @return the number of nodes
+     */
+    public int size() {
+        return nodes.size();
+    }
+
+    /**
+     * Gets the moment this snapshot was created.
+     *
+     * @return the creation time in milliseconds since the epoch
+     */
+    public long getCreationTime() {
+        return creationTime;
+    }
+
+    /**
+     * Gets the screen epoch of the device in which the snapshot was fetched.
+     *
+     * @return the screen epoch, or {@link #NO_SCREEN_EPOCH} if the snapshot was not fetched from a device
+     */
+    public long getScreenEpoch() {
+        return screenEpoch;
+    }
+
+    /**
+     * Gets all elements in the snapshot that match the given selector. Equality conditions on the resource id, text,
+     * class name, content description and package name are resolved through hash indexes, starting from the most
+     * selective one, so lookups on large screens do not scan the whole tree.
+     *
+     * @param selector
+     *        - contains the matching criteria
+     * @return list with all matching elements in document order, empty if none match
+     */
+    public List<AccessibilityElement> getElements(UiElementSelector selector) {
+        UiElementSelectorMatcher matcher = new UiElementSelectorMatcher(selector);
+        List<AccessibilityElement> foundElements = new ArrayList<>();
+
+        List<UiHierarchyNode> candidates = index.getCandidates(matcher.getCriteria());
+        if (candidates == null) {
+            candidates = nodes;
+        }
+
+        for (UiHierarchyNode node : candidates) {
+            if (matcher.matches(node.getElement())) {
+                foundElements.add(node.getElement());
+            }
+        }
+
+        return foundElements;
+    }
+
+    /**
+     * Gets the first element in the snapshot that matches the given selector. The search stops at the first match.
+     *
+     * @param selector
+     *        - contains the matching criteria
+     * @return the first matching element in document order, or <code>null</code> if none match
+     */
+    public AccessibilityElement getFirstElement(UiElementSelector selector) {
+        UiElementSelectorMatcher matcher = new UiElementSelectorMatcher(selector);
+
+        List<UiHierarchyNode> candidates = index.getCandidates(matcher.getCriteria());
+        if (candidates == null) {
+            candidates = nodes;
+        }
+
+        for (UiHierarchyNode node : candidates) {
+            if (matcher.matches(node.getElement())) {
+                return node.getElement();
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Gets the number of nodes a lookup by the given selector checks, when an attribute index can answer a part of the
+     * selector.
+     *
+     * @param selector
+     *        - contains the matching criteria
+     * @return the number of candidate nodes, or -1 if no index applies and all nodes are checked
+     */
+    public int getIndexedCandidateCount(UiElementSelector selector) {
+        UiElementSelectorMatcher matcher = new UiElementSelectorMatcher(selector);
+        List<UiHierarchyNode> candidates = index.getCandidates(matcher.getCriteria());
+
+        return candidates == null ? -1 : candidates.size();
+    }
+
+    /**
+     * Gets the identity of the given node, including its tree path.
+     *
+     * @param node
+     *        - a node of this snapshot
+     * @return the {@link ElementIdentity} of the node
+     */
+    public ElementIdentity getIdentity(UiHierarchyNode node) {
+        Deque<Integer> path = new ArrayDeque<>();
+        for (UiHierarchyNode current = node; current != null; current = current.getParent()) {
+            List<UiHierarchyNode> siblings = current.getParent() == null ? roots : current.getParent().getChildren();
+            path.push(siblings.indexOf(current));
+        }
+
+        int[] pathIndexes = new int[path.size()];
+        int depth = 0;
+        for (int childIndex : path) {
+            pathIndexes[depth++] = childIndex;
+        }
+
+        return ElementIdentity.of(pathIndexes, node.getElement());
+    }
+
+    /**
+     * Finds the node with the given identity. The tree path of the identity is followed first. If the path is unknown
+     * or leads to a different element, the nodes with the same resource id, or class name if the element has no
+     * resource id, are searched.
+     *
+     * @param identity
+     *        - the identity of the element
+     * @return the identified node, or <code>null</code> if it is not present in this snapshot
+     */
+    public UiHierarchyNode resolve(ElementIdentity identity) {
+        int[] path = identity.getPath();
+        if (path != null) {
+            UiHierarchyNode node = followPath(path);
+            if (node != null && identity.matches(node.getElement())) {
+                return node;
+            }
+        }
+
+        List<UiHierarchyNode> candidates = identity.getResourceId().isEmpty()
+                ? index.getNodes("className", identity.getClassName())
+                : index.getNodes("resourceId", identity.getResourceId());
+        for (UiHierarchyNode candidate : candidates) {
+            if (identity.matches(candidate.getElement())) {
+                return candidate;
+            }
+        }
+
+        return null;
+    }
+
+    private UiHierarchyNode followPath(int[] path) {
+        List<UiHierarchyNode> siblings = roots;
+        UiHierarchyNode node = null;
+        for (int childIndex : path) {
+            if (childIndex < 0 || childIndex >= siblings.size()) {
+                return null;
+            }
+            node = siblings.get(childIndex);
+            siblings = node.getChildren();
+        }
+
+        return node;
+    }
+
+    /**
+     * Gets the node describing the given element.
+     *
+     * @param element
+     *        - an element of this snapshot
+     * @return the {@link UiHierarchyNode} of the element, or <code>null</code> if the element is not part of this
+     *         snapshot
+     */
+    public synchronized UiHierarchyNode getNode(AccessibilityElement element) {
+        if (elementToNode == null) {
+            elementToNode = new IdentityHashMap<>();
+            for (UiHierarchyNode node : nodes) {
+                elementToNode.put(node.getElement(), node);
+            }
+        }
+
+        return elementToNode.get(element);
+    }
+
+    /**
+     * Gets the descendants of the given node that match the given selector.
+     *
+     * @param parent
+     *        - a node of this snapshot
+     * @param selector
+     *        - contains the matching criteria
+     * @param directChildrenOnly
+     *        - <code>true</code> to search the direct children only and <code>false</code> to search all descendants
+     * @return list with all matching elements in document order, empty if none match
+     */
+    public List<AccessibilityElement> getChildElements(UiHierarchyNode parent,
+                                                       UiElementSelector selector,
+                                                       boolean directChildrenOnly) {
+        UiElementSelectorMatcher matcher = new UiElementSelectorMatcher(selector);
+        List<AccessibilityElement> foundElements = new ArrayList<>();
+        addMatchingChildren(parent, matcher, directChildrenOnly, foundElements);
+        return foundElements;
+    }
+
+    private static void addMatchingChildren(UiHierarchyNode parent,
+                                            UiElementSelectorMatcher matcher,
+                                            boolean directChildrenOnly,
+                                            List<AccessibilityElement> foundElements) {
+        for (UiHierarchyNode child : parent.getChildren()) {
+            if (matcher.matches(child.getElement())) {
+                foundElements.add(child.getElement());
+            }
+            if (!directChildrenOnly) {
+                addMatchingChildren(child, matcher, false, foundElements);
+            }
+        }
+    }
+
+    /**
+     * Gets the descendants of the given node that match the given XPath query. The query is evaluated with the given
+     * node as the root of the hierarchy, the way the agent evaluates queries on a local root.
+     *
+     * @param parent
+     *        - a node of this snapshot
+     * @param xpathQuery
+     *        - the XPath query
+     * @return list with all matching descendants in document order, empty if none match
+     * @throws IllegalArgumentException
+     *         if the query is not a valid XPath expression
+     */
+    public List<AccessibilityElement> getChildElementsByXPath(UiHierarchyNode parent, String xpathQuery) {
+        Map<Node, UiHierarchyNode> domNodes = new IdentityHashMap<>();
+        Document subtreeDocument = createDomDocument(Collections.singletonList(parent), domNodes);
+
+        List<AccessibilityElement> foundElements = new ArrayList<>();
+        for (UiHierarchyNode node : evaluateXPath(xpathQuery, subtreeDocument, domNodes)) {
+            if (node != parent) {
+                foundElements.add(node.getElement());
+            }
+        }
+
+        return foundElements;
+    }
+
+    /**
+     * Creates a snapshot that holds the given node and its descendants up to the given depth.
+     *
+     * @param root
+     *        - a node of this snapshot
+     * @param maxDepth
+     *        - the number of descendant levels to keep, 0 keeps only the root
+     * @return a {@link UiHierarchySnapshot} with the subtree, sharing the elements and the screen epoch of this
+     *         snapshot
+     */
+    public UiHierarchySnapshot getSubtree(UiHierarchyNode root, int maxDepth) {
+        List<UiHierarchyNode> subtreeNodes = new ArrayList<>();
+        UiHierarchyNode subtreeRoot = copySubtree(root, null, maxDepth, subtreeNodes);
+        return new UiHierarchySnapshot(Collections.singletonList(subtreeRoot), subtreeNodes, screenEpoch);
+    }
+
+    private static UiHierarchyNode copySubtree(UiHierarchyNode node,
+                                               UiHierarchyNode parent,
+                                               int remainingDepth,
+                                               List<UiHierarchyNode> subtreeNodes) {
+        UiHierarchyNode copy = new UiHierarchyNode(node.getElement(), parent);
+        subtreeNodes.add(copy);
+        if (remainingDepth > 0) {
+            for (UiHierarchyNode child : node.getChildren()) {
+                copy.addChild(copySubtree(child, copy, remainingDepth - 1, subtreeNodes));
+            }
+        }
+
+        return copy;
+    }
+
+    /**
+     * Gets all elements in the snapshot that match the given XPath query.
+     * <p>
+     * <b>Note:</b> Two-word attributes should be written in camelCase. For example content-desc should be contentDesc.
+     * </p>
+     *
+     * @param xpathQuery
+     *        - the XPath query
+     * @return list with all matching elements in document order, empty if none match
+     * @throws IllegalArgumentException
+     *         if the query is not a valid XPath expression
+     */
+    public List<AccessibilityElement> getElementsByXPath(String xpathQuery) {
+        List<AccessibilityElement> foundElements = new ArrayList<>();
+        for (UiHierarchyNode node : getNodesByXPath(xpathQuery)) {
+            foundElements.add(node.getElement());
+        }
+
+        return foundElements;
+    }
+
+    /**
+     * Gets all elements in the snapshot that match the given CSS query. The query is matched directly against the
+     * snapshot nodes, so combinators and structural pseudo-classes do not need separate lookups.
+     *
+     * @param cssQuery
+     *        - the CSS query
+     * @return list with all matching elements in document order, empty if none match
+     * @throws InvalidCssQueryException
+     *         if the query is not a valid CSS query
+     */
+    public List<AccessibilityElement> getElementsByCss(String cssQuery) throws InvalidCssQueryException {
+        List<AccessibilityElement> foundElements = new ArrayList<>();
+        for (UiHierarchyNode node : getNodesByCss(CssToXPathConverter.compile(cssQuery).getSelectorList())) {
+            foundElements.add(node.getElement());
+        }
+
+        return foundElements;
+    }
+
+    /**
+     * Gets all nodes in the snapshot that match the given parsed CSS query.
+     *
+     * @param selectorList
+     *        - the parsed CSS query
+     * @return list with all matching nodes in document order, empty if none match
+     */
+    public List<UiHierarchyNode> getNodesByCss(SelectorList selectorList) {
+        CssSelectorMatcher matcher = new CssSelectorMatcher(selectorList, roots);
+        List<UiHierarchyNode> foundNodes = new ArrayList<>();
+
+        List<UiHierarchyNode> candidates = index.getCandidates(matcher.getSubjectEqualityCriteria());
+        if (candidates == null) {
+            candidates = nodes;
+        }
+
+        for (UiHierarchyNode node : candidates) {
+            if (matcher.matches(node)) {
+                foundNodes.add(node);
+            }
+        }
+
+        return foundNodes;
+    }
+
+    /**
+     * Gets the first node in the snapshot that matches the given parsed CSS query. The search stops at the first match.
+     *
+     * @param selectorList
+     *        - the parsed CSS query
+     * @return the first matching node in document order, or <code>null</code> if none match
+     */
+    public UiHierarchyNode getFirstNodeByCss(SelectorList selectorList) {
+        CssSelectorMatcher matcher = new CssSelectorMatcher(selectorList, roots);
+
+        List<UiHierarchyNode> candidates = index.getCandidates(matcher.getSubjectEqualityCriteria());
+        if (candidates == null) {
+            candidates = nodes;
+        }
+
+        for (UiHierarchyNode node : candidates) {
+            if (matcher.matches(node)) {
+                return node;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Gets the first node in the snapshot that matches the given XPath query.
+     *
+     * @param xpathQuery
+     *        - the XPath query
+     * @return the first matching node in document order, or <code>null</code> if none match
+     * @throws IllegalArgumentException
+     *         if the query is not a valid XPath expression
+     */
+    public synchronized UiHierarchyNode getFirstNodeByXPath(String xpathQuery) {
+        if (xPathDomDocument == null) {
+            buildXPathDomDocument();
+        }
+
+        Node domNode = (Node) XPathExpressionCache.evaluate(xpathQuery, xPathDomDocument, XPathConstants.NODE);
+
+        return domNode == null ? null : domNodeToHierarchyNode.get(domNode);
+    }
+
+    /**
+     * Gets all nodes in the snapshot that match the given XPath query.
+     *
+     * @param xpathQuery
+     *        - the XPath query
+     * @return list with all matching nodes in document order, empty if none match
+     * @throws IllegalArgumentException
+     *         if the query is not a valid XPath expression
+     */
+    public synchronized List<UiHierarchyNode> getNodesByXPath(String xpathQuery) {
+        if (xPathDomDocument == null) {
+            buildXPathDomDocument();
+        }
+
+        return evaluateXPath(xpathQuery, xPathDomDocument, domNodeToHierarchyNode);
+    }
+
+    private static List<UiHierarchyNode> evaluateXPath(String xpathQuery,
+                                                       Document document,
+                                                       Map<Node, UiHierarchyNode> domNodes) {
+        NodeList foundDomNodes = (NodeList) XPathExpressionCache.evaluate(xpathQuery,
+                                                                          document,
+                                                                          XPathConstants.NODESET);
+
+        List<UiHierarchyNode> foundNodes = new ArrayList<>();
+        for (int i = 0; i < foundDomNodes.getLength(); i++) {
+            UiHierarchyNode node = domNodes.get(foundDomNodes.item(i));
+            if (node != null) {
+                foundNodes.add(node);
+            }
+        }
+
+        return foundNodes;
+    }
+
+    /**
+     * Builds the DOM used for XPath evaluation. The attribute names follow the ones used by the agent, so XPath queries
+     * written for the device work unchanged on the snapshot.
+     */
+    private void buildXPathDomDocument() {
+        domNodeToHierarchyNode = new IdentityHashMap<>();
+        xPathDomDocument = createDomDocument(roots, domNodeToHierarchyNode);
+    }
+
+    private static Document createDomDocument(List<UiHierarchyNode> topNodes, Map<Node, UiHierarchyNode> domNodes) {
+        Document document;
+        try {
+            document = DocumentBuilderFactory.newInstance().newDocumentBuilder().newDocument();
+        } catch (ParserConfigurationException e) {
+            throw new IllegalStateException("Creating the XPath DOM document failed.", e);
+        }
+
+        Element hierarchyElement = document.createElement(HIERARCHY_TAG);
+        document.appendChild(hierarchyElement);
+
+        for (UiHierarchyNode topNode : topNodes) {
+            hierarchyElement.appendChild(createDomElement(document, topNode, domNodes));
+        }
+
+        return document;
+    }
+
+    private static Element createDomElement(Document document,
+                                            UiHierarchyNode node,
+                                            Map<Node, UiHierarchyNode> domNodes) {
+        AccessibilityElement element = node.getElement();
+        String className = element.getClassName();
+        String tagName = className != null && XML_NAME_PATTERN.matcher(className).matches() ? className
+                : DEFAULT_NODE_TAG;
+
+        Element domElement = document.createElement(tagName);
+        domElement.setAttribute("bounds", UiElementSelectorMatcher.formatBounds(element.getBounds()));
+        domElement.setAttribute("checkable", String.valueOf(element.isCheckable()));
+        domElement.setAttribute("checked", String.valueOf(element.isChecked()));
+        domElement.setAttribute("className", nullToEmpty(className));
+        domElement.setAttribute("clickable", String.valueOf(element.isClickable()));
+        domElement.setAttribute("contentDesc", nullToEmpty(element.getContentDescriptor()));
+        domElement.setAttribute("enabled", String.valueOf(element.isEnabled()));
+        domElement.setAttribute("focusable", String.valueOf(element.isFocusable()));
+        domElement.setAttribute("focused", String.valueOf(element.isFocused()));
+        domElement.setAttribute("index", String.valueOf(element.getIndex()));
+        domElement.setAttribute("longClickable", String.valueOf(element.isLongClickable()));
+        domElement.setAttribute("package", nullToEmpty(element.getPackageName()));
+        domElement.setAttribute("password", String.valueOf(element.isPassword()));
+        domElement.setAttribute("resourceId", nullToEmpty(element.getResourceId()));
+        domElement.setAttribute("scrollable", String.valueOf(element.isScrollable()));
+        domElement.setAttribute("selected", String.valueOf(element.isSelected()));
+        domElement.setAttribute("text", nullToEmpty(element.getText()));
+        domNodes.put(domElement, node);
+
+        for (UiHierarchyNode child : node.getChildren()) {
+            domElement.appendChild(createDomElement(document, child, domNodes));
+        }
+
+        return domElement;
+    }
+
+    private static AccessibilityElement readElement(XMLStreamReader reader) throws UiElementFetchingException {
+        AccessibilityElement element = new AccessibilityElement();
+
+        for (int i = 0; i < reader.getAttributeCount(); i++) {
+            String value = reader.getAttributeValue(i);
+
+            switch (UiElementSelectorMatcher.normalizeAttributeName(reader.getAttributeLocalName(i))) {
+                case "bounds":
+                    element.setBounds(parseBounds(value));
+                    break;
+                case "checkable":
+                    element.setCheckable(Boolean.parseBoolean(value));
+                    break;
+                case "checked":
+                    element.setChecked(Boolean.parseBoolean(value));
+                    break;
+                case "class":
+                case "classname":
+                    element.setClassName(value);
+                    break;
+                case "clickable":
+                    element.setClickable(Boolean.parseBoolean(value));
+                    break;
+                case "contentdesc":
+                    element.setContentDescriptor(value);
+                    break;
+                case "enabled":
+                    element.setEnabled(Boolean.parseBoolean(value));
+                    break;
+                case "focusable":
+                    element.setFocusable(Boolean.parseBoolean(value));
+                    break;
+                case "focused":
+                    element.setFocused(Boolean.parseBoolean(value));
+                    break;
+                case "index":
+                    try {
+                        element.setIndex(Integer.parseInt(value));
+                    } catch (NumberFormatException e) {
+                        throw new UiElementFetchingException(String.format("Invalid index attribute: %s", value), e);
+                    }
+                    break;
+                case "longclickable":
+                    element.setLongClickable(Boolean.parseBoolean(value));
+                    break;
+                case "package":
+                    element.setPackageName(value);
+                    break;
+                case "password":
+                    element.setPassword(Boolean.parseBoolean(value));
+                    break;
+                case "resourceid":
+                    element.setResourceId(value);
+                    break;
+                case "scrollable":
+                    element.setScrollable(Boolean.parseBoolean(value));
+                    break;
+                case "selected":
+                    element.setSelected(Boolean.parseBoolean(value));
+                    break;
+                case "text":
+                    element.setText(value);
+                    break;
+                default:
+                    // attributes that are not part of the element properties are ignored
+                    break;
+            }
+        }
+
+        return element;
+    }
+
+    private static Bounds parseBounds(String value) {
+        Matcher matcher = BOUNDS_PATTERN.matcher(value);
+        if (!matcher.matches()) {
+            return null;
+        }
+
+        Point upperLeft = new Point(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)));
+        Point lowerRight = new Point(Integer.parseInt(matcher.group(3)), Integer.parseInt(matcher.group(4)));
+        return new Bounds(upperLeft, lowerRight);
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+}
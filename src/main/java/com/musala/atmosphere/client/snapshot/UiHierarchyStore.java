@@ -0,0 +1,243 @@
+package com.musala.atmosphere.client.snapshot;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.log4j.Logger;
+
+import com.musala.atmosphere.client.snapshot.UiHierarchyDelta.Change;
+import com.musala.atmosphere.client.snapshot.UiHierarchyDelta.ChangeType;
+import com.musala.atmosphere.commons.exceptions.UiElementFetchingException;
+import com.musala.atmosphere.commons.ui.tree.AccessibilityElement;
+
+/**
+ * Keeps a local copy of the UI hierarchy of a device up to date. After the first full fetch only the changes since the
+ * last known version are requested and applied to the local tree. When the source can no longer diff against the known
+ * version, or the changes do not fit the local tree, the store falls back to a full fetch.
+ */
+public class UiHierarchyStore {
+    private static final Logger LOGGER = Logger.getLogger(UiHierarchyStore.class);
+
+    private static final char PATH_SEPARATOR = '/';
+
+    private final UiHierarchyDeltaSource source;
+
+    private UiHierarchySnapshot snapshot;
+
+    private long version = UiHierarchyDelta.NO_VERSION;
+
+    private int fullFetchCount;
+
+    private int deltaFetchCount;
+
+    private long bytesReceived;
+
+    private long bytesSaved;
+
+    /**
+     * Creates a store that fetches the hierarchy from the given source.
+     *
+     * @param source
+     *        - the source of the hierarchy
+     */
+    public UiHierarchyStore(UiHierarchyDeltaSource source) {
+        this.source = source;
+    }
+
+    /**
+     * Brings the local hierarchy up to date with the source.
+     *
+     * @return a {@link UiHierarchySnapshot} of the current hierarchy
+     * @throws UiElementFetchingException
+     *         if the hierarchy can not be fetched
+     */
+    public synchronized UiHierarchySnapshot update() throws UiElementFetchingException {
+        if (snapshot != null) {
+            UiHierarchyDelta delta = source.getChangesSince(version);
+            if (delta != null) {
+                try {
+                    applyDelta(delta);
+                    return snapshot;
+                } catch (IllegalArgumentException e) {
+                    LOGGER.warn("Applying the UI hierarchy changes failed, fetching the full hierarchy.", e);
+                }
+            }
+        }
+
+        applyDelta(source.getFullHierarchy());
+        return snapshot;
+    }
+
+    /**
+     * Gets the hierarchy as of the last {@link #update() update}, without contacting the source.
+     *
+     * @return the last {@link UiHierarchySnapshot}, or <code>null</code> if the store was never updated
+     */
+    public synchronized UiHierarchySnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Gets the version of the local hierarchy.
+     *
+     * @return the version of the local hierarchy, or {@link UiHierarchyDelta#NO_VERSION} if the store was never
+     *         updated
+     */
+    public synchronized long getVersion() {
+        return version;
+    }
+
+    /**
+     * Gets the number of times the full hierarchy was fetched.
+     *
+     * @return the number of full fetches
+     */
+    public synchronized int getFullFetchCount() {
+        return fullFetchCount;
+    }
+
+    /**
+     * Gets the number of times only the changes of the hierarchy were fetched.
+     *
+     * @return the number of incremental fetches
+     */
+    public synchronized int getDeltaFetchCount() {
+        return deltaFetchCount;
+    }
+
+    /**
+     * Gets the total size of the fetched hierarchies and changes.
+     *
+     * @return the received bytes
+     */
+    public synchronized long getBytesReceived() {
+        return bytesReceived;
+    }
+
+    /**
+     * Gets the number of bytes that were not transferred because only changes were fetched, compared with fetching a
+     * full dump every time.
+     *
+     * @return the saved bytes
+     */
+    public synchronized long getBytesSaved() {
+        return bytesSaved;
+    }
+
+    private void applyDelta(UiHierarchyDelta delta) throws UiElementFetchingException {
+        if (!delta.isFull() && delta.getBaseVersion() != version) {
+            String message = String.format("The changes are based on version %d, but the local version is %d.",
+                                           delta.getBaseVersion(),
+                                           version);
+            throw new IllegalArgumentException(message);
+        }
+
+        UiHierarchySnapshot patchedSnapshot = snapshot;
+        Map<String, Change> changesByPath = new HashMap<>();
+        for (Change change : delta.getChanges()) {
+            int[] path = change.getPath();
+            if (path.length == 0) {
+                patchedSnapshot = UiHierarchySnapshot.parse(change.getXml());
+                changesByPath.clear();
+            } else {
+                changesByPath.put(toPathKey(path), change);
+            }
+        }
+
+        if (!changesByPath.isEmpty()) {
+            patchedSnapshot = patch(patchedSnapshot, changesByPath);
+        }
+
+        bytesReceived += delta.getSize();
+        if (delta.isFull()) {
+            fullFetchCount++;
+        } else {
+            deltaFetchCount++;
+            bytesSaved += Math.max(0, delta.getFullSize() - delta.getSize());
+        }
+
+        snapshot = patchedSnapshot;
+        version = delta.getVersion();
+    }
+
+    /**
+     * Builds a new snapshot from the given one with the given changes applied. Unchanged elements are shared between
+     * the two snapshots.
+     */
+    private static UiHierarchySnapshot patch(UiHierarchySnapshot baseSnapshot, Map<String, Change> changesByPath)
+        throws UiElementFetchingException {
+        if (baseSnapshot == null) {
+            throw new IllegalArgumentException("Changes can not be applied without a local hierarchy.");
+        }
+
+        List<UiHierarchyNode> roots = new ArrayList<>();
+        List<UiHierarchyNode> nodes = new ArrayList<>();
+        List<UiHierarchyNode> baseRoots = baseSnapshot.getRoots();
+        for (int i = 0; i < baseRoots.size(); i++) {
+            copyNode(baseRoots.get(i), null, String.valueOf(i), changesByPath, roots, nodes);
+        }
+
+        if (!changesByPath.isEmpty()) {
+            String message = String.format("The changed nodes %s are not present in the local hierarchy.",
+                                           changesByPath.values());
+            throw new IllegalArgumentException(message);
+        }
+
+        return new UiHierarchySnapshot(roots, nodes, UiHierarchySnapshot.NO_SCREEN_EPOCH);
+    }
+
+    private static void copyNode(UiHierarchyNode baseNode,
+                                 UiHierarchyNode parent,
+                                 String path,
+                                 Map<String, Change> changesByPath,
+                                 List<UiHierarchyNode> roots,
+                                 List<UiHierarchyNode> nodes) throws UiElementFetchingException {
+        UiHierarchyNode sourceNode = baseNode;
+        AccessibilityElement element = baseNode.getElement();
+
+        Change change = changesByPath.remove(path);
+        if (change != null) {
+            UiHierarchyNode changedNode = parseNode(change.getXml());
+            if (change.getType() == ChangeType.SUBTREE) {
+                sourceNode = changedNode;
+            }
+            element = changedNode.getElement();
+        }
+
+        UiHierarchyNode node = new UiHierarchyNode(element, parent);
+        if (parent == null) {
+            roots.add(node);
+        } else {
+            parent.addChild(node);
+        }
+        nodes.add(node);
+
+        List<UiHierarchyNode> children = sourceNode.getChildren();
+        for (int i = 0; i < children.size(); i++) {
+            copyNode(children.get(i), node, path + PATH_SEPARATOR + i, changesByPath, roots, nodes);
+        }
+    }
+
+    private static UiHierarchyNode parseNode(String nodeXml) throws UiElementFetchingException {
+        List<UiHierarchyNode> parsedRoots = UiHierarchySnapshot.parse(nodeXml).getRoots();
+        if (parsedRoots.size() != 1) {
+            throw new IllegalArgumentException("A changed node should be described by exactly one XML element.");
+        }
+
+        return parsedRoots.get(0);
+    }
+
+    private static String toPathKey(int[] path) {
+        StringBuilder pathKey = new StringBuilder();
+        for (int index : path) {
+            if (pathKey.length() > 0) {
+                pathKey.append(PATH_SEPARATOR);
+            }
+            pathKey.append(index);
+        }
+
+        return pathKey.toString();
+    }
+}
@@ -0,0 +1,81 @@
+package com.musala.atmosphere.client.snapshot;
+
+import java.util.concurrent.ExecutionException;
+
+import javax.xml.namespace.QName;
+import javax.xml.xpath.XPathExpression;
+import javax.xml.xpath.XPathExpressionException;
+import javax.xml.xpath.XPathFactory;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+/**
+ * Keeps the compiled form of recently used XPath queries, so a query evaluated against many snapshots is compiled only
+ * once per thread. Compiled expressions are not thread safe, so each thread has its own cache and the snapshots of
+ * different devices are queried in parallel without locking.
+ */
+final class XPathExpressionCache {
+    private static final int MAX_CACHED_EXPRESSIONS = 256;
+
+    private static final ThreadLocal<LoadingCache<String, XPathExpression>> EXPRESSIONS = new ThreadExpressions();
+
+    private XPathExpressionCache() {
+    }
+
+    /**
+     * Gets the compiled form of the given XPath query, compiling it if it is not cached for the current thread.
+     *
+     * @param xpathQuery
+     *        - the XPath query
+     * @return the compiled {@link XPathExpression}
+     * @throws IllegalArgumentException
+     *         if the query is not a valid XPath expression
+     */
+    static XPathExpression compile(String xpathQuery) {
+        try {
+            return EXPRESSIONS.get().get(xpathQuery);
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            String message = String.format("'%s' is not a valid XPath query.", xpathQuery);
+            throw new IllegalArgumentException(message, e.getCause());
+        }
+    }
+
+    /**
+     * Evaluates the given XPath query on the given item with the expression compiled for the current thread.
+     *
+     * @param xpathQuery
+     *        - the XPath query
+     * @param item
+     *        - the context item of the evaluation
+     * @param returnType
+     *        - the expected return type, one of the {@link javax.xml.xpath.XPathConstants}
+     * @return the result of the evaluation
+     * @throws IllegalArgumentException
+     *         if the query is not a valid XPath expression or can not be evaluated
+     */
+    static Object evaluate(String xpathQuery, Object item, QName returnType) {
+        try {
+            return compile(xpathQuery).evaluate(item, returnType);
+        } catch (XPathExpressionException e) {
+            String message = String.format("'%s' is not a valid XPath query.", xpathQuery);
+            throw new IllegalArgumentException(message, e);
+        }
+    }
+
+    private static class ThreadExpressions extends ThreadLocal<LoadingCache<String, XPathExpression>> {
+        @Override
+        protected LoadingCache<String, XPathExpression> initialValue() {
+            return CacheBuilder.newBuilder().maximumSize(MAX_CACHED_EXPRESSIONS).build(new ExpressionLoader());
+        }
+    }
+
+    private static class ExpressionLoader extends CacheLoader<String, XPathExpression> {
+        @Override
+        public XPathExpression load(String xpathQuery) throws XPathExpressionException {
+            return XPathFactory.newInstance().newXPath().compile(xpathQuery);
+        }
+    }
+}
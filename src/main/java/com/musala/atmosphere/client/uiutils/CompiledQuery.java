@@ -0,0 +1,53 @@
+package com.musala.atmosphere.client.uiutils;
+
+import com.musala.atmosphere.client.uiutils.css.SelectorList;
+
+/**
+ * A CSS query that has been parsed and converted to XPath by the {@link CssToXPathConverter}. Instances are
+ * immutable, so they can be kept and reused instead of converting the same CSS query again.
+ */
+public final class CompiledQuery {
+    private final String cssQuery;
+
+    private final SelectorList selectorList;
+
+    private final String xpathQuery;
+
+    CompiledQuery(String cssQuery, SelectorList selectorList, String xpathQuery) {
+        this.cssQuery = cssQuery;
+        this.selectorList = selectorList;
+        this.xpathQuery = xpathQuery;
+    }
+
+    /**
+     * Gets the CSS query this query was compiled from.
+     *
+     * @return the original CSS query
+     */
+    public String getCssQuery() {
+        return cssQuery;
+    }
+
+    /**
+     * Gets the syntax tree of the CSS query. It can be matched directly against a local UI hierarchy snapshot.
+     *
+     * @return the parsed {@link SelectorList}
+     */
+    public SelectorList getSelectorList() {
+        return selectorList;
+    }
+
+    /**
+     * Gets the XPath equivalent of the CSS query.
+     *
+     * @return the XPath query
+     */
+    public String getXPathQuery() {
+        return xpathQuery;
+    }
+
+    @Override
+    public String toString() {
+        return xpathQuery;
+    }
+}
@@ -0,0 +1,196 @@
+package com.musala.atmosphere.client.uiutils;
+
+import java.util.Arrays;
+
+import com.musala.atmosphere.commons.geometry.Bounds;
+import com.musala.atmosphere.commons.ui.UiElementPropertiesContainer;
+import com.musala.atmosphere.commons.ui.selector.CssAttribute;
+import com.musala.atmosphere.commons.ui.selector.UiElementSelector;
+
+/**
+ * A compact key used to find an element on the screen again. It consists of the class name, resource id, index, text,
+ * content description and bounds of the element and, when known, its tree path. Unlike a selector built from all
+ * element properties it does not depend on properties that change during interaction, such as the focused or selected
+ * state. The text of editable fields is left out as well, as it changes while typing, but the text of other elements is
+ * kept, so a recycled list row showing different content is not taken for the element.
+ */
+public final class ElementIdentity {
+    private final int[] path;
+
+    private final String className;
+
+    private final String resourceId;
+
+    private final int index;
+
+    private final String text;
+
+    private final String contentDescriptor;
+
+    private final Bounds bounds;
+
+    private final int boundsHash;
+
+    private ElementIdentity(int[] path, UiElementPropertiesContainer properties) {
+        this.path = path;
+        this.className = nullToEmpty(properties.getClassName());
+        this.resourceId = nullToEmpty(properties.getResourceId());
+        this.index = properties.getIndex();
+        this.text = isEditable(className) ? null : nullToEmpty(properties.getText());
+        this.contentDescriptor = nullToEmpty(properties.getContentDescriptor());
+        this.bounds = properties.getBounds();
+        this.boundsHash = bounds == null ? 0 : bounds.hashCode();
+    }
+
+    /**
+     * Creates the identity of an element with an unknown tree path.
+     *
+     * @param properties
+     *        - the properties of the element
+     * @return the {@link ElementIdentity} of the element
+     */
+    public static ElementIdentity of(UiElementPropertiesContainer properties) {
+        return new ElementIdentity(null, properties);
+    }
+
+    /**
+     * Creates the identity of an element with a known tree path.
+     *
+     * @param path
+     *        - the child indexes leading to the element, starting with the index of the top level node
+     * @param properties
+     *        - the properties of the element
+     * @return the {@link ElementIdentity} of the element
+     */
+    public static ElementIdentity of(int[] path, UiElementPropertiesContainer properties) {
+        return new ElementIdentity(path.clone(), properties);
+    }
+
+    /**
+     * Gets the tree path of the element.
+     *
+     * @return the child indexes leading to the element, or <code>null</code> if the path is not known
+     */
+    public int[] getPath() {
+        return path == null ? null : path.clone();
+    }
+
+    /**
+     * Gets the class name of the element.
+     *
+     * @return the class name, empty if the element has none
+     */
+    public String getClassName() {
+        return className;
+    }
+
+    /**
+     * Gets the resource id of the element.
+     *
+     * @return the resource id, empty if the element has none
+     */
+    public String getResourceId() {
+        return resourceId;
+    }
+
+    /**
+     * Gets the hash of the element bounds.
+     *
+     * @return the hash of the bounds
+     */
+    public int getBoundsHash() {
+        return boundsHash;
+    }
+
+    /**
+     * Checks if the given element properties belong to the element identified by this key. The tree path is not
+     * checked.
+     *
+     * @param properties
+     *        - the properties to check
+     * @return <code>true</code> if the properties match this identity, <code>false</code> otherwise
+     */
+    public boolean matches(UiElementPropertiesContainer properties) {
+        Bounds elementBounds = properties.getBounds();
+        int elementBoundsHash = elementBounds == null ? 0 : elementBounds.hashCode();
+
+        return boundsHash == elementBoundsHash && index == properties.getIndex()
+                && resourceId.equals(nullToEmpty(properties.getResourceId()))
+                && className.equals(nullToEmpty(properties.getClassName()))
+                && (text == null || text.equals(nullToEmpty(properties.getText())))
+                && contentDescriptor.equals(nullToEmpty(properties.getContentDescriptor()))
+                && (bounds == null ? elementBounds == null : bounds.equals(elementBounds));
+    }
+
+    /**
+     * Builds a selector that finds the identified element on the device.
+     *
+     * @return a {@link UiElementSelector} matching the class name, resource id, index, text, content description and
+     *         bounds of the element; empty values are not part of the selector, so the found elements should be
+     *         checked with {@link #matches(UiElementPropertiesContainer)}
+     */
+    public UiElementSelector toSelector() {
+        UiElementSelector selector = new UiElementSelector();
+        selector.addSelectionAttribute(CssAttribute.CLASS_NAME, className);
+        if (!resourceId.isEmpty()) {
+            selector.addSelectionAttribute(CssAttribute.RESOURCE_ID, resourceId);
+        }
+        selector.addSelectionAttribute(CssAttribute.INDEX, index);
+        if (text != null && !text.isEmpty()) {
+            selector.addSelectionAttribute(CssAttribute.TEXT, text);
+        }
+        if (!contentDescriptor.isEmpty()) {
+            selector.addSelectionAttribute(CssAttribute.CONTENT_DESCRIPTION, contentDescriptor);
+        }
+        if (bounds != null) {
+            selector.addSelectionAttribute(CssAttribute.BOUNDS, bounds);
+        }
+
+        return selector;
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if (this == object) {
+            return true;
+        }
+        if (!(object instanceof ElementIdentity)) {
+            return false;
+        }
+
+        ElementIdentity identity = (ElementIdentity) object;
+        return boundsHash == identity.boundsHash && index == identity.index && Arrays.equals(path, identity.path)
+                && resourceId.equals(identity.resourceId) && className.equals(identity.className)
+                && (text == null ? identity.text == null : text.equals(identity.text))
+                && contentDescriptor.equals(identity.contentDescriptor);
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = Arrays.hashCode(path);
+        hash = 31 * hash + resourceId.hashCode();
+        hash = 31 * hash + className.hashCode();
+        hash = 31 * hash + index;
+        hash = 31 * hash + (text == null ? 0 : text.hashCode());
+        hash = 31 * hash + contentDescriptor.hashCode();
+        return 31 * hash + boundsHash;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s%s#%s[%d] bounds hash %d",
+                             path == null ? "" : Arrays.toString(path) + " ",
+                             className,
+                             resourceId,
+                             index,
+                             boundsHash);
+    }
+
+    private static boolean isEditable(String className) {
+        return className.endsWith("EditText") || className.endsWith("AutoCompleteTextView");
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+}
@@ -26,6 +26,25 @@ public class GestureCreator {
 
     private static int DRAG_DURATION = 3000;
 
+    /**
+     * Creates a tap {@link Gesture} on the passed point.
+     *
+     * @param x
+     *        - the x coordinate of the tap point
+     * @param y
+     *        - the y coordinate of the tap point
+     * @return a {@link Gesture} that represents a tap on a device
+     */
+    public static Gesture createTap(float x, float y) {
+        Timeline tapTimeline = new Timeline();
+        tapTimeline.add(new Anchor(x, y, 0));
+
+        Gesture tap = new Gesture();
+        tap.add(tapTimeline);
+
+        return tap;
+    }
+
     /**
      * Creates a double tap {@link Gesture} on the passed point.
      *
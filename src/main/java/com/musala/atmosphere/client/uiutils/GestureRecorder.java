@@ -0,0 +1,57 @@
+package com.musala.atmosphere.client.uiutils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.musala.atmosphere.commons.gesture.Gesture;
+
+/**
+ * Records the gestures played on a device together with the moments they were played, so an interaction session can
+ * later be {@link GestureRecording#toSequence(double, int) replayed}.
+ */
+public class GestureRecorder {
+    private final List<Gesture> gestures = new ArrayList<>();
+
+    private final List<Long> timestamps = new ArrayList<>();
+
+    /**
+     * Records a gesture played now.
+     *
+     * @param gesture
+     *        - the played gesture
+     */
+    public void record(Gesture gesture) {
+        record(gesture, System.currentTimeMillis());
+    }
+
+    /**
+     * Records a gesture played at the given moment.
+     *
+     * @param gesture
+     *        - the played gesture
+     * @param timestamp
+     *        - the moment the gesture started, in milliseconds since the epoch
+     */
+    public synchronized void record(Gesture gesture, long timestamp) {
+        gestures.add(gesture);
+        timestamps.add(timestamp);
+    }
+
+    /**
+     * Gets the number of recorded gestures.
+     *
+     * @return the number of gestures
+     */
+    public synchronized int getGestureCount() {
+        return gestures.size();
+    }
+
+    /**
+     * Gets the gestures recorded so far. Recording continues after this method is called.
+     *
+     * @return the {@link GestureRecording} with the recorded gestures
+     */
+    public synchronized GestureRecording getRecording() {
+        return new GestureRecording(gestures, timestamps);
+    }
+}
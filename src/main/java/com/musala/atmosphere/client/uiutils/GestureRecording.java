@@ -0,0 +1,91 @@
+package com.musala.atmosphere.client.uiutils;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.musala.atmosphere.commons.gesture.Gesture;
+
+/**
+ * Gestures recorded by a {@link GestureRecorder}, in the order they were played, together with the moments they were
+ * played.
+ */
+public class GestureRecording implements Serializable {
+    /**
+     * auto generated serialization id
+     */
+    private static final long serialVersionUID = 5409418807394571522L;
+
+    private final List<Gesture> gestures;
+
+    private final List<Long> timestamps;
+
+    GestureRecording(List<Gesture> gestures, List<Long> timestamps) {
+        this.gestures = new ArrayList<>(gestures);
+        this.timestamps = new ArrayList<>(timestamps);
+    }
+
+    /**
+     * Gets the number of recorded gestures.
+     *
+     * @return the number of gestures
+     */
+    public int getGestureCount() {
+        return gestures.size();
+    }
+
+    /**
+     * Gets a recorded gesture.
+     *
+     * @param index
+     *        - the index of the gesture, in recording order
+     * @return the recorded {@link Gesture}
+     */
+    public Gesture getGesture(int index) {
+        return gestures.get(index);
+    }
+
+    /**
+     * Gets the moment a recorded gesture was played.
+     *
+     * @param index
+     *        - the index of the gesture, in recording order
+     * @return the start of the gesture, in milliseconds since the epoch
+     */
+    public long getTimestamp(int index) {
+        return timestamps.get(index);
+    }
+
+    /**
+     * Converts the recording to a {@link GestureSequence} that replays it in a fraction of the recorded time. The
+     * timing within each gesture is kept, while the idle time between the gestures is divided by the given time
+     * compression and limited to the given maximum gap. A long session is still played in bounded parts, as
+     * {@link com.musala.atmosphere.client.Device#playGestureSequence(GestureSequence) playing} a sequence splits it.
+     *
+     * @param timeCompression
+     *        - the factor by which the idle time between the gestures is reduced; <code>1</code> keeps the recorded
+     *        timing
+     * @param maxIdleGap
+     *        - the longest idle time in milliseconds between two replayed gestures
+     * @return the {@link GestureSequence} replaying the recording
+     */
+    public GestureSequence toSequence(double timeCompression, int maxIdleGap) {
+        if (timeCompression < 1) {
+            throw new IllegalArgumentException("The time compression can not be lower than 1.");
+        }
+
+        GestureSequence sequence = new GestureSequence();
+        for (int i = 0; i < gestures.size(); i++) {
+            int gap = 0;
+            if (i > 0) {
+                long previousEnd = timestamps.get(i - 1) + GestureSequence.getGestureDuration(gestures.get(i - 1));
+                long idleTime = Math.max(0, timestamps.get(i) - previousEnd);
+                gap = (int) Math.min(maxIdleGap, Math.round(idleTime / timeCompression));
+            }
+
+            sequence.add(gestures.get(i), gap);
+        }
+
+        return sequence;
+    }
+}
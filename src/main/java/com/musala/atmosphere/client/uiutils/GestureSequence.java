@@ -0,0 +1,213 @@
+package com.musala.atmosphere.client.uiutils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.musala.atmosphere.commons.gesture.Anchor;
+import com.musala.atmosphere.commons.gesture.Gesture;
+import com.musala.atmosphere.commons.gesture.Timeline;
+
+/**
+ * A sequence of gestures played one after another with gaps between them, e.g. "tap a field, tap next, swipe, tap
+ * submit". The steps are combined into timed {@link Gesture gestures}, so the sequence is sent to the device with a
+ * request per {@link #split(int, int) part} instead of one request per step. Each part is bounded in steps and
+ * duration, so a long sequence, e.g. a replayed session, does not block the device in a single request.
+ * <p>
+ * The times of the anchors of each step are relative to the start of the step, as in the gestures created by the
+ * {@link GestureCreator}.
+ * </p>
+ */
+public class GestureSequence {
+    /**
+     * The default time in milliseconds between the end of a step and the start of the next one.
+     */
+    public static final int DEFAULT_STEP_GAP = 100;
+
+    /**
+     * The default maximum number of steps played with one request.
+     */
+    public static final int DEFAULT_MAX_PART_STEP_COUNT = 50;
+
+    /**
+     * The default maximum duration in milliseconds of the steps played with one request.
+     */
+    public static final int DEFAULT_MAX_PART_DURATION = 10000;
+
+    private final List<Gesture> steps = new ArrayList<>();
+
+    private final List<Integer> stepStartTimes = new ArrayList<>();
+
+    private final List<Integer> stepEndTimes = new ArrayList<>();
+
+    /**
+     * Adds a step that starts {@value #DEFAULT_STEP_GAP} milliseconds after the end of the previous step.
+     *
+     * @param gesture
+     *        - the gesture of the step
+     * @return this sequence
+     */
+    public GestureSequence add(Gesture gesture) {
+        return add(gesture, steps.isEmpty() ? 0 : DEFAULT_STEP_GAP);
+    }
+
+    /**
+     * Adds a step that starts the given time after the end of the previous step.
+     *
+     * @param gesture
+     *        - the gesture of the step
+     * @param gapBefore
+     *        - the time in milliseconds between the end of the previous step and the start of this one
+     * @return this sequence
+     */
+    public GestureSequence add(Gesture gesture, int gapBefore) {
+        if (gapBefore < 0) {
+            throw new IllegalArgumentException("The gap before a step can not be negative.");
+        }
+
+        int startTime = getDuration() + gapBefore;
+
+        steps.add(gesture);
+        stepStartTimes.add(startTime);
+        stepEndTimes.add(startTime + getGestureDuration(gesture));
+        return this;
+    }
+
+    /**
+     * Gets the number of steps in the sequence.
+     *
+     * @return the number of steps
+     */
+    public int getStepCount() {
+        return steps.size();
+    }
+
+    /**
+     * Gets the gesture of the given step.
+     *
+     * @param step
+     *        - the index of the step
+     * @return the {@link Gesture} of the step
+     */
+    public Gesture getStep(int step) {
+        return steps.get(step);
+    }
+
+    /**
+     * Gets the moment at which the given step starts.
+     *
+     * @param step
+     *        - the index of the step
+     * @return the start of the step in milliseconds, relative to the start of the sequence
+     */
+    public int getStepStartTime(int step) {
+        return stepStartTimes.get(step);
+    }
+
+    /**
+     * Gets the moment at which the given step ends.
+     *
+     * @param step
+     *        - the index of the step
+     * @return the end of the step in milliseconds, relative to the start of the sequence
+     */
+    public int getStepEndTime(int step) {
+        return stepEndTimes.get(step);
+    }
+
+    /**
+     * Gets the time between the end of the previous step and the start of the given one.
+     *
+     * @param step
+     *        - the index of the step
+     * @return the gap in milliseconds, <code>0</code> for the first step
+     */
+    public int getGapBefore(int step) {
+        return step == 0 ? 0 : stepStartTimes.get(step) - stepEndTimes.get(step - 1);
+    }
+
+    /**
+     * Gets the duration of the whole sequence.
+     *
+     * @return the duration in milliseconds
+     */
+    public int getDuration() {
+        return stepEndTimes.isEmpty() ? 0 : stepEndTimes.get(stepEndTimes.size() - 1);
+    }
+
+    /**
+     * Gets the duration of a gesture - the time of its last anchor.
+     *
+     * @param gesture
+     *        - the gesture
+     * @return the duration in milliseconds
+     */
+    static int getGestureDuration(Gesture gesture) {
+        int duration = 0;
+        for (Timeline timeline : gesture) {
+            for (Anchor anchor : timeline) {
+                duration = Math.max(duration, anchor.getTimeAfterStart());
+            }
+        }
+
+        return duration;
+    }
+
+    /**
+     * Combines the steps into a single {@link Gesture}, with the anchors of each step shifted to the start of the
+     * step.
+     *
+     * @return the combined {@link Gesture}
+     */
+    public Gesture toGesture() {
+        Gesture combined = new Gesture();
+        for (int step = 0; step < steps.size(); step++) {
+            int startTime = stepStartTimes.get(step);
+            for (Timeline timeline : steps.get(step)) {
+                Timeline shifted = new Timeline();
+                for (Anchor anchor : timeline) {
+                    shifted.add(new Anchor(anchor.getX(), anchor.getY(), startTime + anchor.getTimeAfterStart()));
+                }
+
+                combined.add(shifted);
+            }
+        }
+
+        return combined;
+    }
+
+    /**
+     * Splits the sequence into consecutive parts, each of which can be played with one request. A part holds at most
+     * the given number of steps and lasts at most the given time, unless it consists of a single step that is longer.
+     * The steps keep their gaps within a part, while the first step of each part starts it; the gap before it is
+     * available with {@link #getGapBefore(int)}.
+     *
+     * @param maxStepCount
+     *        - the maximum number of steps in a part
+     * @param maxDuration
+     *        - the maximum duration of a part in milliseconds
+     * @return the parts of the sequence, in playing order
+     */
+    public List<GestureSequence> split(int maxStepCount, int maxDuration) {
+        if (maxStepCount < 1 || maxDuration < 1) {
+            throw new IllegalArgumentException("The parts of a sequence must allow at least one step.");
+        }
+
+        List<GestureSequence> parts = new ArrayList<>();
+        GestureSequence part = null;
+        for (int step = 0; step < steps.size(); step++) {
+            int gapBefore = getGapBefore(step);
+            int stepDuration = stepEndTimes.get(step) - stepStartTimes.get(step);
+
+            if (part == null || part.getStepCount() == maxStepCount
+                    || part.getDuration() + gapBefore + stepDuration > maxDuration) {
+                part = new GestureSequence();
+                parts.add(part);
+                gapBefore = 0;
+            }
+
+            part.add(steps.get(step), gapBefore);
+        }
+
+        return parts;
+    }
+}
@@ -0,0 +1,94 @@
+package com.musala.atmosphere.client.uiutils;
+
+/**
+ * The outcome of playing a {@link GestureSequence} on a device. The sequence is played in bounded parts, one request
+ * per part, and the playing stops at the first failed part, so the steps of the parts played before it are completed
+ * and the rest are not.
+ */
+public class GestureSequenceResult {
+    private final GestureSequence sequence;
+
+    private final int completedStepCount;
+
+    private final long playTime;
+
+    /**
+     * Creates the result of playing the given sequence.
+     *
+     * @param sequence
+     *        - the played sequence
+     * @param completedStepCount
+     *        - the number of leading steps the device played successfully
+     * @param playTime
+     *        - the time in milliseconds the requests took
+     */
+    public GestureSequenceResult(GestureSequence sequence, int completedStepCount, long playTime) {
+        this.sequence = sequence;
+        this.completedStepCount = completedStepCount;
+        this.playTime = playTime;
+    }
+
+    /**
+     * Checks if all steps of the sequence were completed.
+     *
+     * @return <code>true</code> if the sequence was played successfully, <code>false</code> otherwise
+     */
+    public boolean isCompleted() {
+        return completedStepCount == sequence.getStepCount();
+    }
+
+    /**
+     * Gets the number of completed steps.
+     *
+     * @return the number of completed steps
+     */
+    public int getCompletedStepCount() {
+        return completedStepCount;
+    }
+
+    /**
+     * Checks if the given step was completed.
+     *
+     * @param step
+     *        - the index of the step
+     * @return <code>true</code> if the step was completed, <code>false</code> otherwise
+     */
+    public boolean isStepCompleted(int step) {
+        if (step < 0 || step >= sequence.getStepCount()) {
+            String message = String.format("Step index %d is out of range [0; %d).", step, sequence.getStepCount());
+            throw new IndexOutOfBoundsException(message);
+        }
+
+        return step < completedStepCount;
+    }
+
+    /**
+     * Gets the moment at which the given step was completed on the device.
+     *
+     * @param step
+     *        - the index of the step
+     * @return the end of the step in milliseconds relative to the start of the sequence, or <code>-1</code> if the
+     *         step was not completed
+     */
+    public int getStepCompletionTime(int step) {
+        return isStepCompleted(step) ? sequence.getStepEndTime(step) : -1;
+    }
+
+    /**
+     * Gets the time the requests playing the sequence took, including the communication with the device and the gaps
+     * between the parts.
+     *
+     * @return the time in milliseconds
+     */
+    public long getPlayTime() {
+        return playTime;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d of %d steps completed in %d ms",
+                             getCompletedStepCount(),
+                             sequence.getStepCount(),
+                             playTime);
+    }
+}
@@ -8,8 +8,11 @@ import com.musala.atmosphere.commons.ui.selector.UiElementSelector;
  * Manages the extracting of the attributes from a UiElementPropertiesContainer instance to a UiElementSelector.
  * 
  * @author georgi.gaydarov
+ * @deprecated use {@link ElementIdentity} to find an element again, it does not depend on properties that change
+ *             during interaction
  * 
  */
+@Deprecated
 public class UiElementAttributeExtractor {
     /**
      * Extracts the attributes from a {@link UiElementPropertiesContainer} instance to a {@link UiElementSelector}.
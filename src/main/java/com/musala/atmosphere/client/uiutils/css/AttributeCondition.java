@@ -0,0 +1,129 @@
+package com.musala.atmosphere.client.uiutils.css;
+
+import com.musala.atmosphere.client.uiutils.XPathAttribute;
+
+/**
+ * An attribute condition of a {@link CompoundSelector}, e.g. <code>[text*='Sign in']</code>.
+ */
+public class AttributeCondition {
+    private final String attributeName;
+
+    private final AttributeOperator operator;
+
+    private final String value;
+
+    AttributeCondition(String attributeName, AttributeOperator operator, String value) {
+        this.attributeName = attributeName;
+        this.operator = operator;
+        this.value = value;
+    }
+
+    /**
+     * Gets the name of the attribute as it appears in the query.
+     *
+     * @return the attribute name
+     */
+    public String getAttributeName() {
+        return attributeName;
+    }
+
+    /**
+     * Gets the way the attribute value is compared.
+     *
+     * @return the {@link AttributeOperator} of this condition
+     */
+    public AttributeOperator getOperator() {
+        return operator;
+    }
+
+    /**
+     * Gets the expected attribute value.
+     *
+     * @return the expected value, <code>null</code> for {@link AttributeOperator#EXISTS}
+     */
+    public String getValue() {
+        return value;
+    }
+
+    /**
+     * Checks if the attribute is one the agent knows about. Conditions on other attributes are ignored, the same way
+     * the {@link com.musala.atmosphere.client.uiutils.CssToXPathConverter CssToXPathConverter} always ignored them.
+     *
+     * @return <code>true</code> if the condition takes part in the selection, <code>false</code> otherwise
+     */
+    public boolean isKnownAttribute() {
+        return XPathAttribute.isAttributeStringOfTheEnumeration(attributeName);
+    }
+
+    void appendXPath(StringBuilder xpath) {
+        String attribute = "@" + attributeName;
+
+        switch (operator) {
+            case EXISTS:
+                xpath.append('[').append(attribute).append(']');
+                break;
+            case CONTAINS:
+                xpath.append("[contains(").append(attribute).append(',').append(toXPathLiteral(value)).append(")]");
+                break;
+            case WORD_MATCH:
+                xpath.append("[contains(concat(' ', ")
+                     .append(attribute)
+                     .append(", ' '), ")
+                     .append(toXPathLiteral(" " + value + " "))
+                     .append(")]");
+                break;
+            case PREFIX:
+                xpath.append("[starts-with(").append(attribute).append(',').append(toXPathLiteral(value)).append(")]");
+                break;
+            case SUFFIX:
+                String literal = toXPathLiteral(value);
+                xpath.append("[substring(")
+                     .append(attribute)
+                     .append(", string-length(")
+                     .append(attribute)
+                     .append(") - string-length(")
+                     .append(literal)
+                     .append(") + 1)=")
+                     .append(literal)
+                     .append(']');
+                break;
+            default:
+                xpath.append('[').append(attribute).append('=').append(toXPathLiteral(value)).append(']');
+                break;
+        }
+    }
+
+    /**
+     * Quotes a value as an XPath string literal. XPath 1.0 has no escaping, so values containing both kinds of quotes
+     * are built with <code>concat()</code>.
+     */
+    static String toXPathLiteral(String value) {
+        if (value.indexOf('\'') < 0) {
+            return "'" + value + "'";
+        }
+
+        if (value.indexOf('"') < 0) {
+            return "\"" + value + "\"";
+        }
+
+        StringBuilder literal = new StringBuilder("concat(");
+        String[] parts = value.split("'", -1);
+        for (int i = 0; i < parts.length; i++) {
+            if (i > 0) {
+                literal.append(", \"'\", ");
+            }
+            literal.append('\'').append(parts[i]).append('\'');
+        }
+
+        return literal.append(')').toString();
+    }
+
+    @Override
+    public String toString() {
+        if (operator == AttributeOperator.EXISTS) {
+            return "[" + attributeName + "]";
+        }
+
+        return "[" + attributeName + operator.getSymbol() + value + "]";
+    }
+}
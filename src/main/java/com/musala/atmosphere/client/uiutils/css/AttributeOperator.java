@@ -0,0 +1,91 @@
+package com.musala.atmosphere.client.uiutils.css;
+
+/**
+ * The ways an attribute value can be compared in an {@link AttributeCondition}.
+ */
+public enum AttributeOperator {
+    /**
+     * <code>[attr]</code> - the attribute is present.
+     */
+    EXISTS(""),
+    /**
+     * <code>[attr=value]</code> - the attribute value is exactly the given value.
+     */
+    EQUALS("="),
+    /**
+     * <code>[attr*=value]</code> - the attribute value contains the given value.
+     */
+    CONTAINS("*="),
+    /**
+     * <code>[attr~=value]</code> - the given value is one of the whitespace separated words of the attribute value.
+     */
+    WORD_MATCH("~="),
+    /**
+     * <code>[attr^=value]</code> - the attribute value starts with the given value.
+     */
+    PREFIX("^="),
+    /**
+     * <code>[attr$=value]</code> - the attribute value ends with the given value.
+     */
+    SUFFIX("$=");
+
+    private final String symbol;
+
+    private AttributeOperator(String symbol) {
+        this.symbol = symbol;
+    }
+
+    /**
+     * Gets the CSS symbol of the operator.
+     *
+     * @return the CSS symbol, empty for {@link #EXISTS}
+     */
+    public String getSymbol() {
+        return symbol;
+    }
+
+    /**
+     * Checks if an attribute value satisfies this operator.
+     *
+     * @param actualValue
+     *        - the value of the attribute, <code>null</code> if the attribute is missing
+     * @param expectedValue
+     *        - the value given in the selector
+     * @return <code>true</code> if the attribute value satisfies the operator, <code>false</code> otherwise
+     */
+    public boolean matches(String actualValue, String expectedValue) {
+        if (actualValue == null) {
+            return false;
+        }
+
+        switch (this) {
+            case EXISTS:
+                return true;
+            case CONTAINS:
+                return actualValue.contains(expectedValue);
+            case WORD_MATCH:
+                for (String word : actualValue.split("\\s+")) {
+                    if (word.equals(expectedValue)) {
+                        return true;
+                    }
+                }
+                return false;
+            case PREFIX:
+                return actualValue.startsWith(expectedValue);
+            case SUFFIX:
+                return actualValue.endsWith(expectedValue);
+            default:
+                return actualValue.equals(expectedValue);
+        }
+    }
+
+    static AttributeOperator fromPrefix(char prefix) {
+        for (AttributeOperator operator : values()) {
+            if (operator.symbol.length() == 2 && operator.symbol.charAt(0) == prefix) {
+                return operator;
+            }
+        }
+
+        return null;
+    }
+}
@@ -0,0 +1,55 @@
+package com.musala.atmosphere.client.uiutils.css;
+
+/**
+ * The relations between two compound selectors of a {@link ComplexSelector}.
+ */
+public enum Combinator {
+    /**
+     * <code>A B</code> - the element is a descendant of an element matching the previous selector.
+     */
+    DESCENDANT(" ", "//"),
+    /**
+     * <code>A &gt; B</code> - the element is a direct child of an element matching the previous selector.
+     */
+    CHILD(">", "/"),
+    /**
+     * <code>A + B</code> - the element immediately follows a sibling matching the previous selector.
+     */
+    ADJACENT_SIBLING("+", "/following-sibling::*[1]/self::"),
+    /**
+     * <code>A ~ B</code> - the element follows a sibling matching the previous selector.
+     */
+    GENERAL_SIBLING("~", "/following-sibling::");
+
+    private final String symbol;
+
+    private final String xpathStep;
+
+    private Combinator(String symbol, String xpathStep) {
+        this.symbol = symbol;
+        this.xpathStep = xpathStep;
+    }
+
+    /**
+     * Gets the CSS symbol of the combinator.
+     *
+     * @return the CSS symbol
+     */
+    public String getSymbol() {
+        return symbol;
+    }
+
+    String getXPathStep() {
+        return xpathStep;
+    }
+
+    static Combinator fromSymbol(char symbol) {
+        for (Combinator combinator : values()) {
+            if (combinator.symbol.charAt(0) == symbol) {
+                return combinator;
+            }
+        }
+
+        return null;
+    }
+}
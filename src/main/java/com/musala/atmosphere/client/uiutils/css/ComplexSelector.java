@@ -0,0 +1,77 @@
+package com.musala.atmosphere.client.uiutils.css;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A chain of {@link CompoundSelector compound selectors} joined by {@link Combinator combinators}, e.g.
+ * <code>android.widget.ListView &gt; android.widget.TextView:nth-child(2)</code>. The last compound selector describes
+ * the selected elements, the rest describe their surroundings.
+ */
+public class ComplexSelector {
+    private final List<CompoundSelector> compoundSelectors;
+
+    private final List<Combinator> combinators;
+
+    ComplexSelector(List<CompoundSelector> compoundSelectors, List<Combinator> combinators) {
+        this.compoundSelectors = Collections.unmodifiableList(compoundSelectors);
+        this.combinators = Collections.unmodifiableList(combinators);
+    }
+
+    /**
+     * Gets the compound selectors in the order they appear in the query.
+     *
+     * @return an unmodifiable list of the compound selectors
+     */
+    public List<CompoundSelector> getCompoundSelectors() {
+        return compoundSelectors;
+    }
+
+    /**
+     * Gets the combinators between the compound selectors. The combinator at index <code>i</code> joins the compound
+     * selectors at indexes <code>i</code> and <code>i + 1</code>.
+     *
+     * @return an unmodifiable list of the combinators
+     */
+    public List<Combinator> getCombinators() {
+        return combinators;
+    }
+
+    /**
+     * Gets the compound selector describing the selected elements.
+     *
+     * @return the last compound selector
+     */
+    public CompoundSelector getSubject() {
+        return compoundSelectors.get(compoundSelectors.size() - 1);
+    }
+
+    /**
+     * Converts the selector to an equivalent XPath query.
+     *
+     * @return the XPath query
+     */
+    public String toXPath() {
+        StringBuilder xpath = new StringBuilder("//");
+        compoundSelectors.get(0).appendXPath(xpath);
+
+        for (int i = 0; i < combinators.size(); i++) {
+            xpath.append(combinators.get(i).getXPathStep());
+            compoundSelectors.get(i + 1).appendXPath(xpath);
+        }
+
+        return xpath.toString();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder selector = new StringBuilder(compoundSelectors.get(0).toString());
+        for (int i = 0; i < combinators.size(); i++) {
+            Combinator combinator = combinators.get(i);
+            selector.append(combinator == Combinator.DESCENDANT ? " " : " " + combinator.getSymbol() + " ");
+            selector.append(compoundSelectors.get(i + 1));
+        }
+
+        return selector.toString();
+    }
+}
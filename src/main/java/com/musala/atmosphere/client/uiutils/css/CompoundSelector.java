@@ -0,0 +1,77 @@
+package com.musala.atmosphere.client.uiutils.css;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A sequence of conditions on a single element, e.g. <code>android.widget.TextView[text='OK']:first-child</code>.
+ * The type is matched against the class name of the element. Dots are part of the type name, since they separate the
+ * package segments of Android class names.
+ */
+public class CompoundSelector {
+    private final String type;
+
+    private final List<AttributeCondition> attributeConditions;
+
+    private final List<NthChildCondition> nthChildConditions;
+
+    CompoundSelector(String type, List<AttributeCondition> attributeConditions, List<NthChildCondition> nthChildConditions) {
+        this.type = type;
+        this.attributeConditions = Collections.unmodifiableList(attributeConditions);
+        this.nthChildConditions = Collections.unmodifiableList(nthChildConditions);
+    }
+
+    /**
+     * Gets the class name the element must have.
+     *
+     * @return the class name, or <code>null</code> if any class matches
+     */
+    public String getType() {
+        return type;
+    }
+
+    /**
+     * Gets the attribute conditions of this selector.
+     *
+     * @return an unmodifiable list of the {@link AttributeCondition attribute conditions}
+     */
+    public List<AttributeCondition> getAttributeConditions() {
+        return attributeConditions;
+    }
+
+    /**
+     * Gets the conditions on the position of the element among its siblings.
+     *
+     * @return an unmodifiable list of the {@link NthChildCondition position conditions}
+     */
+    public List<NthChildCondition> getNthChildConditions() {
+        return nthChildConditions;
+    }
+
+    void appendXPath(StringBuilder xpath) {
+        xpath.append(type == null ? "*" : type);
+
+        for (AttributeCondition attributeCondition : attributeConditions) {
+            if (attributeCondition.isKnownAttribute()) {
+                attributeCondition.appendXPath(xpath);
+            }
+        }
+
+        for (NthChildCondition nthChildCondition : nthChildConditions) {
+            nthChildCondition.appendXPath(xpath);
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder selector = new StringBuilder(type == null ? "*" : type);
+        for (AttributeCondition attributeCondition : attributeConditions) {
+            selector.append(attributeCondition);
+        }
+        for (NthChildCondition nthChildCondition : nthChildConditions) {
+            selector.append(nthChildCondition);
+        }
+
+        return selector.toString();
+    }
+}
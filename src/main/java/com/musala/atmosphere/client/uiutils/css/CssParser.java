@@ -0,0 +1,311 @@
+package com.musala.atmosphere.client.uiutils.css;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.musala.atmosphere.client.exceptions.InvalidCssQueryException;
+
+/**
+ * Parses CSS queries to a {@link SelectorList} syntax tree. The supported syntax is:
+ * <ul>
+ * <li>type selectors, matched against the class name - <code>android.widget.Button</code>, <code>*</code></li>
+ * <li>attribute selectors - <code>[attr]</code>, <code>[attr=value]</code>, <code>*=</code>, <code>~=</code>,
+ * <code>^=</code> and <code>$=</code>; values may be quoted with single or double quotes and use <code>\</code> to
+ * escape characters, unquoted values may contain balanced square brackets as bounds values do</li>
+ * <li>the <code>:nth-child()</code>, <code>:nth-last-child()</code>, <code>:first-child</code> and
+ * <code>:last-child</code> pseudo-classes</li>
+ * <li>the descendant (<code>A B</code>), child (<code>A &gt; B</code>), adjacent sibling (<code>A + B</code>) and
+ * general sibling (<code>A ~ B</code>) combinators</li>
+ * <li>comma separated selector lists</li>
+ * </ul>
+ */
+public class CssParser {
+    private static final Pattern NTH_EXPRESSION_PATTERN = Pattern.compile("([+-]?\\d*)n([+-]\\d+)?|([+-]?\\d+)");
+
+    private final String query;
+
+    private int position;
+
+    private CssParser(String query) {
+        this.query = query;
+    }
+
+    /**
+     * Parses the given CSS query.
+     *
+     * @param cssQuery
+     *        - the CSS query to parse
+     * @return the {@link SelectorList} describing the query
+     * @throws InvalidCssQueryException
+     *         if the query is not valid
+     */
+    public static SelectorList parse(String cssQuery) throws InvalidCssQueryException {
+        CssParser parser = new CssParser(cssQuery);
+        return parser.parseSelectorList();
+    }
+
+    private SelectorList parseSelectorList() {
+        List<ComplexSelector> selectors = new ArrayList<>();
+        skipWhitespace();
+        selectors.add(parseComplexSelector());
+
+        while (!isAtEnd()) {
+            expect(',');
+            skipWhitespace();
+            selectors.add(parseComplexSelector());
+        }
+
+        return new SelectorList(selectors);
+    }
+
+    private ComplexSelector parseComplexSelector() {
+        List<CompoundSelector> compoundSelectors = new ArrayList<>();
+        List<Combinator> combinators = new ArrayList<>();
+        compoundSelectors.add(parseCompoundSelector());
+
+        while (true) {
+            boolean hasWhitespace = skipWhitespace();
+            if (isAtEnd() || peek() == ',') {
+                break;
+            }
+
+            Combinator combinator = Combinator.fromSymbol(peek());
+            if (combinator != null && combinator != Combinator.DESCENDANT) {
+                position++;
+                skipWhitespace();
+            } else if (hasWhitespace) {
+                combinator = Combinator.DESCENDANT;
+            } else {
+                throw error("Unexpected character");
+            }
+
+            combinators.add(combinator);
+            compoundSelectors.add(parseCompoundSelector());
+        }
+
+        return new ComplexSelector(compoundSelectors, combinators);
+    }
+
+    private CompoundSelector parseCompoundSelector() {
+        String type = null;
+        List<AttributeCondition> attributeConditions = new ArrayList<>();
+        List<NthChildCondition> nthChildConditions = new ArrayList<>();
+        int start = position;
+
+        if (!isAtEnd() && peek() == '*') {
+            position++;
+        } else if (!isAtEnd() && isTypeNameCharacter(peek())) {
+            type = readWhile(true);
+        }
+
+        while (!isAtEnd()) {
+            if (peek() == '[') {
+                attributeConditions.add(parseAttributeCondition());
+            } else if (peek() == ':') {
+                nthChildConditions.add(parsePseudoClass());
+            } else {
+                break;
+            }
+        }
+
+        if (position == start) {
+            throw error(isAtEnd() ? "Selector expected" : "Unexpected character");
+        }
+
+        return new CompoundSelector(type, attributeConditions, nthChildConditions);
+    }
+
+    private AttributeCondition parseAttributeCondition() {
+        expect('[');
+        skipWhitespace();
+        String attributeName = readWhile(false);
+        if (attributeName.isEmpty()) {
+            throw error("Attribute name expected");
+        }
+        skipWhitespace();
+
+        if (!isAtEnd() && peek() == ']') {
+            position++;
+            return new AttributeCondition(attributeName, AttributeOperator.EXISTS, null);
+        }
+
+        AttributeOperator operator = AttributeOperator.EQUALS;
+        if (!isAtEnd() && peek() != '=') {
+            operator = AttributeOperator.fromPrefix(peek());
+            if (operator == null) {
+                throw error("Attribute operator expected");
+            }
+            position++;
+        }
+        expect('=');
+        skipWhitespace();
+
+        String value;
+        if (!isAtEnd() && (peek() == '\'' || peek() == '"')) {
+            value = readQuotedValue();
+            skipWhitespace();
+            expect(']');
+        } else {
+            value = readUnquotedValue();
+        }
+
+        return new AttributeCondition(attributeName, operator, value);
+    }
+
+    private NthChildCondition parsePseudoClass() {
+        expect(':');
+        String name = readWhile(false);
+
+        switch (name) {
+            case "first-child":
+                return new NthChildCondition(0, 1, false);
+            case "last-child":
+                return new NthChildCondition(0, 1, true);
+            case "nth-child":
+            case "nth-last-child":
+                expect('(');
+                int expressionStart = position;
+                while (!isAtEnd() && peek() != ')') {
+                    position++;
+                }
+                String expression = query.substring(expressionStart, position);
+                expect(')');
+                return parseNthExpression(expression, "nth-last-child".equals(name), expressionStart);
+            default:
+                position -= name.length();
+                throw error("Unsupported pseudo-class");
+        }
+    }
+
+    private NthChildCondition parseNthExpression(String expression, boolean fromEnd, int expressionStart) {
+        String normalizedExpression = expression.replaceAll("\\s+", "").toLowerCase();
+
+        if ("odd".equals(normalizedExpression)) {
+            return new NthChildCondition(2, 1, fromEnd);
+        }
+        if ("even".equals(normalizedExpression)) {
+            return new NthChildCondition(2, 0, fromEnd);
+        }
+
+        Matcher matcher = NTH_EXPRESSION_PATTERN.matcher(normalizedExpression);
+        if (!matcher.matches()) {
+            position = expressionStart;
+            throw error("Invalid nth expression");
+        }
+
+        if (matcher.group(3) != null) {
+            return new NthChildCondition(0, parseNumber(matcher.group(3)), fromEnd);
+        }
+
+        String step = matcher.group(1);
+        int stepValue = step.isEmpty() || "+".equals(step) ? 1 : "-".equals(step) ? -1 : parseNumber(step);
+        int offsetValue = matcher.group(2) == null ? 0 : parseNumber(matcher.group(2));
+
+        return new NthChildCondition(stepValue, offsetValue, fromEnd);
+    }
+
+    private String readQuotedValue() {
+        char quote = query.charAt(position++);
+        StringBuilder value = new StringBuilder();
+
+        while (!isAtEnd() && peek() != quote) {
+            char current = query.charAt(position++);
+            if (current == '\\') {
+                if (isAtEnd()) {
+                    break;
+                }
+                current = query.charAt(position++);
+            }
+            value.append(current);
+        }
+
+        if (isAtEnd()) {
+            throw error("Unterminated string");
+        }
+        position++;
+
+        return value.toString();
+    }
+
+    /**
+     * Reads a value up to the closing bracket of the attribute selector. Nested brackets are kept, so bounds like
+     * <code>[0,0][720,1280]</code> can be written without quotes.
+     */
+    private String readUnquotedValue() {
+        int start = position;
+        int numberOfBrackets = 0;
+
+        while (!isAtEnd()) {
+            char current = peek();
+            if (current == '[') {
+                numberOfBrackets++;
+            } else if (current == ']') {
+                if (numberOfBrackets == 0) {
+                    break;
+                }
+                numberOfBrackets--;
+            }
+            position++;
+        }
+
+        String value = query.substring(start, position);
+        if (value.isEmpty()) {
+            throw error("Attribute value expected");
+        }
+        expect(']');
+
+        return value;
+    }
+
+    private String readWhile(boolean isTypeName) {
+        int start = position;
+        while (!isAtEnd() && (isTypeName ? isTypeNameCharacter(peek()) : isNameCharacter(peek()))) {
+            position++;
+        }
+
+        return query.substring(start, position);
+    }
+
+    private boolean skipWhitespace() {
+        int start = position;
+        while (!isAtEnd() && Character.isWhitespace(peek())) {
+            position++;
+        }
+
+        return position > start;
+    }
+
+    private void expect(char expected) {
+        if (isAtEnd() || peek() != expected) {
+            throw error(String.format("'%c' expected", expected));
+        }
+        position++;
+    }
+
+    private char peek() {
+        return query.charAt(position);
+    }
+
+    private boolean isAtEnd() {
+        return position >= query.length();
+    }
+
+    private int parseNumber(String number) {
+        return Integer.parseInt(number.startsWith("+") ? number.substring(1) : number);
+    }
+
+    private InvalidCssQueryException error(String reason) {
+        String message = String.format("%s at position %d of CSS query '%s'.", reason, position, query);
+        return new InvalidCssQueryException(message);
+    }
+
+    private static boolean isNameCharacter(char character) {
+        return Character.isLetterOrDigit(character) || character == '-' || character == '_';
+    }
+
+    private static boolean isTypeNameCharacter(char character) {
+        return isNameCharacter(character) || character == '.' || character == '$';
+    }
+}
@@ -0,0 +1,99 @@
+package com.musala.atmosphere.client.uiutils.css;
+
+/**
+ * A structural condition on the position of an element among its siblings, written as <code>:nth-child(an+b)</code>,
+ * <code>:nth-last-child(an+b)</code>, <code>:first-child</code> or <code>:last-child</code>.
+ */
+public class NthChildCondition {
+    private final int step;
+
+    private final int offset;
+
+    private final boolean fromEnd;
+
+    NthChildCondition(int step, int offset, boolean fromEnd) {
+        this.step = step;
+        this.offset = offset;
+        this.fromEnd = fromEnd;
+    }
+
+    /**
+     * Gets the step (the <code>a</code> in <code>an+b</code>).
+     *
+     * @return the step
+     */
+    public int getStep() {
+        return step;
+    }
+
+    /**
+     * Gets the offset (the <code>b</code> in <code>an+b</code>).
+     *
+     * @return the offset
+     */
+    public int getOffset() {
+        return offset;
+    }
+
+    /**
+     * Checks if the positions are counted from the last sibling.
+     *
+     * @return <code>true</code> if the positions are counted from the end, <code>false</code> otherwise
+     */
+    public boolean isFromEnd() {
+        return fromEnd;
+    }
+
+    /**
+     * Checks if the given position satisfies the condition.
+     *
+     * @param position
+     *        - the 1-based position of the element among its siblings, counted from the end if {@link #isFromEnd()}
+     * @return <code>true</code> if the position satisfies the condition, <code>false</code> otherwise
+     */
+    public boolean matches(int position) {
+        int distance = position - offset;
+        if (step == 0) {
+            return distance == 0;
+        }
+
+        return distance / step >= 0 && distance % step == 0;
+    }
+
+    void appendXPath(StringBuilder xpath) {
+        String position = fromEnd ? "(count(following-sibling::*) + 1)" : "(count(preceding-sibling::*) + 1)";
+
+        if (step == 0) {
+            xpath.append('[').append(position).append(" = ").append(offset).append(']');
+        } else if (step > 0) {
+            xpath.append('[')
+                 .append(position)
+                 .append(" >= ")
+                 .append(offset)
+                 .append(" and (")
+                 .append(position)
+                 .append(" - (")
+                 .append(offset)
+                 .append(")) mod ")
+                 .append(step)
+                 .append(" = 0]");
+        } else {
+            xpath.append('[')
+                 .append(position)
+                 .append(" <= ")
+                 .append(offset)
+                 .append(" and (")
+                 .append(offset)
+                 .append(" - ")
+                 .append(position)
+                 .append(") mod ")
+                 .append(-step)
+                 .append(" = 0]");
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format(":%s(%dn%+d)", fromEnd ? "nth-last-child" : "nth-child", step, offset);
+    }
+}
@@ -0,0 +1,55 @@
+package com.musala.atmosphere.client.uiutils.css;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The root of a parsed CSS query - one or more comma separated {@link ComplexSelector complex selectors}. An element
+ * is selected if it matches any of them.
+ */
+public class SelectorList {
+    private final List<ComplexSelector> selectors;
+
+    SelectorList(List<ComplexSelector> selectors) {
+        this.selectors = Collections.unmodifiableList(selectors);
+    }
+
+    /**
+     * Gets the selectors in the order they appear in the query.
+     *
+     * @return an unmodifiable list of the selectors
+     */
+    public List<ComplexSelector> getSelectors() {
+        return selectors;
+    }
+
+    /**
+     * Converts the query to an equivalent XPath query that can be sent to the agent.
+     *
+     * @return the XPath query
+     */
+    public String toXPath() {
+        StringBuilder xpath = new StringBuilder();
+        for (ComplexSelector selector : selectors) {
+            if (xpath.length() > 0) {
+                xpath.append(" | ");
+            }
+            xpath.append(selector.toXPath());
+        }
+
+        return xpath.toString();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder query = new StringBuilder();
+        for (ComplexSelector selector : selectors) {
+            if (query.length() > 0) {
+                query.append(", ");
+            }
+            query.append(selector);
+        }
+
+        return query.toString();
+    }
+}
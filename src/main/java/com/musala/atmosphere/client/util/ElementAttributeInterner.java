@@ -0,0 +1,40 @@
+package com.musala.atmosphere.client.util;
+
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import com.musala.atmosphere.commons.ui.tree.AccessibilityElement;
+
+/**
+ * A weak pool of the element attribute values that repeat across the elements of a screen and across successive
+ * fetches, such as class names, package names and resource ids. Elements passed through the pool share a single
+ * instance of each value, which reduces the retained heap and lets equal values be compared by reference first. Values
+ * are released when no element refers to them anymore.
+ */
+public class ElementAttributeInterner {
+    private final Interner<String> interner = Interners.newWeakInterner();
+
+    /**
+     * Gets the pooled instance of the given value.
+     *
+     * @param value
+     *        - the value to intern, may be <code>null</code>
+     * @return the pooled instance equal to the given value, or <code>null</code> if the value is <code>null</code>
+     */
+    public String intern(String value) {
+        return value == null ? null : interner.intern(value);
+    }
+
+    /**
+     * Replaces the class name, package name and resource id of the given element with their pooled instances.
+     *
+     * @param element
+     *        - the element to update
+     * @return the given element
+     */
+    public AccessibilityElement intern(AccessibilityElement element) {
+        element.setClassName(intern(element.getClassName()));
+        element.setPackageName(intern(element.getPackageName()));
+        element.setResourceId(intern(element.getResourceId()));
+        return element;
+    }
+}
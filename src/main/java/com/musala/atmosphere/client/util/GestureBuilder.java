@@ -0,0 +1,400 @@
+package com.musala.atmosphere.client.util;
+
+import java.util.Arrays;
+
+import com.musala.atmosphere.commons.gesture.Anchor;
+import com.musala.atmosphere.commons.gesture.Gesture;
+import com.musala.atmosphere.commons.gesture.Timeline;
+
+/**
+ * Builds gestures in primitive arrays - the coordinates and times of all anchors are kept in flat <code>float</code>
+ * and <code>int</code> arrays, and the shapes are generated iteratively in place. No {@link Anchor} or {@link Timeline}
+ * objects are created until the gesture is {@link #build() built}, which should be done only when the gesture is sent
+ * to the device. A builder can be {@link #reset() reset} and reused, so high-rate gesture generation does not allocate
+ * once its arrays have grown to the needed size.
+ * <p>
+ * Each {@link #startTimeline() timeline} of the built gesture represents a single pointer.
+ * </p>
+ */
+public class GestureBuilder {
+    private static final int DEFAULT_CAPACITY = 64;
+
+    private static final float FULL_RADIANS = (float) (Math.PI * 2.0f);
+
+    private static final float CIRCLE_INSURANCE_ANGLE = 0.2f;
+
+    private static final float ARC_MAX_ANGLE = 355;
+
+    private static final float ARC_MIN_ANGLE = 2;
+
+    private static final int CURVE_SUBDIVISION_LEVELS = 5;
+
+    private float[] xs;
+
+    private float[] ys;
+
+    private int[] times;
+
+    private int anchorCount;
+
+    private int[] timelineStarts = new int[4];
+
+    private int timelineCount;
+
+    /**
+     * Creates an empty builder.
+     */
+    public GestureBuilder() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates an empty builder with room for the given number of anchors.
+     *
+     * @param expectedAnchors
+     *        - the number of anchors the builder can hold before its arrays grow
+     */
+    public GestureBuilder(int expectedAnchors) {
+        int capacity = Math.max(expectedAnchors, 1);
+        xs = new float[capacity];
+        ys = new float[capacity];
+        times = new int[capacity];
+    }
+
+    /**
+     * Starts a new timeline. The following anchors and shapes are added to it.
+     *
+     * @return this builder
+     */
+    public GestureBuilder startTimeline() {
+        if (timelineCount == timelineStarts.length) {
+            timelineStarts = Arrays.copyOf(timelineStarts, timelineCount * 2);
+        }
+
+        timelineStarts[timelineCount++] = anchorCount;
+        return this;
+    }
+
+    /**
+     * Adds an anchor to the current timeline. A timeline is started if none was started yet.
+     *
+     * @param x
+     *        - the x coordinate of the anchor
+     * @param y
+     *        - the y coordinate of the anchor
+     * @param time
+     *        - the moment in milliseconds at which the anchor is reached
+     * @return this builder
+     */
+    public GestureBuilder addAnchor(float x, float y, int time) {
+        if (timelineCount == 0) {
+            startTimeline();
+        }
+
+        ensureCapacity(anchorCount + 1);
+        xs[anchorCount] = x;
+        ys[anchorCount] = y;
+        times[anchorCount] = time;
+        anchorCount++;
+        return this;
+    }
+
+    /**
+     * Adds a circular trajectory to the current timeline. The generated anchors are the same as those of
+     * {@link TimelineGenerator#createCircle(com.musala.atmosphere.commons.geometry.Point, float, int, int, int)}.
+     *
+     * @param centerX
+     *        - the x coordinate of the circle origin
+     * @param centerY
+     *        - the y coordinate of the circle origin
+     * @param radius
+     *        - radius of the circle
+     * @param startTime
+     *        - the moment in time at which the first anchor should be reached
+     * @param totalDuration
+     *        - the total duration of the circle (in milliseconds)
+     * @param inSteps
+     *        - the number of steps in which the full circle is drawn
+     * @return this builder
+     */
+    public GestureBuilder addCircle(float centerX,
+                                    float centerY,
+                                    float radius,
+                                    int startTime,
+                                    int totalDuration,
+                                    int inSteps) {
+        final float stepAngle = FULL_RADIANS / inSteps;
+        final float endAngle = CIRCLE_INSURANCE_ANGLE + FULL_RADIANS;
+
+        for (float rotRad = 0; rotRad < endAngle; rotRad += stepAngle) {
+            int x = (int) (centerX + Math.cos(rotRad) * radius);
+            int y = (int) (centerY + Math.sin(rotRad) * radius);
+            int timeProgress = (int) (totalDuration * (rotRad / FULL_RADIANS));
+            addAnchor(x, y, startTime + timeProgress);
+        }
+
+        return this;
+    }
+
+    /**
+     * Adds a curve (arc shape) between two anchors to the current timeline. The arc is subdivided iteratively into 32
+     * segments, tracing the same trajectory as
+     * {@link TimelineGenerator#createCurve(Anchor, Anchor, float, boolean)}.
+     *
+     * @param startX
+     *        - the x coordinate of the starting point
+     * @param startY
+     *        - the y coordinate of the starting point
+     * @param startTime
+     *        - the moment in time at which the starting point is reached
+     * @param endX
+     *        - the x coordinate of the final point
+     * @param endY
+     *        - the y coordinate of the final point
+     * @param endTime
+     *        - the moment in time at which the final point is reached
+     * @param angularDeg
+     *        - the angle in degrees of the generated arc (in the range [{@value #ARC_MIN_ANGLE};
+     *        {@value #ARC_MAX_ANGLE}]). For example, 180 would create half a circle
+     * @param isPositive
+     *        - indicates the direction of the requested arc, as in
+     *        {@link TimelineGenerator#createCurve(Anchor, Anchor, float, boolean)}
+     * @return this builder
+     */
+    public GestureBuilder addCurve(float startX,
+                                   float startY,
+                                   int startTime,
+                                   float endX,
+                                   float endY,
+                                   int endTime,
+                                   float angularDeg,
+                                   boolean isPositive) {
+        if (angularDeg < ARC_MIN_ANGLE || angularDeg > ARC_MAX_ANGLE) {
+            String message = String.format("Angular value '%.1f' is not in the acceptable range [%.1f; %.1f].",
+                                           angularDeg,
+                                           ARC_MIN_ANGLE,
+                                           ARC_MAX_ANGLE);
+            throw new IllegalArgumentException(message);
+        }
+
+        if (timelineCount == 0) {
+            startTimeline();
+        }
+
+        // the points of the curve are written directly to their final positions - each level fills the middles of
+        // the segments produced by the previous one, halving the arc angle
+        final int segments = 1 << CURVE_SUBDIVISION_LEVELS;
+        int first = anchorCount;
+        ensureCapacity(first + segments + 1);
+
+        xs[first] = startX;
+        ys[first] = startY;
+        times[first] = startTime;
+        xs[first + segments] = endX;
+        ys[first + segments] = endY;
+        times[first + segments] = endTime;
+
+        float levelAngle = angularDeg;
+        for (int stride = segments; stride > 1; stride >>= 1) {
+            int half = stride >> 1;
+            for (int from = first; from < first + segments; from += stride) {
+                setArcMiddle(from, from + stride, from + half, levelAngle, isPositive);
+            }
+
+            levelAngle /= 2.0f;
+        }
+
+        anchorCount = first + segments + 1;
+        return this;
+    }
+
+    /**
+     * Adds a cubic B&eacute;zier curve to the current timeline. The anchors are spread evenly in time between the start
+     * and the end of the curve.
+     *
+     * @param startX
+     *        - the x coordinate of the starting point
+     * @param startY
+     *        - the y coordinate of the starting point
+     * @param firstControlX
+     *        - the x coordinate of the first control point
+     * @param firstControlY
+     *        - the y coordinate of the first control point
+     * @param secondControlX
+     *        - the x coordinate of the second control point
+     * @param secondControlY
+     *        - the y coordinate of the second control point
+     * @param endX
+     *        - the x coordinate of the final point
+     * @param endY
+     *        - the y coordinate of the final point
+     * @param startTime
+     *        - the moment in time at which the starting point is reached
+     * @param duration
+     *        - the duration of the curve (in milliseconds)
+     * @param inSteps
+     *        - the number of segments of the curve; <code>inSteps + 1</code> anchors are added
+     * @return this builder
+     */
+    public GestureBuilder addBezier(float startX,
+                                    float startY,
+                                    float firstControlX,
+                                    float firstControlY,
+                                    float secondControlX,
+                                    float secondControlY,
+                                    float endX,
+                                    float endY,
+                                    int startTime,
+                                    int duration,
+                                    int inSteps) {
+        if (inSteps < 1) {
+            throw new IllegalArgumentException("A Bezier curve needs at least one step.");
+        }
+
+        ensureCapacity(anchorCount + inSteps + 1);
+        for (int step = 0; step <= inSteps; step++) {
+            float t = (float) step / inSteps;
+            float u = 1 - t;
+            float startWeight = u * u * u;
+            float firstControlWeight = 3 * u * u * t;
+            float secondControlWeight = 3 * u * t * t;
+            float endWeight = t * t * t;
+
+            float x = startWeight * startX + firstControlWeight * firstControlX + secondControlWeight * secondControlX
+                    + endWeight * endX;
+            float y = startWeight * startY + firstControlWeight * firstControlY + secondControlWeight * secondControlY
+                    + endWeight * endY;
+            addAnchor(x, y, startTime + (int) ((long) duration * step / inSteps));
+        }
+
+        return this;
+    }
+
+    /**
+     * Moves all anchors of the builder that are outside the given rectangle to its nearest border, e.g. to keep a
+     * generated curve within the screen.
+     *
+     * @param minX
+     *        - the smallest allowed x coordinate
+     * @param minY
+     *        - the smallest allowed y coordinate
+     * @param maxX
+     *        - the largest allowed x coordinate
+     * @param maxY
+     *        - the largest allowed y coordinate
+     * @return this builder
+     */
+    public GestureBuilder clamp(float minX, float minY, float maxX, float maxY) {
+        for (int anchor = 0; anchor < anchorCount; anchor++) {
+            xs[anchor] = Math.min(Math.max(xs[anchor], minX), maxX);
+            ys[anchor] = Math.min(Math.max(ys[anchor], minY), maxY);
+        }
+
+        return this;
+    }
+
+    /**
+     * Gets the number of timelines in the builder.
+     *
+     * @return the number of timelines
+     */
+    public int getTimelineCount() {
+        return timelineCount;
+    }
+
+    /**
+     * Gets the number of anchors in all timelines of the builder.
+     *
+     * @return the number of anchors
+     */
+    public int getAnchorCount() {
+        return anchorCount;
+    }
+
+    /**
+     * Removes all timelines from the builder, keeping its arrays for reuse.
+     *
+     * @return this builder
+     */
+    public GestureBuilder reset() {
+        anchorCount = 0;
+        timelineCount = 0;
+        return this;
+    }
+
+    /**
+     * Converts the content of the builder to a {@link Gesture}, which can be played on a device.
+     *
+     * @return the built {@link Gesture}
+     */
+    public Gesture build() {
+        Gesture gesture = new Gesture();
+        for (int timeline = 0; timeline < timelineCount; timeline++) {
+            gesture.add(buildTimeline(timeline));
+        }
+
+        return gesture;
+    }
+
+    /**
+     * Converts a single timeline of the builder to a {@link Timeline}.
+     *
+     * @param index
+     *        - the index of the timeline, in the order they were started
+     * @return the built {@link Timeline}
+     */
+    public Timeline buildTimeline(int index) {
+        if (index < 0 || index >= timelineCount) {
+            String message = String.format("Timeline index %d is out of range [0; %d).", index, timelineCount);
+            throw new IndexOutOfBoundsException(message);
+        }
+
+        int from = timelineStarts[index];
+        int to = index + 1 < timelineCount ? timelineStarts[index + 1] : anchorCount;
+
+        Timeline timeline = new Timeline();
+        timeline.ensureCapacity(to - from);
+        for (int anchor = from; anchor < to; anchor++) {
+            timeline.add(new Anchor(xs[anchor], ys[anchor], times[anchor]));
+        }
+
+        return timeline;
+    }
+
+    private void setArcMiddle(int start, int end, int middle, float angularDeg, boolean positive) {
+        // Let start be A and end be B
+        double x1 = xs[start];
+        double y1 = ys[start];
+
+        double dx = xs[end] - x1;
+        double dy = ys[end] - y1;
+
+        // distance between A and B
+        double distance = Math.sqrt(dx * dx + dy * dy);
+
+        // sine theorem will give us the distance from the middle of the line between A and B
+        // and the center of the arc
+        double beta = Math.toRadians(180.0 - angularDeg / 2.0);
+        double betaShoulder = (Math.PI - beta) / 2.0;
+        double height = Math.sin(betaShoulder) * distance / (Math.sin(beta / 2.0f) * 2.0);
+
+        // normalized vector perpendicular to AB
+        double normX = positive ? -dy / distance : dy / distance;
+        double normY = positive ? dx / distance : -dx / distance;
+
+        xs[middle] = (float) (x1 + dx / 2.0f + normX * height);
+        ys[middle] = (float) (y1 + dy / 2.0f + normY * height);
+        times[middle] = (times[end] + times[start]) / 2;
+    }
+
+    private void ensureCapacity(int requiredAnchors) {
+        if (requiredAnchors <= xs.length) {
+            return;
+        }
+
+        int capacity = Math.max(requiredAnchors, xs.length * 2);
+        xs = Arrays.copyOf(xs, capacity);
+        ys = Arrays.copyOf(ys, capacity);
+        times = Arrays.copyOf(times, capacity);
+    }
+}
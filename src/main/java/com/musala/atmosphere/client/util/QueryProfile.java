@@ -0,0 +1,220 @@
+package com.musala.atmosphere.client.util;
+
+/**
+ * The measurements of a single element lookup, recorded by a {@link QueryProfiler}.
+ */
+public class QueryProfile {
+    /**
+     * The value of the counters that were not measured for a lookup.
+     */
+    public static final int NOT_MEASURED = -1;
+
+    /**
+     * Describes how a lookup was answered.
+     */
+    public enum Plan {
+        /**
+         * Answered from a local snapshot, using an attribute index to select the candidate nodes.
+         */
+        SNAPSHOT_INDEX("local snapshot, attribute index"),
+        /**
+         * Answered from a local snapshot by checking every node.
+         */
+        SNAPSHOT_SCAN("local snapshot, full scan"),
+        /**
+         * Answered from a local snapshot by a CSS query.
+         */
+        SNAPSHOT_CSS("local snapshot, CSS match"),
+        /**
+         * Answered from a local snapshot by an XPath query.
+         */
+        SNAPSHOT_XPATH("local snapshot, XPath evaluation"),
+        /**
+         * Answered by the device, which matched a selector.
+         */
+        REMOTE_SELECTOR("remote query, selector"),
+        /**
+         * Answered by the device, which evaluated an XPath query.
+         */
+        REMOTE_XPATH("remote query, XPath"),
+        /**
+         * Answered by the device, which matched the children of an element.
+         */
+        REMOTE_CHILDREN("remote query, children"),
+        /**
+         * The whole UI hierarchy was fetched from the device.
+         */
+        REMOTE_DUMP("remote hierarchy dump");
+
+        private final String description;
+
+        private Plan(String description) {
+            this.description = description;
+        }
+
+        /**
+         * Checks if the lookup was answered without a request to the device.
+         *
+         * @return <code>true</code> if the lookup was answered locally, <code>false</code> otherwise
+         */
+        public boolean isLocal() {
+            return this == SNAPSHOT_INDEX || this == SNAPSHOT_SCAN || this == SNAPSHOT_CSS || this == SNAPSHOT_XPATH;
+        }
+
+        @Override
+        public String toString() {
+            return description;
+        }
+    }
+
+    private final String query;
+
+    private final String xpathQuery;
+
+    private final Plan plan;
+
+    private final int scannedNodes;
+
+    private final int totalNodes;
+
+    private final int matchCount;
+
+    private final int roundTrips;
+
+    private final long bytes;
+
+    private final long latencyMicros;
+
+    QueryProfile(String query,
+            String xpathQuery,
+            Plan plan,
+            int scannedNodes,
+            int totalNodes,
+            int matchCount,
+            int roundTrips,
+            long bytes,
+            long latencyMicros) {
+        this.query = query;
+        this.xpathQuery = xpathQuery;
+        this.plan = plan;
+        this.scannedNodes = scannedNodes;
+        this.totalNodes = totalNodes;
+        this.matchCount = matchCount;
+        this.roundTrips = roundTrips;
+        this.bytes = bytes;
+        this.latencyMicros = latencyMicros;
+    }
+
+    /**
+     * Gets the text of the lookup - a CSS selector, or an XPath query.
+     *
+     * @return the query text
+     */
+    public String getQuery() {
+        return query;
+    }
+
+    /**
+     * Gets the XPath query the lookup was converted to.
+     *
+     * @return the converted XPath query, or <code>null</code> if the lookup was not converted
+     */
+    public String getXPathQuery() {
+        return xpathQuery;
+    }
+
+    /**
+     * Gets the way the lookup was answered.
+     *
+     * @return the {@link Plan} of the lookup
+     */
+    public Plan getPlan() {
+        return plan;
+    }
+
+    /**
+     * Gets the number of nodes checked against the query.
+     *
+     * @return the number of scanned nodes, or {@link #NOT_MEASURED} if the lookup was answered by the device
+     */
+    public int getScannedNodes() {
+        return scannedNodes;
+    }
+
+    /**
+     * Gets the number of nodes in the snapshot the lookup was answered from.
+     *
+     * @return the number of nodes, or {@link #NOT_MEASURED} if the lookup was answered by the device
+     */
+    public int getTotalNodes() {
+        return totalNodes;
+    }
+
+    /**
+     * Gets the number of nodes matching the query.
+     *
+     * @return the number of matches, or {@link #NOT_MEASURED} if the lookup failed
+     */
+    public int getMatchCount() {
+        return matchCount;
+    }
+
+    /**
+     * Gets the number of requests sent to the device for the lookup.
+     *
+     * @return the number of round trips
+     */
+    public int getRoundTrips() {
+        return roundTrips;
+    }
+
+    /**
+     * Gets the size of the response received from the device.
+     *
+     * @return the number of received bytes, or {@link #NOT_MEASURED} if the size of the response is not known
+     */
+    public long getBytes() {
+        return bytes;
+    }
+
+    /**
+     * Gets the time the lookup took.
+     *
+     * @return the latency in microseconds
+     */
+    public long getLatencyMicros() {
+        return latencyMicros;
+    }
+
+    /**
+     * Describes how the lookup was answered and what it cost, in a form suitable for logs.
+     *
+     * @return the explanation of the lookup
+     */
+    public String explain() {
+        StringBuilder explanation = new StringBuilder();
+        explanation.append(String.format("'%s'", query));
+        if (xpathQuery != null && !xpathQuery.equals(query)) {
+            explanation.append(String.format(" (XPath '%s')", xpathQuery));
+        }
+
+        explanation.append(": ").append(plan);
+        if (scannedNodes != NOT_MEASURED) {
+            explanation.append(String.format(", scanned %d of %d nodes", scannedNodes, totalNodes));
+        }
+
+        explanation.append(matchCount == NOT_MEASURED ? ", failed" : String.format(", %d matches", matchCount));
+        explanation.append(String.format(", %d round trips", roundTrips));
+        if (bytes != NOT_MEASURED) {
+            explanation.append(String.format(", %d bytes", bytes));
+        }
+
+        explanation.append(String.format(", %.3f ms", latencyMicros / 1000.0));
+        return explanation.toString();
+    }
+
+    @Override
+    public String toString() {
+        return explain();
+    }
+}
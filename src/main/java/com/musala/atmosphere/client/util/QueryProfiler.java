@@ -0,0 +1,255 @@
+package com.musala.atmosphere.client.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+import com.musala.atmosphere.client.util.QueryProfile.Plan;
+import com.musala.atmosphere.commons.ui.selector.UiElementSelector;
+
+/**
+ * Records how the element lookups of a device are answered and what they cost - the query, the converted XPath, the
+ * scanned and matched nodes, the round trips to the device, the received bytes and the latency. Profiling is disabled
+ * by default and costs nothing until it is {@link #setEnabled(boolean) enabled}. Only the most recent lookups are
+ * kept.
+ */
+public class QueryProfiler {
+    /**
+     * The default number of lookups kept by a profiler.
+     */
+    public static final int DEFAULT_CAPACITY = 1000;
+
+    private static final Trace DISABLED_TRACE = new Trace(null, null, null);
+
+    private final Deque<QueryProfile> profiles = new ArrayDeque<>();
+
+    private final int capacity;
+
+    private volatile boolean isEnabled;
+
+    /**
+     * Creates a disabled profiler keeping the {@link #DEFAULT_CAPACITY default number} of lookups.
+     */
+    public QueryProfiler() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a disabled profiler keeping the given number of lookups.
+     *
+     * @param capacity
+     *        - the maximum number of kept lookups
+     */
+    public QueryProfiler(int capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * Enables or disables the profiling.
+     *
+     * @param isEnabled
+     *        - <code>true</code> to record the lookups, <code>false</code> to stop recording them
+     */
+    public void setEnabled(boolean isEnabled) {
+        this.isEnabled = isEnabled;
+    }
+
+    /**
+     * Checks if the lookups are recorded.
+     *
+     * @return <code>true</code> if the profiling is enabled, <code>false</code> otherwise
+     */
+    public boolean isEnabled() {
+        return isEnabled;
+    }
+
+    /**
+     * Starts measuring a lookup. The returned trace does nothing if the profiling is disabled.
+     *
+     * @param query
+     *        - the text of the lookup
+     * @param xpathQuery
+     *        - the XPath query the lookup was converted to, or <code>null</code>
+     * @param plan
+     *        - the way the lookup is answered
+     * @return the {@link Trace} of the lookup, to be {@link Trace#finish() finished} when the lookup completes
+     */
+    public Trace begin(String query, String xpathQuery, Plan plan) {
+        return isEnabled ? new Trace(this, query, xpathQuery, plan) : DISABLED_TRACE;
+    }
+
+    /**
+     * Starts measuring a lookup by selector. The text of the selector is built only when the profiling is enabled, so
+     * a disabled profiler adds nothing to the lookup.
+     *
+     * @param selector
+     *        - the selector of the lookup
+     * @param plan
+     *        - the way the lookup is answered
+     * @return the {@link Trace} of the lookup, to be {@link Trace#finish() finished} when the lookup completes
+     */
+    public Trace begin(UiElementSelector selector, Plan plan) {
+        return isEnabled ? new Trace(this, selector.buildCssQuery(), null, plan) : DISABLED_TRACE;
+    }
+
+    /**
+     * Records a finished lookup.
+     *
+     * @param profile
+     *        - the measurements of the lookup
+     */
+    public synchronized void record(QueryProfile profile) {
+        if (profiles.size() == capacity) {
+            profiles.removeFirst();
+        }
+
+        profiles.addLast(profile);
+    }
+
+    /**
+     * Gets the recorded lookups.
+     *
+     * @return list with the recorded {@link QueryProfile profiles}, the oldest first
+     */
+    public synchronized List<QueryProfile> getProfiles() {
+        return new ArrayList<>(profiles);
+    }
+
+    /**
+     * Gets the most recent lookup.
+     *
+     * @return the {@link QueryProfile} of the most recent lookup, or <code>null</code> if nothing was recorded
+     */
+    public synchronized QueryProfile getLastProfile() {
+        return profiles.peekLast();
+    }
+
+    /**
+     * Describes how the most recent lookup was answered - from a local snapshot, through an attribute index, or by a
+     * query on the device - and what it cost.
+     *
+     * @return the explanation of the most recent lookup, or an empty string if nothing was recorded
+     */
+    public String explain() {
+        QueryProfile lastProfile = getLastProfile();
+        return lastProfile == null ? "" : lastProfile.explain();
+    }
+
+    /**
+     * Clears all recorded lookups.
+     */
+    public synchronized void reset() {
+        profiles.clear();
+    }
+
+    /**
+     * The measurements of a lookup in progress.
+     */
+    public static class Trace {
+        private final QueryProfiler profiler;
+
+        private final String query;
+
+        private final String xpathQuery;
+
+        private final long startTime;
+
+        private Plan plan;
+
+        private int scannedNodes = QueryProfile.NOT_MEASURED;
+
+        private int totalNodes = QueryProfile.NOT_MEASURED;
+
+        private int matchCount = QueryProfile.NOT_MEASURED;
+
+        private long bytes = QueryProfile.NOT_MEASURED;
+
+        private Trace(String query, String xpathQuery, Plan plan) {
+            this(null, query, xpathQuery, plan);
+        }
+
+        private Trace(QueryProfiler profiler, String query, String xpathQuery, Plan plan) {
+            this.profiler = profiler;
+            this.query = query;
+            this.xpathQuery = xpathQuery;
+            this.plan = plan;
+            this.startTime = profiler == null ? 0 : System.nanoTime();
+        }
+
+        /**
+         * Checks if the lookup is recorded. Can be used to skip measurements that have a cost of their own.
+         *
+         * @return <code>true</code> if the lookup is recorded, <code>false</code> otherwise
+         */
+        public boolean isRecorded() {
+            return profiler != null;
+        }
+
+        /**
+         * Sets the way the lookup was answered, if it was not known when the lookup started.
+         *
+         * @param plan
+         *        - the {@link Plan} of the lookup
+         */
+        public void setPlan(Plan plan) {
+            this.plan = plan;
+        }
+
+        /**
+         * Sets the number of checked nodes.
+         *
+         * @param scannedNodes
+         *        - the number of nodes checked against the query
+         * @param totalNodes
+         *        - the number of nodes in the searched snapshot
+         */
+        public void setScannedNodes(int scannedNodes, int totalNodes) {
+            this.scannedNodes = scannedNodes;
+            this.totalNodes = totalNodes;
+        }
+
+        /**
+         * Sets the number of nodes matching the query.
+         *
+         * @param matchCount
+         *        - the number of matches
+         */
+        public void setMatchCount(int matchCount) {
+            this.matchCount = matchCount;
+        }
+
+        /**
+         * Sets the size of the response received from the device.
+         *
+         * @param bytes
+         *        - the number of received bytes
+         */
+        public void setBytes(long bytes) {
+            this.bytes = bytes;
+        }
+
+        /**
+         * Completes the measurement and records the lookup. Lookups which ended before their matches were counted are
+         * recorded as failed.
+         */
+        public void finish() {
+            if (profiler == null) {
+                return;
+            }
+
+            long latencyMicros = (System.nanoTime() - startTime) / 1000;
+            int roundTrips = plan.isLocal() ? 0 : 1;
+            long receivedBytes = plan.isLocal() ? 0 : bytes;
+            profiler.record(new QueryProfile(query,
+                                             xpathQuery,
+                                             plan,
+                                             scannedNodes,
+                                             totalNodes,
+                                             matchCount,
+                                             roundTrips,
+                                             receivedBytes,
+                                             latencyMicros));
+        }
+    }
+}
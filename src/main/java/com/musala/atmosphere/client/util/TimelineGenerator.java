@@ -5,7 +5,8 @@ import com.musala.atmosphere.commons.gesture.Anchor;
 import com.musala.atmosphere.commons.gesture.Timeline;
 
 /**
- * Houses static methods that generate commonly needed shapes represented by {@link Timeline} instances.
+ * Houses static methods that generate commonly needed shapes represented by {@link Timeline} instances. The shapes are
+ * generated by a {@link GestureBuilder}, which should be used directly when many gestures are generated.
  *
  * @author georgi.gaydarov
  *
@@ -15,6 +16,8 @@ public class TimelineGenerator {
 
     private static final float ARC_MIN_ANGLE = 2;
 
+    private static final int CURVE_ANCHORS = 33;
+
     /**
      * Constructs a Gesture that, when drawn, results in a circular trajectory. Simplified version of
      * {@link #createCircle(Point, float, int, int, int)} that should be sufficient in most cases.
@@ -48,21 +51,9 @@ public class TimelineGenerator {
      * @return the resulting populated {@link Timeline} instance
      */
     public static Timeline createCircle(Point center, float radius, int startTime, int totalDuration, int inSteps) {
-        final float FULL_RADIANS = (float) (Math.PI * 2.0f);
-        Timeline result = new Timeline();
-        final float STEP_ANGLE_RAD = FULL_RADIANS / inSteps;
-        final float INSURANCE_ANGLE = 0.2f;
-
-        for (float rotRad = 0; rotRad < INSURANCE_ANGLE + FULL_RADIANS; rotRad += STEP_ANGLE_RAD) {
-            int x = (int) (center.getX() + Math.cos(rotRad) * radius);
-            int y = (int) (center.getY() + Math.sin(rotRad) * radius);
-
-            int timeProgress = (int) (totalDuration * (rotRad / FULL_RADIANS));
-            Anchor point = new Anchor(x, y, startTime + timeProgress);
-            result.add(point);
-        }
-
-        return result;
+        GestureBuilder builder = new GestureBuilder(inSteps + 2);
+        builder.addCircle(center.getX(), center.getY(), radius, startTime, totalDuration, inSteps);
+        return builder.buildTimeline(0);
     }
 
     /**
@@ -82,81 +73,47 @@ public class TimelineGenerator {
      * @return the resulting populated {@link Timeline} instance
      */
     public static Timeline createCurve(Anchor start, Anchor end, float angularDeg, boolean isPositive) {
-        final int RECURSION_BOTTOM = 5;
-        if (angularDeg < ARC_MIN_ANGLE || angularDeg > ARC_MAX_ANGLE) {
-            String message = String.format("Angular value '%d' is not in the acceptable range [%d; %d].",
-                                           angularDeg,
-                                           ARC_MIN_ANGLE,
-                                           ARC_MAX_ANGLE);
-            throw new IllegalArgumentException(message);
-        }
-        return createCurve(start, end, angularDeg, isPositive, 0, RECURSION_BOTTOM);
+        GestureBuilder builder = new GestureBuilder(CURVE_ANCHORS);
+        builder.addCurve(start.getX(),
+                         start.getY(),
+                         start.getTimeAfterStart(),
+                         end.getX(),
+                         end.getY(),
+                         end.getTimeAfterStart(),
+                         angularDeg,
+                         isPositive);
+        return builder.buildTimeline(0);
     }
 
-    private static Timeline createCurve(Anchor start,
-                                        Anchor end,
-                                        float angularDeg,
-                                        boolean positive,
-                                        int recursionLevel,
-                                        int recursionMaximumLevel) {
-        Timeline result = new Timeline();
-
-        if (recursionLevel >= recursionMaximumLevel) {
-            result.add(start);
-            result.add(end);
-            return result;
-        }
-
-        Anchor middle = getArcMiddle(start, end, angularDeg, positive);
-
-        result.addAll(createCurve(start,
-                                  middle,
-                                  angularDeg / 2.0f,
-                                  positive,
-                                  recursionLevel + 1,
-                                  recursionMaximumLevel));
-        result.addAll(createCurve(middle, end, angularDeg / 2.0f, positive, recursionLevel + 1, recursionMaximumLevel));
-
-        return result;
-    }
-
-    private static Anchor getArcMiddle(Anchor start, Anchor end, float angularDeg, boolean positive) {
-        // Let start be A and end be B
-        double x1 = start.getX();
-        double y1 = start.getY();
-        double x2 = end.getX();
-        double y2 = end.getY();
-
-        double dx = x2 - x1;
-        double dy = y2 - y1;
-
-        // distance between A and B
-        double distance = Math.sqrt(dx * dx + dy * dy);
-
-        // sine theorem will give us the distance from the middle of the line between A and B
-        // and the center of the arc
-        double beta = Math.toRadians(180.0 - angularDeg / 2.0);
-        double betaShoulder = (Math.PI - beta) / 2.0;
-        double height = Math.sin(betaShoulder) * distance / (Math.sin(beta / 2.0f) * 2.0);
-
-        double middleX = x1 + dx / 2.0f;
-        double middleY = y1 + dy / 2.0f;
-
-        // finding normalized vector perpendicular to AB
-        double vectorLength = Math.sqrt(dx * dx + dy * dy);
-        double normX, normY;
-        if (positive) {
-            normX = -dy / vectorLength;
-            normY = dx / vectorLength;
-        } else {
-            normX = dy / vectorLength;
-            normY = -dx / vectorLength;
-        }
-
-        float arcMidX = (float) (middleX + normX * height);
-        float arcMidY = (float) (middleY + normY * height);
-
-        int moment = (end.getTimeAfterStart() + start.getTimeAfterStart()) / 2;
-        return new Anchor(arcMidX, arcMidY, moment);
+    /**
+     * Generates a cubic B&eacute;zier curve between two anchors.
+     *
+     * @param start
+     *        - the starting point
+     * @param firstControl
+     *        - the first control point of the curve
+     * @param secondControl
+     *        - the second control point of the curve
+     * @param end
+     *        - the final point
+     * @param inSteps
+     *        - the number of segments of the curve; the resulting {@link Timeline} contains <code>inSteps + 1</code>
+     *        {@link Anchor} instances
+     * @return the resulting populated {@link Timeline} instance
+     */
+    public static Timeline createBezier(Anchor start, Point firstControl, Point secondControl, Anchor end, int inSteps) {
+        GestureBuilder builder = new GestureBuilder(inSteps + 1);
+        builder.addBezier(start.getX(),
+                          start.getY(),
+                          firstControl.getX(),
+                          firstControl.getY(),
+                          secondControl.getX(),
+                          secondControl.getY(),
+                          end.getX(),
+                          end.getY(),
+                          start.getTimeAfterStart(),
+                          end.getTimeAfterStart() - start.getTimeAfterStart(),
+                          inSteps);
+        return builder.buildTimeline(0);
     }
 }
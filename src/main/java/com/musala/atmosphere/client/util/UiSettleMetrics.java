@@ -0,0 +1,152 @@
+package com.musala.atmosphere.client.util;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Collects the time spent waiting for the UI to settle after each kind of element operation. The statistics can be
+ * used to tune the settle bounds or to spot screens that never become idle.
+ */
+public class UiSettleMetrics {
+    private final Map<String, ActionStatistics> statisticsByAction = new HashMap<>();
+
+    /**
+     * Records a single settle wait.
+     *
+     * @param action
+     *        - the name of the operation that was followed by the wait
+     * @param settleTime
+     *        - the time in milliseconds spent waiting
+     * @param isIdle
+     *        - <code>true</code> if the UI became idle, <code>false</code> if the wait reached its maximum bound
+     */
+    public synchronized void record(String action, long settleTime, boolean isIdle) {
+        ActionStatistics statistics = statisticsByAction.get(action);
+        if (statistics == null) {
+            statistics = new ActionStatistics();
+            statisticsByAction.put(action, statistics);
+        }
+
+        statistics.add(settleTime, isIdle);
+    }
+
+    /**
+     * Gets the statistics of the given operation.
+     *
+     * @param action
+     *        - the name of the operation
+     * @return a copy of the {@link ActionStatistics statistics} of the operation, empty if it was never recorded
+     */
+    public synchronized ActionStatistics getStatistics(String action) {
+        ActionStatistics statistics = statisticsByAction.get(action);
+        return statistics == null ? new ActionStatistics() : new ActionStatistics(statistics);
+    }
+
+    /**
+     * Gets the statistics of all recorded operations.
+     *
+     * @return an unmodifiable map with copies of the {@link ActionStatistics statistics}, keyed by operation name
+     */
+    public synchronized Map<String, ActionStatistics> getStatistics() {
+        Map<String, ActionStatistics> statistics = new HashMap<>();
+        for (Map.Entry<String, ActionStatistics> actionStatistics : statisticsByAction.entrySet()) {
+            statistics.put(actionStatistics.getKey(), new ActionStatistics(actionStatistics.getValue()));
+        }
+
+        return Collections.unmodifiableMap(statistics);
+    }
+
+    /**
+     * Clears all recorded statistics.
+     */
+    public synchronized void reset() {
+        statisticsByAction.clear();
+    }
+
+    /**
+     * Settle time statistics of a single kind of operation.
+     */
+    public static class ActionStatistics {
+        private int count;
+
+        private int boundReachedCount;
+
+        private long totalSettleTime;
+
+        private long maxSettleTime;
+
+        ActionStatistics() {
+        }
+
+        ActionStatistics(ActionStatistics statistics) {
+            count = statistics.count;
+            boundReachedCount = statistics.boundReachedCount;
+            totalSettleTime = statistics.totalSettleTime;
+            maxSettleTime = statistics.maxSettleTime;
+        }
+
+        void add(long settleTime, boolean isIdle) {
+            count++;
+            totalSettleTime += settleTime;
+            maxSettleTime = Math.max(maxSettleTime, settleTime);
+            if (!isIdle) {
+                boundReachedCount++;
+            }
+        }
+
+        /**
+         * Gets the number of recorded waits.
+         *
+         * @return the number of waits
+         */
+        public int getCount() {
+            return count;
+        }
+
+        /**
+         * Gets the number of waits that ended because the maximum bound was reached before the UI became idle.
+         *
+         * @return the number of bounded waits
+         */
+        public int getBoundReachedCount() {
+            return boundReachedCount;
+        }
+
+        /**
+         * Gets the total time spent waiting.
+         *
+         * @return the total settle time in milliseconds
+         */
+        public long getTotalSettleTime() {
+            return totalSettleTime;
+        }
+
+        /**
+         * Gets the longest recorded wait.
+         *
+         * @return the maximum settle time in milliseconds
+         */
+        public long getMaxSettleTime() {
+            return maxSettleTime;
+        }
+
+        /**
+         * Gets the average recorded wait.
+         *
+         * @return the average settle time in milliseconds, 0 if nothing was recorded
+         */
+        public long getAverageSettleTime() {
+            return count == 0 ? 0 : totalSettleTime / count;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("count=%d, average=%dms, max=%dms, bound reached=%d",
+                                 count,
+                                 getAverageSettleTime(),
+                                 maxSettleTime,
+                                 boundReachedCount);
+        }
+    }
+}
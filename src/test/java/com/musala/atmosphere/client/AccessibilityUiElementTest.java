@@ -0,0 +1,96 @@
+package com.musala.atmosphere.client;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Matchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.musala.atmosphere.client.entity.AccessibilityElementEntity;
+import com.musala.atmosphere.client.entity.GestureEntity;
+import com.musala.atmosphere.client.uiutils.ElementIdentity;
+import com.musala.atmosphere.commons.geometry.Bounds;
+import com.musala.atmosphere.commons.geometry.Point;
+import com.musala.atmosphere.commons.ui.tree.AccessibilityElement;
+
+/**
+ * Tests the revalidation of {@link AccessibilityUiElement} before the operations on it.
+ */
+public class AccessibilityUiElementTest {
+    private static final long SCREEN_EPOCH = 7;
+
+    private AccessibilityElementEntity elementEntity;
+
+    private GestureEntity gestureEntity;
+
+    private AccessibilityElement element;
+
+    @Before
+    public void setUp() {
+        element = new AccessibilityElement();
+        element.setClassName("android.widget.Button");
+        element.setResourceId("com.example:id/login");
+        element.setText("Login");
+        element.setBounds(new Bounds(new Point(10, 20), new Point(200, 100)));
+
+        elementEntity = mock(AccessibilityElementEntity.class);
+        when(elementEntity.getScreenEpoch()).thenReturn(SCREEN_EPOCH);
+        when(elementEntity.resolve(any(ElementIdentity.class))).thenReturn(element);
+
+        gestureEntity = mock(GestureEntity.class);
+        when(gestureEntity.tapScreenLocation(any(Point.class))).thenReturn(true);
+    }
+
+    @Test
+    public void testElementIsRevalidatedByDefault() {
+        UiElement uiElement = createElement();
+
+        uiElement.tap();
+        uiElement.tap();
+
+        verify(elementEntity, times(2)).resolve(any(ElementIdentity.class));
+    }
+
+    @Test
+    public void testRevalidationIsSkippedWithinTheWindow() {
+        when(elementEntity.getRevalidationWindow()).thenReturn(60000L);
+        UiElement uiElement = createElement();
+
+        uiElement.tap();
+        uiElement.tap();
+
+        verify(elementEntity, times(0)).resolve(any(ElementIdentity.class));
+    }
+
+    @Test
+    public void testRevalidationIsNotSkippedAfterScreenChange() {
+        when(elementEntity.getRevalidationWindow()).thenReturn(60000L);
+        UiElement uiElement = createElement();
+        when(elementEntity.getScreenEpoch()).thenReturn(SCREEN_EPOCH + 1);
+
+        uiElement.tap();
+        uiElement.tap();
+
+        verify(elementEntity, times(1)).resolve(any(ElementIdentity.class));
+    }
+
+    @Test
+    public void testTapWaitsForAnyWindowToSettle() {
+        when(elementEntity.getRevalidationWindow()).thenReturn(Long.MAX_VALUE);
+        UiElement uiElement = createElement();
+
+        uiElement.tap();
+
+        verify(elementEntity).waitForUiIdle(eq("tap"), (String) isNull(), anyInt(), anyInt(), anyInt());
+    }
+
+    private UiElement createElement() {
+        return new AccessibilityUiElement(element, gestureEntity, null, null, null, elementEntity, SCREEN_EPOCH, null);
+    }
+}
@@ -0,0 +1,48 @@
+package com.musala.atmosphere.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.musala.atmosphere.commons.RoutingAction;
+import com.musala.atmosphere.commons.cs.clientdevice.IClientDevice;
+
+/**
+ * Tests the screen epoch tracking of {@link DeviceCommunicator}.
+ */
+public class DeviceCommunicatorTest {
+    private static final int TEST_PASSKEY = 0;
+
+    private DeviceCommunicator deviceCommunicator;
+
+    @Before
+    public void setUp() {
+        deviceCommunicator = new DeviceCommunicator(mock(IClientDevice.class), TEST_PASSKEY);
+    }
+
+    @Test
+    public void testScreenEpochIsKeptByReadingActions() {
+        long initialEpoch = deviceCommunicator.getScreenEpoch();
+
+        deviceCommunicator.sendAction(RoutingAction.GET_UI_XML_DUMP);
+        deviceCommunicator.sendAction(RoutingAction.CHECK_ELEMENT_PRESENCE, null, true);
+
+        assertEquals("The screen epoch changed after reading actions.",
+                     initialEpoch,
+                     deviceCommunicator.getScreenEpoch());
+    }
+
+    @Test
+    public void testScreenEpochAdvancesAfterScreenChangingActions() {
+        long initialEpoch = deviceCommunicator.getScreenEpoch();
+
+        deviceCommunicator.sendAction(RoutingAction.PLAY_GESTURE);
+        deviceCommunicator.sendAction(RoutingAction.WAIT_FOR_WINDOW_UPDATE, "com.example", 100);
+
+        assertEquals("The screen epoch did not advance after screen changing actions.",
+                     initialEpoch + 2,
+                     deviceCommunicator.getScreenEpoch());
+    }
+}
@@ -0,0 +1,185 @@
+package com.musala.atmosphere.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.util.concurrent.Uninterruptibles;
+import com.musala.atmosphere.client.device.HardwareButton;
+import com.musala.atmosphere.client.exceptions.DeviceGroupException;
+import com.musala.atmosphere.commons.exceptions.UiElementFetchingException;
+import com.musala.atmosphere.commons.ui.selector.CssAttribute;
+import com.musala.atmosphere.commons.ui.selector.UiElementSelector;
+
+/**
+ * Tests the parallel execution of operations on a {@link DeviceGroup}.
+ */
+public class DeviceGroupTest {
+    private static final long STRAGGLER_TIMEOUT = 300;
+
+    private Device completingDevice;
+
+    private Device failingDevice;
+
+    private Device stragglingDevice;
+
+    private DeviceGroup deviceGroup;
+
+    @Before
+    public void setUp() {
+        completingDevice = mock(Device.class);
+        failingDevice = mock(Device.class);
+        stragglingDevice = mock(Device.class);
+
+        deviceGroup = new DeviceGroup(Arrays.asList(completingDevice, failingDevice, stragglingDevice));
+        deviceGroup.setStragglerTimeout(STRAGGLER_TIMEOUT);
+    }
+
+    @After
+    public void tearDown() {
+        deviceGroup.close();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testEmptyGroupIsRejected() {
+        new DeviceGroup(Collections.<Device> emptyList());
+    }
+
+    @Test
+    public void testExecuteReportsEachDevice() {
+        final UiElementFetchingException failure = new UiElementFetchingException("No element found.");
+
+        DeviceGroupResult<String> result = deviceGroup.execute(new DeviceOperation<String>() {
+            @Override
+            public String execute(Device device) throws Exception {
+                if (device == failingDevice) {
+                    throw failure;
+                }
+
+                if (device == stragglingDevice) {
+                    Thread.sleep(STRAGGLER_TIMEOUT * 10);
+                }
+
+                return "done";
+            }
+        });
+
+        assertFalse("The operation should not succeed on all devices.", result.isSuccessful());
+        assertEquals("Unexpected result of the completing device.", "done", result.getResult(completingDevice));
+        assertEquals("Unexpected number of results.", 1, result.getResults().size());
+        assertEquals("Unexpected failure of the failing device.", failure, result.getFailures().get(failingDevice));
+        assertNull("The failing device should not have a result.", result.getResult(failingDevice));
+        assertEquals("Unexpected stragglers.", Arrays.asList(stragglingDevice), result.getStragglers());
+    }
+
+    @Test
+    public void testStragglersDoNotDelayTheGroup() {
+        long startTime = System.currentTimeMillis();
+        deviceGroup.execute(new DeviceOperation<Void>() {
+            @Override
+            public Void execute(Device device) throws Exception {
+                Thread.sleep(STRAGGLER_TIMEOUT * 10);
+                return null;
+            }
+        });
+        long elapsedTime = System.currentTimeMillis() - startTime;
+
+        assertTrue("The group waited for its stragglers.", elapsedTime < STRAGGLER_TIMEOUT * 5);
+    }
+
+    @Test
+    public void testHungDeviceIsSkippedUntilItReturns() {
+        final CountDownLatch hungCallReturned = new CountDownLatch(1);
+        DeviceGroupResult<Void> hungResult = deviceGroup.execute(new DeviceOperation<Void>() {
+            @Override
+            public Void execute(Device device) {
+                if (device == stragglingDevice) {
+                    Uninterruptibles.awaitUninterruptibly(hungCallReturned);
+                }
+
+                return null;
+            }
+        });
+
+        DeviceOperation<String> operation = new DeviceOperation<String>() {
+            @Override
+            public String execute(Device device) {
+                return "done";
+            }
+        };
+        DeviceGroupResult<String> nextResult = deviceGroup.execute(operation);
+
+        assertEquals("Unexpected stragglers.", Arrays.asList(stragglingDevice), hungResult.getStragglers());
+        assertEquals("The other devices should complete the next operation.", 2, nextResult.getResults().size());
+        assertEquals("Unexpected busy devices.", Arrays.asList(stragglingDevice), nextResult.getBusyDevices());
+        assertFalse("The operation did not run on all devices.", nextResult.isSuccessful());
+
+        hungCallReturned.countDown();
+        long deadline = System.currentTimeMillis() + STRAGGLER_TIMEOUT * 10;
+        DeviceGroupResult<String> lastResult = deviceGroup.execute(operation);
+        while (!lastResult.isSuccessful() && System.currentTimeMillis() < deadline) {
+            lastResult = deviceGroup.execute(operation);
+        }
+
+        assertTrue("The device should be used again after its call returned.", lastResult.isSuccessful());
+    }
+
+    @Test
+    public void testThrowOnFailureAggregatesErrors() {
+        DeviceGroupResult<Boolean> result = deviceGroup.execute(new DeviceOperation<Boolean>() {
+            @Override
+            public Boolean execute(Device device) {
+                throw new IllegalStateException("Device is offline.");
+            }
+        });
+
+        try {
+            result.throwOnFailure();
+            fail("A group with failed devices should throw.");
+        } catch (DeviceGroupException e) {
+            assertEquals("Unexpected number of aggregated failures.", 3, e.getSuppressed().length);
+        }
+    }
+
+    @Test
+    public void testPressButtonFansOut() {
+        when(completingDevice.pressButton(HardwareButton.BACK)).thenReturn(true);
+        when(failingDevice.pressButton(HardwareButton.BACK)).thenReturn(true);
+        when(stragglingDevice.pressButton(HardwareButton.BACK)).thenReturn(false);
+
+        DeviceGroupResult<Boolean> result = deviceGroup.pressButton(HardwareButton.BACK);
+
+        assertTrue("All devices should complete the press.", result.isSuccessful());
+        assertFalse("The press failed on one of the devices.", result.isTrueOnAll());
+    }
+
+    @Test
+    public void testScreenQueryFansOut() throws Exception {
+        UiElementSelector selector = new UiElementSelector();
+        selector.addSelectionAttribute(CssAttribute.TEXT, "OK");
+
+        for (Device device : deviceGroup.getDevices()) {
+            Screen screen = mock(Screen.class);
+            UiElement element = mock(UiElement.class);
+            when(screen.getElement(selector)).thenReturn(element);
+            when(element.tap()).thenReturn(true);
+            when(device.getActiveScreen()).thenReturn(screen);
+        }
+
+        DeviceGroupResult<Boolean> result = deviceGroup.getActiveScreen().tap(selector);
+
+        assertTrue("The tap should succeed on all devices.", result.isTrueOnAll());
+    }
+}
@@ -0,0 +1,81 @@
+package com.musala.atmosphere.client;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import com.musala.atmosphere.client.entity.AccessibilityElementEntity;
+import com.musala.atmosphere.client.entity.GestureEntity;
+import com.musala.atmosphere.client.entity.ImeEntity;
+import com.musala.atmosphere.client.snapshot.UiHierarchySnapshot;
+import com.musala.atmosphere.commons.ui.tree.AccessibilityElement;
+
+/**
+ * Answers the wrapAccessibilityElements calls of a mocked {@link AccessibilityElementEntity} with real
+ * {@link AccessibilityUiElement UI elements}, so the tests can operate on the elements they get from a screen. When
+ * the call passes a screen epoch and a snapshot, the wrapped elements are bound to them.
+ */
+public class ElementWrappingAnswer implements Answer<List<UiElement>> {
+    private final AccessibilityElementEntity elementEntity;
+
+    private final GestureEntity gestureEntity;
+
+    private final ImeEntity imeEntity;
+
+    /**
+     * Creates an answer wrapping the elements without gesture and IME entities.
+     *
+     * @param elementEntity
+     *        - the mocked entity the wrapped elements use
+     */
+    public ElementWrappingAnswer(AccessibilityElementEntity elementEntity) {
+        this(elementEntity, null, null);
+    }
+
+    /**
+     * Creates an answer wrapping the elements with the given entities.
+     *
+     * @param elementEntity
+     *        - the mocked entity the wrapped elements use
+     * @param gestureEntity
+     *        - the entity playing the gestures of the wrapped elements (can be null)
+     * @param imeEntity
+     *        - the entity typing in the wrapped elements (can be null)
+     */
+    public ElementWrappingAnswer(AccessibilityElementEntity elementEntity,
+            GestureEntity gestureEntity,
+            ImeEntity imeEntity) {
+        this.elementEntity = elementEntity;
+        this.gestureEntity = gestureEntity;
+        this.imeEntity = imeEntity;
+    }
+
+    @Override
+    public List<UiElement> answer(InvocationOnMock invocation) throws Throwable {
+        Object[] arguments = invocation.getArguments();
+        List<UiElement> wrappedElements = new ArrayList<>();
+        for (Object element : (List<?>) arguments[0]) {
+            if (arguments.length > 2) {
+                wrappedElements.add(new AccessibilityUiElement((AccessibilityElement) element,
+                                                               gestureEntity,
+                                                               imeEntity,
+                                                               null,
+                                                               null,
+                                                               elementEntity,
+                                                               (Long) arguments[1],
+                                                               (UiHierarchySnapshot) arguments[2]));
+            } else {
+                wrappedElements.add(new AccessibilityUiElement((AccessibilityElement) element,
+                                                               gestureEntity,
+                                                               imeEntity,
+                                                               null,
+                                                               null,
+                                                               elementEntity));
+            }
+        }
+
+        return wrappedElements;
+    }
+}
@@ -0,0 +1,170 @@
+package com.musala.atmosphere.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import com.musala.atmosphere.client.uiutils.GestureRecording;
+import com.musala.atmosphere.client.uiutils.GestureSequence;
+import com.musala.atmosphere.client.uiutils.GestureSequenceResult;
+import com.musala.atmosphere.commons.DeviceInformation;
+import com.musala.atmosphere.commons.gesture.Anchor;
+import com.musala.atmosphere.commons.gesture.Gesture;
+import com.musala.atmosphere.commons.gesture.Timeline;
+import com.musala.atmosphere.commons.util.Pair;
+
+/**
+ * Tests the generation and the playing of random events by the {@link GestureFuzzer}.
+ */
+public class GestureFuzzerTest {
+    private static final int SCREEN_WIDTH = 720;
+
+    private static final int SCREEN_HEIGHT = 1280;
+
+    private static final long SEED = 42;
+
+    private Device device;
+
+    @Before
+    public void setUp() {
+        DeviceInformation information = new DeviceInformation();
+        information.setResolution(new Pair<>(SCREEN_WIDTH, SCREEN_HEIGHT));
+
+        device = mock(Device.class);
+        when(device.getInformation()).thenReturn(information);
+        when(device.playGesture(any(Gesture.class))).thenReturn(true);
+        when(device.playGestureSequence(any(GestureSequence.class))).thenAnswer(new Answer<GestureSequenceResult>() {
+            @Override
+            public GestureSequenceResult answer(InvocationOnMock invocation) {
+                GestureSequence sequence = (GestureSequence) invocation.getArguments()[0];
+                return new GestureSequenceResult(sequence, sequence.getStepCount(), 0);
+            }
+        });
+    }
+
+    @Test
+    public void testSameSeedPlaysSameEvents() {
+        FuzzReport firstReport = new GestureFuzzer(device, SEED).run(50);
+        FuzzReport secondReport = new GestureFuzzer(device, SEED).run(50);
+        FuzzReport otherReport = new GestureFuzzer(device, SEED + 1).run(50);
+
+        assertEquals("Unexpected number of played events.", 50, firstReport.getEventCount());
+        assertEquals("The same seed should generate the same event types.",
+                     firstReport.getEventTypes(),
+                     secondReport.getEventTypes());
+        assertEquals("The same seed should generate the same events.",
+                     describe(firstReport.getRecording()),
+                     describe(secondReport.getRecording()));
+        assertNotEquals("A different seed should generate different events.",
+                        describe(firstReport.getRecording()),
+                        describe(otherReport.getRecording()));
+    }
+
+    @Test
+    public void testEventsStayOnScreen() {
+        GestureRecording recording = new GestureFuzzer(device, SEED).run(200).getRecording();
+
+        for (int event = 0; event < recording.getGestureCount(); event++) {
+            for (Timeline timeline : recording.getGesture(event)) {
+                for (Anchor anchor : timeline) {
+                    assertTrue("An event left the screen.", anchor.getX() >= 0 && anchor.getX() < SCREEN_WIDTH);
+                    assertTrue("An event left the screen.", anchor.getY() >= 0 && anchor.getY() < SCREEN_HEIGHT);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testMonitorStopsTheRun() {
+        FuzzMonitor crashingMonitor = new FuzzMonitor() {
+            private int checks;
+
+            @Override
+            public String check(Device device) {
+                return ++checks == 2 ? "crash" : null;
+            }
+        };
+
+        FuzzReport report = new GestureFuzzer(device, SEED).addMonitor(crashingMonitor).setMonitorInterval(5).run(100);
+
+        assertTrue("The detected problem was not reported.", report.hasProblem());
+        assertEquals("Unexpected problem.", "crash", report.getProblem());
+        assertEquals("The run should stop at the check that found the problem.", 10, report.getEventCount());
+        assertEquals("Each played event should be logged.", 10, report.getEventLog().size());
+    }
+
+    @Test
+    public void testBatchesAreSentAtOnce() {
+        FuzzReport report = new GestureFuzzer(device, SEED).setBatchSize(8).run(20);
+
+        verify(device, times(3)).playGestureSequence(any(GestureSequence.class));
+        verify(device, never()).playGesture(any(Gesture.class));
+        assertEquals("Unexpected number of played events.", 20, report.getEventCount());
+        assertEquals("Unexpected number of failed events.", 0, report.getFailedEventCount());
+    }
+
+    @Test
+    public void testOnlyPlayedEventsAreLogged() {
+        doAnswer(new Answer<GestureSequenceResult>() {
+            @Override
+            public GestureSequenceResult answer(InvocationOnMock invocation) {
+                GestureSequence sequence = (GestureSequence) invocation.getArguments()[0];
+                return new GestureSequenceResult(sequence, 3, 0);
+            }
+        }).when(device).playGestureSequence(any(GestureSequence.class));
+
+        FuzzReport fullReport = new GestureFuzzer(device, SEED).run(16);
+        FuzzReport report = new GestureFuzzer(device, SEED).setBatchSize(8).run(16);
+
+        assertEquals("Unexpected number of played events.", 6, report.getEventCount());
+        assertEquals("Unexpected number of failed events.", 10, report.getFailedEventCount());
+        assertEquals("Only the played events should be recorded.", 6, report.getRecording().getGestureCount());
+        assertEquals("Unexpected types of the played events.",
+                     fullReport.getEventTypes().subList(0, 3),
+                     report.getEventTypes().subList(0, 3));
+        assertEquals("Unexpected types of the played events.",
+                     fullReport.getEventTypes().subList(8, 11),
+                     report.getEventTypes().subList(3, 6));
+    }
+
+    @Test
+    public void testEventRateIsLimited() {
+        FuzzReport report = new GestureFuzzer(device, SEED).setEventRate(50).run(6);
+
+        assertFalse("No problem should be detected without monitors.", report.hasProblem());
+        assertTrue("The event rate was not limited.", report.getElapsedTime() >= 100);
+    }
+
+    private static String describe(GestureRecording recording) {
+        StringBuilder description = new StringBuilder();
+        for (int event = 0; event < recording.getGestureCount(); event++) {
+            for (Timeline timeline : recording.getGesture(event)) {
+                for (Anchor anchor : timeline) {
+                    description.append(String.format("(%.2f %.2f %d)",
+                                                     anchor.getX(),
+                                                     anchor.getY(),
+                                                     anchor.getTimeAfterStart()));
+                }
+
+                description.append('|');
+            }
+
+            description.append('\n');
+        }
+
+        return description.toString();
+    }
+}
@@ -0,0 +1,95 @@
+package com.musala.atmosphere.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import com.musala.atmosphere.client.entity.AccessibilityElementEntity;
+import com.musala.atmosphere.client.snapshot.UiHierarchySnapshot;
+import com.musala.atmosphere.commons.geometry.Bounds;
+import com.musala.atmosphere.commons.geometry.Point;
+import com.musala.atmosphere.commons.ui.tree.AccessibilityElement;
+
+/**
+ * Tests that the {@link NotificationBar} operations are answered from a single hierarchy fetch.
+ */
+public class NotificationBarTest {
+    private static final long SCREEN_EPOCH = 7;
+
+    private static final String NOTIFICATION_PANEL_XML = "<hierarchy>"
+            + "<node index=\"0\" resource-id=\"com.android.systemui:id/notification_panel\" class=\"android.widget.FrameLayout\" bounds=\"[0,0][720,1280]\">"
+            + "<node index=\"0\" resource-id=\"android:id/status_bar_latest_event_content\" class=\"android.widget.FrameLayout\" bounds=\"[0,100][720,300]\">"
+            + "<node index=\"0\" text=\"Messages\" resource-id=\"android:id/title\" class=\"android.widget.TextView\" bounds=\"[0,100][720,200]\" />"
+            + "<node index=\"1\" text=\"New message\" resource-id=\"android:id/text\" class=\"android.widget.TextView\" bounds=\"[0,200][720,300]\" />"
+            + "</node>"
+            + "<node index=\"1\" resource-id=\"android:id/status_bar_latest_event_content\" class=\"android.widget.FrameLayout\" bounds=\"[0,300][720,500]\">"
+            + "<node index=\"0\" text=\"Downloads\" resource-id=\"android:id/title\" class=\"android.widget.TextView\" bounds=\"[0,300][720,400]\" />"
+            + "<node index=\"1\" text=\"Download complete\" resource-id=\"android:id/text\" class=\"android.widget.TextView\" bounds=\"[0,400][720,500]\" />"
+            + "</node>"
+            + "</node></hierarchy>";
+
+    private Device device;
+
+    private AccessibilityElementEntity elementEntity;
+
+    private NotificationBar notificationBar;
+
+    @Before
+    public void setUp() throws Exception {
+        elementEntity = mock(AccessibilityElementEntity.class);
+        when(elementEntity.getScreenEpoch()).thenReturn(SCREEN_EPOCH);
+        when(elementEntity.getHierarchySnapshot()).thenReturn(UiHierarchySnapshot.parse(NOTIFICATION_PANEL_XML,
+                                                                                        SCREEN_EPOCH));
+        when(elementEntity.wrapAccessibilityElements(anyListOf(AccessibilityElement.class),
+                                                     anyLong(),
+                                                     any(UiHierarchySnapshot.class))).thenAnswer(new ElementWrappingAnswer(elementEntity));
+
+        device = mock(Device.class);
+        when(device.getActiveScreen()).thenAnswer(new Answer<Screen>() {
+            @Override
+            public Screen answer(InvocationOnMock invocation) throws Throwable {
+                return new Screen(null, null, null, null, elementEntity, null);
+            }
+        });
+
+        notificationBar = new NotificationBar(device);
+    }
+
+    @Test
+    public void testGetNotifications() throws Exception {
+        List<Notification> notifications = notificationBar.getNotifications();
+
+        assertEquals("Unexpected number of notifications.", 2, notifications.size());
+        assertEquals("Messages", notifications.get(0).getTitle());
+        assertEquals("New message", notifications.get(0).getText());
+        assertEquals("Downloads", notifications.get(1).getTitle());
+        assertNull("The notification has no secondary text.", notifications.get(1).getSubText());
+
+        verify(elementEntity, times(1)).getHierarchySnapshot();
+        verify(device, never()).openNotificationBar();
+    }
+
+    @Test
+    public void testGetNotificationByXPath() throws Exception {
+        UiElement notification = notificationBar.getNotificationByXPath("//*[@text='Download complete']");
+
+        assertEquals("The notification containing the element should be returned.",
+                     new Bounds(new Point(0, 300), new Point(720, 500)),
+                     notification.getProperties().getBounds());
+        verify(elementEntity, times(1)).getHierarchySnapshot();
+    }
+}
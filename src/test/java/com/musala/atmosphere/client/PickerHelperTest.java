@@ -0,0 +1,199 @@
+package com.musala.atmosphere.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.musala.atmosphere.client.entity.AccessibilityElementEntity;
+import com.musala.atmosphere.client.entity.GestureEntity;
+import com.musala.atmosphere.client.entity.ImeEntity;
+import com.musala.atmosphere.client.snapshot.UiHierarchySnapshot;
+import com.musala.atmosphere.commons.geometry.Point;
+import com.musala.atmosphere.commons.ui.tree.AccessibilityElement;
+import com.musala.atmosphere.commons.util.Pair;
+
+/**
+ * Tests {@link PickerHelper}
+ */
+public class PickerHelperTest {
+    private static final long SCREEN_EPOCH = 3;
+
+    private static final String DATE_PICKER_XML = createDatePickerXml("14");
+
+    /**
+     * The point of the day picker above its field, stepping the picker backwards.
+     */
+    private static final Point PREVIOUS_DAY_POINT = new Point(360, 75);
+
+    private AccessibilityElementEntity elementEntity;
+
+    private GestureEntity gestureEntity;
+
+    private ImeEntity imeEntity;
+
+    private PickerHelper pickerHelper;
+
+    @Before
+    public void setUp() throws Exception {
+        gestureEntity = mock(GestureEntity.class);
+        when(gestureEntity.tapScreenLocation(any(Point.class))).thenReturn(true);
+        imeEntity = mock(ImeEntity.class);
+
+        elementEntity = mock(AccessibilityElementEntity.class);
+        when(elementEntity.getScreenEpoch()).thenReturn(SCREEN_EPOCH);
+        when(elementEntity.getRevalidationWindow()).thenReturn(Long.MAX_VALUE);
+        when(elementEntity.getHierarchySnapshot()).thenReturn(UiHierarchySnapshot.parse(DATE_PICKER_XML,
+                                                                                        SCREEN_EPOCH));
+        ElementWrappingAnswer wrappingAnswer = new ElementWrappingAnswer(elementEntity, gestureEntity, imeEntity);
+        when(elementEntity.wrapAccessibilityElements(anyListOf(AccessibilityElement.class),
+                                                     anyLong(),
+                                                     any(UiHierarchySnapshot.class))).thenAnswer(wrappingAnswer);
+
+        pickerHelper = new PickerHelper(new Screen(null, null, null, null, elementEntity, null));
+    }
+
+    @Test
+    public void testGetNumberPickerFieldValuesWithSingleFetch() throws Exception {
+        Map<Integer, String> values = pickerHelper.getNumberPickerFieldValues();
+
+        assertEquals("Unexpected number of pickers.", 3, values.size());
+        assertEquals("MAR", values.get(0));
+        assertEquals("14", values.get(1));
+        assertEquals("2016", values.get(2));
+        verify(elementEntity, times(1)).getHierarchySnapshot();
+    }
+
+    @Test
+    public void testUnchangedValuesAreNotSet() throws Exception {
+        assertTrue(pickerHelper.setNumberPickerFieldValues(Collections.singletonMap(1, "14")));
+        verify(elementEntity, times(1)).getHierarchySnapshot();
+    }
+
+    @Test
+    public void testDatePickerReadsAllFieldsAtOnce() throws Exception {
+        DatePicker datePicker = new DatePicker(new Screen(null, null, null, null, elementEntity, null));
+
+        assertEquals("MAR-14-2016", datePicker.getStringValue());
+        verify(elementEntity, times(2)).getHierarchySnapshot();
+    }
+
+    @Test
+    public void testPickerWithoutFieldIsTappedBeforeRead() throws Exception {
+        String hiddenFieldXml = "<hierarchy>"
+                + "<node index=\"0\" class=\"android.widget.NumberPicker\" bounds=\"[0,0][240,400]\" />"
+                + "</hierarchy>";
+        when(elementEntity.getHierarchySnapshot()).thenReturn(UiHierarchySnapshot.parse(hiddenFieldXml, SCREEN_EPOCH),
+                                                              UiHierarchySnapshot.parse(DATE_PICKER_XML, SCREEN_EPOCH));
+
+        Map<Integer, String> values = pickerHelper.getNumberPickerFieldValues();
+
+        assertEquals("MAR", values.get(0));
+        verify(gestureEntity, times(1)).tapScreenLocation(any(Point.class));
+        verify(elementEntity, times(2)).getHierarchySnapshot();
+    }
+
+    @Test
+    public void testValueIsTyped() throws Exception {
+        when(imeEntity.inputText("20", 0)).thenReturn(true);
+        when(elementEntity.getHierarchySnapshot()).thenReturn(UiHierarchySnapshot.parse(DATE_PICKER_XML, SCREEN_EPOCH),
+                                                              UiHierarchySnapshot.parse(createDatePickerXml("20"),
+                                                                                        SCREEN_EPOCH));
+
+        assertTrue(pickerHelper.setNumberPickerFieldValues(Collections.singletonMap(1, "20")));
+        verify(imeEntity, times(1)).inputText("20", 0);
+        verify(gestureEntity, never()).tapScreenLocation(PREVIOUS_DAY_POINT);
+    }
+
+    @Test
+    public void testValueIsSteppedFromTheValueShownAfterFailedInput() throws Exception {
+        when(imeEntity.inputText(anyString(), anyLong())).thenReturn(false);
+        when(elementEntity.getHierarchySnapshot()).thenReturn(UiHierarchySnapshot.parse(DATE_PICKER_XML, SCREEN_EPOCH),
+                                                              UiHierarchySnapshot.parse(createDatePickerXml("1"),
+                                                                                        SCREEN_EPOCH),
+                                                              UiHierarchySnapshot.parse(createDatePickerXml("31"),
+                                                                                        SCREEN_EPOCH));
+        pickerHelper.setNumberPickerRange(1, 1, 31);
+
+        assertTrue(pickerHelper.setNumberPickerFieldValues(Collections.singletonMap(1, "31")));
+        verify(gestureEntity, times(1)).tapScreenLocation(PREVIOUS_DAY_POINT);
+    }
+
+    @Test
+    public void testTimePickerSetsNoon() throws Exception {
+        assertTrue("Setting noon should succeed.", setTimePickerValue(12, "PM"));
+        verify(imeEntity, times(1)).inputText(eq("12"), anyLong());
+    }
+
+    @Test
+    public void testTimePickerSetsMidnight() throws Exception {
+        assertTrue("Setting midnight should succeed.", setTimePickerValue(0, "AM"));
+        verify(imeEntity, times(1)).inputText(eq("12"), anyLong());
+    }
+
+    private boolean setTimePickerValue(int hourOfDay, String meridiem) throws Exception {
+        UiHierarchySnapshot shownTime = UiHierarchySnapshot.parse(createTimePickerXml("11", meridiem), SCREEN_EPOCH);
+        UiHierarchySnapshot setTime = UiHierarchySnapshot.parse(createTimePickerXml("12", meridiem), SCREEN_EPOCH);
+        when(elementEntity.getHierarchySnapshot()).thenReturn(shownTime, shownTime, setTime);
+        when(imeEntity.inputText(anyString(), anyLong())).thenReturn(true);
+        Calendar time = Calendar.getInstance();
+        time.set(Calendar.HOUR_OF_DAY, hourOfDay);
+        time.set(Calendar.MINUTE, 30);
+
+        TimePicker timePicker = new TimePicker(new Screen(null, null, null, null, elementEntity, null));
+        return timePicker.setValue(time);
+    }
+
+    @Test
+    public void testGetStepCount() {
+        assertEquals(Integer.valueOf(-2), PickerHelper.getStepCount("5", "3", null));
+        assertEquals(Integer.valueOf(-59), PickerHelper.getStepCount("59", "0", null));
+        assertEquals(Integer.valueOf(1), PickerHelper.getStepCount("59", "0", new Pair<>(0, 59)));
+        assertEquals(Integer.valueOf(-1), PickerHelper.getStepCount("1", "31", new Pair<>(1, 31)));
+        assertEquals(Integer.valueOf(1), PickerHelper.getStepCount("DEC", "jan", null));
+        assertEquals(Integer.valueOf(-2), PickerHelper.getStepCount("FEB", "DEC", null));
+        assertEquals(Integer.valueOf(1), PickerHelper.getStepCount("AM", "PM", null));
+        assertNull("Unknown values can not be stepped.", PickerHelper.getStepCount("Mon", "Tue", null));
+    }
+
+    private static String createDatePickerXml(String day) {
+        return "<hierarchy>"
+                + "<node index=\"0\" class=\"android.widget.DatePicker\" bounds=\"[0,0][720,400]\">"
+                + "<node index=\"0\" class=\"android.widget.NumberPicker\" bounds=\"[0,0][240,400]\">"
+                + "<node index=\"0\" text=\"MAR\" class=\"android.widget.EditText\" bounds=\"[0,150][240,250]\" /></node>"
+                + "<node index=\"1\" class=\"android.widget.NumberPicker\" bounds=\"[240,0][480,400]\">"
+                + "<node index=\"0\" text=\"" + day + "\" class=\"android.widget.EditText\" bounds=\"[240,150][480,250]\" /></node>"
+                + "<node index=\"2\" class=\"android.widget.NumberPicker\" bounds=\"[480,0][720,400]\">"
+                + "<node index=\"0\" text=\"2016\" class=\"android.widget.EditText\" bounds=\"[480,150][720,250]\" /></node>"
+                + "</node></hierarchy>";
+    }
+
+    private static String createTimePickerXml(String hour, String meridiem) {
+        return "<hierarchy>"
+                + "<node index=\"0\" class=\"android.widget.TimePicker\" bounds=\"[0,0][720,400]\">"
+                + "<node index=\"0\" class=\"android.widget.NumberPicker\" bounds=\"[0,0][240,400]\">"
+                + "<node index=\"0\" text=\"" + hour + "\" class=\"android.widget.EditText\" bounds=\"[0,150][240,250]\" /></node>"
+                + "<node index=\"1\" class=\"android.widget.NumberPicker\" bounds=\"[240,0][480,400]\">"
+                + "<node index=\"0\" text=\"" + meridiem + "\" class=\"android.widget.EditText\" bounds=\"[240,150][480,250]\" /></node>"
+                + "<node index=\"2\" class=\"android.widget.NumberPicker\" bounds=\"[480,0][720,400]\">"
+                + "<node index=\"0\" text=\"30\" class=\"android.widget.EditText\" bounds=\"[480,150][720,250]\" /></node>"
+                + "</node></hierarchy>";
+    }
+}
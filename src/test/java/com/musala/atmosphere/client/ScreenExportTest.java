@@ -0,0 +1,37 @@
+package com.musala.atmosphere.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyZeroInteractions;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests {@link Screen#exportToXml(String)}.
+ */
+public class ScreenExportTest {
+    private static final String SCREEN_XML = "<hierarchy rotation=\"0\"><node index=\"0\" text=\"a &amp; b\" class=\"android.widget.TextView\" bounds=\"[0,0][10,10]\" /></hierarchy>";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    @SuppressWarnings("deprecation")
+    public void testExportWritesTheScreenXml() throws Exception {
+        DeviceCommunicator communicator = mock(DeviceCommunicator.class);
+        Screen screen = new Screen(null, null, null, null, SCREEN_XML, communicator);
+        File exportFile = temporaryFolder.newFile("screen.xml");
+
+        screen.exportToXml(exportFile.getAbsolutePath());
+
+        String exportedXml = new String(Files.readAllBytes(exportFile.toPath()), StandardCharsets.UTF_8);
+        assertEquals("The screen XML should be written unchanged.", SCREEN_XML, exportedXml);
+        verifyZeroInteractions(communicator);
+    }
+}
@@ -0,0 +1,130 @@
+package com.musala.atmosphere.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyBoolean;
+import static org.mockito.Matchers.anyVararg;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import com.musala.atmosphere.client.entity.AccessibilityElementEntity;
+import com.musala.atmosphere.client.snapshot.UiHierarchySnapshot;
+import com.musala.atmosphere.client.util.QueryProfile;
+import com.musala.atmosphere.client.util.QueryProfile.Plan;
+import com.musala.atmosphere.client.util.QueryProfiler;
+import com.musala.atmosphere.commons.RoutingAction;
+import com.musala.atmosphere.commons.exceptions.UiElementFetchingException;
+import com.musala.atmosphere.commons.ui.selector.CssAttribute;
+import com.musala.atmosphere.commons.ui.selector.UiElementSelectionOption;
+import com.musala.atmosphere.commons.ui.selector.UiElementSelector;
+import com.musala.atmosphere.commons.ui.tree.AccessibilityElement;
+
+/**
+ * Tests the profiling of the element lookups of a {@link Screen}.
+ */
+public class ScreenQueryProfilingTest {
+    private static final String UI_HIERARCHY_XML = "<hierarchy>"
+            + "<node index=\"0\" text=\"\" resource-id=\"com.example:id/list\" class=\"android.widget.ListView\" bounds=\"[0,0][720,1280]\">"
+            + "<node index=\"0\" text=\"First\" resource-id=\"com.example:id/item\" class=\"android.widget.TextView\" bounds=\"[0,0][720,100]\" />"
+            + "<node index=\"1\" text=\"Second\" resource-id=\"com.example:id/item\" class=\"android.widget.TextView\" bounds=\"[0,100][720,200]\" />"
+            + "</node></hierarchy>";
+
+    private QueryProfiler queryProfiler;
+
+    private Screen snapshotScreen;
+
+    @Before
+    public void setUp() throws Exception {
+        queryProfiler = new QueryProfiler();
+        queryProfiler.setEnabled(true);
+
+        AccessibilityElementEntity elementEntity = mock(AccessibilityElementEntity.class);
+        when(elementEntity.getQueryProfiler()).thenReturn(queryProfiler);
+        when(elementEntity.getHierarchySnapshot()).thenReturn(UiHierarchySnapshot.parse(UI_HIERARCHY_XML));
+
+        snapshotScreen = new Screen(null, null, null, null, elementEntity, null).snapshot();
+    }
+
+    @Test
+    public void testIndexedSelectorLookup() throws Exception {
+        UiElementSelector selector = new UiElementSelector();
+        selector.addSelectionAttribute(CssAttribute.RESOURCE_ID, "com.example:id/item");
+        Map<String, UiElementSelector> selectors = new LinkedHashMap<>();
+        selectors.put("items", selector);
+
+        snapshotScreen.getElementsBatch(selectors);
+
+        QueryProfile profile = queryProfiler.getLastProfile();
+        assertEquals("Unexpected plan.", Plan.SNAPSHOT_INDEX, profile.getPlan());
+        assertEquals("Unexpected number of scanned nodes.", 2, profile.getScannedNodes());
+        assertEquals("Unexpected number of nodes.", 3, profile.getTotalNodes());
+        assertEquals("Unexpected number of matches.", 2, profile.getMatchCount());
+        assertEquals("A local lookup should not reach the device.", 0, profile.getRoundTrips());
+        assertTrue(queryProfiler.explain().contains("attribute index"));
+    }
+
+    @Test
+    public void testScannedSelectorLookup() throws Exception {
+        UiElementSelector selector = new UiElementSelector();
+        selector.addSelectionAttribute(CssAttribute.TEXT, UiElementSelectionOption.CONTAINS, "Sec");
+        Map<String, UiElementSelector> selectors = new LinkedHashMap<>();
+        selectors.put("second", selector);
+
+        snapshotScreen.getElementsBatch(selectors);
+
+        QueryProfile profile = queryProfiler.getLastProfile();
+        assertEquals("Unexpected plan.", Plan.SNAPSHOT_SCAN, profile.getPlan());
+        assertEquals("Unexpected number of scanned nodes.", 3, profile.getScannedNodes());
+        assertEquals("Unexpected number of matches.", 1, profile.getMatchCount());
+    }
+
+    @Test
+    public void testFailedXPathLookupIsRecorded() {
+        try {
+            snapshotScreen.getAllElementsByXPath("//*[@text='Missing']");
+        } catch (UiElementFetchingException e) {
+            // expected, nothing matches
+        }
+
+        List<QueryProfile> profiles = queryProfiler.getProfiles();
+        QueryProfile profile = profiles.get(profiles.size() - 1);
+        assertEquals("Unexpected plan.", Plan.SNAPSHOT_XPATH, profile.getPlan());
+        assertEquals("Unexpected number of matches.", 0, profile.getMatchCount());
+    }
+
+    @Test
+    public void testFirstSelectorLookupOnDeviceIsLimited() throws Exception {
+        AccessibilityElementEntity elementEntity = mock(AccessibilityElementEntity.class);
+        when(elementEntity.getQueryProfiler()).thenReturn(queryProfiler);
+        DeviceCommunicator communicator = mock(DeviceCommunicator.class);
+        List<AccessibilityElement> foundElements = Arrays.asList(new AccessibilityElement());
+        when(communicator.sendAction(eq(RoutingAction.EXECUTE_XPATH_QUERY), anyVararg())).thenReturn(foundElements);
+        UiElement firstElement = mock(UiElement.class);
+        when(elementEntity.wrapAccessibilityElements(foundElements)).thenReturn(Arrays.asList(firstElement));
+        Screen deviceScreen = new Screen(null, null, null, null, elementEntity, communicator);
+
+        UiElementSelector selector = new UiElementSelector();
+        selector.addSelectionAttribute(CssAttribute.RESOURCE_ID, "com.example:id/item");
+
+        assertSame("Unexpected first element.", firstElement, deviceScreen.getFirstElement(selector));
+        ArgumentCaptor<Object> queryCaptor = ArgumentCaptor.forClass(Object.class);
+        verify(communicator).sendAction(eq(RoutingAction.EXECUTE_XPATH_QUERY), queryCaptor.capture(), eq(true));
+        String xPathQuery = (String) queryCaptor.getValue();
+        assertTrue("The query should be limited to the first match.", xPathQuery.endsWith(")[1]"));
+        verify(elementEntity, never()).getElements(any(UiElementSelector.class), anyBoolean());
+    }
+}
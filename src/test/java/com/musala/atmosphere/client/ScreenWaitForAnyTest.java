@@ -0,0 +1,58 @@
+package com.musala.atmosphere.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.musala.atmosphere.client.entity.AccessibilityElementEntity;
+import com.musala.atmosphere.client.snapshot.UiCondition;
+import com.musala.atmosphere.client.snapshot.UiHierarchySnapshot;
+
+/**
+ * Tests {@link Screen#waitForAny(java.util.List, int)}.
+ */
+public class ScreenWaitForAnyTest {
+    private static final String LOADING_SCREEN_XML = "<hierarchy><node index=\"0\" text=\"Loading\" class=\"android.widget.ProgressBar\" bounds=\"[0,0][10,10]\" /></hierarchy>";
+
+    private static final String ERROR_SCREEN_XML = "<hierarchy><node index=\"0\" text=\"Error\" class=\"android.widget.TextView\" bounds=\"[0,0][10,10]\" /></hierarchy>";
+
+    private AccessibilityElementEntity elementEntity;
+
+    private Screen screen;
+
+    @Before
+    public void setUp() {
+        elementEntity = mock(AccessibilityElementEntity.class);
+        screen = new Screen(null, null, null, null, elementEntity, null);
+    }
+
+    @Test
+    public void testWaitForAnyReturnsFirstSatisfiedCondition() throws Exception {
+        when(elementEntity.getHierarchySnapshot()).thenReturn(UiHierarchySnapshot.parse(LOADING_SCREEN_XML),
+                                                              UiHierarchySnapshot.parse(ERROR_SCREEN_XML));
+        when(elementEntity.waitForWindowUpdate(anyString(), anyInt())).thenReturn(true);
+
+        int satisfiedCondition = screen.waitForAny(Arrays.asList(UiCondition.elementExistsByCss("[text=Saved]"),
+                                                                 UiCondition.elementExistsByCss("[text=Error]")),
+                                                   10000);
+
+        assertEquals("Unexpected satisfied condition.", 1, satisfiedCondition);
+    }
+
+    @Test
+    public void testWaitForAnyTimesOut() throws Exception {
+        when(elementEntity.getHierarchySnapshot()).thenReturn(UiHierarchySnapshot.parse(LOADING_SCREEN_XML));
+        when(elementEntity.waitForWindowUpdate(anyString(), anyInt())).thenReturn(false);
+
+        int satisfiedCondition = screen.waitForAny(Arrays.asList(UiCondition.elementExistsByCss("[text=Saved]")), 0);
+
+        assertEquals("No condition should be satisfied.", Screen.NO_CONDITION_SATISFIED, satisfiedCondition);
+    }
+}
@@ -0,0 +1,162 @@
+package com.musala.atmosphere.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyBoolean;
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Matchers.anyVararg;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import com.musala.atmosphere.client.entity.AccessibilityElementEntity;
+import com.musala.atmosphere.commons.RoutingAction;
+import com.musala.atmosphere.commons.ScrollDirection;
+import com.musala.atmosphere.commons.geometry.Bounds;
+import com.musala.atmosphere.commons.geometry.Point;
+import com.musala.atmosphere.commons.ui.selector.CssAttribute;
+import com.musala.atmosphere.commons.ui.selector.UiElementSelector;
+import com.musala.atmosphere.commons.ui.tree.AccessibilityElement;
+
+/**
+ * Tests {@link ScrollableView#findElementWithScrolling(Integer, UiElementSelector)} against a simulated list, where
+ * faster swipes move the content further.
+ */
+public class ScrollableViewTest {
+    private static final int ITEM_COUNT = 100;
+
+    private static final int ITEM_HEIGHT = 100;
+
+    private static final int VIEW_HEIGHT = 1000;
+
+    private static final int MAX_OFFSET = ITEM_COUNT * ITEM_HEIGHT - VIEW_HEIGHT;
+
+    private static final int SWIPE_DISTANCE_FACTOR = 20000;
+
+    private int offset;
+
+    private int scrollCount;
+
+    /**
+     * Whether the swipe that reaches the end of the list already reports that it can not scroll further.
+     */
+    private boolean isEndReportedBySwipe;
+
+    private ScrollableView scrollableView;
+
+    @Before
+    public void setUp() throws Exception {
+        DeviceCommunicator communicator = mock(DeviceCommunicator.class);
+        when(communicator.sendAction(eq(RoutingAction.SCROLL_TO_DIRECTION), anyVararg())).thenAnswer(new Answer<Object>() {
+            @Override
+            public Object answer(InvocationOnMock invocation) throws Throwable {
+                Object[] arguments = invocation.getArguments();
+                return scroll((ScrollDirection) arguments[1], (Integer) arguments[4]);
+            }
+        });
+
+        final AccessibilityElementEntity elementEntity = mock(AccessibilityElementEntity.class);
+        when(elementEntity.getChildren(any(AccessibilityElement.class),
+                                       any(UiElementSelector.class),
+                                       anyBoolean(),
+                                       anyBoolean())).thenAnswer(new Answer<List<AccessibilityElement>>() {
+            @Override
+            public List<AccessibilityElement> answer(InvocationOnMock invocation) throws Throwable {
+                return getVisibleItems();
+            }
+        });
+        when(elementEntity.wrapAccessibilityElements(anyListOf(AccessibilityElement.class))).thenAnswer(new ElementWrappingAnswer(elementEntity));
+
+        AccessibilityElement listElement = new AccessibilityElement();
+        listElement.setClassName("android.widget.ListView");
+        listElement.setScrollable(true);
+        listElement.setBounds(new Bounds(new Point(0, 0), new Point(720, VIEW_HEIGHT)));
+
+        scrollableView = new ScrollableView(listElement, null, null, null, null, elementEntity, communicator);
+    }
+
+    @Test
+    public void testVisibleElementIsFoundWithoutScrolling() throws Exception {
+        UiElement foundElement = scrollableView.findElementWithScrolling(10, createTextSelector("Item 3"));
+
+        assertEquals("Item 3", foundElement.getProperties().getText());
+        assertEquals("No scrolling was expected.", 0, scrollCount);
+    }
+
+    @Test
+    public void testScrollingStepIsAdapted() throws Exception {
+        UiElement foundElement = scrollableView.findElementWithScrolling(50, createTextSelector("Item 95"));
+
+        assertEquals("Item 95", foundElement.getProperties().getText());
+        // the default speed moves the content by about a third of the view, so it would need about 25 swipes
+        assertTrue("Too many swipes: " + scrollCount, scrollCount <= 15);
+    }
+
+    @Test
+    public void testElementOnLastPageIsFoundWhenEndIsReported() throws Exception {
+        isEndReportedBySwipe = true;
+
+        UiElement foundElement = scrollableView.findElementWithScrolling(50, createTextSelector("Item 99"));
+
+        assertEquals("The element revealed by the last swipe should be found.",
+                     "Item 99",
+                     foundElement.getProperties().getText());
+        assertEquals("The list should be scrolled to the end.", MAX_OFFSET, offset);
+    }
+
+    @Test
+    public void testMissingElementIsNotFound() throws Exception {
+        assertNull("No element was expected.",
+                   scrollableView.findElementWithScrolling(50, createTextSelector("Item 100")));
+        assertEquals("The list should be scrolled to the end.", MAX_OFFSET, offset);
+    }
+
+    private boolean scroll(ScrollDirection direction, int steps) {
+        scrollCount++;
+        switch (direction) {
+            case SCROLL_TO_BEGINNING:
+                offset = 0;
+                return true;
+            case SCROLL_FORWARD:
+                if (offset == MAX_OFFSET) {
+                    return false;
+                }
+                offset = Math.min(MAX_OFFSET, offset + SWIPE_DISTANCE_FACTOR / steps);
+                return !isEndReportedBySwipe || offset < MAX_OFFSET;
+            default:
+                return false;
+        }
+    }
+
+    private List<AccessibilityElement> getVisibleItems() {
+        List<AccessibilityElement> visibleItems = new ArrayList<>();
+        for (int i = 0; i < ITEM_COUNT; i++) {
+            int top = i * ITEM_HEIGHT - offset;
+            if (top + ITEM_HEIGHT > 0 && top < VIEW_HEIGHT) {
+                AccessibilityElement item = new AccessibilityElement();
+                item.setClassName("android.widget.TextView");
+                item.setText("Item " + i);
+                item.setBounds(new Bounds(new Point(0, top), new Point(720, top + ITEM_HEIGHT)));
+                visibleItems.add(item);
+            }
+        }
+
+        return visibleItems;
+    }
+
+    private static UiElementSelector createTextSelector(String text) {
+        UiElementSelector selector = new UiElementSelector();
+        selector.addSelectionAttribute(CssAttribute.TEXT, text);
+        return selector;
+    }
+}
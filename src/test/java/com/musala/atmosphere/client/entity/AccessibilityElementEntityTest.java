@@ -0,0 +1,164 @@
+package com.musala.atmosphere.client.entity;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.anyVararg;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.musala.atmosphere.client.DeviceCommunicator;
+import com.musala.atmosphere.client.UiElement;
+import com.musala.atmosphere.client.snapshot.UiHierarchySnapshot;
+import com.musala.atmosphere.client.uiutils.ElementIdentity;
+import com.musala.atmosphere.client.util.UiSettleMetrics.ActionStatistics;
+import com.musala.atmosphere.commons.RoutingAction;
+import com.musala.atmosphere.commons.geometry.Bounds;
+import com.musala.atmosphere.commons.geometry.Point;
+import com.musala.atmosphere.commons.ui.tree.AccessibilityElement;
+
+/**
+ * Tests the UI settle waiting, the element resolving and the element wrapping of {@link AccessibilityElementEntity}.
+ */
+public class AccessibilityElementEntityTest {
+    private static final String TEST_PACKAGE = "com.example";
+
+    private DeviceCommunicator communicator;
+
+    private AccessibilityElementEntity elementEntity;
+
+    @Before
+    public void setUp() {
+        communicator = mock(DeviceCommunicator.class);
+        elementEntity = new AccessibilityElementEntity(communicator, null, null, null, null);
+    }
+
+    @Test
+    public void testWaitForUiIdleEndsAfterQuietPeriod() {
+        when(communicator.sendAction(eq(RoutingAction.WAIT_FOR_WINDOW_UPDATE), anyVararg())).thenReturn(true,
+                                                                                                          true,
+                                                                                                          false);
+
+        elementEntity.waitForUiIdle("tap", TEST_PACKAGE, 100, 0, 60000);
+
+        verify(communicator, times(3)).sendAction(eq(RoutingAction.WAIT_FOR_WINDOW_UPDATE), anyVararg());
+        ActionStatistics statistics = elementEntity.getSettleMetrics().getStatistics("tap");
+        assertEquals("Unexpected number of recorded waits.", 1, statistics.getCount());
+        assertEquals("The wait should have ended with an idle UI.", 0, statistics.getBoundReachedCount());
+    }
+
+    @Test
+    public void testWaitForUiIdleIsBounded() throws Exception {
+        when(communicator.sendAction(eq(RoutingAction.WAIT_FOR_WINDOW_UPDATE), anyVararg())).thenReturn(true);
+
+        long settleTime = elementEntity.waitForUiIdle("longPress", TEST_PACKAGE, 1, 0, 50);
+
+        ActionStatistics statistics = elementEntity.getSettleMetrics().getStatistics("longPress");
+        assertEquals("The wait should have reached its bound.", 1, statistics.getBoundReachedCount());
+        assertEquals("Unexpected recorded settle time.", settleTime, statistics.getMaxSettleTime());
+    }
+
+    @Test
+    public void testWaitForUiIdleAwaitsLateTransition() {
+        when(communicator.sendAction(eq(RoutingAction.WAIT_FOR_WINDOW_UPDATE), anyVararg())).thenReturn(false,
+                                                                                                          true,
+                                                                                                          false);
+
+        elementEntity.waitForUiIdle("tap", null, 100, 60000, 60000);
+
+        verify(communicator, times(3)).sendAction(eq(RoutingAction.WAIT_FOR_WINDOW_UPDATE), anyVararg());
+        ActionStatistics statistics = elementEntity.getSettleMetrics().getStatistics("tap");
+        assertEquals("The wait should have ended with an idle UI.", 0, statistics.getBoundReachedCount());
+    }
+
+    @Test
+    public void testWaitForUiIdleWithoutUpdatesLastsTheMinimumSettleTime() {
+        when(communicator.sendAction(eq(RoutingAction.WAIT_FOR_WINDOW_UPDATE), anyVararg())).thenReturn(false);
+
+        long settleTime = elementEntity.waitForUiIdle("doubleTap", null, 1, 30, 60000);
+
+        assertTrue("The wait ended before the minimum settle time.", settleTime >= 30);
+        ActionStatistics statistics = elementEntity.getSettleMetrics().getStatistics("doubleTap");
+        assertEquals("The wait should have ended with an idle UI.", 0, statistics.getBoundReachedCount());
+    }
+
+    @Test
+    public void testWrapAccessibilityElementsIsLazy() {
+        List<AccessibilityElement> accessibilityElements = Arrays.asList(mock(AccessibilityElement.class),
+                                                                         mock(AccessibilityElement.class));
+        AccessibilityElementEntity spyEntity = spy(elementEntity);
+
+        List<UiElement> uiElements = spyEntity.wrapAccessibilityElements(accessibilityElements, 3);
+
+        assertEquals("Unexpected number of elements.", 2, uiElements.size());
+        verify(spyEntity, never()).wrapAccessibilityElement(any(AccessibilityElement.class),
+                                                            anyLong(),
+                                                            any(UiHierarchySnapshot.class));
+
+        UiElement secondElement = uiElements.get(1);
+
+        assertSame("The wrapped element should be reused.", secondElement, uiElements.get(1));
+        verify(spyEntity, times(1)).wrapAccessibilityElement(accessibilityElements.get(1), 3, null);
+        verify(spyEntity, never()).wrapAccessibilityElement(accessibilityElements.get(0), 3, null);
+    }
+
+    @Test
+    public void testWrappedElementsCanBeModified() {
+        List<AccessibilityElement> accessibilityElements = Arrays.asList(mock(AccessibilityElement.class),
+                                                                         mock(AccessibilityElement.class));
+        AccessibilityElementEntity spyEntity = spy(elementEntity);
+        UiElement addedElement = mock(UiElement.class);
+
+        List<UiElement> uiElements = spyEntity.wrapAccessibilityElements(accessibilityElements, 3);
+        uiElements.remove(0);
+        uiElements.add(addedElement);
+
+        assertEquals("Unexpected number of elements.", 2, uiElements.size());
+        assertSame("The added element should be kept as it is.", addedElement, uiElements.get(1));
+        assertEquals("The source list should not change.", 2, accessibilityElements.size());
+    }
+
+    @Test
+    public void testResolveAcceptsSeveralMatches() {
+        AccessibilityElement element = createRowElement("First item");
+        AccessibilityElement duplicate = createRowElement("First item");
+        when(communicator.sendAction(eq(RoutingAction.GET_UI_ELEMENTS), anyVararg())).thenReturn(Arrays.asList(element,
+                                                                                                               duplicate));
+
+        assertSame("The first matching element should be resolved.",
+                   element,
+                   elementEntity.resolve(ElementIdentity.of(createRowElement("First item"))));
+    }
+
+    @Test
+    public void testResolveRejectsRecycledElement() {
+        AccessibilityElement recycledRow = createRowElement("Second item");
+        when(communicator.sendAction(eq(RoutingAction.GET_UI_ELEMENTS), anyVararg())).thenReturn(Arrays.asList(recycledRow));
+
+        assertNull("A row showing different content should not be resolved.",
+                   elementEntity.resolve(ElementIdentity.of(createRowElement("First item"))));
+    }
+
+    private static AccessibilityElement createRowElement(String text) {
+        AccessibilityElement element = new AccessibilityElement();
+        element.setClassName("android.widget.TextView");
+        element.setResourceId("com.example:id/row");
+        element.setText(text);
+        element.setBounds(new Bounds(new Point(0, 100), new Point(720, 200)));
+        return element;
+    }
+}
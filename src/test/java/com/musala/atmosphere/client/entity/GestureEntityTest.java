@@ -0,0 +1,134 @@
+package com.musala.atmosphere.client.entity;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyVararg;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import com.musala.atmosphere.client.DeviceCommunicator;
+import com.musala.atmosphere.client.uiutils.GestureCreator;
+import com.musala.atmosphere.client.uiutils.GestureRecorder;
+import com.musala.atmosphere.client.uiutils.GestureRecording;
+import com.musala.atmosphere.client.uiutils.GestureSequence;
+import com.musala.atmosphere.client.uiutils.GestureSequenceResult;
+import com.musala.atmosphere.commons.DeviceInformation;
+import com.musala.atmosphere.commons.RoutingAction;
+import com.musala.atmosphere.commons.geometry.Point;
+import com.musala.atmosphere.commons.gesture.Anchor;
+import com.musala.atmosphere.commons.gesture.Gesture;
+
+/**
+ * Tests the requests sent by the {@link GestureEntity} for a tap and a gesture sequence, and the recording of the
+ * played gestures.
+ */
+public class GestureEntityTest {
+    private static final Point TAP_POINT = new Point(120, 340);
+
+    private DeviceCommunicator communicator;
+
+    private GestureEntity gestureEntity;
+
+    @Before
+    public void setUp() {
+        communicator = mock(DeviceCommunicator.class);
+        when(communicator.sendAction(any(RoutingAction.class), anyVararg())).thenReturn(DeviceCommunicator.VOID_SUCCESS);
+
+        gestureEntity = new GestureEntity(communicator, new DeviceInformation());
+    }
+
+    @Test
+    public void testTapIsPlayedAsGesture() {
+        assertTrue("The tap should succeed.", gestureEntity.tapScreenLocation(TAP_POINT));
+
+        ArgumentCaptor<Object> gestureCaptor = ArgumentCaptor.forClass(Object.class);
+        verify(communicator).sendAction(eq(RoutingAction.PLAY_GESTURE), gestureCaptor.capture());
+        verify(communicator, never()).sendAction(eq(RoutingAction.EXECUTE_SHELL_COMMAND), anyVararg());
+        verify(communicator, never()).sendAction(eq(RoutingAction.SHOW_TAP_LOCATION), anyVararg());
+
+        Gesture tap = (Gesture) gestureCaptor.getValue();
+        assertEquals("A tap should use a single pointer.", 1, tap.size());
+        Anchor anchor = tap.get(0).get(0);
+        assertEquals("Unexpected tap abscissa.", TAP_POINT.getX(), anchor.getX(), 0);
+        assertEquals("Unexpected tap ordinate.", TAP_POINT.getY(), anchor.getY(), 0);
+    }
+
+    @Test
+    public void testTapLocationIsShownWhenEnabled() {
+        gestureEntity.setTapLocationShown(true);
+        gestureEntity.tapScreenLocation(TAP_POINT);
+
+        verify(communicator).sendAction(RoutingAction.SHOW_TAP_LOCATION, TAP_POINT);
+        verify(communicator).sendAction(eq(RoutingAction.PLAY_GESTURE), any(Gesture.class));
+    }
+
+    @Test
+    public void testPlayedGesturesAreRecorded() {
+        GestureRecorder recorder = new GestureRecorder();
+        gestureEntity.setGestureRecorder(recorder);
+        gestureEntity.tapScreenLocation(TAP_POINT);
+        gestureEntity.doubleTap(TAP_POINT);
+
+        gestureEntity.setGestureRecorder(null);
+        gestureEntity.tapScreenLocation(TAP_POINT);
+
+        GestureRecording recording = recorder.getRecording();
+        assertEquals("Unexpected number of recorded gestures.", 2, recording.getGestureCount());
+        assertEquals("The double tap was not recorded.", 2, recording.getGesture(1).size());
+    }
+
+    @Test
+    public void testSequenceIsPlayedInParts() {
+        GestureSequence sequence = createTapSequence(5);
+
+        GestureSequenceResult result = gestureEntity.playGestureSequence(sequence, 2, Integer.MAX_VALUE);
+
+        assertTrue("The sequence should be completed.", result.isCompleted());
+        verify(communicator, times(3)).sendAction(eq(RoutingAction.PLAY_GESTURE), any(Gesture.class));
+    }
+
+    @Test
+    public void testSequenceStopsAtFailedPart() {
+        when(communicator.sendAction(eq(RoutingAction.PLAY_GESTURE), anyVararg())).thenReturn(DeviceCommunicator.VOID_SUCCESS,
+                                                                                              (Object) null);
+        GestureSequence sequence = createTapSequence(5);
+        GestureRecorder recorder = new GestureRecorder();
+        gestureEntity.setGestureRecorder(recorder);
+
+        GestureSequenceResult result = gestureEntity.playGestureSequence(sequence, 2, Integer.MAX_VALUE);
+
+        assertEquals("Only the first part should be completed.", 2, result.getCompletedStepCount());
+        assertEquals("Only the played steps should be recorded.", 2, recorder.getRecording().getGestureCount());
+        assertFalse("A step of the failed part should not be completed.", result.isStepCompleted(2));
+        verify(communicator, times(2)).sendAction(eq(RoutingAction.PLAY_GESTURE), any(Gesture.class));
+    }
+
+    @Test
+    public void testFailedTapIsReported() {
+        when(communicator.sendAction(eq(RoutingAction.PLAY_GESTURE), anyVararg())).thenReturn(null);
+        GestureRecorder recorder = new GestureRecorder();
+        gestureEntity.setGestureRecorder(recorder);
+
+        assertFalse("A failed gesture should fail the tap.", gestureEntity.tapScreenLocation(TAP_POINT));
+        assertEquals("A failed gesture should not be recorded.", 0, recorder.getRecording().getGestureCount());
+    }
+
+    private static GestureSequence createTapSequence(int tapCount) {
+        GestureSequence sequence = new GestureSequence();
+        for (int i = 0; i < tapCount; i++) {
+            sequence.add(GestureCreator.createTap(TAP_POINT.getX(), TAP_POINT.getY()), 0);
+        }
+
+        return sequence;
+    }
+}
@@ -0,0 +1,99 @@
+package com.musala.atmosphere.client.entity;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyVararg;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import com.musala.atmosphere.client.DeviceCommunicator;
+import com.musala.atmosphere.commons.DeviceInformation;
+import com.musala.atmosphere.commons.RoutingAction;
+import com.musala.atmosphere.commons.geometry.Point;
+
+/**
+ * Measures the latency of a tap against a simulated device, comparing the former <code>input tap</code> shell path
+ * with the gesture injection used by the {@link GestureEntity}. The simulated device answers each request after a
+ * network round trip, and shell commands after an additional process spawn. Not a unit test - run the
+ * {@link #main(String[]) main} method manually.
+ */
+public class TapLatencyBenchmark {
+    private static final long ROUND_TRIP_MILLIS = 15;
+
+    private static final long SHELL_SPAWN_MILLIS = 400;
+
+    private static final int ITERATIONS = 20;
+
+    private static final Point TAP_POINT = new Point(120, 340);
+
+    /**
+     * A single tap. Returns <code>true</code> if the tap succeeded.
+     */
+    private interface Tap {
+        boolean run();
+    }
+
+    public static void main(String[] args) {
+        final DeviceCommunicator communicator = createSimulatedCommunicator();
+        final GestureEntity gestureEntity = new GestureEntity(communicator, new DeviceInformation());
+
+        measure("shell input tap with tap location", new Tap() {
+            @Override
+            public boolean run() {
+                communicator.sendAction(RoutingAction.SHOW_TAP_LOCATION, TAP_POINT);
+                String command = "input tap " + TAP_POINT.getX() + " " + TAP_POINT.getY();
+                communicator.sendAction(RoutingAction.EXECUTE_SHELL_COMMAND, command);
+                return true;
+            }
+        });
+
+        measure("gesture tap with tap location", new Tap() {
+            @Override
+            public boolean run() {
+                gestureEntity.setTapLocationShown(true);
+                return gestureEntity.tapScreenLocation(TAP_POINT);
+            }
+        });
+
+        measure("gesture tap", new Tap() {
+            @Override
+            public boolean run() {
+                gestureEntity.setTapLocationShown(false);
+                return gestureEntity.tapScreenLocation(TAP_POINT);
+            }
+        });
+    }
+
+    private static DeviceCommunicator createSimulatedCommunicator() {
+        DeviceCommunicator communicator = mock(DeviceCommunicator.class);
+        when(communicator.sendAction(any(RoutingAction.class), anyVararg())).thenAnswer(new Answer<Object>() {
+            @Override
+            public Object answer(InvocationOnMock invocation) throws InterruptedException {
+                RoutingAction action = (RoutingAction) invocation.getArguments()[0];
+                long latency = ROUND_TRIP_MILLIS;
+                if (action == RoutingAction.EXECUTE_SHELL_COMMAND) {
+                    latency += SHELL_SPAWN_MILLIS;
+                }
+
+                Thread.sleep(latency);
+                return DeviceCommunicator.VOID_SUCCESS;
+            }
+        });
+
+        return communicator;
+    }
+
+    private static void measure(String name, Tap tap) {
+        tap.run();
+
+        long startTime = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            tap.run();
+        }
+        long elapsedTime = System.nanoTime() - startTime;
+
+        System.out.println(String.format("%-36s %8.1f ms/tap", name, elapsedTime / 1_000_000.0 / ITERATIONS));
+    }
+}
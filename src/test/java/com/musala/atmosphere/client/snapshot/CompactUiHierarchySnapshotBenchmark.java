@@ -0,0 +1,45 @@
+package com.musala.atmosphere.client.snapshot;
+
+/**
+ * Compares the retained heap of {@link UiHierarchySnapshot} object graphs with {@link CompactUiHierarchySnapshot}
+ * encodings of the same synthetic tree, kept for a number of devices. Not part of the test suite; run the main method
+ * manually, preferably with a fixed heap size.
+ */
+public class CompactUiHierarchySnapshotBenchmark {
+    private static final int NODE_COUNT = 2000;
+
+    private static final int RETAINED_SNAPSHOTS = 50;
+
+    public static void main(String[] args) throws Exception {
+        String uiHierarchyXml = UiHierarchySnapshotBenchmark.buildSyntheticHierarchy(NODE_COUNT);
+
+        UiHierarchySnapshot[] snapshots = new UiHierarchySnapshot[RETAINED_SNAPSHOTS];
+        long baseline = usedMemory();
+        for (int i = 0; i < RETAINED_SNAPSHOTS; i++) {
+            snapshots[i] = UiHierarchySnapshot.parse(uiHierarchyXml);
+        }
+        long objectGraphMemory = usedMemory() - baseline;
+
+        CompactUiHierarchySnapshot[] compactSnapshots = new CompactUiHierarchySnapshot[RETAINED_SNAPSHOTS];
+        baseline = usedMemory();
+        for (int i = 0; i < RETAINED_SNAPSHOTS; i++) {
+            compactSnapshots[i] = CompactUiHierarchySnapshot.compact(snapshots[i]);
+            snapshots[i] = null;
+        }
+        long compactMemory = usedMemory() - baseline + objectGraphMemory;
+
+        System.out.printf("Snapshots: %d x %d nodes%n", compactSnapshots.length, compactSnapshots[0].size());
+        System.out.printf("Object graph: %8d KB%n", objectGraphMemory / 1024);
+        System.out.printf("Compact:      %8d KB%n", compactMemory / 1024);
+    }
+
+    private static long usedMemory() throws InterruptedException {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(100);
+        }
+
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,121 @@
+package com.musala.atmosphere.client.snapshot;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.musala.atmosphere.commons.geometry.Bounds;
+import com.musala.atmosphere.commons.geometry.Point;
+import com.musala.atmosphere.commons.ui.selector.CssAttribute;
+import com.musala.atmosphere.commons.ui.selector.UiElementSelectionOption;
+import com.musala.atmosphere.commons.ui.selector.UiElementSelector;
+import com.musala.atmosphere.commons.ui.tree.AccessibilityElement;
+
+/**
+ * Tests {@link CompactUiHierarchySnapshot}
+ */
+public class CompactUiHierarchySnapshotTest {
+    private static final String UI_HIERARCHY_XML = "<?xml version='1.0' encoding='UTF-8' standalone='yes' ?>"
+            + "<hierarchy rotation=\"0\">"
+            + "<node index=\"0\" text=\"\" resource-id=\"\" class=\"android.widget.FrameLayout\" package=\"com.example\" content-desc=\"\" checkable=\"false\" checked=\"false\" clickable=\"false\" enabled=\"true\" focusable=\"false\" focused=\"false\" scrollable=\"false\" long-clickable=\"false\" password=\"false\" selected=\"false\" bounds=\"[0,0][720,1280]\">"
+            + "<node index=\"0\" text=\"Login\" resource-id=\"com.example:id/login\" class=\"android.widget.Button\" package=\"com.example\" content-desc=\"login button\" checkable=\"false\" checked=\"false\" clickable=\"true\" enabled=\"true\" focusable=\"true\" focused=\"false\" scrollable=\"false\" long-clickable=\"true\" password=\"false\" selected=\"false\" bounds=\"[10,20][200,100]\" />"
+            + "<node index=\"1\" text=\"\" resource-id=\"com.example:id/list\" class=\"android.widget.ListView\" package=\"com.example\" content-desc=\"\" checkable=\"false\" checked=\"false\" clickable=\"false\" enabled=\"true\" focusable=\"true\" focused=\"false\" scrollable=\"true\" long-clickable=\"false\" password=\"false\" selected=\"false\" bounds=\"[0,100][720,1280]\">"
+            + "<node index=\"0\" text=\"First item\" resource-id=\"\" class=\"android.widget.TextView\" package=\"com.example\" content-desc=\"\" checkable=\"true\" checked=\"true\" clickable=\"true\" enabled=\"true\" focusable=\"false\" focused=\"false\" scrollable=\"false\" long-clickable=\"false\" password=\"false\" selected=\"false\" bounds=\"[0,100][720,200]\" />"
+            + "<node index=\"1\" text=\"Second item\" resource-id=\"\" class=\"android.widget.TextView\" package=\"com.example\" content-desc=\"\" checkable=\"true\" checked=\"false\" clickable=\"true\" enabled=\"true\" focusable=\"false\" focused=\"false\" scrollable=\"false\" long-clickable=\"false\" password=\"false\" selected=\"true\" />"
+            + "</node></node></hierarchy>";
+
+    private static UiHierarchySnapshot snapshot;
+
+    private static CompactUiHierarchySnapshot compactSnapshot;
+
+    @BeforeClass
+    public static void setUp() throws Exception {
+        snapshot = UiHierarchySnapshot.parse(UI_HIERARCHY_XML, 7);
+        compactSnapshot = CompactUiHierarchySnapshot.compact(snapshot);
+    }
+
+    @Test
+    public void testCompactKeepsTree() {
+        assertEquals("Unexpected number of nodes.", 5, compactSnapshot.size());
+        assertEquals("Unexpected screen epoch.", 7, compactSnapshot.getScreenEpoch());
+        assertArrayEquals("Unexpected roots.", new int[] {0}, compactSnapshot.getRoots());
+        assertArrayEquals("Unexpected root children.", new int[] {1, 2}, compactSnapshot.getChildren(0));
+        assertArrayEquals("Unexpected list children.", new int[] {3, 4}, compactSnapshot.getChildren(2));
+        assertEquals("Unexpected parent.", 2, compactSnapshot.getParent(4));
+        assertEquals("Unexpected parent of a top level node.",
+                     CompactUiHierarchySnapshot.NO_PARENT,
+                     compactSnapshot.getParent(0));
+        assertEquals("Unexpected depth.", 2, compactSnapshot.getDepth(3));
+    }
+
+    @Test
+    public void testCompactKeepsElementProperties() {
+        List<UiHierarchyNode> nodes = snapshot.getNodes();
+        for (int node = 0; node < nodes.size(); node++) {
+            AccessibilityElement expected = nodes.get(node).getElement();
+            AccessibilityElement actual = compactSnapshot.getElement(node);
+
+            assertEquals("Unexpected text.", expected.getText(), actual.getText());
+            assertEquals("Unexpected class name.", expected.getClassName(), actual.getClassName());
+            assertEquals("Unexpected resource id.", expected.getResourceId(), actual.getResourceId());
+            assertEquals("Unexpected content description.",
+                         expected.getContentDescriptor(),
+                         actual.getContentDescriptor());
+            assertEquals("Unexpected bounds.", expected.getBounds(), actual.getBounds());
+            assertEquals("Unexpected checked state.", expected.isChecked(), actual.isChecked());
+            assertEquals("Unexpected selected state.", expected.isSelected(), actual.isSelected());
+            assertEquals("Unexpected long clickable state.", expected.isLongClickable(), actual.isLongClickable());
+            assertEquals("Unexpected index.", expected.getIndex(), actual.getIndex());
+        }
+
+        assertEquals(new Bounds(new Point(10, 20), new Point(200, 100)), compactSnapshot.getElement(1).getBounds());
+        assertNull("Missing bounds should stay missing.", compactSnapshot.getElement(4).getBounds());
+    }
+
+    @Test
+    public void testGetElementsBySelector() {
+        UiElementSelector selector = new UiElementSelector();
+        selector.addSelectionAttribute(CssAttribute.CLASS_NAME, "android.widget.TextView");
+        selector.addSelectionAttribute(CssAttribute.TEXT, UiElementSelectionOption.CONTAINS, "item");
+
+        List<AccessibilityElement> foundElements = compactSnapshot.getElements(selector);
+
+        assertEquals("Unexpected number of found elements.", 2, foundElements.size());
+        assertEquals("First item", foundElements.get(0).getText());
+        assertEquals("Second item", compactSnapshot.getElements(selector).get(1).getText());
+    }
+
+    @Test
+    public void testGetElementsByMissingString() {
+        UiElementSelector selector = new UiElementSelector();
+        selector.addSelectionAttribute(CssAttribute.TEXT, "Third item");
+
+        assertTrue("No elements were expected.", compactSnapshot.getElements(selector).isEmpty());
+        assertNull("No element was expected.", compactSnapshot.getFirstElement(selector));
+    }
+
+    @Test
+    public void testGetElementsByEmptyString() {
+        UiElementSelector selector = new UiElementSelector();
+        selector.addSelectionAttribute(CssAttribute.CLASS_NAME, "android.widget.TextView");
+        selector.addSelectionAttribute(CssAttribute.CONTENT_DESCRIPTION, "");
+
+        assertEquals("Unexpected number of found elements.", 2, compactSnapshot.getElements(selector).size());
+    }
+
+    @Test
+    public void testCssAndXPathMatchTheOriginalSnapshot() {
+        String cssQuery = "android.widget.ListView > android.widget.TextView:last-child";
+        String xpathQuery = "//*[@resourceId='com.example:id/login']";
+
+        assertEquals("Second item", compactSnapshot.getElementsByCss(cssQuery).get(0).getText());
+        assertEquals(snapshot.getElementsByCss(cssQuery).size(), compactSnapshot.getElementsByCss(cssQuery).size());
+        assertEquals("Login", compactSnapshot.getElementsByXPath(xpathQuery).get(0).getText());
+    }
+}
@@ -0,0 +1,169 @@
+package com.musala.atmosphere.client.snapshot;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.transform.OutputKeys;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+import org.xml.sax.InputSource;
+
+import com.musala.atmosphere.client.snapshot.UiHierarchyDelta.Change;
+import com.musala.atmosphere.client.snapshot.UiHierarchyDelta.ChangeType;
+
+/**
+ * A local stand-in for a device that supports incremental hierarchy fetching. Published hierarchy dumps are kept for a
+ * limited number of versions and the changes between them are computed by comparing the dumps node by node.
+ */
+public class LocalUiHierarchyDeltaSource implements UiHierarchyDeltaSource {
+    private final int historySize;
+
+    private final Map<Long, Document> history = new LinkedHashMap<>();
+
+    private long version;
+
+    private String currentXml;
+
+    private int fullFetchCount;
+
+    private int deltaFetchCount;
+
+    public LocalUiHierarchyDeltaSource(int historySize) {
+        this.historySize = historySize;
+    }
+
+    /**
+     * Publishes a new version of the hierarchy.
+     *
+     * @param uiHierarchyXml
+     *        - the XML dump of the new hierarchy
+     * @return the version of the published hierarchy
+     */
+    public long publish(String uiHierarchyXml) throws Exception {
+        Document document = DocumentBuilderFactory.newInstance()
+                                                  .newDocumentBuilder()
+                                                  .parse(new InputSource(new StringReader(uiHierarchyXml)));
+        version++;
+        currentXml = uiHierarchyXml;
+        history.put(version, document);
+        if (history.size() > historySize) {
+            history.remove(history.keySet().iterator().next());
+        }
+
+        return version;
+    }
+
+    public int getFullFetchCount() {
+        return fullFetchCount;
+    }
+
+    public int getDeltaFetchCount() {
+        return deltaFetchCount;
+    }
+
+    @Override
+    public UiHierarchyDelta getFullHierarchy() {
+        fullFetchCount++;
+        return UiHierarchyDelta.full(version, currentXml);
+    }
+
+    @Override
+    public UiHierarchyDelta getChangesSince(long baseVersion) {
+        Document baseDocument = history.get(baseVersion);
+        if (baseDocument == null) {
+            return null;
+        }
+
+        deltaFetchCount++;
+        List<Change> changes = new ArrayList<>();
+        Element baseHierarchy = baseDocument.getDocumentElement();
+        Element currentHierarchy = history.get(version).getDocumentElement();
+        List<Element> baseRoots = getChildElements(baseHierarchy);
+        List<Element> currentRoots = getChildElements(currentHierarchy);
+        int fullSize = currentXml.getBytes(StandardCharsets.UTF_8).length;
+
+        if (baseRoots.size() != currentRoots.size()) {
+            changes.add(new Change(ChangeType.SUBTREE, new int[0], currentXml));
+        } else {
+            for (int i = 0; i < baseRoots.size(); i++) {
+                diff(baseRoots.get(i), currentRoots.get(i), new int[] {i}, changes);
+            }
+        }
+
+        return new UiHierarchyDelta(baseVersion, version, changes, fullSize);
+    }
+
+    private static void diff(Element baseElement, Element currentElement, int[] path, List<Change> changes) {
+        List<Element> baseChildren = getChildElements(baseElement);
+        List<Element> currentChildren = getChildElements(currentElement);
+        if (baseChildren.size() != currentChildren.size()) {
+            changes.add(new Change(ChangeType.SUBTREE, path, serialize(currentElement)));
+            return;
+        }
+
+        if (!haveSameAttributes(baseElement, currentElement)) {
+            changes.add(new Change(ChangeType.ATTRIBUTES, path, serialize(currentElement.cloneNode(false))));
+        }
+
+        for (int i = 0; i < baseChildren.size(); i++) {
+            int[] childPath = Arrays.copyOf(path, path.length + 1);
+            childPath[path.length] = i;
+            diff(baseChildren.get(i), currentChildren.get(i), childPath, changes);
+        }
+    }
+
+    private static boolean haveSameAttributes(Element baseElement, Element currentElement) {
+        NamedNodeMap baseAttributes = baseElement.getAttributes();
+        NamedNodeMap currentAttributes = currentElement.getAttributes();
+        if (baseAttributes.getLength() != currentAttributes.getLength()) {
+            return false;
+        }
+
+        for (int i = 0; i < baseAttributes.getLength(); i++) {
+            Node attribute = baseAttributes.item(i);
+            Node currentAttribute = currentAttributes.getNamedItem(attribute.getNodeName());
+            if (currentAttribute == null || !attribute.getNodeValue().equals(currentAttribute.getNodeValue())) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static List<Element> getChildElements(Element element) {
+        List<Element> childElements = new ArrayList<>();
+        for (Node child = element.getFirstChild(); child != null; child = child.getNextSibling()) {
+            if (child.getNodeType() == Node.ELEMENT_NODE) {
+                childElements.add((Element) child);
+            }
+        }
+
+        return childElements;
+    }
+
+    private static String serialize(Node node) {
+        try {
+            Transformer transformer = TransformerFactory.newInstance().newTransformer();
+            transformer.setOutputProperty(OutputKeys.OMIT_XML_DECLARATION, "yes");
+            StringWriter writer = new StringWriter();
+            transformer.transform(new DOMSource(node), new StreamResult(writer));
+            return writer.toString();
+        } catch (Exception e) {
+            throw new IllegalStateException("Serializing the changed node failed.", e);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.musala.atmosphere.client.snapshot;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.musala.atmosphere.commons.ui.selector.CssAttribute;
+import com.musala.atmosphere.commons.ui.selector.UiElementSelector;
+
+/**
+ * Tests {@link UiCondition}
+ */
+public class UiConditionTest {
+    private static final String UI_HIERARCHY_XML = "<hierarchy rotation=\"0\">"
+            + "<node index=\"0\" text=\"Saved\" resource-id=\"com.example:id/message\" class=\"android.widget.TextView\" package=\"com.example\" content-desc=\"\" bounds=\"[0,0][720,100]\" />"
+            + "</hierarchy>";
+
+    private static UiHierarchySnapshot snapshot;
+
+    @BeforeClass
+    public static void setUp() throws Exception {
+        snapshot = UiHierarchySnapshot.parse(UI_HIERARCHY_XML);
+    }
+
+    @Test
+    public void testElementExists() {
+        UiElementSelector selector = new UiElementSelector();
+        selector.addSelectionAttribute(CssAttribute.TEXT, "Saved");
+
+        assertTrue("The element should exist.", UiCondition.elementExists(selector).isSatisfied(snapshot));
+        assertFalse("The element should not be gone.", UiCondition.elementGone(selector).isSatisfied(snapshot));
+    }
+
+    @Test
+    public void testElementExistsByCssAndXPath() {
+        assertTrue(UiCondition.elementExistsByCss("android.widget.TextView[text^=Sav]").isSatisfied(snapshot));
+        assertFalse(UiCondition.elementExistsByXPath("//*[@text='Error']").isSatisfied(snapshot));
+    }
+}
@@ -0,0 +1,126 @@
+package com.musala.atmosphere.client.snapshot;
+
+import java.util.List;
+
+import com.musala.atmosphere.commons.ui.selector.CssAttribute;
+import com.musala.atmosphere.commons.ui.selector.UiElementSelector;
+import com.musala.atmosphere.commons.ui.tree.AccessibilityElement;
+
+/**
+ * Compares indexed selector lookups in a {@link UiHierarchySnapshot} with a linear scan over all of its nodes on a
+ * synthetic tree. Not part of the test suite; run the main method manually.
+ */
+public class UiHierarchySnapshotBenchmark {
+    private static final int NODE_COUNT = 5000;
+
+    private static final int CHILDREN_PER_NODE = 8;
+
+    private static final int WARMUP_ITERATIONS = 200;
+
+    private static final int MEASURED_ITERATIONS = 2000;
+
+    public static void main(String[] args) throws Exception {
+        UiHierarchySnapshot snapshot = UiHierarchySnapshot.parse(buildSyntheticHierarchy(NODE_COUNT));
+
+        UiElementSelector selector = new UiElementSelector();
+        selector.addSelectionAttribute(CssAttribute.CLASS_NAME, "android.widget.TextView");
+        selector.addSelectionAttribute(CssAttribute.RESOURCE_ID, "com.example:id/item_" + (NODE_COUNT - 1));
+
+        System.out.printf("Nodes in snapshot: %d%n", snapshot.size());
+        System.out.printf("Linear scan:   %8d ns/lookup%n", measureLinearScan(snapshot, selector));
+        System.out.printf("Indexed query: %8d ns/lookup%n", measureIndexedLookup(snapshot, selector));
+    }
+
+    private static long measureLinearScan(UiHierarchySnapshot snapshot, UiElementSelector selector) {
+        UiElementSelectorMatcher matcher = new UiElementSelectorMatcher(selector);
+        List<UiHierarchyNode> nodes = snapshot.getNodes();
+        int found = 0;
+
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            found += scan(nodes, matcher);
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            found += scan(nodes, matcher);
+        }
+        long elapsed = System.nanoTime() - start;
+
+        checkFound(found);
+        return elapsed / MEASURED_ITERATIONS;
+    }
+
+    private static long measureIndexedLookup(UiHierarchySnapshot snapshot, UiElementSelector selector) {
+        int found = 0;
+
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            found += snapshot.getElements(selector).size();
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            found += snapshot.getElements(selector).size();
+        }
+        long elapsed = System.nanoTime() - start;
+
+        checkFound(found);
+        return elapsed / MEASURED_ITERATIONS;
+    }
+
+    private static int scan(List<UiHierarchyNode> nodes, UiElementSelectorMatcher matcher) {
+        int found = 0;
+        for (UiHierarchyNode node : nodes) {
+            AccessibilityElement element = node.getElement();
+            if (matcher.matches(element)) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    private static void checkFound(int found) {
+        if (found != WARMUP_ITERATIONS + MEASURED_ITERATIONS) {
+            throw new IllegalStateException("Unexpected number of found elements: " + found);
+        }
+    }
+
+    /**
+     * Builds a uiautomator style XML dump of a tree with the given number of nodes, where every node has up to
+     * {@value #CHILDREN_PER_NODE} children.
+     */
+    static String buildSyntheticHierarchy(int nodeCount) {
+        StringBuilder xml = new StringBuilder("<?xml version='1.0' encoding='UTF-8' standalone='yes' ?><hierarchy rotation=\"0\">");
+        appendNode(xml, 0, nodeCount);
+        xml.append("</hierarchy>");
+        return xml.toString();
+    }
+
+    private static void appendNode(StringBuilder xml, int nodeNumber, int nodeCount) {
+        boolean isLayout = nodeNumber * CHILDREN_PER_NODE + 1 < nodeCount;
+        String className = isLayout ? "android.widget.LinearLayout" : "android.widget.TextView";
+        int top = nodeNumber % 1280;
+
+        xml.append("<node index=\"")
+           .append(nodeNumber % CHILDREN_PER_NODE)
+           .append("\" text=\"Item ")
+           .append(nodeNumber)
+           .append("\" resource-id=\"com.example:id/item_")
+           .append(nodeNumber)
+           .append("\" class=\"")
+           .append(className)
+           .append("\" package=\"com.example\" content-desc=\"\" checkable=\"false\" checked=\"false\" clickable=\"true\" enabled=\"true\" focusable=\"false\" focused=\"false\" scrollable=\"false\" long-clickable=\"false\" password=\"false\" selected=\"false\" bounds=\"[0,")
+           .append(top)
+           .append("][720,")
+           .append(top + 1)
+           .append("]\">");
+
+        for (int i = 1; i <= CHILDREN_PER_NODE; i++) {
+            int childNumber = nodeNumber * CHILDREN_PER_NODE + i;
+            if (childNumber < nodeCount) {
+                appendNode(xml, childNumber, nodeCount);
+            }
+        }
+
+        xml.append("</node>");
+    }
+}
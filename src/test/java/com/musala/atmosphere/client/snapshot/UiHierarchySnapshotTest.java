@@ -0,0 +1,301 @@
+package com.musala.atmosphere.client.snapshot;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import javax.xml.xpath.XPathExpression;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.musala.atmosphere.client.uiutils.CssToXPathConverter;
+import com.musala.atmosphere.client.uiutils.ElementIdentity;
+import com.musala.atmosphere.commons.exceptions.UiElementFetchingException;
+import com.musala.atmosphere.commons.geometry.Bounds;
+import com.musala.atmosphere.commons.geometry.Point;
+import com.musala.atmosphere.commons.ui.selector.CssAttribute;
+import com.musala.atmosphere.commons.ui.selector.UiElementSelectionOption;
+import com.musala.atmosphere.commons.ui.selector.UiElementSelector;
+import com.musala.atmosphere.commons.ui.tree.AccessibilityElement;
+
+/**
+ * Tests {@link UiHierarchySnapshot}
+ */
+public class UiHierarchySnapshotTest {
+    private static final String UI_HIERARCHY_XML = "<?xml version='1.0' encoding='UTF-8' standalone='yes' ?>"
+            + "<hierarchy rotation=\"0\">"
+            + "<node index=\"0\" text=\"\" resource-id=\"\" class=\"android.widget.FrameLayout\" package=\"com.example\" content-desc=\"\" checkable=\"false\" checked=\"false\" clickable=\"false\" enabled=\"true\" focusable=\"false\" focused=\"false\" scrollable=\"false\" long-clickable=\"false\" password=\"false\" selected=\"false\" bounds=\"[0,0][720,1280]\">"
+            + "<node index=\"0\" text=\"Login\" resource-id=\"com.example:id/login\" class=\"android.widget.Button\" package=\"com.example\" content-desc=\"login button\" checkable=\"false\" checked=\"false\" clickable=\"true\" enabled=\"true\" focusable=\"true\" focused=\"false\" scrollable=\"false\" long-clickable=\"false\" password=\"false\" selected=\"false\" bounds=\"[10,20][200,100]\" />"
+            + "<node index=\"1\" text=\"\" resource-id=\"com.example:id/list\" class=\"android.widget.ListView\" package=\"com.example\" content-desc=\"\" checkable=\"false\" checked=\"false\" clickable=\"false\" enabled=\"true\" focusable=\"true\" focused=\"false\" scrollable=\"true\" long-clickable=\"false\" password=\"false\" selected=\"false\" bounds=\"[0,100][720,1280]\">"
+            + "<node index=\"0\" text=\"First item\" resource-id=\"\" class=\"android.widget.TextView\" package=\"com.example\" content-desc=\"item [1\" checkable=\"false\" checked=\"false\" clickable=\"true\" enabled=\"true\" focusable=\"false\" focused=\"false\" scrollable=\"false\" long-clickable=\"false\" password=\"false\" selected=\"false\" bounds=\"[0,100][720,200]\" />"
+            + "<node index=\"1\" text=\"Second item\" resource-id=\"\" class=\"android.widget.TextView\" package=\"com.example\" content-desc=\"\" checkable=\"false\" checked=\"false\" clickable=\"true\" enabled=\"true\" focusable=\"false\" focused=\"false\" scrollable=\"false\" long-clickable=\"false\" password=\"false\" selected=\"false\" bounds=\"[0,200][720,300]\" />"
+            + "</node></node></hierarchy>";
+
+    private static UiHierarchySnapshot snapshot;
+
+    @BeforeClass
+    public static void setUp() throws Exception {
+        snapshot = UiHierarchySnapshot.parse(UI_HIERARCHY_XML);
+    }
+
+    @Test
+    public void testParseBuildsTree() {
+        assertEquals("Unexpected number of nodes.", 5, snapshot.size());
+        assertEquals("Unexpected number of roots.", 1, snapshot.getRoots().size());
+
+        UiHierarchyNode root = snapshot.getRoots().get(0);
+        assertEquals("Unexpected number of root children.", 2, root.getChildren().size());
+
+        UiHierarchyNode list = root.getChildren().get(1);
+        assertEquals("Unexpected depth.", 1, list.getDepth());
+        assertEquals("Unexpected parent.", root, list.getParent());
+
+        AccessibilityElement button = root.getChildren().get(0).getElement();
+        assertEquals("Login", button.getText());
+        assertEquals("com.example:id/login", button.getResourceId());
+        assertEquals("login button", button.getContentDescriptor());
+        assertTrue(button.isClickable());
+        assertEquals(new Bounds(new Point(10, 20), new Point(200, 100)), button.getBounds());
+    }
+
+    @Test
+    public void testGetElementsBySelector() {
+        UiElementSelector selector = new UiElementSelector();
+        selector.addSelectionAttribute(CssAttribute.CLASS_NAME, "android.widget.TextView");
+        selector.addSelectionAttribute(CssAttribute.TEXT, UiElementSelectionOption.CONTAINS, "item");
+
+        List<AccessibilityElement> foundElements = snapshot.getElements(selector);
+
+        assertEquals("Unexpected number of found elements.", 2, foundElements.size());
+        assertEquals("First item", foundElements.get(0).getText());
+    }
+
+    @Test
+    public void testGetElementsByIndexedAttributes() {
+        UiElementSelector selector = new UiElementSelector();
+        selector.addSelectionAttribute(CssAttribute.PACKAGE_NAME, "com.example");
+        selector.addSelectionAttribute(CssAttribute.RESOURCE_ID, "com.example:id/login");
+        selector.addSelectionAttribute(CssAttribute.CLICKABLE, true);
+
+        List<AccessibilityElement> foundElements = snapshot.getElements(selector);
+
+        assertEquals("Unexpected number of found elements.", 1, foundElements.size());
+        assertEquals("Login", foundElements.get(0).getText());
+    }
+
+    @Test
+    public void testGetElementsBySelectorValueWithBracket() {
+        UiElementSelector selector = new UiElementSelector();
+        selector.addSelectionAttribute(CssAttribute.CONTENT_DESCRIPTION, UiElementSelectionOption.CONTAINS, "[1");
+        selector.addSelectionAttribute(CssAttribute.CLICKABLE, true);
+
+        List<AccessibilityElement> foundElements = snapshot.getElements(selector);
+
+        assertEquals("Unexpected number of found elements.", 1, foundElements.size());
+        assertEquals("First item", foundElements.get(0).getText());
+
+        selector.addSelectionAttribute(CssAttribute.TEXT, "Second item");
+
+        assertTrue("No elements were expected.", snapshot.getElements(selector).isEmpty());
+    }
+
+    @Test
+    public void testGetElementsByMissingIndexedValue() {
+        UiElementSelector selector = new UiElementSelector();
+        selector.addSelectionAttribute(CssAttribute.CLASS_NAME, "android.widget.TextView");
+        selector.addSelectionAttribute(CssAttribute.TEXT, "Third item");
+
+        List<AccessibilityElement> foundElements = snapshot.getElements(selector);
+
+        assertTrue("No elements were expected.", foundElements.isEmpty());
+    }
+
+    @Test
+    public void testGetElementsBySelectorWordMatch() {
+        UiElementSelector selector = new UiElementSelector();
+        selector.addSelectionAttribute(CssAttribute.CONTENT_DESCRIPTION, UiElementSelectionOption.WORD_MATCH, "button");
+
+        List<AccessibilityElement> foundElements = snapshot.getElements(selector);
+
+        assertEquals("Unexpected number of found elements.", 1, foundElements.size());
+        assertEquals("Login", foundElements.get(0).getText());
+    }
+
+    @Test
+    public void testGetFirstElementBySelector() {
+        UiElementSelector selector = new UiElementSelector();
+        selector.addSelectionAttribute(CssAttribute.CLASS_NAME, "android.widget.TextView");
+
+        assertEquals("First item", snapshot.getFirstElement(selector).getText());
+
+        selector.addSelectionAttribute(CssAttribute.TEXT, "Third item");
+        assertNull("No element was expected.", snapshot.getFirstElement(selector));
+    }
+
+    @Test
+    public void testGetFirstNodeByXPathAndCss() {
+        assertEquals("First item", snapshot.getFirstNodeByXPath("//*[@className='android.widget.TextView']")
+                                           .getElement()
+                                           .getText());
+        assertEquals("Second item",
+                     snapshot.getFirstNodeByCss(CssToXPathConverter.compile("android.widget.TextView:last-child")
+                                                                   .getSelectorList())
+                             .getElement()
+                             .getText());
+        assertNull("No node was expected.", snapshot.getFirstNodeByXPath("//*[@text='Third item']"));
+    }
+
+    @Test
+    public void testResolveIdentityByPath() {
+        UiHierarchyNode secondItem = snapshot.getRoots().get(0).getChildren().get(1).getChildren().get(1);
+
+        ElementIdentity identity = snapshot.getIdentity(secondItem);
+
+        assertArrayEquals(new int[] {0, 1, 1}, identity.getPath());
+        assertSame(secondItem, snapshot.resolve(identity));
+    }
+
+    @Test
+    public void testResolveIdentityWithoutPath() {
+        UiHierarchyNode secondItem = snapshot.getRoots().get(0).getChildren().get(1).getChildren().get(1);
+
+        assertSame(secondItem, snapshot.resolve(ElementIdentity.of(secondItem.getElement())));
+
+        AccessibilityElement movedElement = new AccessibilityElement();
+        movedElement.setClassName("android.widget.TextView");
+        movedElement.setIndex(1);
+        movedElement.setBounds(new Bounds(new Point(0, 300), new Point(720, 400)));
+        assertNull("No node was expected.", snapshot.resolve(ElementIdentity.of(movedElement)));
+    }
+
+    @Test
+    public void testGetChildElements() {
+        UiHierarchyNode root = snapshot.getRoots().get(0);
+        UiElementSelector selector = new UiElementSelector();
+        selector.addSelectionAttribute(CssAttribute.CLICKABLE, true);
+
+        List<AccessibilityElement> children = snapshot.getChildElements(root, selector, false);
+        List<AccessibilityElement> directChildren = snapshot.getChildElements(root, selector, true);
+
+        assertEquals("Unexpected number of children.", 3, children.size());
+        assertEquals("Unexpected number of direct children.", 1, directChildren.size());
+        assertEquals("Login", directChildren.get(0).getText());
+    }
+
+    @Test
+    public void testGetChildElementsByXPath() {
+        UiHierarchyNode list = snapshot.getRoots().get(0).getChildren().get(1);
+
+        List<AccessibilityElement> children = snapshot.getChildElementsByXPath(list, "//*[@clickable='true']");
+
+        assertEquals("The query should be limited to the subtree.", 2, children.size());
+        assertEquals("Second item", children.get(1).getText());
+    }
+
+    @Test(expected = UiElementFetchingException.class)
+    public void testParseInvalidIndex() throws Exception {
+        UiHierarchySnapshot.parse("<hierarchy rotation=\"0\"><node index=\"first\" text=\"Login\" /></hierarchy>");
+    }
+
+    @Test
+    public void testGetSubtree() {
+        UiHierarchyNode root = snapshot.getRoots().get(0);
+
+        UiHierarchySnapshot subtree = snapshot.getSubtree(root, 1);
+
+        assertEquals("Unexpected number of nodes.", 3, subtree.size());
+        assertSame(root.getElement(), subtree.getRoots().get(0).getElement());
+        assertEquals(snapshot.getScreenEpoch(), subtree.getScreenEpoch());
+        assertSame(subtree.getRoots().get(0), subtree.getNode(root.getElement()));
+    }
+
+    @Test
+    public void testGetElementsByXPath() {
+        List<AccessibilityElement> foundElements = snapshot.getElementsByXPath("//*[@resourceId='com.example:id/list']/*[@index='1']");
+
+        assertEquals("Unexpected number of found elements.", 1, foundElements.size());
+        assertEquals("Second item", foundElements.get(0).getText());
+    }
+
+    @Test
+    public void testGetElementsByCss() {
+        List<AccessibilityElement> foundElements = snapshot.getElementsByCss("[className=android.widget.Button]");
+
+        assertEquals("Unexpected number of found elements.", 1, foundElements.size());
+        assertEquals("Login", foundElements.get(0).getText());
+    }
+
+    @Test
+    public void testGetElementsByCssCombinators() {
+        List<AccessibilityElement> foundElements = snapshot.getElementsByCss("android.widget.FrameLayout > [resourceId='com.example:id/list'] android.widget.TextView:nth-child(2)");
+
+        assertEquals("Unexpected number of found elements.", 1, foundElements.size());
+        assertEquals("Second item", foundElements.get(0).getText());
+    }
+
+    @Test
+    public void testGetElementsByCssSibling() {
+        List<AccessibilityElement> foundElements = snapshot.getElementsByCss("android.widget.Button + *");
+
+        assertEquals("Unexpected number of found elements.", 1, foundElements.size());
+        assertEquals("com.example:id/list", foundElements.get(0).getResourceId());
+    }
+
+    @Test
+    public void testCssMatchingIsConsistentWithXPath() {
+        String[] cssQueries = {"android.widget.TextView:last-child", "* ~ [scrollable=true]",
+                "[text$=item], android.widget.Button", "android.widget.FrameLayout android.widget.TextView:nth-child(-n+1)"};
+
+        for (String cssQuery : cssQueries) {
+            String xpathQuery = CssToXPathConverter.convertCssToXPath(cssQuery);
+            assertEquals("Local CSS matching differs from XPath for " + cssQuery,
+                         snapshot.getElementsByXPath(xpathQuery),
+                         snapshot.getElementsByCss(cssQuery));
+        }
+    }
+
+    @Test
+    public void testCompiledXPathIsReused() {
+        String xpathQuery = "//*[@clickable='true']";
+
+        assertSame(XPathExpressionCache.compile(xpathQuery), XPathExpressionCache.compile(xpathQuery));
+        assertEquals("Unexpected number of found elements.", 3, snapshot.getElementsByXPath(xpathQuery).size());
+        assertEquals("Unexpected number of found elements.", 3, snapshot.getElementsByXPath(xpathQuery).size());
+    }
+
+    @Test
+    public void testCompiledXPathIsNotSharedBetweenThreads() throws Exception {
+        final String xpathQuery = "//*[@clickable='true']";
+        final XPathExpression[] otherThreadExpression = new XPathExpression[1];
+        final int[] otherThreadResultSize = new int[1];
+
+        Thread otherThread = new Thread() {
+            @Override
+            public void run() {
+                otherThreadExpression[0] = XPathExpressionCache.compile(xpathQuery);
+                for (int i = 0; i < 100; i++) {
+                    otherThreadResultSize[0] = snapshot.getElementsByXPath(xpathQuery).size();
+                }
+            }
+        };
+        otherThread.start();
+        for (int i = 0; i < 100; i++) {
+            assertEquals("Unexpected number of found elements.", 3, snapshot.getElementsByXPath(xpathQuery).size());
+        }
+        otherThread.join();
+
+        assertNotSame(XPathExpressionCache.compile(xpathQuery), otherThreadExpression[0]);
+        assertEquals("Unexpected number of found elements.", 3, otherThreadResultSize[0]);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testGetElementsByInvalidXPath() {
+        snapshot.getElementsByXPath("//*[");
+    }
+}
@@ -0,0 +1,131 @@
+package com.musala.atmosphere.client.snapshot;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.musala.atmosphere.commons.ui.selector.CssAttribute;
+import com.musala.atmosphere.commons.ui.selector.UiElementSelector;
+import com.musala.atmosphere.commons.ui.tree.AccessibilityElement;
+
+/**
+ * Tests {@link UiHierarchyStore}
+ */
+public class UiHierarchyStoreTest {
+    private static final int HISTORY_SIZE = 3;
+
+    private static final int ITEM_COUNT = 20;
+
+    private LocalUiHierarchyDeltaSource source;
+
+    private UiHierarchyStore store;
+
+    @Before
+    public void setUp() throws Exception {
+        source = new LocalUiHierarchyDeltaSource(HISTORY_SIZE);
+        source.publish(buildHierarchy(false, ITEM_COUNT));
+        store = new UiHierarchyStore(source);
+    }
+
+    @Test
+    public void testFirstUpdateFetchesFullHierarchy() throws Exception {
+        UiHierarchySnapshot snapshot = store.update();
+
+        assertEquals("Unexpected number of nodes.", ITEM_COUNT + 3, snapshot.size());
+        assertEquals("Unexpected number of full fetches.", 1, store.getFullFetchCount());
+        assertEquals("No bytes should be saved by a full fetch.", 0, store.getBytesSaved());
+    }
+
+    @Test
+    public void testAttributeChangeIsPatched() throws Exception {
+        store.update();
+        long version = source.publish(buildHierarchy(true, ITEM_COUNT));
+
+        UiHierarchySnapshot snapshot = store.update();
+
+        assertTrue("The checkbox should be checked.", getCheckBox(snapshot).isChecked());
+        assertEquals("Unexpected number of nodes.", ITEM_COUNT + 3, snapshot.size());
+        assertEquals("Unexpected local version.", version, store.getVersion());
+        assertEquals("Unexpected number of full fetches.", 1, store.getFullFetchCount());
+        assertEquals("Unexpected number of incremental fetches.", 1, store.getDeltaFetchCount());
+        assertTrue("Bytes should be saved by an incremental fetch.", store.getBytesSaved() > 0);
+    }
+
+    @Test
+    public void testChildCountChangeReplacesSubtree() throws Exception {
+        store.update();
+        source.publish(buildHierarchy(false, ITEM_COUNT + 1));
+
+        UiHierarchySnapshot snapshot = store.update();
+
+        assertEquals("Unexpected number of nodes.", ITEM_COUNT + 4, snapshot.size());
+        assertFalse("The checkbox should not be checked.", getCheckBox(snapshot).isChecked());
+        assertEquals("Unexpected number of full fetches.", 1, store.getFullFetchCount());
+
+        UiHierarchyNode list = snapshot.getRoots().get(0).getChildren().get(1);
+        assertEquals("Unexpected parent of the added item.", list, list.getChildren().get(ITEM_COUNT).getParent());
+    }
+
+    @Test
+    public void testTooOldVersionFallsBackToFullFetch() throws Exception {
+        store.update();
+        for (int i = 0; i < HISTORY_SIZE; i++) {
+            source.publish(buildHierarchy(i % 2 == 0, ITEM_COUNT));
+        }
+
+        UiHierarchySnapshot snapshot = store.update();
+
+        assertTrue("The checkbox should be checked.", getCheckBox(snapshot).isChecked());
+        assertEquals("Unexpected number of full fetches.", 2, store.getFullFetchCount());
+        assertEquals("Unexpected number of incremental fetches.", 0, store.getDeltaFetchCount());
+    }
+
+    @Test
+    public void testPatchedSnapshotMatchesFullSnapshot() throws Exception {
+        store.update();
+        String changedHierarchy = buildHierarchy(true, ITEM_COUNT + 2);
+        source.publish(changedHierarchy);
+
+        List<UiHierarchyNode> patchedNodes = store.update().getNodes();
+        List<UiHierarchyNode> expectedNodes = UiHierarchySnapshot.parse(changedHierarchy).getNodes();
+
+        assertEquals("Unexpected number of nodes.", expectedNodes.size(), patchedNodes.size());
+        for (int i = 0; i < expectedNodes.size(); i++) {
+            AccessibilityElement expected = expectedNodes.get(i).getElement();
+            AccessibilityElement actual = patchedNodes.get(i).getElement();
+            assertEquals("Unexpected text.", expected.getText(), actual.getText());
+            assertEquals("Unexpected checked state.", expected.isChecked(), actual.isChecked());
+            assertEquals("Unexpected depth.", expectedNodes.get(i).getDepth(), patchedNodes.get(i).getDepth());
+        }
+    }
+
+    private static AccessibilityElement getCheckBox(UiHierarchySnapshot snapshot) {
+        UiElementSelector selector = new UiElementSelector();
+        selector.addSelectionAttribute(CssAttribute.CLASS_NAME, "android.widget.CheckBox");
+        return snapshot.getFirstElement(selector);
+    }
+
+    private static String buildHierarchy(boolean isChecked, int itemCount) {
+        StringBuilder hierarchy = new StringBuilder("<?xml version='1.0' encoding='UTF-8' standalone='yes' ?><hierarchy rotation=\"0\">");
+        hierarchy.append("<node index=\"0\" text=\"\" resource-id=\"\" class=\"android.widget.FrameLayout\" package=\"com.example\" bounds=\"[0,0][720,1280]\">");
+        hierarchy.append("<node index=\"0\" text=\"Remember me\" resource-id=\"com.example:id/remember\" class=\"android.widget.CheckBox\" package=\"com.example\" checkable=\"true\" checked=\"")
+                 .append(isChecked)
+                 .append("\" bounds=\"[0,0][720,100]\" />");
+        hierarchy.append("<node index=\"1\" text=\"\" resource-id=\"com.example:id/list\" class=\"android.widget.ListView\" package=\"com.example\" bounds=\"[0,100][720,1280]\">");
+        for (int i = 0; i < itemCount; i++) {
+            hierarchy.append(String.format("<node index=\"%d\" text=\"Item %d\" resource-id=\"\" class=\"android.widget.TextView\" package=\"com.example\" bounds=\"[0,%d][720,%d]\" />",
+                                           i,
+                                           i,
+                                           100 + i * 50,
+                                           150 + i * 50));
+        }
+        hierarchy.append("</node></node></hierarchy>");
+
+        return hierarchy.toString();
+    }
+}
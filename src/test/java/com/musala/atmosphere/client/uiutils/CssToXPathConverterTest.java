@@ -2,6 +2,7 @@ package com.musala.atmosphere.client.uiutils;
 
 import static com.musala.atmosphere.client.uiutils.CssToXPathConverter.convertCssToXPath;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 
 import org.junit.Test;
 
@@ -26,6 +27,24 @@ public class CssToXPathConverterTest {
         assertEquals("The converter did not return the right XPath query", EXPECTED_XPATH_QUERY, convertedXPathQuery);
     }
 
+    @Test
+    public void testConverterWithInitialNodeAndValueContainingEquals() throws InvalidCssQueryException {
+        String convertedXPathQuery = convertCssToXPath("android.widget.LinearLayout > android.widget.TextView[text=a=b]");
+        assertEquals("The converter did not return the right XPath query",
+                     "//android.widget.LinearLayout/android.widget.TextView[@text='a=b']",
+                     convertedXPathQuery);
+    }
+
+    @Test
+    public void testCompileReusesCompiledQuery() throws InvalidCssQueryException {
+        CompiledQuery compiledQuery = CssToXPathConverter.compile(VALID_CSS_QUERY);
+
+        assertEquals("The compiled query did not hold the right XPath query",
+                     EXPECTED_XPATH_QUERY,
+                     compiledQuery.getXPathQuery());
+        assertSame("The compiled query was not reused", compiledQuery, CssToXPathConverter.compile(VALID_CSS_QUERY));
+    }
+
     @Test(expected = InvalidCssQueryException.class)
     public void testConverterWithInvalidCssQuery() throws InvalidCssQueryException {
         convertCssToXPath(INVALID_CSS_QUERY);
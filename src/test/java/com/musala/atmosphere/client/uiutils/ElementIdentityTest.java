@@ -0,0 +1,99 @@
+package com.musala.atmosphere.client.uiutils;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.musala.atmosphere.commons.geometry.Bounds;
+import com.musala.atmosphere.commons.geometry.Point;
+import com.musala.atmosphere.commons.ui.selector.CssAttribute;
+import com.musala.atmosphere.commons.ui.tree.AccessibilityElement;
+
+/**
+ * Tests {@link ElementIdentity}
+ */
+public class ElementIdentityTest {
+    @Test
+    public void testIdentityIgnoresInteractionState() {
+        AccessibilityElement element = createElement();
+        ElementIdentity identity = ElementIdentity.of(element);
+
+        element.setFocused(true);
+        element.setSelected(true);
+        element.setChecked(true);
+
+        assertTrue("The identity should still match.", identity.matches(element));
+        assertEquals(identity, ElementIdentity.of(element));
+    }
+
+    @Test
+    public void testIdentityDependsOnBounds() {
+        AccessibilityElement element = createElement();
+        ElementIdentity identity = ElementIdentity.of(element);
+
+        element.setBounds(new Bounds(new Point(0, 300), new Point(720, 400)));
+
+        assertFalse("Moved elements should not match.", identity.matches(element));
+        assertNotEquals(identity, ElementIdentity.of(element));
+    }
+
+    @Test
+    public void testIdentityDependsOnContent() {
+        AccessibilityElement element = createElement();
+        ElementIdentity identity = ElementIdentity.of(element);
+
+        element.setText("Other title");
+
+        assertFalse("Elements showing other text should not match.", identity.matches(element));
+        assertNotEquals(identity, ElementIdentity.of(element));
+
+        element = createElement();
+        element.setContentDescriptor("Other description");
+
+        assertFalse("Elements with other content description should not match.", identity.matches(element));
+        assertEquals("The selector should find the content of the element.",
+                     "Title",
+                     identity.toSelector().getStringValue(CssAttribute.TEXT));
+    }
+
+    @Test
+    public void testIdentityIgnoresTypedText() {
+        AccessibilityElement element = createElement();
+        element.setClassName("android.widget.EditText");
+        ElementIdentity identity = ElementIdentity.of(element);
+
+        element.setText("typed");
+
+        assertTrue("Editable elements should match after typing.", identity.matches(element));
+        assertNull("The selector should not depend on the typed text.",
+                   identity.toSelector().getStringValue(CssAttribute.TEXT));
+    }
+
+    @Test
+    public void testIdentityPath() {
+        AccessibilityElement element = createElement();
+        int[] path = new int[] {0, 2, 1};
+
+        ElementIdentity identity = ElementIdentity.of(path, element);
+        path[0] = 5;
+
+        assertArrayEquals(new int[] {0, 2, 1}, identity.getPath());
+        assertNull("The path should be unknown.", ElementIdentity.of(element).getPath());
+        assertNotEquals(identity, ElementIdentity.of(element));
+    }
+
+    private static AccessibilityElement createElement() {
+        AccessibilityElement element = new AccessibilityElement();
+        element.setClassName("android.widget.TextView");
+        element.setResourceId("com.example:id/title");
+        element.setIndex(1);
+        element.setText("Title");
+        element.setBounds(new Bounds(new Point(0, 100), new Point(720, 200)));
+        return element;
+    }
+}
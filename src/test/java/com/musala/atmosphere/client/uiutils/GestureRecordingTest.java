@@ -0,0 +1,84 @@
+package com.musala.atmosphere.client.uiutils;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.musala.atmosphere.commons.gesture.Gesture;
+
+/**
+ * Tests the time-compressed replay of a {@link GestureRecording}.
+ */
+public class GestureRecordingTest {
+    private static final long SESSION_START = 1_000_000L;
+
+    private static final int LONG_PRESS_DURATION = 1500;
+
+    private GestureRecording recording;
+
+    @Before
+    public void setUp() {
+        GestureRecorder recorder = new GestureRecorder();
+        recorder.record(GestureCreator.createTap(10, 20), SESSION_START);
+        recorder.record(GestureCreator.createLongPress(30, 40, LONG_PRESS_DURATION), SESSION_START + 4000);
+        recorder.record(GestureCreator.createTap(50, 60), SESSION_START + 4000 + LONG_PRESS_DURATION + 60_000);
+        recording = recorder.getRecording();
+    }
+
+    @Test
+    public void testRecordedTimingIsKept() {
+        GestureSequence sequence = recording.toSequence(1, Integer.MAX_VALUE);
+
+        assertEquals("Unexpected number of replayed gestures.", 3, sequence.getStepCount());
+        assertEquals("Unexpected start of the long press.", 4000, sequence.getStepStartTime(1));
+        assertEquals("Unexpected start of the last tap.",
+                     4000 + LONG_PRESS_DURATION + 60_000,
+                     sequence.getStepStartTime(2));
+    }
+
+    @Test
+    public void testIdleGapsAreCompressed() {
+        GestureSequence sequence = recording.toSequence(4, 2000);
+
+        assertEquals("The idle time before the long press was not compressed.", 1000, sequence.getStepStartTime(1));
+        assertEquals("The timing within the long press was not kept.",
+                     1000 + LONG_PRESS_DURATION,
+                     sequence.getStepEndTime(1));
+        assertEquals("The long idle time was not limited to the maximum gap.",
+                     1000 + LONG_PRESS_DURATION + 2000,
+                     sequence.getStepStartTime(2));
+    }
+
+    @Test
+    public void testLongSessionIsReplayedInParts() {
+        GestureSequence sequence = recording.toSequence(1, Integer.MAX_VALUE);
+
+        List<GestureSequence> parts = sequence.split(GestureSequence.DEFAULT_MAX_PART_STEP_COUNT,
+                                                     GestureSequence.DEFAULT_MAX_PART_DURATION);
+
+        assertEquals("The long idle time should end the first part.", 2, parts.size());
+        assertEquals("The idle time should be kept between the parts.", 60_000, sequence.getGapBefore(2));
+    }
+
+    @Test
+    public void testOverlappingGesturesAreReplayedWithoutGap() {
+        GestureRecorder recorder = new GestureRecorder();
+        Gesture longPress = GestureCreator.createLongPress(30, 40, LONG_PRESS_DURATION);
+        recorder.record(longPress, SESSION_START);
+        recorder.record(GestureCreator.createTap(10, 20), SESSION_START + 100);
+
+        GestureSequence sequence = recorder.getRecording().toSequence(2, 1000);
+
+        assertEquals("An overlapping gesture should follow immediately.",
+                     LONG_PRESS_DURATION,
+                     sequence.getStepStartTime(1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testExpandingTimeIsRejected() {
+        recording.toSequence(0.5, 1000);
+    }
+}
@@ -0,0 +1,121 @@
+package com.musala.atmosphere.client.uiutils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import com.musala.atmosphere.commons.beans.SwipeDirection;
+import com.musala.atmosphere.commons.geometry.Point;
+import com.musala.atmosphere.commons.gesture.Gesture;
+import com.musala.atmosphere.commons.gesture.Timeline;
+import com.musala.atmosphere.commons.util.Pair;
+
+/**
+ * Tests the timing of the steps of a {@link GestureSequence}.
+ */
+public class GestureSequenceTest {
+    private static final int SWIPE_DURATION = 250;
+
+    private GestureSequence createSequence() {
+        Gesture swipe = GestureCreator.createSwipe(new Point(100, 500), SwipeDirection.UP, new Pair<>(720, 1280));
+
+        return new GestureSequence().add(GestureCreator.createTap(10, 20))
+                                    .add(GestureCreator.createTap(30, 40), 500)
+                                    .add(swipe)
+                                    .add(GestureCreator.createTap(50, 60));
+    }
+
+    @Test
+    public void testStepTiming() {
+        GestureSequence sequence = createSequence();
+
+        assertEquals("Unexpected number of steps.", 4, sequence.getStepCount());
+        assertEquals("The first step should start immediately.", 0, sequence.getStepStartTime(0));
+        assertEquals("The explicit gap was not applied.", 500, sequence.getStepStartTime(1));
+        assertEquals("The default gap was not applied.",
+                     500 + GestureSequence.DEFAULT_STEP_GAP,
+                     sequence.getStepStartTime(2));
+        assertEquals("Unexpected end of the swipe step.",
+                     500 + GestureSequence.DEFAULT_STEP_GAP + SWIPE_DURATION,
+                     sequence.getStepEndTime(2));
+        assertEquals("Unexpected duration of the sequence.",
+                     500 + 2 * GestureSequence.DEFAULT_STEP_GAP + SWIPE_DURATION,
+                     sequence.getDuration());
+    }
+
+    @Test
+    public void testStepsAreCombinedInOneGesture() {
+        GestureSequence sequence = createSequence();
+        Gesture combined = sequence.toGesture();
+
+        assertEquals("Each step should contribute its timelines.", 4, combined.size());
+
+        Timeline swipe = combined.get(2);
+        assertEquals("The swipe was not shifted to the start of its step.",
+                     sequence.getStepStartTime(2),
+                     swipe.get(0).getTimeAfterStart());
+        assertEquals("The swipe was not shifted to the start of its step.",
+                     sequence.getStepEndTime(2),
+                     swipe.get(swipe.size() - 1).getTimeAfterStart());
+        assertEquals("The last tap was not shifted to the start of its step.",
+                     sequence.getStepStartTime(3),
+                     combined.get(3).get(0).getTimeAfterStart());
+    }
+
+    @Test
+    public void testResultReportsSteps() {
+        GestureSequence sequence = createSequence();
+
+        GestureSequenceResult played = new GestureSequenceResult(sequence, sequence.getStepCount(), 1000);
+        assertTrue("The played sequence should be completed.", played.isCompleted());
+        assertEquals("Unexpected number of completed steps.", 4, played.getCompletedStepCount());
+        assertEquals("Unexpected completion time of a step.",
+                     sequence.getStepEndTime(2),
+                     played.getStepCompletionTime(2));
+
+        GestureSequenceResult failed = new GestureSequenceResult(sequence, 0, 10);
+        assertFalse("A failed step should not be reported as completed.", failed.isStepCompleted(0));
+        assertEquals("Unexpected completion time of a failed step.", -1, failed.getStepCompletionTime(0));
+    }
+
+    @Test
+    public void testSplitBoundsStepCount() {
+        GestureSequence sequence = createSequence();
+
+        List<GestureSequence> parts = sequence.split(2, Integer.MAX_VALUE);
+
+        assertEquals("Unexpected number of parts.", 2, parts.size());
+        GestureSequence secondPart = parts.get(1);
+        assertEquals("The part should start with its first step.", 0, secondPart.getStepStartTime(0));
+        assertEquals("The gap within the part was not kept.",
+                     GestureSequence.DEFAULT_STEP_GAP,
+                     secondPart.getGapBefore(1));
+        assertEquals("The gap before the part was not kept.",
+                     GestureSequence.DEFAULT_STEP_GAP,
+                     sequence.getGapBefore(2));
+    }
+
+    @Test
+    public void testSplitBoundsDuration() {
+        GestureSequence sequence = createSequence();
+
+        List<GestureSequence> parts = sequence.split(10, 700);
+
+        assertEquals("Unexpected number of parts.", 2, parts.size());
+        assertEquals("Unexpected steps in the first part.", 2, parts.get(0).getStepCount());
+        assertEquals("Unexpected duration of the second part.",
+                     SWIPE_DURATION + GestureSequence.DEFAULT_STEP_GAP,
+                     parts.get(1).getDuration());
+
+        assertEquals("Each step should be played on its own.", 4, sequence.split(10, 100).size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeGapIsRejected() {
+        new GestureSequence().add(GestureCreator.createTap(10, 20), -1);
+    }
+}
@@ -0,0 +1,81 @@
+package com.musala.atmosphere.client.uiutils.css;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import com.musala.atmosphere.client.exceptions.InvalidCssQueryException;
+
+/**
+ * Tests {@link CssParser}
+ */
+public class CssParserTest {
+    @Test
+    public void testParseCombinators() {
+        SelectorList selectorList = CssParser.parse("android.widget.ListView > android.widget.LinearLayout android.widget.TextView + * ~ android.widget.Button");
+
+        ComplexSelector selector = selectorList.getSelectors().get(0);
+        List<Combinator> combinators = selector.getCombinators();
+
+        assertEquals("Unexpected number of compound selectors.", 5, selector.getCompoundSelectors().size());
+        assertEquals(Combinator.CHILD, combinators.get(0));
+        assertEquals(Combinator.DESCENDANT, combinators.get(1));
+        assertEquals(Combinator.ADJACENT_SIBLING, combinators.get(2));
+        assertEquals(Combinator.GENERAL_SIBLING, combinators.get(3));
+        assertEquals("android.widget.Button", selector.getSubject().getType());
+        assertEquals("//android.widget.ListView/android.widget.LinearLayout//android.widget.TextView/following-sibling::*[1]/self::*/following-sibling::android.widget.Button",
+                     selectorList.toXPath());
+    }
+
+    @Test
+    public void testParseQuotedValues() {
+        SelectorList selectorList = CssParser.parse("[text='a ] b'][contentDesc=\"it's\"][resourceId^=com.example]");
+
+        List<AttributeCondition> conditions = selectorList.getSelectors().get(0).getSubject().getAttributeConditions();
+
+        assertEquals("a ] b", conditions.get(0).getValue());
+        assertEquals("it's", conditions.get(1).getValue());
+        assertEquals(AttributeOperator.PREFIX, conditions.get(2).getOperator());
+        assertEquals("//*[@text='a ] b'][@contentDesc=\"it's\"][starts-with(@resourceId,'com.example')]",
+                     selectorList.toXPath());
+    }
+
+    @Test
+    public void testParseNthChild() {
+        SelectorList selectorList = CssParser.parse("android.widget.TextView:nth-child(2n + 1):last-child");
+
+        List<NthChildCondition> conditions = selectorList.getSelectors().get(0).getSubject().getNthChildConditions();
+
+        assertEquals(2, conditions.get(0).getStep());
+        assertEquals(1, conditions.get(0).getOffset());
+        assertEquals(0, conditions.get(1).getStep());
+        assertEquals(true, conditions.get(1).isFromEnd());
+        assertEquals(true, conditions.get(0).matches(3));
+        assertEquals(false, conditions.get(0).matches(4));
+    }
+
+    @Test
+    public void testParseSelectorList() {
+        SelectorList selectorList = CssParser.parse("[text=OK], android.widget.Button");
+
+        assertEquals("Unexpected number of selectors.", 2, selectorList.getSelectors().size());
+        assertEquals("//*[@text='OK'] | //android.widget.Button", selectorList.toXPath());
+    }
+
+    @Test(expected = InvalidCssQueryException.class)
+    public void testParseUnterminatedString() {
+        CssParser.parse("[text='OK]");
+    }
+
+    @Test(expected = InvalidCssQueryException.class)
+    public void testParseMissingSelectorAfterCombinator() {
+        CssParser.parse("android.widget.ListView >");
+    }
+
+    @Test(expected = InvalidCssQueryException.class)
+    public void testParseUnsupportedPseudoClass() {
+        CssParser.parse("android.widget.Button:hover");
+    }
+}
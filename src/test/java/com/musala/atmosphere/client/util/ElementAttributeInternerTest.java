@@ -0,0 +1,70 @@
+package com.musala.atmosphere.client.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+import com.musala.atmosphere.client.snapshot.UiHierarchySnapshot;
+import com.musala.atmosphere.commons.ui.tree.AccessibilityElement;
+
+/**
+ * Tests {@link ElementAttributeInterner}
+ */
+public class ElementAttributeInternerTest {
+    private static final String UI_HIERARCHY_XML = "<?xml version='1.0' encoding='UTF-8' standalone='yes' ?>"
+            + "<hierarchy rotation=\"0\">"
+            + "<node index=\"0\" text=\"First\" resource-id=\"com.example:id/item\" class=\"android.widget.TextView\" package=\"com.example\" bounds=\"[0,0][720,100]\" />"
+            + "<node index=\"1\" text=\"Second\" resource-id=\"com.example:id/item\" class=\"android.widget.TextView\" package=\"com.example\" bounds=\"[0,100][720,200]\" />"
+            + "</hierarchy>";
+
+    private final ElementAttributeInterner interner = new ElementAttributeInterner();
+
+    @Test
+    public void testInternReturnsSharedInstance() {
+        String value = interner.intern(new String("android.widget.Button"));
+
+        assertSame("The pooled instance should be returned.",
+                   value,
+                   interner.intern(new String("android.widget.Button")));
+        assertNull("Null values should not be pooled.", interner.intern((String) null));
+    }
+
+    @Test
+    public void testInternElementSharesAttributes() {
+        AccessibilityElement firstElement = createElement();
+        AccessibilityElement secondElement = createElement();
+
+        interner.intern(firstElement);
+        interner.intern(secondElement);
+
+        assertSame(firstElement.getClassName(), secondElement.getClassName());
+        assertSame(firstElement.getPackageName(), secondElement.getPackageName());
+        assertSame(firstElement.getResourceId(), secondElement.getResourceId());
+        assertEquals("android.widget.TextView", secondElement.getClassName());
+    }
+
+    @Test
+    public void testSnapshotsShareAttributes() throws Exception {
+        AccessibilityElement firstElement = UiHierarchySnapshot.parse(UI_HIERARCHY_XML, 1, interner)
+                                                               .getNodes()
+                                                               .get(0)
+                                                               .getElement();
+        AccessibilityElement secondElement = UiHierarchySnapshot.parse(UI_HIERARCHY_XML, 2, interner)
+                                                                .getNodes()
+                                                                .get(1)
+                                                                .getElement();
+
+        assertSame(firstElement.getClassName(), secondElement.getClassName());
+        assertSame(firstElement.getResourceId(), secondElement.getResourceId());
+    }
+
+    private static AccessibilityElement createElement() {
+        AccessibilityElement element = new AccessibilityElement();
+        element.setClassName(new String("android.widget.TextView"));
+        element.setPackageName(new String("com.example"));
+        element.setResourceId(new String("com.example:id/item"));
+        return element;
+    }
+}
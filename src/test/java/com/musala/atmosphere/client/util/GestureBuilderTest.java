@@ -0,0 +1,143 @@
+package com.musala.atmosphere.client.util;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import com.musala.atmosphere.commons.geometry.Point;
+import com.musala.atmosphere.commons.gesture.Anchor;
+import com.musala.atmosphere.commons.gesture.Gesture;
+import com.musala.atmosphere.commons.gesture.Timeline;
+
+/**
+ * Tests the shapes generated by the {@link GestureBuilder}.
+ */
+public class GestureBuilderTest {
+    private static final float COORDINATE_DELTA = 0.01f;
+
+    @Test
+    public void testTimelinesAreSeparated() {
+        GestureBuilder builder = new GestureBuilder(1);
+        builder.addAnchor(10, 20, 0).addAnchor(30, 40, 100);
+        builder.startTimeline().addAnchor(50, 60, 0);
+
+        Gesture gesture = builder.build();
+
+        assertEquals("Unexpected number of timelines.", 2, gesture.size());
+        assertEquals("Unexpected size of the first timeline.", 2, gesture.get(0).size());
+        assertEquals("Unexpected size of the second timeline.", 1, gesture.get(1).size());
+        assertAnchor(30, 40, 100, gesture.get(0).get(1));
+        assertAnchor(50, 60, 0, gesture.get(1).get(0));
+    }
+
+    @Test
+    public void testResetKeepsNoTimelines() {
+        GestureBuilder builder = new GestureBuilder();
+        builder.addCircle(100, 100, 50, 0, 1000, 20);
+        builder.reset().addAnchor(1, 2, 3);
+
+        assertEquals("Unexpected number of anchors after reset.", 1, builder.getAnchorCount());
+        assertEquals("Unexpected number of timelines after reset.", 1, builder.getTimelineCount());
+    }
+
+    @Test
+    public void testCircleMatchesTimelineGenerator() {
+        Timeline circle = new GestureBuilder().addCircle(200, 300, 80, 50, 1000, 20).buildTimeline(0);
+        Timeline expectedCircle = createReferenceCircle(200, 300, 80, 50, 1000, 20);
+
+        assertEquals("Unexpected number of circle anchors.", expectedCircle.size(), circle.size());
+        for (int i = 0; i < circle.size(); i++) {
+            assertAnchor(expectedCircle.get(i), circle.get(i));
+        }
+    }
+
+    @Test
+    public void testCurveTracesTheRecursiveSubdivision() {
+        Anchor start = new Anchor(100, 400, 0);
+        Anchor end = new Anchor(500, 400, 640);
+
+        Timeline curve = TimelineGenerator.createCurve(start, end, 180, true);
+        Timeline expectedCurve = createReferenceCurve(start, end, 180, true, 0);
+
+        // the recursive subdivision repeats the shared point of each pair of adjacent segments
+        assertEquals("Unexpected number of curve anchors.", expectedCurve.size() / 2 + 1, curve.size());
+        assertAnchor(expectedCurve.get(0), curve.get(0));
+        for (int i = 1; i < curve.size(); i++) {
+            assertAnchor(expectedCurve.get(2 * i - 1), curve.get(i));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCurveAngleIsValidated() {
+        new GestureBuilder().addCurve(0, 0, 0, 100, 100, 100, 360, true);
+    }
+
+    @Test
+    public void testBezierEndpointsAndTiming() {
+        Timeline bezier = TimelineGenerator.createBezier(new Anchor(0, 0, 100),
+                                                         new Point(0, 100),
+                                                         new Point(100, 100),
+                                                         new Anchor(100, 0, 500),
+                                                         4);
+
+        assertEquals("Unexpected number of Bezier anchors.", 5, bezier.size());
+        assertAnchor(0, 0, 100, bezier.get(0));
+        assertAnchor(50, 75, 300, bezier.get(2));
+        assertAnchor(100, 0, 500, bezier.get(4));
+    }
+
+    private static void assertAnchor(Anchor expected, Anchor actual) {
+        assertAnchor(expected.getX(), expected.getY(), expected.getTimeAfterStart(), actual);
+    }
+
+    private static void assertAnchor(float x, float y, int time, Anchor actual) {
+        assertEquals("Unexpected anchor abscissa.", x, actual.getX(), COORDINATE_DELTA);
+        assertEquals("Unexpected anchor ordinate.", y, actual.getY(), COORDINATE_DELTA);
+        assertEquals("Unexpected anchor time.", time, actual.getTimeAfterStart());
+    }
+
+    private static Timeline createReferenceCircle(float centerX,
+                                                  float centerY,
+                                                  float radius,
+                                                  int startTime,
+                                                  int totalDuration,
+                                                  int inSteps) {
+        final float fullRadians = (float) (Math.PI * 2.0f);
+        Timeline result = new Timeline();
+        for (float rotRad = 0; rotRad < 0.2f + fullRadians; rotRad += fullRadians / inSteps) {
+            int x = (int) (centerX + Math.cos(rotRad) * radius);
+            int y = (int) (centerY + Math.sin(rotRad) * radius);
+            result.add(new Anchor(x, y, startTime + (int) (totalDuration * (rotRad / fullRadians))));
+        }
+
+        return result;
+    }
+
+    private static Timeline createReferenceCurve(Anchor start,
+                                                 Anchor end,
+                                                 float angularDeg,
+                                                 boolean positive,
+                                                 int recursionLevel) {
+        Timeline result = new Timeline();
+        if (recursionLevel >= 5) {
+            result.add(start);
+            result.add(end);
+            return result;
+        }
+
+        double dx = end.getX() - start.getX();
+        double dy = end.getY() - start.getY();
+        double distance = Math.sqrt(dx * dx + dy * dy);
+        double beta = Math.toRadians(180.0 - angularDeg / 2.0);
+        double height = Math.sin((Math.PI - beta) / 2.0) * distance / (Math.sin(beta / 2.0f) * 2.0);
+        double normX = positive ? -dy / distance : dy / distance;
+        double normY = positive ? dx / distance : -dx / distance;
+        Anchor middle = new Anchor((float) (start.getX() + dx / 2.0f + normX * height),
+                                   (float) (start.getY() + dy / 2.0f + normY * height),
+                                   (end.getTimeAfterStart() + start.getTimeAfterStart()) / 2);
+
+        result.addAll(createReferenceCurve(start, middle, angularDeg / 2.0f, positive, recursionLevel + 1));
+        result.addAll(createReferenceCurve(middle, end, angularDeg / 2.0f, positive, recursionLevel + 1));
+        return result;
+    }
+}
@@ -0,0 +1,97 @@
+package com.musala.atmosphere.client.util;
+
+import com.musala.atmosphere.commons.geometry.Point;
+import com.musala.atmosphere.commons.gesture.Anchor;
+import com.musala.atmosphere.commons.gesture.Timeline;
+
+/**
+ * Measures the cost of generating gesture shapes, comparing the {@link Timeline} based generation of the
+ * {@link TimelineGenerator} with a reused {@link GestureBuilder}. Not a unit test - run the {@link #main(String[])
+ * main} method manually.
+ */
+public class GestureGenerationBenchmark {
+    private static final int WARMUP_ITERATIONS = 200_000;
+
+    private static final int MEASURED_ITERATIONS = 1_000_000;
+
+    private static final Anchor CURVE_START = new Anchor(100, 400, 0);
+
+    private static final Anchor CURVE_END = new Anchor(500, 400, 640);
+
+    private static final Point CIRCLE_CENTER = new Point(300, 300);
+
+    private static final Point FIRST_CONTROL = new Point(100, 100);
+
+    private static final Point SECOND_CONTROL = new Point(500, 100);
+
+    /**
+     * A single gesture generation. Returns the number of generated anchors, so the work can not be optimized away.
+     */
+    private interface Operation {
+        int run();
+    }
+
+    public static void main(String[] args) {
+        final GestureBuilder builder = new GestureBuilder();
+
+        measure("curve, TimelineGenerator", new Operation() {
+            @Override
+            public int run() {
+                return TimelineGenerator.createCurve(CURVE_START, CURVE_END, 180, true).size();
+            }
+        });
+        measure("curve, reused GestureBuilder", new Operation() {
+            @Override
+            public int run() {
+                return builder.reset().addCurve(100, 400, 0, 500, 400, 640, 180, true).getAnchorCount();
+            }
+        });
+
+        measure("circle, TimelineGenerator", new Operation() {
+            @Override
+            public int run() {
+                return TimelineGenerator.createCircle(CIRCLE_CENTER, 100).size();
+            }
+        });
+        measure("circle, reused GestureBuilder", new Operation() {
+            @Override
+            public int run() {
+                return builder.reset().addCircle(300, 300, 100, 0, 1000, 20).getAnchorCount();
+            }
+        });
+
+        measure("bezier, TimelineGenerator", new Operation() {
+            @Override
+            public int run() {
+                return TimelineGenerator.createBezier(CURVE_START, FIRST_CONTROL, SECOND_CONTROL, CURVE_END, 32)
+                                        .size();
+            }
+        });
+        measure("bezier, reused GestureBuilder", new Operation() {
+            @Override
+            public int run() {
+                return builder.reset()
+                              .addBezier(100, 400, 100, 100, 500, 100, 500, 400, 0, 640, 32)
+                              .getAnchorCount();
+            }
+        });
+    }
+
+    private static void measure(String name, Operation operation) {
+        long anchors = 0;
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            anchors += operation.run();
+        }
+
+        long startTime = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            anchors += operation.run();
+        }
+        long elapsedTime = System.nanoTime() - startTime;
+
+        System.out.println(String.format("%-32s %8.1f ns/op (%d anchors)",
+                                         name,
+                                         (double) elapsedTime / MEASURED_ITERATIONS,
+                                         anchors));
+    }
+}
@@ -0,0 +1,81 @@
+package com.musala.atmosphere.client.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+import org.junit.Test;
+
+import com.musala.atmosphere.client.util.QueryProfile.Plan;
+import com.musala.atmosphere.client.util.QueryProfiler.Trace;
+import com.musala.atmosphere.commons.ui.selector.UiElementSelector;
+
+/**
+ * Tests {@link QueryProfiler}
+ */
+public class QueryProfilerTest {
+    @Test
+    public void testDisabledProfilerRecordsNothing() {
+        QueryProfiler queryProfiler = new QueryProfiler();
+
+        Trace trace = queryProfiler.begin("[text=OK]", null, Plan.REMOTE_SELECTOR);
+        trace.setMatchCount(1);
+        trace.finish();
+
+        assertNull("Nothing should be recorded.", queryProfiler.getLastProfile());
+        assertEquals("", queryProfiler.explain());
+    }
+
+    @Test
+    public void testSelectorTextIsBuiltOnlyWhenEnabled() {
+        QueryProfiler queryProfiler = new QueryProfiler();
+        UiElementSelector selector = mock(UiElementSelector.class);
+        when(selector.buildCssQuery()).thenReturn("[text=OK]");
+
+        queryProfiler.begin(selector, Plan.REMOTE_SELECTOR).finish();
+        verifyZeroInteractions(selector);
+
+        queryProfiler.setEnabled(true);
+        queryProfiler.begin(selector, Plan.REMOTE_SELECTOR).finish();
+        assertEquals("[text=OK]", queryProfiler.getLastProfile().getQuery());
+    }
+
+    @Test
+    public void testKeepsMostRecentLookups() {
+        QueryProfiler queryProfiler = new QueryProfiler(2);
+        queryProfiler.setEnabled(true);
+
+        for (int i = 0; i < 3; i++) {
+            Trace trace = queryProfiler.begin("query" + i, null, Plan.REMOTE_SELECTOR);
+            trace.setMatchCount(i);
+            trace.finish();
+        }
+
+        assertEquals("Unexpected number of recorded lookups.", 2, queryProfiler.getProfiles().size());
+        assertEquals("query1", queryProfiler.getProfiles().get(0).getQuery());
+        assertEquals("query2", queryProfiler.getLastProfile().getQuery());
+    }
+
+    @Test
+    public void testExplainRemoteLookup() {
+        QueryProfiler queryProfiler = new QueryProfiler();
+        queryProfiler.setEnabled(true);
+
+        Trace trace = queryProfiler.begin("[text=OK]", "//*[@text='OK']", Plan.REMOTE_XPATH);
+        trace.finish();
+
+        QueryProfile profile = queryProfiler.getLastProfile();
+        assertEquals("A remote lookup takes a round trip.", 1, profile.getRoundTrips());
+        assertEquals("Unfinished matching should be recorded as failed.",
+                     QueryProfile.NOT_MEASURED,
+                     profile.getMatchCount());
+
+        String explanation = queryProfiler.explain();
+        assertTrue(explanation, explanation.contains("remote query, XPath"));
+        assertTrue(explanation, explanation.contains("//*[@text='OK']"));
+        assertTrue(explanation, explanation.contains("failed"));
+    }
+}